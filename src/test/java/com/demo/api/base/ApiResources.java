@@ -0,0 +1,17 @@
+package com.demo.api.base;
+
+/**
+ * Names of shared remote resources used with JUnit's {@code @ResourceLock}.
+ *
+ * <p>Tests run in parallel (see {@code junit-platform.properties}). Tests that only read a resource
+ * lock it in {@code READ} mode and may run together; tests that modify it lock it in
+ * {@code READ_WRITE} mode and run exclusively with respect to other users of the same resource.</p>
+ */
+public final class ApiResources {
+
+    /** The {@code /api/users} collection. */
+    public static final String USERS = "api.users";
+
+    private ApiResources() {
+    }
+}
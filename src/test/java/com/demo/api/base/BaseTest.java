@@ -1,22 +1,24 @@
 package com.demo.api.base;
 
 import com.demo.api.utilities.Config;
-import io.restassured.builder.RequestSpecBuilder;
+import com.demo.api.utilities.RequestSpecs;
 import io.restassured.specification.RequestSpecification;
 import io.qameta.allure.Allure;
 import io.qameta.allure.junit5.AllureJunit5;
 
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.InputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.TestInfo;
 import org.junit.jupiter.api.extension.ExtendWith;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
 
 /**
  * Abstract base class for configuring reusable REST-assured request specifications.
@@ -28,14 +30,32 @@ import org.slf4j.LoggerFactory;
  * </ul>
  *
  * <p>Configuration values such as the base URI and API key are loaded from {@code config.properties}
- * using the {@link Config} utility class.</p>
+ * using the {@link Config} utility class; with {@code stub.enabled=true} {@link LocalStubExtension} points them at
+ * the embedded stand-in instead. Both specifications are shared JVM-wide through {@link RequestSpecs},
+ * which also owns the pooled keep-alive HTTP connections.</p>
+ *
+ * <p>Tests run in parallel. Each test method gets its own instance, and every log line written on the
+ * test thread carries the test's id in the {@value #TEST_ID_KEY} MDC key so that the log attached to
+ * Allure contains only that test's lines.</p>
+ *
+ * <p>Users created through {@link com.demo.api.utilities.UserApiHelper} and not deleted by the tests
+ * are removed at the end of the run by {@link CleanupExtension}. Request timings and counters are exported
+ * at the end of the run by {@link RequestMetricsExtension}. Test durations and outcomes are
+ * recorded by {@link TestHistoryExtension} and order the next run through {@link HistoryOrderer}.</p>
  *
  * <p>All test classes should extend this base class to reuse and standardize request configurations.</p>
  */
-@ExtendWith(AllureJunit5.class)
+@ExtendWith({LocalStubExtension.class, AllureJunit5.class, RequestMetricsExtension.class, CleanupExtension.class, TestHistoryExtension.class})
 public abstract class BaseTest {
 
-    protected static final Logger LOGGER = LoggerFactory.getLogger(BaseTest.class);
+    /** MDC key holding the id of the test running on the current thread. */
+    public static final String TEST_ID_KEY = "testId";
+
+    // Numbers the test invocations of this JVM, so repeated and parameterized invocations get ids of their own
+    private static final AtomicLong INVOCATIONS = new AtomicLong();
+
+    /** Logger named after the concrete test class. */
+    protected final Logger logger = LoggerFactory.getLogger(getClass());
 
     /** Request specification for endpoints that require authentication via API key. */
     protected RequestSpecification withApiKey;
@@ -43,50 +63,43 @@ public abstract class BaseTest {
     /** Request specification for endpoints that do not require authentication. */
     protected RequestSpecification withoutApiKey;
 
+    /** Id of the running test invocation, e.g. {@code UserReadTests.shouldReturn404_whenUserIdIsInvalid#7}. */
+    private String testId;
+
     /**
-     * Initializes both request specifications before each test.
-     * This ensures consistent and reusable setup across all test cases.
+     * Assigns both request specifications before each test.
+     * The specifications are built once per JVM by {@link RequestSpecs} and must not be modified by tests.
+     *
+     * @param testInfo information about the test about to run
      */
     @BeforeEach
-    public void setup() {
-        // Load configuration values
-        String baseUrl = Config.getBaseUri();
-        String apiKey = Config.getApiKey();
-
-        // Specification with API key for authenticated requests
-        withApiKey = new RequestSpecBuilder()
-                .setBaseUri(baseUrl)
-                .addHeader("x-api-key", apiKey)
-                .setContentType("application/json")
-                .build();
+    public void setup(TestInfo testInfo) {
+        testId = getClass().getSimpleName() + "." + testInfo.getTestMethod().map(Method::getName).orElse("unknown")
+                + "#" + INVOCATIONS.incrementAndGet();
+        MDC.put(TEST_ID_KEY, testId);
+        TestLogCaptureAppender.begin(testId);
 
-        // Specification without API key for unauthenticated or negative tests
-        withoutApiKey = new RequestSpecBuilder()
-                .setBaseUri(baseUrl)
-                .setContentType("application/json")
-                .build();
+        // Shared specifications, built once per JVM on top of the pooled HTTP client
+        withApiKey = RequestSpecs.withApiKey();
+        withoutApiKey = RequestSpecs.withoutApiKey();
 
-        // Debug log output
-        LOGGER.info("Base URI: {}", baseUrl);
-        LOGGER.info("Api Key: {}", apiKey);
-        LOGGER.debug("[BaseTest] Setup complete before each test.");
+        logger.debug("[BaseTest] Setup complete before each test.");
     }
 
     /**
-     * Attaches the execution log file to the Allure report after each test.
+     * Attaches this test's execution log lines to the Allure report after each test.
      *
-     * <p>If a log file is found at {@code target/logs/test-info.log}, it is attached as a plain-text
-     * file to the Allure report to aid debugging and traceability.</p>
+     * <p>The lines are captured per test by {@link TestLogCaptureAppender} while the test runs, so each
+     * attachment holds only this test's output, independent of suite size and of concurrently running tests.</p>
      */
     @AfterEach
     void attachLogsToAllure() {
-        File logFile = new File("target/logs/test-info.log");
-        if (logFile.exists()) {
-            try (InputStream is = new FileInputStream(logFile)) {
-                Allure.addAttachment("Execution Log", "text/plain", is, ".log");
-            } catch (IOException e) {
-                System.err.println("Failed to attach log file to Allure report: " + e.getMessage());
-            }
+        try (InputStream log = TestLogCaptureAppender.end(testId)) {
+            Allure.addAttachment("Execution Log", "text/plain", log, ".log");
+        } catch (IOException e) {
+            System.err.println("Failed to attach log to Allure report: " + e.getMessage());
+        } finally {
+            MDC.remove(TEST_ID_KEY);
         }
     }
 }
@@ -0,0 +1,43 @@
+package com.demo.api.base;
+
+import com.demo.api.utilities.CreatedUserRegistry;
+
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Deletes the users left behind by the test run once all tests have finished.
+ *
+ * <p>On first use the extension stores a resource in the root {@link ExtensionContext.Store}; JUnit
+ * closes it after the last test of the run, at which point {@link CreatedUserRegistry#cleanup()} deletes
+ * every created user that no test deleted itself. Registered on {@link BaseTest}.</p>
+ */
+public class CleanupExtension implements BeforeAllCallback {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CleanupExtension.class);
+
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(CleanupExtension.class);
+
+    @Override
+    public void beforeAll(ExtensionContext context) {
+        context.getRoot().getStore(NAMESPACE)
+                .getOrComputeIfAbsent(CreatedUserRegistry.class, key -> new RunCleanup(), RunCleanup.class);
+    }
+
+    private static final class RunCleanup implements ExtensionContext.Store.CloseableResource {
+
+        @Override
+        public void close() {
+            if (!CreatedUserRegistry.isEnabled()) {
+                return;
+            }
+            int failed = CreatedUserRegistry.cleanup();
+            if (failed > 0) {
+                LOGGER.warn("{} created users could not be cleaned up", failed);
+            }
+        }
+    }
+}
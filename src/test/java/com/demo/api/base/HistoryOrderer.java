@@ -0,0 +1,93 @@
+package com.demo.api.base;
+
+import com.demo.api.utilities.Config;
+
+import org.junit.jupiter.api.ClassDescriptor;
+import org.junit.jupiter.api.ClassOrderer;
+import org.junit.jupiter.api.ClassOrdererContext;
+import org.junit.jupiter.api.MethodDescriptor;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.MethodOrdererContext;
+
+import java.util.Comparator;
+import java.util.function.Function;
+
+/**
+ * Orders test classes and test methods by {@link TestHistory} so that useful feedback arrives first.
+ *
+ * <p>Within a run, and within each class, tests are started in this order:</p>
+ * <ol>
+ *     <li>tests that failed within the last {@code history.recent.runs} runs, fastest first;</li>
+ *     <li>tests that never ran before, by name;</li>
+ *     <li>all other tests by their mean duration, fastest first, then by name.</li>
+ * </ol>
+ * <p>Tests still run concurrently; the order decides which ones are handed to the worker threads first.
+ * With no history file the order is by name, the same on every machine.</p>
+ *
+ * <p>Set as the default class and method orderer in {@code junit-platform.properties}. A class that declares
+ * its own {@code @TestMethodOrder} keeps it.</p>
+ */
+public class HistoryOrderer implements ClassOrderer, MethodOrderer {
+
+    @Override
+    public void orderClasses(ClassOrdererContext context) {
+        context.getClassDescriptors().sort(Comparator.comparing(
+                ClassDescriptor::getTestClass, comparator(Class::getName)));
+    }
+
+    @Override
+    public void orderMethods(MethodOrdererContext context) {
+        String prefix = context.getTestClass().getName() + "#";
+        context.getMethodDescriptors().sort(Comparator.comparing(
+                MethodDescriptor::getMethod, comparator(method -> prefix + method.getName())));
+    }
+
+    /**
+     * Returns whether durations are recorded and used for ordering and sharding.
+     *
+     * @return the value of {@code history.enabled} (default false)
+     */
+    static boolean isEnabled() {
+        return Holder.ENABLED;
+    }
+
+    static <T> Comparator<T> comparator(Function<T, String> key) {
+        return comparator(isEnabled() ? TestHistory.shared() : null, key);
+    }
+
+    /**
+     * Returns the order described above for items identified by a class or method key.
+     *
+     * @param history the history to order by, or {@code null} to order by name only
+     * @param key     the key of an item, e.g. {@code com.demo.api.tests.UserReadTests#shouldReturn404_whenUserIdIsInvalid}
+     * @param <T>     the item type
+     * @return the comparator
+     */
+    public static <T> Comparator<T> comparator(TestHistory history, Function<T, String> key) {
+        return Comparator.<T>comparingInt(item -> rank(history, key.apply(item)))
+                .thenComparingDouble(item -> meanMillis(history, key.apply(item)))
+                .thenComparing(key);
+    }
+
+    // 0 = failed recently, 1 = new, 2 = known and passing
+    private static int rank(TestHistory history, String key) {
+        if (history == null) {
+            return 1;
+        }
+        if (history.failedRecently(key)) {
+            return 0;
+        }
+        return history.get(key) == null ? 1 : 2;
+    }
+
+    private static double meanMillis(TestHistory history, String key) {
+        TestHistory.Entry entry = history == null ? null : history.get(key);
+        return entry == null ? 0 : entry.getMeanMillis();
+    }
+
+    // Lazy holder: read once, on first use
+    private static final class Holder {
+
+        static final boolean ENABLED = Config.getBoolean("history.enabled", false);
+    }
+}
@@ -0,0 +1,156 @@
+package com.demo.api.base;
+
+import com.demo.api.utilities.Config;
+
+import org.junit.platform.engine.FilterResult;
+import org.junit.platform.engine.TestDescriptor;
+import org.junit.platform.engine.support.descriptor.ClassSource;
+import org.junit.platform.launcher.PostDiscoveryFilter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Splits the test classes of a run into {@code test.shard.count} shards of about equal wall-clock time and
+ * keeps only the classes of shard {@code test.shard.index}.
+ *
+ * <p>Classes are weighed by their mean duration in {@link TestHistory}; a class with no history weighs as
+ * much as the median known class. They are then assigned longest first, each to the shard with the least
+ * time so far. Every shard sees the same discovered classes and the same history file, so every shard
+ * computes the same assignment and each class runs in exactly one of them.</p>
+ *
+ * <p>Registered through {@code META-INF/services/org.junit.platform.launcher.PostDiscoveryFilter}; with the
+ * default {@code test.shard.count=1} it keeps everything. Shards are meant to run as parallel Maven
+ * invocations, e.g. one per CI job, started from the same history file. A run of a single class
+ * ({@code -Dtest=UserReadTests}) is never split.</p>
+ * <pre>
+ *     mvn test -Dtest.shard.count=2 -Dtest.shard.index=0
+ *     mvn test -Dtest.shard.count=2 -Dtest.shard.index=1
+ * </pre>
+ */
+public class HistoryShardFilter implements PostDiscoveryFilter {
+
+    private final int count = Config.getInt("test.shard.count", 1);
+    private final int index = Config.getInt("test.shard.index", 0);
+
+    // Shard assignment per discovered tree, computed on the first class of that tree; descriptors compare by
+    // unique id, and every engine root has the same one
+    private final Map<TestDescriptor, Set<String>> shards = new IdentityHashMap<>();
+
+    public HistoryShardFilter() {
+        if (count < 1 || index < 0 || index >= count) {
+            throw new IllegalArgumentException("Expected 0 <= test.shard.index < test.shard.count, got "
+                    + index + " and " + count);
+        }
+    }
+
+    @Override
+    public FilterResult apply(TestDescriptor descriptor) {
+        // The launcher only removes descriptors without children, so leaves are judged by their class
+        String className = count == 1 ? null : enclosingClass(descriptor);
+        if (className == null) {
+            return FilterResult.included("not sharded");
+        }
+        Set<String> shard;
+        synchronized (shards) {
+            shard = shards.computeIfAbsent(root(descriptor), this::assign);
+        }
+        return shard.contains(className)
+                ? FilterResult.included("in shard " + index + " of " + count)
+                : FilterResult.excluded("in another shard of " + count);
+    }
+
+    private Set<String> assign(TestDescriptor root) {
+        Set<String> classes = new LinkedHashSet<>();
+        collectClasses(root, classes);
+        if (classes.size() == 1) {
+            // Surefire discovers each class on its own before the real run to see whether it has tests
+            return classes;
+        }
+        return new LinkedHashSet<>(balance(new ArrayList<>(classes), count,
+                HistoryOrderer.isEnabled() ? TestHistory.shared() : null).get(index));
+    }
+
+    /**
+     * Assigns classes to shards, longest first, each to the shard with the least total duration so far.
+     *
+     * @param classes the class names
+     * @param count   the number of shards
+     * @param history the history giving the durations, or {@code null} to weigh all classes equally
+     * @return the class names of each shard
+     */
+    public static List<List<String>> balance(List<String> classes, int count, TestHistory history) {
+        double fallback = medianMillis(classes, history);
+        Map<String, Double> weights = new HashMap<>();
+        for (String className : classes) {
+            TestHistory.Entry entry = history == null ? null : history.get(className);
+            weights.put(className, entry == null ? fallback : entry.getMeanMillis());
+        }
+        List<String> sorted = new ArrayList<>(classes);
+        sorted.sort(Comparator.<String>comparingDouble(weights::get).reversed().thenComparing(Comparator.naturalOrder()));
+
+        List<List<String>> shards = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            shards.add(new ArrayList<>());
+        }
+        double[] loads = new double[count];
+        for (String className : sorted) {
+            int lightest = 0;
+            for (int i = 1; i < count; i++) {
+                if (loads[i] < loads[lightest]) {
+                    lightest = i;
+                }
+            }
+            shards.get(lightest).add(className);
+            loads[lightest] += weights.get(className);
+        }
+        return shards;
+    }
+
+    private static double medianMillis(List<String> classes, TestHistory history) {
+        double[] known = classes.stream()
+                .map(className -> history == null ? null : history.get(className))
+                .filter(entry -> entry != null)
+                .mapToDouble(TestHistory.Entry::getMeanMillis)
+                .toArray();
+        if (known.length == 0) {
+            return 1;
+        }
+        Arrays.sort(known);
+        return known[known.length / 2];
+    }
+
+    private static void collectClasses(TestDescriptor descriptor, Set<String> classes) {
+        for (TestDescriptor child : descriptor.getChildren()) {
+            if (child.getSource().orElse(null) instanceof ClassSource) {
+                classes.add(((ClassSource) child.getSource().get()).getClassName());
+            } else {
+                collectClasses(child, classes);
+            }
+        }
+    }
+
+    private static String enclosingClass(TestDescriptor descriptor) {
+        for (TestDescriptor d = descriptor; d != null; d = d.getParent().orElse(null)) {
+            if (d.getSource().orElse(null) instanceof ClassSource) {
+                return ((ClassSource) d.getSource().get()).getClassName();
+            }
+        }
+        return null;
+    }
+
+    private static TestDescriptor root(TestDescriptor descriptor) {
+        TestDescriptor root = descriptor;
+        while (root.getParent().isPresent()) {
+            root = root.getParent().get();
+        }
+        return root;
+    }
+}
@@ -0,0 +1,45 @@
+package com.demo.api.base;
+
+import com.demo.api.stub.FaultInjectionProxy;
+import com.demo.api.stub.LocalUserApiServer;
+import com.demo.api.utilities.Config;
+
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Points the test run at the embedded stand-in and the fault injection proxy when they are enabled.
+ *
+ * <p>Before the first test class runs, {@code stub.enabled=true} starts the shared {@link LocalUserApiServer}
+ * and {@code proxy.enabled=true} starts the shared {@link FaultInjectionProxy} in front of the stand-in or
+ * {@code base.uri}. The resulting address is published as the {@code base.uri} system property, which takes
+ * precedence over {@code config.properties}, so {@link Config#getBaseUri()} and the shared specifications use
+ * it. With both flags off nothing is started. Registered on {@link BaseTest} ahead of the other extensions.</p>
+ */
+public class LocalStubExtension implements BeforeAllCallback {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LocalStubExtension.class);
+
+    @Override
+    public void beforeAll(ExtensionContext context) {
+        LOGGER.debug("Base URI for this run: {}", Holder.BASE_URI);
+    }
+
+    private static String resolve() {
+        String baseUri = Config.isStubEnabled() ? LocalUserApiServer.shared().getBaseUri() : Config.get("base.uri");
+        if (Config.getBoolean("proxy.enabled", false)) {
+            baseUri = FaultInjectionProxy.shared(baseUri).getBaseUri();
+        }
+        System.setProperty("base.uri", baseUri);
+        return baseUri;
+    }
+
+    // Lazy holder: the stand-in and the proxy are started once per JVM, on first use
+    private static final class Holder {
+
+        static final String BASE_URI = resolve();
+    }
+}
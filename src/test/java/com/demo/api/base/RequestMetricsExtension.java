@@ -0,0 +1,88 @@
+package com.demo.api.base;
+
+import com.demo.api.utilities.Config;
+import com.demo.api.utilities.RequestMetrics;
+
+import io.qameta.allure.Allure;
+import io.qameta.allure.AllureLifecycle;
+import io.qameta.allure.model.Label;
+import io.qameta.allure.model.Status;
+import io.qameta.allure.model.TestResult;
+
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Exports the {@link RequestMetrics} of the whole run once all tests have finished.
+ *
+ * <p>Writes {@code request-metrics.json} and {@code request-metrics.prom} (Prometheus text format) to
+ * {@code metrics.output.dir} and adds a "Request metrics" entry with the summary table to the Allure
+ * report. Registered on {@link BaseTest}, like {@link CleanupExtension}.</p>
+ */
+public class RequestMetricsExtension implements BeforeAllCallback {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RequestMetricsExtension.class);
+
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(RequestMetricsExtension.class);
+
+    @Override
+    public void beforeAll(ExtensionContext context) {
+        context.getRoot().getStore(NAMESPACE)
+                .getOrComputeIfAbsent(RequestMetrics.class, key -> new RunExport(), RunExport.class);
+    }
+
+    private static final class RunExport implements ExtensionContext.Store.CloseableResource {
+
+        @Override
+        public void close() {
+            RequestMetrics metrics = RequestMetrics.global();
+            if (!RequestMetrics.isEnabled() || metrics.getEndpoints().isEmpty()) {
+                return;
+            }
+
+            String summary = metrics.summary();
+            LOGGER.info("Request metrics:\n{}", summary);
+
+            Path directory = Paths.get(Config.get("metrics.output.dir", "target/metrics"));
+            try {
+                Files.createDirectories(directory);
+                Files.write(directory.resolve("request-metrics.json"), metrics.toJson().getBytes(StandardCharsets.UTF_8));
+                Files.write(directory.resolve("request-metrics.prom"), metrics.toPrometheus().getBytes(StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                LOGGER.warn("Failed to write request metrics to {}: {}", directory, e.getMessage());
+            }
+
+            attachToAllure(summary);
+        }
+
+        // No test is running at this point, so the summary gets its own report entry
+        private static void attachToAllure(String summary) {
+            AllureLifecycle lifecycle = Allure.getLifecycle();
+            String uuid = UUID.randomUUID().toString();
+            lifecycle.scheduleTestCase(new TestResult()
+                    .setUuid(uuid)
+                    .setHistoryId("request-metrics")
+                    .setName("Request metrics")
+                    .setFullName(RequestMetricsExtension.class.getName())
+                    .setStatus(Status.PASSED)
+                    .setLabels(List.of(
+                            new Label().setName("epic").setValue("User API"),
+                            new Label().setName("feature").setValue("Performance"))));
+            lifecycle.startTestCase(uuid);
+            Allure.addAttachment("Request Metrics", "text/plain", summary, ".txt");
+            lifecycle.stopTestCase(uuid);
+            lifecycle.writeTestCase(uuid);
+        }
+    }
+}
@@ -0,0 +1,291 @@
+package com.demo.api.base;
+
+import com.demo.api.utilities.Config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Durations and outcomes of previous runs, per test class and per test method.
+ *
+ * <p>Stored as a small tab-separated file ({@code history.file}, default
+ * {@code target/test-history/test-history.tsv}):</p>
+ * <pre>
+ *     #run    42
+ *     com.demo.api.tests.UserReadTests                         runs=40  mean_ms=812.5  last_run=42  last_failed_run=37
+ *     com.demo.api.tests.UserReadTests#shouldReturn404_...     runs=40  mean_ms=9.1    last_run=42  last_failed_run=-1
+ * </pre>
+ *
+ * <p>Each entry keeps an exponentially weighted mean of its duration ({@code history.alpha}, default 0.3),
+ * so a test that got slower is reflected after a few runs without one outlier dominating. A key "failed
+ * recently" if it failed within the last {@code history.recent.runs} runs (default 3).</p>
+ *
+ * <p>{@link #shared()} is the history as it was when the JVM started; the observations of the current run
+ * are merged into the file by {@link TestHistoryExtension} when the run ends, under a file lock so that
+ * concurrent shards do not overwrite each other.</p>
+ */
+public final class TestHistory {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TestHistory.class);
+
+    /** One history line. */
+    public static final class Entry {
+
+        private final int runs;
+        private final double meanMillis;
+        private final long lastRun;
+        private final long lastFailedRun;
+
+        Entry(int runs, double meanMillis, long lastRun, long lastFailedRun) {
+            this.runs = runs;
+            this.meanMillis = meanMillis;
+            this.lastRun = lastRun;
+            this.lastFailedRun = lastFailedRun;
+        }
+
+        public int getRuns() {
+            return runs;
+        }
+
+        public double getMeanMillis() {
+            return meanMillis;
+        }
+
+        public long getLastRun() {
+            return lastRun;
+        }
+
+        public long getLastFailedRun() {
+            return lastFailedRun;
+        }
+    }
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final double alpha;
+    private final int recentRuns;
+    private volatile long run;
+
+    /**
+     * Creates an empty history.
+     *
+     * @param alpha      weight of the newest duration in the mean, between 0 and 1
+     * @param recentRuns number of runs within which a failure counts as recent
+     */
+    public TestHistory(double alpha, int recentRuns) {
+        if (alpha <= 0 || alpha > 1) {
+            throw new IllegalArgumentException("Alpha must be in (0, 1], got " + alpha);
+        }
+        this.alpha = alpha;
+        this.recentRuns = recentRuns;
+    }
+
+    /**
+     * Returns the history read from {@code history.file} when first used.
+     *
+     * @return the JVM-wide history of previous runs
+     */
+    public static TestHistory shared() {
+        return Holder.SHARED;
+    }
+
+    static Path file() {
+        return Paths.get(Config.get("history.file", "target/test-history/test-history.tsv"));
+    }
+
+    /**
+     * Returns the number of the last recorded run, 0 if there is none.
+     *
+     * @return the last run number
+     */
+    public long getRun() {
+        return run;
+    }
+
+    /**
+     * Returns the entry of a test class ({@code com.demo.api.tests.UserReadTests}) or method
+     * ({@code com.demo.api.tests.UserReadTests#shouldReturn404_whenUserIdIsInvalid}).
+     *
+     * @param key the class name, or the class name and method name separated by {@code #}
+     * @return the entry, or {@code null} if the key never ran
+     */
+    public Entry get(String key) {
+        return entries.get(key);
+    }
+
+    /**
+     * Returns whether the key failed within the last {@code history.recent.runs} runs.
+     *
+     * @param key the class or method key
+     * @return whether it failed recently
+     */
+    public boolean failedRecently(String key) {
+        Entry entry = entries.get(key);
+        return entry != null && entry.lastFailedRun >= 0 && run - entry.lastFailedRun < recentRuns;
+    }
+
+    /**
+     * Returns the keys of all test classes in the history.
+     *
+     * @return the class keys
+     */
+    public List<String> getClassKeys() {
+        List<String> keys = new ArrayList<>();
+        for (String key : entries.keySet()) {
+            if (key.indexOf('#') < 0) {
+                keys.add(key);
+            }
+        }
+        keys.sort(Comparator.naturalOrder());
+        return keys;
+    }
+
+    /**
+     * Merges the observations of one run into this history and advances the run number.
+     *
+     * @param observations duration in milliseconds and outcome per key
+     */
+    public synchronized void merge(Collection<Observation> observations) {
+        long current = run + 1;
+        for (Observation observation : observations) {
+            entries.compute(observation.key, (key, previous) -> {
+                long lastFailed = observation.failed ? current : previous == null ? -1 : previous.lastFailedRun;
+                if (previous == null) {
+                    return new Entry(1, observation.millis, current, lastFailed);
+                }
+                double mean = alpha * observation.millis + (1 - alpha) * previous.meanMillis;
+                return new Entry(previous.runs + 1, mean, current, lastFailed);
+            });
+        }
+        run = current;
+    }
+
+    /** Duration and outcome of one class or method in the current run. */
+    public static final class Observation {
+
+        final String key;
+        final double millis;
+        final boolean failed;
+
+        /**
+         * Creates an observation.
+         *
+         * @param key    the class key, or the class and method key separated by {@code #}
+         * @param millis the duration in milliseconds
+         * @param failed whether the class or method failed
+         */
+        public Observation(String key, double millis, boolean failed) {
+            this.key = key;
+            this.millis = millis;
+            this.failed = failed;
+        }
+    }
+
+    /**
+     * Reads a history file; a missing or unreadable file gives an empty history.
+     *
+     * @param file the history file
+     * @return the history
+     */
+    public static TestHistory load(Path file) {
+        TestHistory history = new TestHistory(Config.getDouble("history.alpha", 0.3),
+                Config.getInt("history.recent.runs", 3));
+        if (Files.exists(file)) {
+            try {
+                history.read(Files.readAllLines(file, StandardCharsets.UTF_8));
+            } catch (IOException | RuntimeException e) {
+                LOGGER.warn("Ignoring unreadable test history {}: {}", file, e.toString());
+                history.entries.clear();
+            }
+        }
+        return history;
+    }
+
+    /**
+     * Merges the observations of this run into the file, re-reading it under a lock first.
+     *
+     * @param file         the history file
+     * @param observations the observations of this run
+     * @throws IOException if the file cannot be written
+     */
+    public static void mergeInto(Path file, Collection<Observation> observations) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        Path lockFile = file.resolveSibling(file.getFileName() + ".lock");
+        try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            FileLock lock = channel.lock();
+            try {
+                TestHistory history = load(file);
+                history.merge(observations);
+                Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+                Files.write(temp, history.format().getBytes(StandardCharsets.UTF_8));
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                lock.release();
+            }
+        }
+    }
+
+    private void read(List<String> lines) {
+        for (String line : lines) {
+            if (line.isBlank()) {
+                continue;
+            }
+            String[] fields = line.split("\t");
+            if (fields[0].equals("#run")) {
+                run = Long.parseLong(fields[1].trim());
+                continue;
+            }
+            Map<String, String> values = new HashMap<>();
+            for (int i = 1; i < fields.length; i++) {
+                int eq = fields[i].indexOf('=');
+                values.put(fields[i].substring(0, eq), fields[i].substring(eq + 1));
+            }
+            entries.put(fields[0], new Entry(
+                    Integer.parseInt(values.get("runs")),
+                    Double.parseDouble(values.get("mean_ms")),
+                    Long.parseLong(values.get("last_run")),
+                    Long.parseLong(values.get("last_failed_run"))));
+        }
+    }
+
+    private String format() {
+        StringBuilder sb = new StringBuilder("#run\t").append(run).append('\n');
+        for (Map.Entry<String, Entry> e : new TreeMap<>(entries).entrySet()) {
+            Entry entry = e.getValue();
+            sb.append(e.getKey())
+                    .append("\truns=").append(entry.runs)
+                    .append("\tmean_ms=").append(String.format(Locale.ROOT, "%.1f", entry.meanMillis))
+                    .append("\tlast_run=").append(entry.lastRun)
+                    .append("\tlast_failed_run=").append(entry.lastFailedRun)
+                    .append('\n');
+        }
+        return sb.toString();
+    }
+
+    // Lazy holder: read once, before the first class or method is ordered
+    private static final class Holder {
+
+        static final TestHistory SHARED = load(file());
+    }
+}
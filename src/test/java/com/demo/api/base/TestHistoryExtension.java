@@ -0,0 +1,119 @@
+package com.demo.api.base;
+
+import org.junit.jupiter.api.extension.AfterAllCallback;
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records the duration and outcome of every test class and test method into {@link TestHistory}.
+ *
+ * <p>A class is timed from before its first {@code @BeforeAll} callback to after its last {@code @AfterAll}
+ * callback, and counts as failed if any of its tests failed. A method is timed around its body only, so
+ * that waiting for a {@code @ResourceLock} does not count against it; repeated and parameterized invocations
+ * add up under the method's key.</p>
+ *
+ * <p>Like {@link CleanupExtension}, the observations live in a resource of the root
+ * {@link ExtensionContext.Store}; JUnit closes it after the last test of the run, at which point they are
+ * merged into {@code history.file}. Registered on {@link BaseTest}; {@code history.enabled=false} turns
+ * recording off.</p>
+ */
+public class TestHistoryExtension implements BeforeAllCallback, AfterAllCallback,
+        BeforeTestExecutionCallback, AfterTestExecutionCallback {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TestHistoryExtension.class);
+
+    private static final ExtensionContext.Namespace NAMESPACE =
+            ExtensionContext.Namespace.create(TestHistoryExtension.class);
+
+    private static final String STARTED = "started";
+
+    @Override
+    public void beforeAll(ExtensionContext context) {
+        if (!HistoryOrderer.isEnabled()) {
+            return;
+        }
+        run(context);
+        context.getStore(NAMESPACE).put(STARTED, System.nanoTime());
+    }
+
+    @Override
+    public void afterAll(ExtensionContext context) {
+        Long started = context.getStore(NAMESPACE).remove(STARTED, Long.class);
+        if (started == null) {
+            return;
+        }
+        run(context).record(context.getRequiredTestClass().getName(), System.nanoTime() - started,
+                context.getExecutionException().isPresent());
+    }
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        if (HistoryOrderer.isEnabled()) {
+            context.getStore(NAMESPACE).put(STARTED, System.nanoTime());
+        }
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        Long started = context.getStore(NAMESPACE).remove(STARTED, Long.class);
+        if (started == null) {
+            return;
+        }
+        boolean failed = context.getExecutionException().isPresent();
+        RunHistory run = run(context);
+        run.record(key(context), System.nanoTime() - started, failed);
+        if (failed) {
+            run.record(context.getRequiredTestClass().getName(), 0, true);
+        }
+    }
+
+    static String key(ExtensionContext context) {
+        return context.getRequiredTestClass().getName() + "#" + context.getRequiredTestMethod().getName();
+    }
+
+    private static RunHistory run(ExtensionContext context) {
+        return context.getRoot().getStore(NAMESPACE)
+                .getOrComputeIfAbsent(RunHistory.class, key -> new RunHistory(TestHistory.file()), RunHistory.class);
+    }
+
+    private static final class RunHistory implements ExtensionContext.Store.CloseableResource {
+
+        private final Path file;
+        private final Map<String, long[]> nanos = new ConcurrentHashMap<>();
+        private final Map<String, Boolean> failed = new ConcurrentHashMap<>();
+
+        RunHistory(Path file) {
+            this.file = file;
+        }
+
+        void record(String key, long elapsed, boolean failure) {
+            nanos.compute(key, (k, total) -> total == null ? new long[] {elapsed} : new long[] {total[0] + elapsed});
+            failed.merge(key, failure, Boolean::logicalOr);
+        }
+
+        @Override
+        public void close() {
+            List<TestHistory.Observation> observations = new ArrayList<>(nanos.size());
+            nanos.forEach((key, total) -> observations.add(
+                    new TestHistory.Observation(key, total[0] / 1e6, failed.getOrDefault(key, false))));
+            try {
+                TestHistory.mergeInto(file, observations);
+                LOGGER.info("Recorded {} test durations in {}", observations.size(), file);
+            } catch (IOException e) {
+                LOGGER.warn("Failed to update test history {}: {}", file, e.toString());
+            }
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.demo.api.base;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import ch.qos.logback.core.encoder.Encoder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Logback appender that captures the log lines of each running test separately.
+ *
+ * <p>Events are routed by the {@value BaseTest#TEST_ID_KEY} MDC key into an in-memory buffer that exists
+ * only between {@link #begin(String)} and {@link #end(String)}. Each test therefore gets exactly its own
+ * lines, regardless of how many tests ran before it or run concurrently, and no log file has to be re-read.
+ * Buffers are capped at {@code maxBytes} (default 1 MiB); further lines are dropped with a marker.</p>
+ *
+ * <p>Configured in {@code logback.xml}:</p>
+ * <pre>
+ *     &lt;appender name="TEST_CAPTURE" class="com.demo.api.base.TestLogCaptureAppender"&gt;
+ *         &lt;encoder&gt;&lt;pattern&gt;...&lt;/pattern&gt;&lt;/encoder&gt;
+ *     &lt;/appender&gt;
+ * </pre>
+ */
+public class TestLogCaptureAppender extends UnsynchronizedAppenderBase<ILoggingEvent> {
+
+    private static final Map<String, Capture> CAPTURES = new ConcurrentHashMap<>();
+    private static final byte[] TRUNCATED = ("... [log capture truncated]" + System.lineSeparator())
+            .getBytes(StandardCharsets.UTF_8);
+
+    private static volatile int maxBytes = 1 << 20;
+
+    private Encoder<ILoggingEvent> encoder;
+
+    private static final class Capture {
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        private boolean truncated;
+
+        synchronized void write(byte[] bytes) {
+            if (truncated) {
+                return;
+            }
+            if (buffer.size() + bytes.length > maxBytes) {
+                buffer.writeBytes(TRUNCATED);
+                truncated = true;
+                return;
+            }
+            buffer.writeBytes(bytes);
+        }
+
+        synchronized byte[] toByteArray() {
+            return buffer.toByteArray();
+        }
+    }
+
+    /**
+     * Starts capturing the lines logged with the given test id.
+     *
+     * @param testId the value of the {@value BaseTest#TEST_ID_KEY} MDC key
+     */
+    public static void begin(String testId) {
+        CAPTURES.put(testId, new Capture());
+    }
+
+    /**
+     * Stops capturing and returns the captured lines.
+     *
+     * @param testId the value of the {@value BaseTest#TEST_ID_KEY} MDC key
+     * @return the captured log, empty if nothing was captured
+     */
+    public static InputStream end(String testId) {
+        Capture capture = CAPTURES.remove(testId);
+        return new ByteArrayInputStream(capture == null ? new byte[0] : capture.toByteArray());
+    }
+
+    public void setEncoder(Encoder<ILoggingEvent> encoder) {
+        this.encoder = encoder;
+    }
+
+    public void setMaxBytes(int maxBytes) {
+        TestLogCaptureAppender.maxBytes = maxBytes;
+    }
+
+    @Override
+    public void start() {
+        if (encoder == null) {
+            addError("No encoder set for the appender named [" + name + "].");
+            return;
+        }
+        encoder.start();
+        super.start();
+    }
+
+    @Override
+    public void stop() {
+        super.stop();
+        if (encoder != null) {
+            encoder.stop();
+        }
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        String testId = event.getMDCPropertyMap().get(BaseTest.TEST_ID_KEY);
+        if (testId == null) {
+            return;
+        }
+        Capture capture = CAPTURES.get(testId);
+        if (capture != null) {
+            capture.write(encoder.encode(event));
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.demo.api.models;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Body of a successful {@code POST /api/users}: the submitted fields plus the generated id and timestamp.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public final class CreatedUser {
+
+    private final String id;
+    private final String name;
+    private final String job;
+    private final String createdAt;
+
+    @JsonCreator
+    public CreatedUser(@JsonProperty("id") String id,
+                       @JsonProperty("name") String name,
+                       @JsonProperty("job") String job,
+                       @JsonProperty("createdAt") String createdAt) {
+        this.id = id;
+        this.name = name;
+        this.job = job;
+        this.createdAt = createdAt;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getJob() {
+        return job;
+    }
+
+    public String getCreatedAt() {
+        return createdAt;
+    }
+
+    @Override
+    public String toString() {
+        return "CreatedUser{id=" + id + ", name=" + name + ", job=" + job + ", createdAt=" + createdAt + "}";
+    }
+}
@@ -0,0 +1,81 @@
+package com.demo.api.models;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Objects;
+
+/**
+ * A user as returned in the {@code data} field of {@code GET /api/users} and {@code GET /api/users/{id}}.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public final class User {
+
+    private final int id;
+    private final String email;
+    private final String firstName;
+    private final String lastName;
+    private final String avatar;
+
+    @JsonCreator
+    public User(@JsonProperty("id") int id,
+                @JsonProperty("email") String email,
+                @JsonProperty("first_name") String firstName,
+                @JsonProperty("last_name") String lastName,
+                @JsonProperty("avatar") String avatar) {
+        this.id = id;
+        this.email = email;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.avatar = avatar;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    @JsonProperty("first_name")
+    public String getFirstName() {
+        return firstName;
+    }
+
+    @JsonProperty("last_name")
+    public String getLastName() {
+        return lastName;
+    }
+
+    public String getAvatar() {
+        return avatar;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof User)) {
+            return false;
+        }
+        User user = (User) o;
+        return id == user.id
+                && Objects.equals(email, user.email)
+                && Objects.equals(firstName, user.firstName)
+                && Objects.equals(lastName, user.lastName)
+                && Objects.equals(avatar, user.avatar);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, email, firstName, lastName, avatar);
+    }
+
+    @Override
+    public String toString() {
+        return "User{id=" + id + ", email=" + email + ", firstName=" + firstName + ", lastName=" + lastName + "}";
+    }
+}
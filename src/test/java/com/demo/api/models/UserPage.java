@@ -0,0 +1,61 @@
+package com.demo.api.models;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One page of {@code GET /api/users?page=N}.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public final class UserPage {
+
+    private final int page;
+    private final int perPage;
+    private final int total;
+    private final int totalPages;
+    private final List<User> data;
+
+    @JsonCreator
+    public UserPage(@JsonProperty("page") int page,
+                    @JsonProperty("per_page") int perPage,
+                    @JsonProperty("total") int total,
+                    @JsonProperty("total_pages") int totalPages,
+                    @JsonProperty("data") List<User> data) {
+        this.page = page;
+        this.perPage = perPage;
+        this.total = total;
+        this.totalPages = totalPages;
+        this.data = data == null ? Collections.emptyList() : Collections.unmodifiableList(data);
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    @JsonProperty("per_page")
+    public int getPerPage() {
+        return perPage;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    @JsonProperty("total_pages")
+    public int getTotalPages() {
+        return totalPages;
+    }
+
+    public List<User> getData() {
+        return data;
+    }
+
+    @Override
+    public String toString() {
+        return "UserPage{page=" + page + "/" + totalPages + ", users=" + data.size() + "}";
+    }
+}
@@ -0,0 +1,59 @@
+package com.demo.api.models;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Body of a {@code POST /api/users} request together with its JSON serialization.
+ *
+ * <p>Created by {@link com.demo.api.utilities.UserDataFactory}, which serializes the body once up front so
+ * the same bytes can be sent, resent on retry or replayed without going through an object mapper again.</p>
+ */
+public final class UserPayload {
+
+    private final String name;
+    private final String job;
+    private final byte[] json;
+
+    public UserPayload(String name, String job, byte[] json) {
+        this.name = name;
+        this.job = job;
+        this.json = json;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getJob() {
+        return job;
+    }
+
+    /**
+     * Returns the serialized body, e.g. {@code {"name":"John_kx2f9a1c_42","job":"QA Engineer"}}.
+     *
+     * <p>The array is shared rather than copied and must not be modified.</p>
+     *
+     * @return the UTF-8 encoded JSON body
+     */
+    public byte[] getJson() {
+        return json;
+    }
+
+    /**
+     * Returns the body as the map accepted by the map-based helpers.
+     *
+     * @return a map containing "name" and "job"
+     */
+    public Map<String, String> asMap() {
+        Map<String, String> map = new LinkedHashMap<>();
+        map.put("name", name);
+        map.put("job", job);
+        return map;
+    }
+
+    @Override
+    public String toString() {
+        return "{name=" + name + ", job=" + job + "}";
+    }
+}
@@ -0,0 +1,298 @@
+package com.demo.api.perf;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Per-endpoint verdicts of a baseline-versus-candidate run of {@link LatencyComparison}.
+ *
+ * <p>For each {@link UserOperation} the latencies of both sides are compared with a one-sided
+ * {@link MannWhitney} test in each direction. The significance level {@code alpha} is divided by the number
+ * of operations (Bonferroni), so that comparing four endpoints does not quadruple the chance of a false
+ * alarm. A difference also has to be large enough to matter: Cliff's delta of at least {@code minEffect}.
+ * Failed requests count as well: their rates are compared with a one-sided two-proportion z-test at the same
+ * corrected level.</p>
+ * <ul>
+ *     <li><strong>REGRESSION</strong> – the candidate has no successful sample where the baseline ran, fails
+ *     significantly more often than the baseline, or is significantly and noticeably slower;</li>
+ *     <li><strong>IMPROVEMENT</strong> – the candidate is significantly and noticeably faster;</li>
+ *     <li><strong>NO_CHANGE</strong> – anything else, including a significant but negligible difference.</li>
+ * </ul>
+ */
+public class ComparisonReport {
+
+    /** Outcome of one endpoint. */
+    public enum Verdict {
+        REGRESSION, NO_CHANGE, IMPROVEMENT
+    }
+
+    /** Both samples of one operation and their comparison. */
+    public static class EndpointComparison {
+
+        private final UserOperation operation;
+        private final long[] baselineMicros;
+        private final long[] candidateMicros;
+        private final long baselineErrors;
+        private final long candidateErrors;
+        private final MannWhitney.Result result;
+        private final Verdict verdict;
+
+        EndpointComparison(UserOperation operation, long[] baselineMicros, long[] candidateMicros,
+                           long baselineErrors, long candidateErrors, double alpha, double minEffect) {
+            this.operation = operation;
+            this.baselineMicros = baselineMicros.clone();
+            this.candidateMicros = candidateMicros.clone();
+            Arrays.sort(this.baselineMicros);
+            Arrays.sort(this.candidateMicros);
+            this.baselineErrors = baselineErrors;
+            this.candidateErrors = candidateErrors;
+            if (baselineMicros.length == 0 || candidateMicros.length == 0) {
+                this.result = null;
+                boolean candidateRan = candidateMicros.length > 0 || candidateErrors > 0;
+                boolean baselineRan = baselineMicros.length > 0 || baselineErrors > 0;
+                this.verdict = candidateMicros.length == 0 && (candidateRan || baselineRan)
+                        ? Verdict.REGRESSION : Verdict.NO_CHANGE;
+            } else {
+                this.result = MannWhitney.test(baselineMicros, candidateMicros);
+                if (getErrorRatePValue() < alpha) {
+                    this.verdict = Verdict.REGRESSION;
+                } else if (result.getPValueGreater() < alpha && result.getCliffsDelta() >= minEffect) {
+                    this.verdict = Verdict.REGRESSION;
+                } else if (result.getPValueLess() < alpha && result.getCliffsDelta() <= -minEffect) {
+                    this.verdict = Verdict.IMPROVEMENT;
+                } else {
+                    this.verdict = Verdict.NO_CHANGE;
+                }
+            }
+        }
+
+        public UserOperation getOperation() {
+            return operation;
+        }
+
+        public int getBaselineCount() {
+            return baselineMicros.length;
+        }
+
+        public int getCandidateCount() {
+            return candidateMicros.length;
+        }
+
+        public long getBaselineErrors() {
+            return baselineErrors;
+        }
+
+        public long getCandidateErrors() {
+            return candidateErrors;
+        }
+
+        /**
+         * Returns a percentile of the successful baseline latencies.
+         *
+         * @param percentile the percentile, e.g. 50.0
+         * @return the latency in microseconds, 0 if there are no samples
+         */
+        public long getBaselinePercentile(double percentile) {
+            return percentile(baselineMicros, percentile);
+        }
+
+        /**
+         * Returns a percentile of the successful candidate latencies.
+         *
+         * @param percentile the percentile, e.g. 50.0
+         * @return the latency in microseconds, 0 if there are no samples
+         */
+        public long getCandidatePercentile(double percentile) {
+            return percentile(candidateMicros, percentile);
+        }
+
+        /**
+         * Returns the candidate median relative to the baseline median.
+         *
+         * @return e.g. 0.12 for a candidate median 12 % above the baseline, 0 if there are no samples
+         */
+        public double getMedianChange() {
+            long baseline = getBaselinePercentile(50);
+            return baseline == 0 ? 0 : (double) getCandidatePercentile(50) / baseline - 1;
+        }
+
+        /**
+         * Returns the share of failed requests of the baseline.
+         *
+         * @return errors divided by all requests, 0 if there were none
+         */
+        public double getBaselineErrorRate() {
+            return errorRate(baselineErrors, baselineMicros.length);
+        }
+
+        /**
+         * Returns the share of failed requests of the candidate.
+         *
+         * @return errors divided by all requests, 0 if there were none
+         */
+        public double getCandidateErrorRate() {
+            return errorRate(candidateErrors, candidateMicros.length);
+        }
+
+        /**
+         * Returns the one-sided p-value of a pooled two-proportion z-test for a candidate error rate above
+         * the baseline's.
+         *
+         * @return the p-value, 1 if neither side failed or the candidate did not fail more often
+         */
+        public double getErrorRatePValue() {
+            long baselineTotal = baselineErrors + baselineMicros.length;
+            long candidateTotal = candidateErrors + candidateMicros.length;
+            if (baselineTotal == 0 || candidateTotal == 0) {
+                return 1;
+            }
+            double pooled = (double) (baselineErrors + candidateErrors) / (baselineTotal + candidateTotal);
+            double difference = getCandidateErrorRate() - getBaselineErrorRate();
+            if (pooled == 0 || pooled == 1 || difference <= 0) {
+                return 1;
+            }
+            double standardError = Math.sqrt(pooled * (1 - pooled) * (1.0 / baselineTotal + 1.0 / candidateTotal));
+            return MannWhitney.upperTail(difference / standardError);
+        }
+
+        /**
+         * Returns the test result.
+         *
+         * @return the result, or {@code null} if either side has no successful sample
+         */
+        public MannWhitney.Result getResult() {
+            return result;
+        }
+
+        public Verdict getVerdict() {
+            return verdict;
+        }
+    }
+
+    private final List<EndpointComparison> endpoints = new ArrayList<>();
+    private final double alpha;
+    private final double minEffect;
+
+    /**
+     * Creates an empty report.
+     *
+     * @param alpha     family-wise significance level, split evenly over the endpoints
+     * @param minEffect smallest |Cliff's delta| reported as a change
+     */
+    public ComparisonReport(double alpha, double minEffect) {
+        this.alpha = alpha;
+        this.minEffect = minEffect;
+    }
+
+    /**
+     * Compares the samples of one operation and adds the result to the report.
+     *
+     * @param operation       the operation
+     * @param baselineMicros  latencies of the successful baseline requests, in microseconds
+     * @param candidateMicros latencies of the successful candidate requests, in microseconds
+     * @param baselineErrors  number of failed baseline requests
+     * @param candidateErrors number of failed candidate requests
+     * @param operations      number of operations in the whole comparison, for the Bonferroni correction
+     */
+    public void add(UserOperation operation, long[] baselineMicros, long[] candidateMicros,
+                    long baselineErrors, long candidateErrors, int operations) {
+        endpoints.add(new EndpointComparison(operation, baselineMicros, candidateMicros,
+                baselineErrors, candidateErrors, alpha / operations, minEffect));
+    }
+
+    public List<EndpointComparison> getEndpoints() {
+        return Collections.unmodifiableList(endpoints);
+    }
+
+    /**
+     * Returns the endpoints whose candidate fails, fails more often, or is significantly and noticeably slower.
+     *
+     * @return the regressed endpoints, empty if there are none
+     */
+    public List<EndpointComparison> getRegressions() {
+        List<EndpointComparison> regressions = new ArrayList<>();
+        for (EndpointComparison endpoint : endpoints) {
+            if (endpoint.verdict == Verdict.REGRESSION) {
+                regressions.add(endpoint);
+            }
+        }
+        return regressions;
+    }
+
+    /**
+     * Returns whether no endpoint regressed.
+     *
+     * @return {@code true} for a passing candidate
+     */
+    public boolean passed() {
+        return getRegressions().isEmpty();
+    }
+
+    /**
+     * Formats the report as a table with one row per endpoint and the overall verdict.
+     *
+     * @return the formatted report
+     */
+    public String format() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.ROOT, "%-8s %7s %7s %10s %10s %10s %10s %8s %8s %10s %10s  %s%n",
+                "endpoint", "n base", "n cand", "base p50", "cand p50", "base p90", "cand p90", "median",
+                "delta", "p slower", "p faster", "verdict"));
+        for (EndpointComparison e : endpoints) {
+            MannWhitney.Result r = e.result;
+            sb.append(String.format(Locale.ROOT, "%-8s %7d %7d %10.2f %10.2f %10.2f %10.2f %+7.1f%% %+8.3f %10.2e %10.2e  %s%n",
+                    e.operation, e.getBaselineCount(), e.getCandidateCount(),
+                    e.getBaselinePercentile(50) / 1000.0, e.getCandidatePercentile(50) / 1000.0,
+                    e.getBaselinePercentile(90) / 1000.0, e.getCandidatePercentile(90) / 1000.0,
+                    e.getMedianChange() * 100, r == null ? 0 : r.getCliffsDelta(),
+                    r == null ? 1 : r.getPValueGreater(), r == null ? 1 : r.getPValueLess(), e.verdict));
+            if (e.baselineErrors > 0 || e.candidateErrors > 0) {
+                sb.append(String.format(Locale.ROOT, "%-8s errors: baseline %d, candidate %d%n",
+                        "", e.baselineErrors, e.candidateErrors));
+            }
+        }
+        sb.append(String.format(Locale.ROOT,
+                "Latencies in ms. alpha %.3g over %d endpoints, min |delta| %.3f: %s%n",
+                alpha, endpoints.size(), minEffect, passed() ? "PASS" : "FAIL, candidate is slower or fails more often"));
+        return sb.toString();
+    }
+
+    /**
+     * Formats the report as CSV with one row per endpoint.
+     *
+     * @return the CSV text, including a header line
+     */
+    public String toCsv() {
+        StringBuilder sb = new StringBuilder("endpoint,baseline_n,candidate_n,baseline_errors,candidate_errors,"
+                + "baseline_p50_us,candidate_p50_us,baseline_p90_us,candidate_p90_us,u,z,p_slower,p_faster,"
+                + "cliffs_delta,verdict\n");
+        for (EndpointComparison e : endpoints) {
+            MannWhitney.Result r = e.result;
+            sb.append(String.format(Locale.ROOT, "%s,%d,%d,%d,%d,%d,%d,%d,%d,%.1f,%.4f,%.6g,%.6g,%.4f,%s%n",
+                    e.operation, e.getBaselineCount(), e.getCandidateCount(), e.baselineErrors, e.candidateErrors,
+                    e.getBaselinePercentile(50), e.getCandidatePercentile(50),
+                    e.getBaselinePercentile(90), e.getCandidatePercentile(90),
+                    r == null ? 0 : r.getU(), r == null ? 0 : r.getZ(),
+                    r == null ? 1 : r.getPValueGreater(), r == null ? 1 : r.getPValueLess(),
+                    r == null ? 0 : r.getCliffsDelta(), e.verdict));
+        }
+        return sb.toString();
+    }
+
+    private static double errorRate(long errors, int successes) {
+        long total = errors + successes;
+        return total == 0 ? 0 : (double) errors / total;
+    }
+
+    // Nearest-rank percentile of a sorted sample
+    private static long percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percentile / 100 * sorted.length);
+        return sorted[Math.max(0, Math.min(sorted.length - 1, rank - 1))];
+    }
+}
@@ -0,0 +1,92 @@
+package com.demo.api.perf;
+
+import com.demo.api.models.User;
+import com.demo.api.models.UserPayload;
+import com.demo.api.utilities.UserApiHelper;
+import com.demo.api.utilities.UserDataFactory;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * The end-to-end flows of the functional test classes, repeatable without JUnit.
+ *
+ * <p>Each flow returns {@code true} only if every response had the status the corresponding test expects.
+ * Users created by a flow are deleted by the same flow, so repeated runs do not accumulate state.</p>
+ */
+public enum CrudFlow {
+
+    /** {@code UserCreateTests}: create a user and check the echoed fields, then delete it. */
+    CREATE {
+        @Override
+        public boolean run(RequestSpecification spec) {
+            UserPayload payload = Payloads.SOAK.get();
+            Response created = UserApiHelper.createUser(spec, payload);
+            if (created.getStatusCode() != 201) {
+                return false;
+            }
+            boolean echoed = payload.getName().equals(UserApiHelper.asCreatedUser(created).getName());
+            return UserApiHelper.deleteUserById(spec, UserApiHelper.asCreatedUser(created).getId()).getStatusCode() == 204
+                    && echoed;
+        }
+    },
+
+    /** {@code UserReadTests}: list a page, fetch its first user by id and check an unknown id is 404. */
+    READ {
+        @Override
+        public boolean run(RequestSpecification spec) {
+            Response page = UserApiHelper.listUsers(spec, ThreadLocalRandom.current().nextInt(1, 3));
+            if (page.getStatusCode() != 200) {
+                return false;
+            }
+            List<User> users = UserApiHelper.asUserPage(page).getData();
+            if (users.isEmpty()) {
+                return false;
+            }
+            int id = users.get(0).getId();
+            Response user = UserApiHelper.getUserById(spec, id);
+            return user.getStatusCode() == 200
+                    && UserApiHelper.asUser(user).getId() == id
+                    && UserApiHelper.getUserById(spec, 999).getStatusCode() == 404;
+        }
+    },
+
+    /** {@code UserDeleteTests}: create a user and delete it. */
+    DELETE {
+        @Override
+        public boolean run(RequestSpecification spec) {
+            Response created = UserApiHelper.createUser(spec, Payloads.TO_BE_DELETED.get());
+            return created.getStatusCode() == 201
+                    && UserApiHelper.deleteUserById(spec, UserApiHelper.asCreatedUser(created).getId()).getStatusCode() == 204;
+        }
+    };
+
+    /**
+     * Runs the flow once.
+     *
+     * @param spec the request specification (e.g., withApiKey)
+     * @return whether every response had the expected status
+     */
+    public abstract boolean run(RequestSpecification spec);
+
+    /**
+     * Parses a flow name, case-insensitively.
+     *
+     * @param name e.g. "create"
+     * @return the flow
+     */
+    public static CrudFlow parse(String name) {
+        return valueOf(name.trim().toUpperCase(Locale.ROOT));
+    }
+
+    // Pre-serialized create payloads, drawn from per-thread batches
+    private static final class Payloads {
+
+        static final Supplier<UserPayload> SOAK = UserDataFactory.supplier("Soak", "Soak Tester", 256);
+        static final Supplier<UserPayload> TO_BE_DELETED = UserDataFactory.supplier("ToBeDeleted", "Soak Tester", 256);
+    }
+}
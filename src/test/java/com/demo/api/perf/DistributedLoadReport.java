@@ -0,0 +1,133 @@
+package com.demo.api.perf;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Results of a {@link LoadCoordinator} run: the merged report of all workers and the report of each one.
+ *
+ * <p>The merged {@link LoadReport} adds the workers' histograms bucket by bucket, so its percentiles are
+ * exactly those of one histogram fed with every request. The per-worker view exists to catch a skewed
+ * worker, whose numbers the aggregate would hide. A worker counts as skewed when its p99 response time is
+ * more than {@code skewThreshold} times the median worker's, or when it achieved less than its share of
+ * the target rate divided by {@code skewThreshold} (it could not keep up).</p>
+ */
+public class DistributedLoadReport {
+
+    /** The report of one worker process. */
+    public static final class WorkerReport {
+
+        private final int index;
+        private final long pid;
+        private final LoadReport report;
+
+        public WorkerReport(int index, long pid, LoadReport report) {
+            this.index = index;
+            this.pid = pid;
+            this.report = report;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public long getPid() {
+            return pid;
+        }
+
+        public LoadReport getReport() {
+            return report;
+        }
+    }
+
+    private final List<WorkerReport> workers;
+    private final LoadReport merged;
+    private final double skewThreshold;
+
+    /**
+     * Merges the reports of all workers.
+     *
+     * @param workers       one report per worker
+     * @param skewThreshold ratio to the median worker above which a worker is reported as skewed
+     */
+    public DistributedLoadReport(List<WorkerReport> workers, double skewThreshold) {
+        if (workers.isEmpty()) {
+            throw new IllegalArgumentException("At least one worker report is required");
+        }
+        this.workers = List.copyOf(workers);
+        this.skewThreshold = skewThreshold;
+        LoadReport total = workers.get(0).report;
+        for (int i = 1; i < workers.size(); i++) {
+            total = total.add(workers.get(i).report);
+        }
+        this.merged = total;
+    }
+
+    /**
+     * Returns the aggregate of all workers.
+     *
+     * @return the merged report
+     */
+    public LoadReport getMerged() {
+        return merged;
+    }
+
+    public List<WorkerReport> getWorkers() {
+        return Collections.unmodifiableList(workers);
+    }
+
+    /**
+     * Returns the workers whose p99 response time or achieved rate is out of line with the others.
+     *
+     * @return the skewed workers, empty if there are none
+     */
+    public List<WorkerReport> getSkewedWorkers() {
+        long[] p99s = workers.stream()
+                .mapToLong(worker -> worker.report.total().getResponseTime().getValueAtPercentile(99))
+                .sorted()
+                .toArray();
+        long medianP99 = p99s[p99s.length / 2];
+        List<WorkerReport> skewed = new ArrayList<>();
+        for (WorkerReport worker : workers) {
+            long p99 = worker.report.total().getResponseTime().getValueAtPercentile(99);
+            boolean slow = medianP99 > 0 && p99 > skewThreshold * medianP99;
+            boolean behind = worker.report.getAchievedRate() * skewThreshold < worker.report.getTargetRate();
+            if (slow || behind) {
+                skewed.add(worker);
+            }
+        }
+        return skewed;
+    }
+
+    /**
+     * Formats the merged report followed by one row per worker, marking skewed workers.
+     *
+     * @return the formatted report
+     */
+    public String format() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Merged over ").append(workers.size()).append(" workers:").append(System.lineSeparator());
+        sb.append(merged.format());
+        sb.append(String.format(Locale.ROOT, "%n%-8s %8s %9s %7s %10s %10s %9s %9s %9s%n",
+                "worker", "pid", "count", "errors", "target/s", "achieved/s", "p50", "p99", "max"));
+        List<WorkerReport> skewed = getSkewedWorkers();
+        for (WorkerReport worker : workers) {
+            LoadReport.OperationStats total = worker.report.total();
+            LatencyHistogram histogram = total.getResponseTime();
+            sb.append(String.format(Locale.ROOT, "%-8d %8d %9d %7d %10.1f %10.1f %9.2f %9.2f %9.2f%s%n",
+                    worker.index, worker.pid, total.getCount(), total.getErrors(),
+                    worker.report.getTargetRate(), worker.report.getAchievedRate(),
+                    histogram.getValueAtPercentile(50) / 1000.0,
+                    histogram.getValueAtPercentile(99) / 1000.0,
+                    histogram.getMax() / 1000.0,
+                    skewed.contains(worker) ? "  SKEWED" : ""));
+        }
+        sb.append(String.format(Locale.ROOT, "Response time in ms. Skew threshold %.2fx the median worker p99: %s%n",
+                skewThreshold, skewed.isEmpty() ? "none" : Arrays.toString(
+                        skewed.stream().mapToInt(WorkerReport::getIndex).toArray())));
+        return sb.toString();
+    }
+}
@@ -0,0 +1,244 @@
+package com.demo.api.perf;
+
+import com.demo.api.utilities.Config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * AssertJ-style latency budget for an API call.
+ *
+ * <p>The call is repeated by a number of concurrent callers; each caller issues its share of the
+ * repetitions back to back. Latencies are recorded in a {@link LatencyHistogram} and compared against
+ * the budget. A call that throws counts as a failure and fails the assertion as well.</p>
+ *
+ * <p>Usage example:</p>
+ * <pre>
+ *     assertLatency("getUserById", () -&gt; UserApiHelper.getUserById(withApiKey, 2).then().statusCode(200))
+ *             .overRepetitions(50)
+ *             .withConcurrentCallers(8)
+ *             .hasPercentileBelow(95, Duration.ofMillis(200));
+ * </pre>
+ *
+ * <p>The call must read or discard the response body, as the {@link com.demo.api.utilities.UserApiHelper}
+ * methods do, or every repetition keeps a pooled connection leased.</p>
+ *
+ * <p>The calls are made on the first assertion; further assertions reuse the same measurement. Every
+ * budget is multiplied by {@code budget.scale} (default 1.0) so slower environments can relax all budgets
+ * at once, and {@code budget.warmup} unmeasured calls (default 5) are issued first.</p>
+ */
+public class LatencyAssert {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LatencyAssert.class);
+
+    private final String description;
+    private final Callable<?> call;
+    private int repetitions = 50;
+    private int concurrentCallers = 1;
+    private int warmup = Config.getInt("budget.warmup", 5);
+    private final double scale = Config.getDouble("budget.scale", 1.0);
+
+    private LatencyHistogram histogram;
+    private int failures;
+    private Throwable firstFailure;
+
+    private LatencyAssert(String description, Callable<?> call) {
+        this.description = description;
+        this.call = call;
+    }
+
+    /**
+     * Starts a latency assertion.
+     *
+     * @param description the name of the call used in failure messages, e.g. "getUserById"
+     * @param call        the call to measure
+     * @return the assertion
+     */
+    public static LatencyAssert assertLatency(String description, Callable<?> call) {
+        return new LatencyAssert(description, call);
+    }
+
+    /**
+     * Sets the number of measured calls (default 50).
+     *
+     * @param repetitions the number of calls
+     * @return this assertion
+     */
+    public LatencyAssert overRepetitions(int repetitions) {
+        if (repetitions <= 0) {
+            throw new IllegalArgumentException("Repetitions must be positive, got " + repetitions);
+        }
+        this.repetitions = repetitions;
+        return this;
+    }
+
+    /**
+     * Sets the number of callers issuing calls at the same time (default 1).
+     *
+     * @param concurrentCallers the number of callers
+     * @return this assertion
+     */
+    public LatencyAssert withConcurrentCallers(int concurrentCallers) {
+        if (concurrentCallers <= 0) {
+            throw new IllegalArgumentException("Concurrent callers must be positive, got " + concurrentCallers);
+        }
+        this.concurrentCallers = concurrentCallers;
+        return this;
+    }
+
+    /**
+     * Sets the number of unmeasured calls made before the measured ones.
+     *
+     * @param warmup the number of warm-up calls
+     * @return this assertion
+     */
+    public LatencyAssert withWarmup(int warmup) {
+        this.warmup = Math.max(0, warmup);
+        return this;
+    }
+
+    /**
+     * Verifies that the given percentile of the call latency is below the budget.
+     *
+     * @param percentile the percentile, between 0 and 100
+     * @param budget     the maximum allowed latency
+     * @return this assertion
+     * @throws AssertionError if the budget is exceeded or a call failed
+     */
+    public LatencyAssert hasPercentileBelow(double percentile, Duration budget) {
+        measure();
+        long actual = histogram.getValueAtPercentile(percentile);
+        long allowed = (long) (budget.toNanos() / 1_000 * scale);
+        if (actual > allowed) {
+            throw new AssertionError(String.format(Locale.ROOT,
+                    "Latency budget exceeded for %s: p%s was %.2f ms, budget %.2f ms%n%s",
+                    description, formatPercentile(percentile), actual / 1000.0, allowed / 1000.0, breakdown()));
+        }
+        return this;
+    }
+
+    /**
+     * Verifies that no call took longer than the budget.
+     *
+     * @param budget the maximum allowed latency
+     * @return this assertion
+     * @throws AssertionError if the budget is exceeded or a call failed
+     */
+    public LatencyAssert hasMaxBelow(Duration budget) {
+        return hasPercentileBelow(100, budget);
+    }
+
+    /**
+     * Returns the measured latencies, making the calls if no assertion has done so yet.
+     *
+     * @return the histogram in microseconds
+     */
+    public LatencyHistogram getHistogram() {
+        measure();
+        return histogram;
+    }
+
+    private void measure() {
+        if (histogram != null) {
+            return;
+        }
+        LatencyHistogram recorded = new LatencyHistogram();
+        AtomicInteger failed = new AtomicInteger();
+        AtomicReference<Throwable> first = new AtomicReference<>();
+        Map<String, String> mdc = MDC.getCopyOfContextMap();
+
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService callers = Executors.newFixedThreadPool(concurrentCallers, runnable -> {
+            Thread thread = new Thread(runnable, "latency-budget-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            for (int i = 0; i < warmup; i++) {
+                invoke(null, failed, first);
+            }
+            failed.set(0);
+            first.set(null);
+
+            List<Future<?>> futures = new ArrayList<>(concurrentCallers);
+            for (int caller = 0; caller < concurrentCallers; caller++) {
+                int share = repetitions / concurrentCallers + (caller < repetitions % concurrentCallers ? 1 : 0);
+                futures.add(callers.submit(() -> {
+                    if (mdc != null) {
+                        MDC.setContextMap(mdc);
+                    }
+                    try {
+                        for (int i = 0; i < share; i++) {
+                            invoke(recorded, failed, first);
+                        }
+                    } finally {
+                        MDC.clear();
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while measuring " + description, e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Caller failed while measuring " + description, e.getCause());
+        } finally {
+            callers.shutdownNow();
+        }
+
+        histogram = recorded;
+        failures = failed.get();
+        firstFailure = first.get();
+        LOGGER.info("Latency of {} ({} calls, {} concurrent callers): {}",
+                description, repetitions, concurrentCallers, histogram.summary());
+
+        if (failures > 0) {
+            throw new AssertionError(String.format(Locale.ROOT, "%d of %d calls of %s failed; first failure: %s%n%s",
+                    failures, repetitions, description, firstFailure, breakdown()), firstFailure);
+        }
+    }
+
+    private void invoke(LatencyHistogram recorded, AtomicInteger failed, AtomicReference<Throwable> first) {
+        long start = System.nanoTime();
+        try {
+            call.call();
+        } catch (Exception | AssertionError e) {
+            failed.incrementAndGet();
+            first.compareAndSet(null, e);
+        }
+        if (recorded != null) {
+            recorded.record((System.nanoTime() - start) / 1_000);
+        }
+    }
+
+    private String breakdown() {
+        LatencyHistogram h = histogram;
+        return String.format(Locale.ROOT,
+                "calls=%d concurrent callers=%d failures=%d%n"
+                        + "min=%.2fms p50=%.2fms p90=%.2fms p95=%.2fms p99=%.2fms p99.9=%.2fms max=%.2fms mean=%.2fms",
+                h.getTotalCount(), concurrentCallers, failures,
+                h.getMin() / 1000.0, h.getValueAtPercentile(50) / 1000.0, h.getValueAtPercentile(90) / 1000.0,
+                h.getValueAtPercentile(95) / 1000.0, h.getValueAtPercentile(99) / 1000.0,
+                h.getValueAtPercentile(99.9) / 1000.0, h.getMax() / 1000.0, h.getMean() / 1000.0);
+    }
+
+    private static String formatPercentile(double percentile) {
+        return percentile == Math.rint(percentile) ? String.valueOf((long) percentile) : String.valueOf(percentile);
+    }
+}
@@ -0,0 +1,240 @@
+package com.demo.api.perf;
+
+import com.demo.api.utilities.Config;
+import com.demo.api.utilities.UserApiHelper;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+/**
+ * Runs the same {@link UserOperation} workload against a baseline and a candidate API and compares the latencies.
+ *
+ * <p>The two sides are never measured one after the other. Each round sends every operation once to each
+ * side, as a back-to-back pair whose order is chosen at random, and the operations of a round are shuffled.
+ * Whatever drifts during the run (a noisy neighbour, a GC, a warming JIT, a slower network) therefore hits
+ * both sides equally instead of being blamed on whichever side ran second. The leading warm-up rounds are not
+ * recorded, and users created on either side are deleted at the end.</p>
+ *
+ * <p>The latencies of successful calls (status below 400) are compared per operation in a
+ * {@link ComparisonReport}.</p>
+ *
+ * <p>Usage example:</p>
+ * <pre>
+ *     ComparisonReport report = LatencyComparison.fromConfig(baseline, candidate).run();
+ *     LOGGER.info("\n{}", report.format());
+ * </pre>
+ */
+public class LatencyComparison {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LatencyComparison.class);
+
+    private final RequestSpecification baseline;
+    private final RequestSpecification candidate;
+    private final List<UserOperation> operations;
+    private final int rounds;
+    private final int warmupRounds;
+    private final int callers;
+    private final double alpha;
+    private final double minEffect;
+
+    /**
+     * Creates a comparison.
+     *
+     * @param baseline     the request specification of the baseline API
+     * @param candidate    the request specification of the candidate API
+     * @param operations   the operations sent in every round
+     * @param rounds       measured rounds
+     * @param warmupRounds unmeasured rounds before {@code rounds}
+     * @param callers      number of concurrent callers, each running whole rounds
+     * @param alpha        family-wise significance level of the per-endpoint tests
+     * @param minEffect    smallest |Cliff's delta| reported as a change
+     */
+    public LatencyComparison(RequestSpecification baseline, RequestSpecification candidate,
+                             List<UserOperation> operations, int rounds, int warmupRounds, int callers,
+                             double alpha, double minEffect) {
+        if (operations.isEmpty()) {
+            throw new IllegalArgumentException("At least one operation is required");
+        }
+        if (rounds <= 0 || callers <= 0) {
+            throw new IllegalArgumentException("Rounds and callers must be positive, got " + rounds + " and " + callers);
+        }
+        if (alpha <= 0 || alpha >= 1) {
+            throw new IllegalArgumentException("Alpha must be in (0, 1), got " + alpha);
+        }
+        this.baseline = baseline;
+        this.candidate = candidate;
+        this.operations = List.copyOf(operations);
+        this.rounds = rounds;
+        this.warmupRounds = warmupRounds;
+        this.callers = callers;
+        this.alpha = alpha;
+        this.minEffect = minEffect;
+    }
+
+    /**
+     * Creates a comparison configured by the {@code compare.*} keys of {@code config.properties}.
+     *
+     * @param baseline  the request specification of the baseline API
+     * @param candidate the request specification of the candidate API
+     * @return the configured comparison
+     */
+    public static LatencyComparison fromConfig(RequestSpecification baseline, RequestSpecification candidate) {
+        List<UserOperation> operations = new ArrayList<>();
+        for (String name : Config.get("compare.operations", "list,get,create,delete").split(",")) {
+            if (!name.isBlank()) {
+                operations.add(UserOperation.parse(name));
+            }
+        }
+        return new LatencyComparison(
+                baseline,
+                candidate,
+                operations,
+                Config.getInt("compare.rounds", 300),
+                Config.getInt("compare.warmup.rounds", 30),
+                Config.getInt("compare.callers", 1),
+                Config.getDouble("compare.alpha", 0.01),
+                Config.getDouble("compare.min.effect", 0.147));
+    }
+
+    /**
+     * Runs all rounds and blocks until every caller has finished.
+     *
+     * @return the per-endpoint comparison
+     * @throws InterruptedException if the calling thread is interrupted
+     */
+    public ComparisonReport run() throws InterruptedException {
+        LOGGER.info("Starting comparison: operations={}, rounds={} (+{} warm-up), callers={}",
+                operations, rounds, warmupRounds, callers);
+
+        Map<UserOperation, Samples> baselineSamples = new EnumMap<>(UserOperation.class);
+        Map<UserOperation, Samples> candidateSamples = new EnumMap<>(UserOperation.class);
+        for (UserOperation operation : operations) {
+            baselineSamples.put(operation, new Samples());
+            candidateSamples.put(operation, new Samples());
+        }
+        Queue<String> baselineCreated = new ConcurrentLinkedQueue<>();
+        Queue<String> candidateCreated = new ConcurrentLinkedQueue<>();
+
+        AtomicInteger nextRound = new AtomicInteger();
+        Map<String, String> mdc = MDC.getCopyOfContextMap();
+        ExecutorService workers = Executors.newFixedThreadPool(callers, LoadGenerator.daemonThreads("compare-caller-"));
+        try {
+            for (int i = 0; i < callers; i++) {
+                workers.execute(() -> {
+                    if (mdc != null) {
+                        MDC.setContextMap(mdc);
+                    }
+                    try {
+                        int round;
+                        while ((round = nextRound.getAndIncrement()) < warmupRounds + rounds
+                                && !Thread.currentThread().isInterrupted()) {
+                            boolean measured = round >= warmupRounds;
+                            List<UserOperation> order = new ArrayList<>(operations);
+                            Collections.shuffle(order, ThreadLocalRandom.current());
+                            for (UserOperation operation : order) {
+                                Samples b = measured ? baselineSamples.get(operation) : null;
+                                Samples c = measured ? candidateSamples.get(operation) : null;
+                                if (ThreadLocalRandom.current().nextBoolean()) {
+                                    send(operation, baseline, b, baselineCreated);
+                                    send(operation, candidate, c, candidateCreated);
+                                } else {
+                                    send(operation, candidate, c, candidateCreated);
+                                    send(operation, baseline, b, baselineCreated);
+                                }
+                            }
+                        }
+                    } finally {
+                        MDC.clear();
+                    }
+                });
+            }
+        } finally {
+            workers.shutdown();
+        }
+        if (!workers.awaitTermination(Config.getLong("compare.timeout.seconds", 900), TimeUnit.SECONDS)) {
+            LOGGER.warn("Comparison callers did not finish in time, cancelling outstanding rounds");
+            workers.shutdownNow();
+        }
+
+        deleteCreated(baseline, baselineCreated);
+        deleteCreated(candidate, candidateCreated);
+
+        ComparisonReport report = new ComparisonReport(alpha, minEffect);
+        for (UserOperation operation : operations) {
+            Samples b = baselineSamples.get(operation);
+            Samples c = candidateSamples.get(operation);
+            report.add(operation, b.toArray(), c.toArray(), b.errors.sum(), c.errors.sum(), operations.size());
+        }
+        return report;
+    }
+
+    // Times one call; samples is null during warm-up
+    private static void send(UserOperation operation, RequestSpecification spec, Samples samples, Queue<String> created) {
+        long start = System.nanoTime();
+        Response response;
+        try {
+            response = operation.execute(spec);
+        } catch (RuntimeException e) {
+            LOGGER.warn("{} failed: {}", operation, e.toString());
+            if (samples != null) {
+                samples.errors.increment();
+            }
+            return;
+        }
+        long micros = (System.nanoTime() - start) / 1_000;
+        if (operation == UserOperation.CREATE && response.getStatusCode() == 201) {
+            created.add(UserApiHelper.asCreatedUser(response).getId());
+        }
+        if (samples == null) {
+            return;
+        }
+        if (response.getStatusCode() >= 400) {
+            samples.errors.increment();
+        } else {
+            samples.add(micros);
+        }
+    }
+
+    private static void deleteCreated(RequestSpecification spec, Queue<String> created) {
+        if (!created.isEmpty()) {
+            UserApiHelper.deleteUsers(spec, created, Config.getInt("cleanup.concurrency", 16));
+        }
+    }
+
+    // Raw latencies of one operation on one side; the rank test needs every value, not a histogram
+    private static final class Samples {
+
+        private long[] values = new long[256];
+        private int size;
+        private final LongAdder errors = new LongAdder();
+
+        synchronized void add(long micros) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = micros;
+        }
+
+        synchronized long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package com.demo.api.perf;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe, fixed-footprint latency histogram with HDR-style log-linear buckets.
+ *
+ * <p>Values are recorded in microseconds. Values below 2048 are counted exactly; larger values are
+ * grouped into buckets whose width doubles every power of two, keeping the relative error of any
+ * reported percentile below 0.1% (three significant digits) up to ~19 hours.</p>
+ *
+ * <p>Histograms with the same layout can be merged with {@link #add(LatencyHistogram)} without losing
+ * accuracy, which is what makes per-operation and per-run aggregation safe. {@link #writeTo} and
+ * {@link #readFrom} carry a histogram to another process as its non-empty buckets, so results from
+ * several JVMs merge just as exactly.</p>
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 11;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int SUB_BUCKET_HALF = SUB_BUCKET_COUNT >> 1;
+    private static final int MAX_VALUE_BITS = 36;
+
+    /** Largest value that can be recorded; bigger values are clamped to it. */
+    public static final long HIGHEST_TRACKABLE_VALUE = (1L << MAX_VALUE_BITS) - 1;
+
+    private static final int BUCKET_COUNT = indexOf(HIGHEST_TRACKABLE_VALUE) + 1;
+
+    // Identifies the bucket layout in the serialized form; histograms of another layout cannot be merged
+    private static final int LAYOUT = SUB_BUCKET_BITS << 8 | MAX_VALUE_BITS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong totalCount = new AtomicLong();
+    private final AtomicLong totalValue = new AtomicLong();
+    private final AtomicLong minValue = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong maxValue = new AtomicLong();
+
+    /**
+     * Records one value.
+     *
+     * @param micros the value in microseconds; negative values are recorded as zero
+     */
+    public void record(long micros) {
+        recordCount(micros, 1);
+    }
+
+    /**
+     * Records the same value several times.
+     *
+     * @param micros the value in microseconds
+     * @param count  number of occurrences
+     */
+    public void recordCount(long micros, long count) {
+        if (count <= 0) {
+            return;
+        }
+        long value = Math.max(0, Math.min(micros, HIGHEST_TRACKABLE_VALUE));
+        counts.addAndGet(indexOf(value), count);
+        totalCount.addAndGet(count);
+        totalValue.addAndGet(value * count);
+        minValue.accumulateAndGet(value, Math::min);
+        maxValue.accumulateAndGet(value, Math::max);
+    }
+
+    /**
+     * Adds all values of another histogram to this one.
+     *
+     * @param other the histogram to merge in
+     */
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            long count = other.counts.get(i);
+            if (count != 0) {
+                counts.addAndGet(i, count);
+            }
+        }
+        long otherCount = other.totalCount.get();
+        if (otherCount == 0) {
+            return;
+        }
+        totalCount.addAndGet(otherCount);
+        totalValue.addAndGet(other.totalValue.get());
+        minValue.accumulateAndGet(other.minValue.get(), Math::min);
+        maxValue.accumulateAndGet(other.maxValue.get(), Math::max);
+    }
+
+    /**
+     * Returns an independent copy of this histogram.
+     *
+     * @return the copy
+     */
+    public LatencyHistogram copy() {
+        LatencyHistogram copy = new LatencyHistogram();
+        copy.add(this);
+        return copy;
+    }
+
+    /**
+     * Writes the histogram as its bucket layout, its non-empty buckets and its totals.
+     *
+     * <p>Values recorded concurrently may or may not be included, but the written histogram is consistent
+     * in itself: its total count is the sum of the written buckets.</p>
+     *
+     * @param out the destination
+     * @throws IOException if writing fails
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        int[] indexes = new int[BUCKET_COUNT];
+        long[] bucketCounts = new long[BUCKET_COUNT];
+        int used = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            long count = counts.get(i);
+            if (count != 0) {
+                indexes[used] = i;
+                bucketCounts[used++] = count;
+            }
+        }
+        out.writeInt(LAYOUT);
+        out.writeInt(used);
+        for (int i = 0; i < used; i++) {
+            out.writeInt(indexes[i]);
+            out.writeLong(bucketCounts[i]);
+        }
+        out.writeLong(totalValue.get());
+        out.writeLong(getMin());
+        out.writeLong(getMax());
+    }
+
+    /**
+     * Reads a histogram written by {@link #writeTo}.
+     *
+     * @param in the source
+     * @return the histogram
+     * @throws IOException if reading fails or the data was written with another bucket layout
+     */
+    public static LatencyHistogram readFrom(DataInput in) throws IOException {
+        int layout = in.readInt();
+        if (layout != LAYOUT) {
+            throw new IOException("Unsupported histogram layout " + Integer.toHexString(layout)
+                    + ", expected " + Integer.toHexString(LAYOUT));
+        }
+        LatencyHistogram histogram = new LatencyHistogram();
+        int used = in.readInt();
+        for (int i = 0; i < used; i++) {
+            int index = in.readInt();
+            long count = in.readLong();
+            if (index < 0 || index >= BUCKET_COUNT || count < 0) {
+                throw new IOException("Corrupt histogram bucket " + index + " with count " + count);
+            }
+            histogram.counts.addAndGet(index, count);
+            histogram.totalCount.addAndGet(count);
+        }
+        histogram.totalValue.set(in.readLong());
+        long min = in.readLong();
+        long max = in.readLong();
+        if (histogram.totalCount.get() > 0) {
+            histogram.minValue.set(min);
+            histogram.maxValue.set(max);
+        }
+        return histogram;
+    }
+
+    /**
+     * Returns the value at the given percentile, reported as the highest value equivalent to its bucket.
+     *
+     * @param percentile the percentile, between 0 and 100
+     * @return the value in microseconds, or 0 if the histogram is empty
+     */
+    public long getValueAtPercentile(double percentile) {
+        long total = totalCount.get();
+        if (total == 0) {
+            return 0;
+        }
+        double clamped = Math.min(100.0, Math.max(0.0, percentile));
+        long target = Math.max(1, (long) Math.ceil(clamped / 100.0 * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts.get(i);
+            if (seen >= target) {
+                return Math.min(highestEquivalentValue(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    public long getTotalCount() {
+        return totalCount.get();
+    }
+
+    public long getMin() {
+        return totalCount.get() == 0 ? 0 : minValue.get();
+    }
+
+    public long getMax() {
+        return maxValue.get();
+    }
+
+    public double getMean() {
+        long total = totalCount.get();
+        return total == 0 ? 0.0 : (double) totalValue.get() / total;
+    }
+
+    /**
+     * Returns a one-line summary with the standard percentiles in milliseconds.
+     *
+     * @return the summary
+     */
+    public String summary() {
+        return String.format(Locale.ROOT,
+                "count=%d p50=%.2fms p90=%.2fms p99=%.2fms p99.9=%.2fms max=%.2fms",
+                getTotalCount(),
+                getValueAtPercentile(50) / 1000.0,
+                getValueAtPercentile(90) / 1000.0,
+                getValueAtPercentile(99) / 1000.0,
+                getValueAtPercentile(99.9) / 1000.0,
+                getMax() / 1000.0);
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - (SUB_BUCKET_BITS - 1);
+        int subBucket = (int) (value >>> shift);
+        return SUB_BUCKET_COUNT + (shift - 1) * SUB_BUCKET_HALF + (subBucket - SUB_BUCKET_HALF);
+    }
+
+    static long highestEquivalentValue(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = (index - SUB_BUCKET_COUNT) / SUB_BUCKET_HALF + 1;
+        long subBucket = (index - SUB_BUCKET_COUNT) % SUB_BUCKET_HALF + SUB_BUCKET_HALF;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,262 @@
+package com.demo.api.perf;
+
+import com.demo.api.utilities.Config;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Splits an open-loop load run across several local worker JVMs and merges their results.
+ *
+ * <p>A single JVM running the {@link LoadGenerator} runs out of CPU and sockets long before a real API
+ * does. The coordinator therefore starts {@code workers} child processes of {@link LoadWorker} on the same
+ * classpath, each driving {@code targetRate / workers} requests per second with its own connection pool, and
+ * runs the following steps:</p>
+ * <ol>
+ *     <li>every worker connects back over a loopback socket once its client is built;</li>
+ *     <li>when all are ready, the coordinator sends them one common start time, so that the measured windows
+ *     line up;</li>
+ *     <li>each worker sends back its {@link LoadReport}, whose histograms are merged bucket by bucket into a
+ *     {@link DistributedLoadReport} with the same percentile accuracy as a single run.</li>
+ * </ol>
+ *
+ * <p>Workers hit the base URI resolved by the coordinator, so with {@code stub.enabled=true} all of them
+ * share the coordinator's stand-in. Every {@code -D} override of a {@code config.properties} key family
+ * ({@code load.*}, {@code http.*}, ...) is passed on; the output of worker {@code i} goes to
+ * {@code <load.worker.log.dir>/worker-i.log}.</p>
+ *
+ * <p>Usage example:</p>
+ * <pre>
+ *     DistributedLoadReport report = LoadCoordinator.fromConfig(Config.getBaseUri()).run();
+ *     LOGGER.info("\n{}", report.format());
+ * </pre>
+ */
+public class LoadCoordinator {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LoadCoordinator.class);
+
+    private final String baseUri;
+    private final int workers;
+    private final double targetRate;
+    private final Duration duration;
+    private final Duration warmup;
+    private final String mix;
+    private final List<String> jvmArgs;
+    private final double skewThreshold;
+
+    /**
+     * Creates a coordinator.
+     *
+     * @param baseUri       the base URI all workers send their requests to
+     * @param workers       number of worker processes
+     * @param targetRate    total arrival rate in requests per second, split evenly across the workers
+     * @param duration      measured duration
+     * @param warmup        unmeasured warm-up before {@code duration}
+     * @param mix           the operation mix, as in {@link OperationMix#parse}
+     * @param jvmArgs       extra JVM arguments of every worker, e.g. {@code -Xmx256m}
+     * @param skewThreshold ratio to the median worker above which a worker is reported as skewed
+     */
+    public LoadCoordinator(String baseUri, int workers, double targetRate, Duration duration, Duration warmup,
+                           String mix, List<String> jvmArgs, double skewThreshold) {
+        if (workers <= 0) {
+            throw new IllegalArgumentException("Workers must be positive, got " + workers);
+        }
+        if (targetRate <= 0) {
+            throw new IllegalArgumentException("Target rate must be positive, got " + targetRate);
+        }
+        OperationMix.parse(mix);
+        this.baseUri = baseUri;
+        this.workers = workers;
+        this.targetRate = targetRate;
+        this.duration = duration;
+        this.warmup = warmup;
+        this.mix = mix;
+        this.jvmArgs = List.copyOf(jvmArgs);
+        this.skewThreshold = skewThreshold;
+    }
+
+    /**
+     * Creates a coordinator configured by the {@code load.*} keys of {@code config.properties}.
+     *
+     * @param baseUri the base URI all workers send their requests to
+     * @return the configured coordinator
+     */
+    public static LoadCoordinator fromConfig(String baseUri) {
+        String jvmArgs = Config.get("load.worker.jvm.args", "");
+        return new LoadCoordinator(
+                baseUri,
+                Config.getInt("load.workers", 2),
+                Config.getDouble("load.rate", 50),
+                Duration.ofSeconds(Config.getLong("load.duration.seconds", 10)),
+                Duration.ofSeconds(Config.getLong("load.warmup.seconds", 2)),
+                Config.get("load.mix", "create:1,list:4,get:4,delete:1"),
+                jvmArgs.isBlank() ? List.of() : Arrays.asList(jvmArgs.trim().split("\\s+")),
+                Config.getDouble("load.worker.skew.threshold", 1.5));
+    }
+
+    /**
+     * Starts the workers, releases them together and waits for all of their reports.
+     *
+     * @return the merged and per-worker report
+     * @throws IOException          if a worker cannot be started or fails
+     * @throws InterruptedException if the calling thread is interrupted
+     */
+    public DistributedLoadReport run() throws IOException, InterruptedException {
+        double workerRate = targetRate / workers;
+        LOGGER.info("Starting distributed load: workers={}, rate={} req/s ({} per worker), duration={}, warmup={}, mix={}",
+                workers, targetRate, workerRate, duration, warmup, mix);
+
+        Path logDir = Paths.get(Config.get("load.worker.log.dir", "target/load-workers"));
+        Files.createDirectories(logDir);
+        List<Process> processes = new ArrayList<>();
+        Map<Integer, Connection> connections = new LinkedHashMap<>();
+        boolean completed = false;
+        try (ServerSocket server = new ServerSocket(0, workers, InetAddress.getLoopbackAddress())) {
+            for (int i = 0; i < workers; i++) {
+                processes.add(start(server.getLocalPort(), i, workerRate, logDir.resolve("worker-" + i + ".log")));
+            }
+
+            // 1. Wait until every worker has built its client, failing fast if one dies first
+            long deadline = System.nanoTime()
+                    + TimeUnit.SECONDS.toNanos(Config.getLong("load.worker.connect.timeout.seconds", 60));
+            server.setSoTimeout(500);
+            while (connections.size() < workers) {
+                Socket socket;
+                try {
+                    socket = server.accept();
+                } catch (SocketTimeoutException e) {
+                    for (int i = 0; i < processes.size(); i++) {
+                        if (!processes.get(i).isAlive() && !connections.containsKey(i)) {
+                            throw new IOException("Load worker " + i + " exited with status "
+                                    + processes.get(i).exitValue() + ", see " + logDir.resolve("worker-" + i + ".log"));
+                        }
+                    }
+                    if (System.nanoTime() > deadline) {
+                        throw new IOException(connections.size() + " of " + workers
+                                + " load workers connected in time, see " + logDir, e);
+                    }
+                    continue;
+                }
+                // A worker that connects but never identifies itself would be missing from the run
+                try {
+                    Connection connection = new Connection(socket);
+                    connections.put(connection.index, connection);
+                } catch (IOException e) {
+                    socket.close();
+                    throw new IOException("A load worker connected but did not identify itself, see " + logDir, e);
+                }
+            }
+
+            // 2. Release all workers at the same moment
+            long startAt = System.currentTimeMillis() + Config.getLong("load.worker.start.delay.ms", 1_000);
+            for (Connection connection : connections.values()) {
+                connection.out.writeLong(startAt);
+                connection.out.flush();
+            }
+
+            // 3. Collect the reports
+            long reportTimeout = startAt - System.currentTimeMillis() + warmup.toMillis() + duration.toMillis()
+                    + TimeUnit.SECONDS.toMillis(Config.getLong("load.drain.seconds", 60) + 30);
+            List<DistributedLoadReport.WorkerReport> reports = new ArrayList<>();
+            for (int i = 0; i < workers; i++) {
+                Connection connection = connections.get(i);
+                if (connection == null) {
+                    throw new IOException("Load worker " + i + " never connected, see " + logDir);
+                }
+                connection.socket.setSoTimeout((int) Math.max(1, reportTimeout));
+                try {
+                    reports.add(new DistributedLoadReport.WorkerReport(i, connection.pid,
+                            LoadReport.readFrom(connection.in)));
+                } catch (IOException e) {
+                    throw new IOException("Load worker " + i + " did not send its report, see "
+                            + logDir.resolve("worker-" + i + ".log"), e);
+                }
+            }
+            completed = true;
+            return new DistributedLoadReport(reports, skewThreshold);
+        } finally {
+            for (Connection connection : connections.values()) {
+                connection.socket.close();
+            }
+            stop(processes, completed);
+        }
+    }
+
+    private Process start(int port, int index, double workerRate, Path log) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmArgs);
+        Config.overrides().forEach((key, value) -> command.add("-D" + key + "=" + value));
+        command.add("-Dstub.enabled=false");
+        command.add("-Dproxy.enabled=false");
+        command.add("-Dbase.uri=" + baseUri);
+        command.add("-Dload.rate=" + String.format(Locale.ROOT, "%.6f", workerRate));
+        command.add("-Dload.duration.seconds=" + duration.getSeconds());
+        command.add("-Dload.warmup.seconds=" + warmup.getSeconds());
+        command.add("-Dload.mix=" + mix);
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(LoadWorker.class.getName());
+        command.add(String.valueOf(port));
+        command.add(String.valueOf(index));
+        LOGGER.debug("Starting load worker {}: {}", index, command);
+        return new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+    }
+
+    // Waits for the workers to exit after a complete run; kills them right away after a failure
+    private static void stop(List<Process> processes, boolean completed) throws InterruptedException {
+        for (Process process : processes) {
+            if (!completed) {
+                process.destroyForcibly();
+            } else if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                LOGGER.warn("Load worker {} did not exit, killing it", process.pid());
+                process.destroyForcibly();
+            } else if (process.exitValue() != 0) {
+                LOGGER.warn("Load worker {} exited with status {}", process.pid(), process.exitValue());
+            }
+        }
+    }
+
+    // One worker's socket with its streams, opened when the worker reports ready
+    private static final class Connection {
+
+        private final Socket socket;
+        private final DataInputStream in;
+        private final DataOutputStream out;
+        private final int index;
+        private final long pid;
+
+        Connection(Socket socket) throws IOException {
+            this.socket = socket;
+            this.in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            socket.setSoTimeout(10_000);
+            this.index = in.readInt();
+            this.pid = in.readLong();
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.demo.api.perf;
+
+import com.demo.api.utilities.Config;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Open-loop load driver for the {@link UserOperation}s.
+ *
+ * <p>Requests are released at a fixed target arrival rate regardless of how fast earlier requests
+ * complete. Each request is timed from its <em>intended</em> start, so when the API or the client
+ * falls behind, the queueing delay shows up in the percentiles instead of being silently omitted
+ * (coordinated omission).</p>
+ *
+ * <p>Usage example:</p>
+ * <pre>
+ *     LoadReport report = LoadGenerator.fromConfig(withApiKey).run();
+ *     LOGGER.info("\n{}", report.format());
+ * </pre>
+ */
+public class LoadGenerator {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LoadGenerator.class);
+
+    private final RequestSpecification spec;
+    private final OperationMix mix;
+    private final double targetRate;
+    private final Duration duration;
+    private final Duration warmup;
+    private final int maxConcurrency;
+
+    /**
+     * Creates a load generator.
+     *
+     * @param spec           the request specification used for every call
+     * @param mix            weighted operations to issue
+     * @param targetRate     arrival rate in requests per second
+     * @param duration       measured duration
+     * @param warmup         unmeasured warm-up before {@code duration}
+     * @param maxConcurrency maximum number of requests in flight
+     */
+    public LoadGenerator(RequestSpecification spec, OperationMix mix, double targetRate,
+                         Duration duration, Duration warmup, int maxConcurrency) {
+        if (targetRate <= 0) {
+            throw new IllegalArgumentException("Target rate must be positive, got " + targetRate);
+        }
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("Max concurrency must be positive, got " + maxConcurrency);
+        }
+        this.spec = spec;
+        this.mix = mix;
+        this.targetRate = targetRate;
+        this.duration = duration;
+        this.warmup = warmup;
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    /**
+     * Creates a load generator configured by the {@code load.*} keys of {@code config.properties}.
+     *
+     * @param spec the request specification used for every call
+     * @return the configured generator
+     */
+    public static LoadGenerator fromConfig(RequestSpecification spec) {
+        return new LoadGenerator(
+                spec,
+                OperationMix.parse(Config.get("load.mix", "create:1,list:4,get:4,delete:1")),
+                Config.getDouble("load.rate", 50),
+                Duration.ofSeconds(Config.getLong("load.duration.seconds", 10)),
+                Duration.ofSeconds(Config.getLong("load.warmup.seconds", 2)),
+                Config.getInt("load.max.concurrency", 64));
+    }
+
+    /**
+     * Runs the workload and blocks until all issued requests have completed.
+     *
+     * @return the per-operation latency report of the measured window
+     * @throws InterruptedException if the calling thread is interrupted
+     */
+    public LoadReport run() throws InterruptedException {
+        LOGGER.info("Starting open-loop load: rate={} req/s, duration={}, warmup={}, mix={}, maxConcurrency={}",
+                targetRate, duration, warmup, mix, maxConcurrency);
+
+        LoadReport report = new LoadReport(targetRate);
+        ExecutorService workers = Executors.newFixedThreadPool(maxConcurrency, daemonThreads("load-worker-"));
+        double intervalNanos = 1e9 / targetRate;
+        long start = System.nanoTime();
+        long measuredFrom = start + warmup.toNanos();
+        long end = measuredFrom + duration.toNanos();
+
+        try {
+            for (long i = 0; ; i++) {
+                long intended = start + (long) (i * intervalNanos);
+                if (intended >= end) {
+                    break;
+                }
+                waitUntil(intended);
+                boolean measured = intended >= measuredFrom;
+                UserOperation operation = mix.next();
+                workers.execute(() -> issue(operation, intended, measured, report));
+            }
+        } finally {
+            workers.shutdown();
+        }
+        if (!workers.awaitTermination(Config.getLong("load.drain.seconds", 60), TimeUnit.SECONDS)) {
+            LOGGER.warn("Load workers did not drain in time, cancelling outstanding requests");
+            workers.shutdownNow();
+        }
+        report.setMeasuredNanos(Math.max(0, System.nanoTime() - measuredFrom));
+        return report;
+    }
+
+    private void issue(UserOperation operation, long intendedStart, boolean measured, LoadReport report) {
+        long sentAt = System.nanoTime();
+        boolean failed;
+        try {
+            Response response = operation.execute(spec);
+            failed = response.getStatusCode() >= 400;
+        } catch (RuntimeException e) {
+            LOGGER.warn("{} request failed: {}", operation, e.toString());
+            failed = true;
+        }
+        long completedAt = System.nanoTime();
+        if (measured) {
+            report.get(operation).record(completedAt - intendedStart, completedAt - sentAt, failed);
+        }
+    }
+
+    private static void waitUntil(long deadlineNanos) throws InterruptedException {
+        long remaining;
+        while ((remaining = deadlineNanos - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+    }
+
+    static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,228 @@
+package com.demo.api.perf;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-operation results of a load run.
+ *
+ * <p>For each {@link UserOperation} two histograms are kept:</p>
+ * <ul>
+ *     <li><strong>response time</strong> – measured from the <em>intended</em> start of the request, so time
+ *     spent waiting for a free worker is included (corrected for coordinated omission).</li>
+ *     <li><strong>service time</strong> – measured from the moment the request was actually sent.</li>
+ * </ul>
+ *
+ * <p>Reports of several load workers are combined with {@link #add(LoadReport)}, in the same JVM or after
+ * crossing a process boundary through {@link #writeTo} and {@link #readFrom}.</p>
+ */
+public class LoadReport {
+
+    /** Results of a single operation. */
+    public static class OperationStats {
+
+        private final LatencyHistogram responseTime = new LatencyHistogram();
+        private final LatencyHistogram serviceTime = new LatencyHistogram();
+        private final LongAdder errors = new LongAdder();
+
+        /**
+         * Records one completed request.
+         *
+         * @param responseNanos time since the intended start
+         * @param serviceNanos  time since the actual start
+         * @param failed        whether the request failed (exception or status &gt;= 400)
+         */
+        public void record(long responseNanos, long serviceNanos, boolean failed) {
+            responseTime.record(responseNanos / 1_000);
+            serviceTime.record(serviceNanos / 1_000);
+            if (failed) {
+                errors.increment();
+            }
+        }
+
+        public LatencyHistogram getResponseTime() {
+            return responseTime;
+        }
+
+        public LatencyHistogram getServiceTime() {
+            return serviceTime;
+        }
+
+        public long getCount() {
+            return responseTime.getTotalCount();
+        }
+
+        public long getErrors() {
+            return errors.sum();
+        }
+
+        void add(OperationStats other) {
+            responseTime.add(other.responseTime);
+            serviceTime.add(other.serviceTime);
+            errors.add(other.getErrors());
+        }
+
+        void writeTo(DataOutput out) throws IOException {
+            responseTime.writeTo(out);
+            serviceTime.writeTo(out);
+            out.writeLong(errors.sum());
+        }
+
+        void readFrom(DataInput in) throws IOException {
+            responseTime.add(LatencyHistogram.readFrom(in));
+            serviceTime.add(LatencyHistogram.readFrom(in));
+            errors.add(in.readLong());
+        }
+    }
+
+    private final Map<UserOperation, OperationStats> stats = new EnumMap<>(UserOperation.class);
+    private final double targetRate;
+    private volatile long measuredNanos;
+
+    /**
+     * Creates an empty report.
+     *
+     * @param targetRate the requested arrival rate in requests per second
+     */
+    public LoadReport(double targetRate) {
+        this.targetRate = targetRate;
+        for (UserOperation operation : UserOperation.values()) {
+            stats.put(operation, new OperationStats());
+        }
+    }
+
+    public OperationStats get(UserOperation operation) {
+        return stats.get(operation);
+    }
+
+    public Map<UserOperation, OperationStats> getStats() {
+        return Collections.unmodifiableMap(stats);
+    }
+
+    public double getTargetRate() {
+        return targetRate;
+    }
+
+    public long getMeasuredNanos() {
+        return measuredNanos;
+    }
+
+    void setMeasuredNanos(long measuredNanos) {
+        this.measuredNanos = measuredNanos;
+    }
+
+    /**
+     * Adds the results of another report, e.g. of another load worker running at the same time.
+     *
+     * <p>Histograms are merged bucket by bucket, so the percentiles are those of all requests together. The
+     * target rates add up, and the measured window becomes the longer of both.</p>
+     *
+     * @param other the report to merge in
+     * @return a new report with the combined results
+     */
+    public LoadReport add(LoadReport other) {
+        LoadReport merged = new LoadReport(targetRate + other.targetRate);
+        for (UserOperation operation : UserOperation.values()) {
+            merged.get(operation).add(get(operation));
+            merged.get(operation).add(other.get(operation));
+        }
+        merged.setMeasuredNanos(Math.max(measuredNanos, other.measuredNanos));
+        return merged;
+    }
+
+    /**
+     * Writes the report, including every histogram, so that it can be read back in another process.
+     *
+     * @param out the destination
+     * @throws IOException if writing fails
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeDouble(targetRate);
+        out.writeLong(measuredNanos);
+        out.writeInt(stats.size());
+        for (Map.Entry<UserOperation, OperationStats> entry : stats.entrySet()) {
+            out.writeUTF(entry.getKey().name());
+            entry.getValue().writeTo(out);
+        }
+    }
+
+    /**
+     * Reads a report written by {@link #writeTo}.
+     *
+     * @param in the source
+     * @return the report
+     * @throws IOException if reading fails
+     */
+    public static LoadReport readFrom(DataInput in) throws IOException {
+        LoadReport report = new LoadReport(in.readDouble());
+        report.setMeasuredNanos(in.readLong());
+        int operations = in.readInt();
+        for (int i = 0; i < operations; i++) {
+            String name = in.readUTF();
+            try {
+                report.get(UserOperation.valueOf(name)).readFrom(in);
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Unknown operation '" + name + "' in load report", e);
+            }
+        }
+        return report;
+    }
+
+    /**
+     * Returns the merged statistics of all operations.
+     *
+     * @return the aggregate statistics
+     */
+    public OperationStats total() {
+        OperationStats total = new OperationStats();
+        stats.values().forEach(total::add);
+        return total;
+    }
+
+    /**
+     * Returns the achieved throughput over the measured window.
+     *
+     * @return completed requests per second
+     */
+    public double getAchievedRate() {
+        return measuredNanos == 0 ? 0.0 : total().getCount() * 1e9 / measuredNanos;
+    }
+
+    /**
+     * Formats the report as a plain-text table with latencies in milliseconds.
+     *
+     * @return the formatted report
+     */
+    public String format() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.ROOT, "Target rate: %.1f req/s, achieved: %.1f req/s over %.1f s%n",
+                targetRate, getAchievedRate(), measuredNanos / 1e9));
+        sb.append(String.format(Locale.ROOT, "%-8s %9s %7s %9s %9s %9s %9s %9s   %s%n",
+                "op", "count", "errors", "p50", "p90", "p99", "p99.9", "max", "(response time, ms)"));
+        stats.forEach((operation, operationStats) -> appendRow(sb, operation.name(), operationStats));
+        appendRow(sb, "ALL", total());
+        return sb.toString();
+    }
+
+    private static void appendRow(StringBuilder sb, String label, OperationStats operationStats) {
+        if (operationStats.getCount() == 0) {
+            return;
+        }
+        LatencyHistogram histogram = operationStats.getResponseTime();
+        sb.append(String.format(Locale.ROOT, "%-8s %9d %7d %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                label,
+                operationStats.getCount(),
+                operationStats.getErrors(),
+                histogram.getValueAtPercentile(50) / 1000.0,
+                histogram.getValueAtPercentile(90) / 1000.0,
+                histogram.getValueAtPercentile(99) / 1000.0,
+                histogram.getValueAtPercentile(99.9) / 1000.0,
+                histogram.getMax() / 1000.0));
+    }
+}
@@ -0,0 +1,99 @@
+package com.demo.api.perf;
+
+import com.demo.api.utilities.CreatedUserRegistry;
+import com.demo.api.utilities.RequestSpecs;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+/**
+ * Entry point of a load worker process started by {@link LoadCoordinator}.
+ *
+ * <p>The worker connects back to the coordinator on the loopback interface and runs through three steps:</p>
+ * <ol>
+ *     <li>build its {@link LoadGenerator} from {@code config.properties} and the {@code -D} overrides passed by
+ *     the coordinator, then send its index and process id;</li>
+ *     <li>wait for the common start time (epoch milliseconds) and sleep until then;</li>
+ *     <li>run the load, delete the users it created if {@code cleanup.enabled=true}, and send the
+ *     {@link LoadReport}, histograms included, before exiting.</li>
+ * </ol>
+ *
+ * <p>The users a worker creates are recorded in its own {@link CreatedUserRegistry}, which the test run's
+ * cleanup never sees, so the worker deletes them itself before it reports.</p>
+ *
+ * <p>Arguments: {@code <coordinator port> <worker index>}. The process exits with status 0 on success and 1
+ * on any failure, which the coordinator reports together with the worker's log file.</p>
+ */
+public final class LoadWorker {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LoadWorker.class);
+
+    private LoadWorker() {
+    }
+
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            System.err.println("Usage: LoadWorker <coordinator port> <worker index>");
+            System.exit(2);
+        }
+        int port = Integer.parseInt(args[0]);
+        int index = Integer.parseInt(args[1]);
+        MDC.put("worker", String.valueOf(index));
+        int status = 0;
+        try {
+            LoadGenerator generator = LoadGenerator.fromConfig(RequestSpecs.withApiKey());
+            run(generator, port, index);
+        } catch (Exception e) {
+            LOGGER.error("Worker {} failed", index, e);
+            status = 1;
+        } finally {
+            MDC.clear();
+        }
+        // Pool evictors and HTTP client threads must not keep the worker alive
+        System.exit(status);
+    }
+
+    private static void run(LoadGenerator generator, int port, int index) throws Exception {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()))) {
+            out.writeInt(index);
+            out.writeLong(ProcessHandle.current().pid());
+            out.flush();
+
+            long startAt = in.readLong();
+            long delay = startAt - System.currentTimeMillis();
+            LOGGER.info("Worker {} ready, starting in {} ms", index, delay);
+            if (delay > 0) {
+                Thread.sleep(delay);
+            }
+
+            LoadReport report;
+            try {
+                report = generator.run();
+            } finally {
+                cleanup(index);
+            }
+            LOGGER.info("Worker {} finished:\n{}", index, report.format());
+            report.writeTo(out);
+            out.flush();
+        }
+    }
+
+    private static void cleanup(int index) {
+        if (CreatedUserRegistry.isEnabled()) {
+            int failed = CreatedUserRegistry.cleanup();
+            if (failed > 0) {
+                LOGGER.warn("Worker {} could not clean up {} created users", index, failed);
+            }
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.demo.api.perf;
+
+import java.util.Arrays;
+
+/**
+ * Mann-Whitney U test and Cliff's delta for two independent latency samples.
+ *
+ * <p>The test is rank based, so it makes no assumption about the shape of the distributions: latencies are
+ * skewed and long-tailed, and a t-test on their means would be dominated by a few outliers. The p-values
+ * come from the normal approximation with tie correction and continuity correction, which is accurate for
+ * the sample sizes a comparison run produces (tens of observations per side and more).</p>
+ *
+ * <p>Cliff's delta is the probability that a candidate latency is larger than a baseline latency minus the
+ * probability that it is smaller, from -1 (always faster) to +1 (always slower). By convention |delta|
+ * below 0.147 is negligible, below 0.33 small, below 0.474 medium and large above.</p>
+ *
+ * <p>Usage example:</p>
+ * <pre>
+ *     MannWhitney.Result result = MannWhitney.test(baselineMicros, candidateMicros);
+ *     boolean slower = result.getPValueGreater() &lt; 0.01 &amp;&amp; result.getCliffsDelta() &gt;= 0.147;
+ * </pre>
+ */
+public final class MannWhitney {
+
+    /** Outcome of one test. */
+    public static final class Result {
+
+        private final double u;
+        private final double z;
+        private final double pValueGreater;
+        private final double pValueLess;
+        private final double cliffsDelta;
+
+        Result(double u, double z, double pValueGreater, double pValueLess, double cliffsDelta) {
+            this.u = u;
+            this.z = z;
+            this.pValueGreater = pValueGreater;
+            this.pValueLess = pValueLess;
+            this.cliffsDelta = cliffsDelta;
+        }
+
+        /**
+         * Returns the U statistic of the candidate: the number of (baseline, candidate) pairs in which the
+         * candidate is larger, ties counting one half.
+         *
+         * @return the U statistic
+         */
+        public double getU() {
+            return u;
+        }
+
+        public double getZ() {
+            return z;
+        }
+
+        /**
+         * Returns the one-sided p-value of the hypothesis that candidate values tend to be larger.
+         *
+         * @return the p-value, between 0 and 1
+         */
+        public double getPValueGreater() {
+            return pValueGreater;
+        }
+
+        /**
+         * Returns the one-sided p-value of the hypothesis that candidate values tend to be smaller.
+         *
+         * @return the p-value, between 0 and 1
+         */
+        public double getPValueLess() {
+            return pValueLess;
+        }
+
+        public double getCliffsDelta() {
+            return cliffsDelta;
+        }
+    }
+
+    private MannWhitney() {
+    }
+
+    /**
+     * Compares two samples.
+     *
+     * @param baseline  the baseline values
+     * @param candidate the candidate values
+     * @return the test result
+     * @throws IllegalArgumentException if either sample is empty
+     */
+    public static Result test(long[] baseline, long[] candidate) {
+        int n1 = baseline.length;
+        int n2 = candidate.length;
+        if (n1 == 0 || n2 == 0) {
+            throw new IllegalArgumentException("Both samples must be non-empty, got " + n1 + " and " + n2);
+        }
+
+        // Rank the pooled sample; the low bit marks candidate values so that they survive the sort
+        long[] pooled = new long[n1 + n2];
+        for (int i = 0; i < n1; i++) {
+            pooled[i] = baseline[i] << 1;
+        }
+        for (int i = 0; i < n2; i++) {
+            pooled[n1 + i] = candidate[i] << 1 | 1;
+        }
+        Arrays.sort(pooled);
+
+        double candidateRanks = 0;
+        double tieTerm = 0;
+        for (int i = 0; i < pooled.length; ) {
+            int j = i;
+            int candidatesInTie = 0;
+            while (j < pooled.length && pooled[j] >> 1 == pooled[i] >> 1) {
+                candidatesInTie += (int) (pooled[j] & 1);
+                j++;
+            }
+            int ties = j - i;
+            // Tied values share the mean of ranks i + 1 .. j
+            candidateRanks += candidatesInTie * (i + 1 + j) / 2.0;
+            tieTerm += (double) ties * ties * ties - ties;
+            i = j;
+        }
+
+        double pairs = (double) n1 * n2;
+        double u = candidateRanks - n2 * (n2 + 1) / 2.0;
+        double mean = pairs / 2;
+        double n = n1 + n2;
+        double variance = pairs / 12 * ((n + 1) - tieTerm / (n * (n - 1)));
+        if (variance <= 0) {
+            // Every value is the same: no evidence either way
+            return new Result(u, 0, 1, 1, 0);
+        }
+        double sd = Math.sqrt(variance);
+        double z = (u - mean) / sd;
+        double zGreater = (u - mean - 0.5) / sd;
+        double zLess = (u - mean + 0.5) / sd;
+        return new Result(u, z, upperTail(zGreater), 1 - upperTail(zLess), (2 * u - pairs) / pairs);
+    }
+
+    // P(Z > z) for a standard normal Z
+    static double upperTail(double z) {
+        return 0.5 * erfc(z / Math.sqrt(2));
+    }
+
+    // Complementary error function with a fractional error below 1.2e-7 (Chebyshev fit, Numerical Recipes)
+    private static double erfc(double x) {
+        double t = 1 / (1 + 0.5 * Math.abs(x));
+        double y = t * Math.exp(-x * x - 1.26551223 + t * (1.00002368 + t * (0.37409196 + t * (0.09678418
+                + t * (-0.18628806 + t * (0.27886807 + t * (-1.13520398 + t * (1.48851587
+                + t * (-0.82215223 + t * 0.17087277)))))))));
+        return x >= 0 ? y : 2 - y;
+    }
+}
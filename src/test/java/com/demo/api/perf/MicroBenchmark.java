@@ -0,0 +1,241 @@
+package com.demo.api.perf;
+
+import com.demo.api.utilities.Config;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Minimal in-process microbenchmark harness for client-side hot paths.
+ *
+ * <p>Each benchmark runs {@code warmupIterations} unmeasured and {@code measurementIterations} measured
+ * iterations of {@code iterationMillis} each, on the calling thread. For every measured iteration it records:</p>
+ * <ul>
+ *     <li><strong>throughput</strong> – operations per second; reported as mean and standard deviation</li>
+ *     <li><strong>allocation</strong> – bytes allocated by the calling thread per operation
+ *     ({@code com.sun.management.ThreadMXBean})</li>
+ *     <li><strong>GC</strong> – collections and collection time of all collectors during the iteration</li>
+ * </ul>
+ *
+ * <p>The value returned by each operation is published to a volatile field so the JIT cannot eliminate
+ * the work. The clock is read after every operation, which adds a few tens of nanoseconds; the harness is
+ * meant for operations in the microsecond range and above, such as the ones in this project.</p>
+ *
+ * <p>Usage example:</p>
+ * <pre>
+ *     MicroBenchmark bench = MicroBenchmark.fromConfig();
+ *     MicroBenchmark.Result result = bench.run("payload.serialize", () -&gt; mapper.writeValueAsBytes(payload));
+ * </pre>
+ */
+public class MicroBenchmark {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MicroBenchmark.class);
+
+    private static volatile Object sink;
+
+    private final int warmupIterations;
+    private final int measurementIterations;
+    private final long iterationMillis;
+
+    /** Results of one benchmark. */
+    public static final class Result {
+
+        private final String name;
+        private final double opsPerSecond;
+        private final double opsPerSecondStdDev;
+        private final double bytesPerOp;
+        private final long gcCount;
+        private final long gcMillis;
+
+        Result(String name, double opsPerSecond, double opsPerSecondStdDev, double bytesPerOp, long gcCount, long gcMillis) {
+            this.name = name;
+            this.opsPerSecond = opsPerSecond;
+            this.opsPerSecondStdDev = opsPerSecondStdDev;
+            this.bytesPerOp = bytesPerOp;
+            this.gcCount = gcCount;
+            this.gcMillis = gcMillis;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public double getOpsPerSecond() {
+            return opsPerSecond;
+        }
+
+        public double getOpsPerSecondStdDev() {
+            return opsPerSecondStdDev;
+        }
+
+        /** @return mean time per operation in microseconds */
+        public double getMicrosPerOp() {
+            return 1_000_000.0 / opsPerSecond;
+        }
+
+        /** @return bytes allocated per operation, or -1 if the JVM does not support allocation tracking */
+        public double getBytesPerOp() {
+            return bytesPerOp;
+        }
+
+        public long getGcCount() {
+            return gcCount;
+        }
+
+        public long getGcMillis() {
+            return gcMillis;
+        }
+    }
+
+    /**
+     * Operation under measurement; may throw checked exceptions.
+     *
+     * @param <T> the result type, consumed to keep the work alive
+     */
+    @FunctionalInterface
+    public interface Operation<T> {
+        T run() throws Exception;
+    }
+
+    /**
+     * Creates a harness.
+     *
+     * @param warmupIterations      unmeasured iterations before the measured ones
+     * @param measurementIterations measured iterations
+     * @param iterationMillis       length of each iteration
+     */
+    public MicroBenchmark(int warmupIterations, int measurementIterations, long iterationMillis) {
+        if (measurementIterations <= 0 || iterationMillis <= 0) {
+            throw new IllegalArgumentException("Measurement iterations and iteration time must be positive");
+        }
+        this.warmupIterations = warmupIterations;
+        this.measurementIterations = measurementIterations;
+        this.iterationMillis = iterationMillis;
+    }
+
+    /**
+     * Creates a harness configured by the {@code bench.*} keys of {@code config.properties}.
+     *
+     * @return the configured harness
+     */
+    public static MicroBenchmark fromConfig() {
+        return new MicroBenchmark(
+                Config.getInt("bench.warmup.iterations", 3),
+                Config.getInt("bench.iterations", 5),
+                Config.getLong("bench.iteration.ms", 1_000));
+    }
+
+    /**
+     * Runs one benchmark.
+     *
+     * @param name      the benchmark name used in the report
+     * @param operation the operation to measure
+     * @param <T>       the result type of the operation
+     * @return the measured results
+     */
+    public <T> Result run(String name, Operation<T> operation) {
+        LOGGER.info("Benchmark {}: {} warm-up + {} x {} ms", name, warmupIterations, measurementIterations, iterationMillis);
+
+        for (int i = 0; i < warmupIterations; i++) {
+            iteration(operation);
+        }
+
+        com.sun.management.ThreadMXBean threads = allocationTracker();
+        long threadId = Thread.currentThread().getId();
+
+        double[] rates = new double[measurementIterations];
+        long operations = 0;
+        long allocated = 0;
+        long gcCountBefore = gcCount();
+        long gcMillisBefore = gcMillis();
+
+        for (int i = 0; i < measurementIterations; i++) {
+            long allocatedBefore = threads == null ? 0 : threads.getThreadAllocatedBytes(threadId);
+            long start = System.nanoTime();
+            long count = iteration(operation);
+            long elapsed = System.nanoTime() - start;
+            if (threads != null) {
+                allocated += threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+            }
+            operations += count;
+            rates[i] = count * (double) TimeUnit.SECONDS.toNanos(1) / elapsed;
+        }
+
+        double mean = 0;
+        for (double rate : rates) {
+            mean += rate / rates.length;
+        }
+        double variance = 0;
+        for (double rate : rates) {
+            variance += (rate - mean) * (rate - mean) / Math.max(1, rates.length - 1);
+        }
+
+        return new Result(name, mean, Math.sqrt(variance),
+                threads == null ? -1 : (double) allocated / operations,
+                gcCount() - gcCountBefore, gcMillis() - gcMillisBefore);
+    }
+
+    /**
+     * Formats results as an aligned table.
+     *
+     * @param results the results to format
+     * @return the table
+     */
+    public static String format(List<Result> results) {
+        StringBuilder out = new StringBuilder(String.format(Locale.ROOT, "%-32s %14s %12s %12s %14s %6s %8s%n",
+                "benchmark", "ops/s", "± stddev", "us/op", "bytes/op", "gc", "gc ms"));
+        for (Result r : results) {
+            out.append(String.format(Locale.ROOT, "%-32s %14.1f %12.1f %12.3f %14.1f %6d %8d%n",
+                    r.getName(), r.getOpsPerSecond(), r.getOpsPerSecondStdDev(), r.getMicrosPerOp(),
+                    r.getBytesPerOp(), r.getGcCount(), r.getGcMillis()));
+        }
+        return out.toString();
+    }
+
+    private <T> long iteration(Operation<T> operation) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(iterationMillis);
+        long count = 0;
+        try {
+            do {
+                sink = operation.run();
+                count++;
+            } while (System.nanoTime() < deadline);
+        } catch (Exception e) {
+            throw new IllegalStateException("Benchmark operation failed after " + count + " operations", e);
+        }
+        return count;
+    }
+
+    private static com.sun.management.ThreadMXBean allocationTracker() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+            if (threads.isThreadAllocatedMemorySupported()) {
+                threads.setThreadAllocatedMemoryEnabled(true);
+                return threads;
+            }
+        }
+        return null;
+    }
+
+    private static long gcCount() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += Math.max(0, gc.getCollectionCount());
+        }
+        return total;
+    }
+
+    private static long gcMillis() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += Math.max(0, gc.getCollectionTime());
+        }
+        return total;
+    }
+}
@@ -0,0 +1,101 @@
+package com.demo.api.perf;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Weighted selection of {@link UserOperation}s.
+ *
+ * <p>Weights are relative, e.g. {@code create:1,list:4,get:4,delete:1} issues four reads for every write.</p>
+ */
+public final class OperationMix {
+
+    private final UserOperation[] operations;
+    private final long[] cumulativeWeights;
+    private final long totalWeight;
+    private final Map<UserOperation, Integer> weights;
+
+    /**
+     * Creates a mix from explicit weights.
+     *
+     * @param weights weight per operation; operations with weight 0 are never chosen
+     */
+    public OperationMix(Map<UserOperation, Integer> weights) {
+        EnumMap<UserOperation, Integer> positive = new EnumMap<>(UserOperation.class);
+        weights.forEach((operation, weight) -> {
+            if (weight < 0) {
+                throw new IllegalArgumentException("Negative weight for " + operation + ": " + weight);
+            }
+            if (weight > 0) {
+                positive.put(operation, weight);
+            }
+        });
+        if (positive.isEmpty()) {
+            throw new IllegalArgumentException("Operation mix needs at least one positive weight");
+        }
+        this.weights = Collections.unmodifiableMap(positive);
+        this.operations = positive.keySet().toArray(new UserOperation[0]);
+        this.cumulativeWeights = new long[operations.length];
+        long sum = 0;
+        for (int i = 0; i < operations.length; i++) {
+            sum += positive.get(operations[i]);
+            cumulativeWeights[i] = sum;
+        }
+        this.totalWeight = sum;
+    }
+
+    /**
+     * Parses a mix such as {@code create:1,list:4,get:4,delete:1}.
+     *
+     * @param spec comma-separated {@code operation:weight} pairs
+     * @return the parsed mix
+     */
+    public static OperationMix parse(String spec) {
+        EnumMap<UserOperation, Integer> weights = new EnumMap<>(UserOperation.class);
+        for (String entry : spec.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            String[] parts = entry.split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid operation weight '" + entry + "', expected name:weight");
+            }
+            weights.put(UserOperation.parse(parts[0]), Integer.parseInt(parts[1].trim()));
+        }
+        return new OperationMix(weights);
+    }
+
+    /**
+     * Picks the next operation at random according to the weights.
+     *
+     * @return the chosen operation
+     */
+    public UserOperation next() {
+        long ticket = ThreadLocalRandom.current().nextLong(totalWeight);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (ticket < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    public Map<UserOperation, Integer> getWeights() {
+        return weights;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        weights.forEach((operation, weight) -> {
+            if (sb.length() > 0) {
+                sb.append(',');
+            }
+            sb.append(operation.name().toLowerCase(Locale.ROOT)).append(':').append(weight);
+        });
+        return sb.toString();
+    }
+}
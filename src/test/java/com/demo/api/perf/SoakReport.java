@@ -0,0 +1,233 @@
+package com.demo.api.perf;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Fixed-window samples of a soak run and the trends derived from them.
+ *
+ * <p>Each {@link Window} holds the flow latency percentiles and errors of that window together with
+ * client JVM samples taken at its end: used and retained heap (used after the last collection), GC
+ * count and time during the window, live threads and leased pool connections.</p>
+ *
+ * <p>{@link #trend} fits a least-squares line through one metric over the windows after the warm-up
+ * windows and expresses its rise over the run relative to the mean. A steadily rising p99 or retained
+ * heap shows up as a positive growth even when every single window looks acceptable.</p>
+ */
+public class SoakReport {
+
+    /** Samples of one window. */
+    public static final class Window {
+
+        private final int index;
+        private final long flows;
+        private final long errors;
+        private final long p50Micros;
+        private final long p99Micros;
+        private final long maxMicros;
+        private final long heapUsedBytes;
+        private final long heapRetainedBytes;
+        private final long gcCount;
+        private final long gcMillis;
+        private final int threads;
+        private final int leasedConnections;
+
+        /**
+         * Creates the samples of one window.
+         *
+         * @param index             window number, starting at 0
+         * @param latency           flow latencies of the window
+         * @param errors            failed flows in the window
+         * @param heapUsedBytes     used heap at the end of the window
+         * @param heapRetainedBytes heap used after the last collection
+         * @param gcCount           collections during the window
+         * @param gcMillis          collection time during the window
+         * @param threads           live threads at the end of the window
+         * @param leasedConnections leased pool connections at the end of the window
+         */
+        public Window(int index, LatencyHistogram latency, long errors, long heapUsedBytes, long heapRetainedBytes,
+               long gcCount, long gcMillis, int threads, int leasedConnections) {
+            this.index = index;
+            this.flows = latency.getTotalCount();
+            this.errors = errors;
+            this.p50Micros = latency.getValueAtPercentile(50);
+            this.p99Micros = latency.getValueAtPercentile(99);
+            this.maxMicros = latency.getMax();
+            this.heapUsedBytes = heapUsedBytes;
+            this.heapRetainedBytes = heapRetainedBytes;
+            this.gcCount = gcCount;
+            this.gcMillis = gcMillis;
+            this.threads = threads;
+            this.leasedConnections = leasedConnections;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public long getFlows() {
+            return flows;
+        }
+
+        public long getErrors() {
+            return errors;
+        }
+
+        public long getP50Micros() {
+            return p50Micros;
+        }
+
+        public long getP99Micros() {
+            return p99Micros;
+        }
+
+        public long getMaxMicros() {
+            return maxMicros;
+        }
+
+        public long getHeapUsedBytes() {
+            return heapUsedBytes;
+        }
+
+        public long getHeapRetainedBytes() {
+            return heapRetainedBytes;
+        }
+
+        public long getGcCount() {
+            return gcCount;
+        }
+
+        public long getGcMillis() {
+            return gcMillis;
+        }
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public int getLeasedConnections() {
+            return leasedConnections;
+        }
+    }
+
+    private final List<Window> windows = new ArrayList<>();
+    private final int warmupWindows;
+
+    /**
+     * Creates an empty report.
+     *
+     * @param warmupWindows number of leading windows ignored by {@link #trend}
+     */
+    public SoakReport(int warmupWindows) {
+        this.warmupWindows = warmupWindows;
+    }
+
+    public synchronized void add(Window window) {
+        windows.add(window);
+    }
+
+    public synchronized List<Window> getWindows() {
+        return Collections.unmodifiableList(new ArrayList<>(windows));
+    }
+
+    public long getFlows() {
+        return getWindows().stream().mapToLong(Window::getFlows).sum();
+    }
+
+    public long getErrors() {
+        return getWindows().stream().mapToLong(Window::getErrors).sum();
+    }
+
+    public double getErrorRate() {
+        long flows = getFlows();
+        return flows == 0 ? 0.0 : (double) getErrors() / flows;
+    }
+
+    /**
+     * Returns the relative growth of a metric over the measured windows.
+     *
+     * <p>The growth is the rise of the least-squares line from the first to the last measured window,
+     * divided by the mean of the metric: 0.5 means the metric trends 50 % higher at the end than at the
+     * start. Fewer than three measured windows give 0.</p>
+     *
+     * @param metric the metric, e.g. {@code Window::getP99Micros}
+     * @return the relative growth
+     */
+    public double trend(ToDoubleFunction<Window> metric) {
+        List<Window> all = getWindows();
+        if (all.size() - warmupWindows < 3) {
+            return 0.0;
+        }
+        List<Window> measured = all.subList(warmupWindows, all.size());
+        int n = measured.size();
+        double meanX = (n - 1) / 2.0;
+        double meanY = measured.stream().mapToDouble(metric).average().orElse(0);
+        double covariance = 0;
+        double variance = 0;
+        for (int i = 0; i < n; i++) {
+            double dx = i - meanX;
+            covariance += dx * (metric.applyAsDouble(measured.get(i)) - meanY);
+            variance += dx * dx;
+        }
+        if (meanY <= 0) {
+            return 0.0;
+        }
+        return covariance / variance * (n - 1) / meanY;
+    }
+
+    public double getLatencyTrend() {
+        return trend(Window::getP99Micros);
+    }
+
+    public double getHeapTrend() {
+        return trend(Window::getHeapRetainedBytes);
+    }
+
+    public int getMaxLeasedConnections() {
+        return getWindows().stream().mapToInt(Window::getLeasedConnections).max().orElse(0);
+    }
+
+    /**
+     * Formats the windows as a plain-text table followed by the trend summary.
+     *
+     * @return the formatted report
+     */
+    public String format() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.ROOT, "%6s %8s %7s %9s %9s %9s %10s %10s %5s %7s %7s %6s%n",
+                "window", "flows", "errors", "p50 ms", "p99 ms", "max ms", "heap MB", "kept MB", "gc", "gc ms",
+                "threads", "leased"));
+        for (Window w : getWindows()) {
+            sb.append(String.format(Locale.ROOT, "%6d %8d %7d %9.2f %9.2f %9.2f %10.1f %10.1f %5d %7d %7d %6d%n",
+                    w.index, w.flows, w.errors, w.p50Micros / 1000.0, w.p99Micros / 1000.0, w.maxMicros / 1000.0,
+                    w.heapUsedBytes / 1048576.0, w.heapRetainedBytes / 1048576.0, w.gcCount, w.gcMillis,
+                    w.threads, w.leasedConnections));
+        }
+        sb.append(String.format(Locale.ROOT,
+                "Flows: %d, errors: %d (%.3f%%), trend over run (after %d warm-up windows): p99 %+.1f%%, retained heap %+.1f%%, max leased connections %d%n",
+                getFlows(), getErrors(), getErrorRate() * 100, warmupWindows,
+                getLatencyTrend() * 100, getHeapTrend() * 100, getMaxLeasedConnections()));
+        return sb.toString();
+    }
+
+    /**
+     * Formats the windows as CSV with a header row.
+     *
+     * @return the CSV text
+     */
+    public String toCsv() {
+        StringBuilder sb = new StringBuilder(
+                "window,flows,errors,p50_us,p99_us,max_us,heap_used_bytes,heap_retained_bytes,gc_count,gc_ms,threads,leased_connections\n");
+        for (Window w : getWindows()) {
+            sb.append(w.index).append(',').append(w.flows).append(',').append(w.errors).append(',')
+                    .append(w.p50Micros).append(',').append(w.p99Micros).append(',').append(w.maxMicros).append(',')
+                    .append(w.heapUsedBytes).append(',').append(w.heapRetainedBytes).append(',')
+                    .append(w.gcCount).append(',').append(w.gcMillis).append(',')
+                    .append(w.threads).append(',').append(w.leasedConnections).append('\n');
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,250 @@
+package com.demo.api.perf;
+
+import com.demo.api.utilities.Config;
+import com.demo.api.utilities.RequestSpecs;
+import io.restassured.specification.RequestSpecification;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+/**
+ * Endurance driver that repeats the {@link CrudFlow}s for a long time and samples the client in fixed windows.
+ *
+ * <p>A number of closed-loop callers each run a randomly chosen flow back to back until the duration has
+ * elapsed. At the end of every window the flow latencies and errors of that window are taken, together with
+ * heap, retained heap, GC, thread and connection pool samples, and appended to a {@link SoakReport}. Slow
+ * drift (a growing p99, a retained heap that never comes back down, leaked connections) only shows up over
+ * many windows, which is what {@link SoakReport#trend} looks for.</p>
+ *
+ * <p>Callers record a finished flow under the read lock of {@link #interval}; the sampler swaps in a fresh
+ * histogram and resets the error count under the write lock, so a flow always lands entirely in one window and
+ * nothing is recorded into a histogram after it has been summarized. After the duration, callers get
+ * {@code soak.drain.seconds} to finish their current flow before they are interrupted.</p>
+ *
+ * <p>Usage example:</p>
+ * <pre>
+ *     SoakReport report = SoakRunner.fromConfig(withApiKey).run();
+ *     LOGGER.info("\n{}", report.format());
+ * </pre>
+ */
+public class SoakRunner {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SoakRunner.class);
+
+    private final RequestSpecification spec;
+    private final List<CrudFlow> flows;
+    private final Duration duration;
+    private final Duration window;
+    private final int callers;
+    private final int warmupWindows;
+
+    // Read lock: callers recording into the current window; write lock: the sampler closing it
+    private final ReadWriteLock interval = new ReentrantReadWriteLock();
+    private volatile LatencyHistogram current = new LatencyHistogram();
+    private final LongAdder errors = new LongAdder();
+
+    /**
+     * Creates a soak runner.
+     *
+     * @param spec          the request specification used for every flow
+     * @param flows         flows to pick from, uniformly
+     * @param duration      total duration, including the warm-up windows
+     * @param window        sampling window
+     * @param callers       number of concurrent closed-loop callers
+     * @param warmupWindows leading windows excluded from the trends
+     */
+    public SoakRunner(RequestSpecification spec, List<CrudFlow> flows, Duration duration, Duration window,
+                      int callers, int warmupWindows) {
+        if (flows.isEmpty()) {
+            throw new IllegalArgumentException("At least one flow is required");
+        }
+        if (callers <= 0) {
+            throw new IllegalArgumentException("Callers must be positive, got " + callers);
+        }
+        if (window.isZero() || window.isNegative() || window.compareTo(duration) > 0) {
+            throw new IllegalArgumentException("Window must be positive and not longer than the duration, got " + window);
+        }
+        this.spec = spec;
+        this.flows = List.copyOf(flows);
+        this.duration = duration;
+        this.window = window;
+        this.callers = callers;
+        this.warmupWindows = warmupWindows;
+    }
+
+    /**
+     * Creates a soak runner configured by the {@code soak.*} keys of {@code config.properties}.
+     *
+     * @param spec the request specification used for every flow
+     * @return the configured runner
+     */
+    public static SoakRunner fromConfig(RequestSpecification spec) {
+        List<CrudFlow> flows = new ArrayList<>();
+        for (String name : Config.get("soak.flows", "create,read,delete").split(",")) {
+            if (!name.isBlank()) {
+                flows.add(CrudFlow.parse(name));
+            }
+        }
+        return new SoakRunner(
+                spec,
+                flows,
+                Duration.ofSeconds(Config.getLong("soak.duration.seconds", 3600)),
+                Duration.ofSeconds(Config.getLong("soak.window.seconds", 60)),
+                Config.getInt("soak.callers", 4),
+                Config.getInt("soak.warmup.windows", 1));
+    }
+
+    /**
+     * Runs the flows for the configured duration and blocks until every caller has stopped.
+     *
+     * @return the per-window report
+     * @throws InterruptedException if the calling thread is interrupted
+     */
+    public SoakReport run() throws InterruptedException {
+        LOGGER.info("Starting soak: flows={}, duration={}, window={}, callers={}", flows, duration, window, callers);
+
+        SoakReport report = new SoakReport(warmupWindows);
+        GcTotals gcBefore = GcTotals.now();
+        long end = System.nanoTime() + duration.toNanos();
+        Map<String, String> mdc = MDC.getCopyOfContextMap();
+        GcTotals[] previous = {gcBefore};
+        int[] index = {0};
+
+        ExecutorService workers = Executors.newFixedThreadPool(callers, LoadGenerator.daemonThreads("soak-caller-"));
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor(LoadGenerator.daemonThreads("soak-sampler-"));
+        try {
+            for (int i = 0; i < callers; i++) {
+                workers.execute(() -> {
+                    if (mdc != null) {
+                        MDC.setContextMap(mdc);
+                    }
+                    try {
+                        while (System.nanoTime() < end && !Thread.currentThread().isInterrupted()) {
+                            runOnce();
+                        }
+                    } finally {
+                        MDC.clear();
+                    }
+                });
+            }
+            sampler.scheduleAtFixedRate(() -> {
+                previous[0] = sample(report, index[0]++, previous[0]);
+            }, window.toMillis(), window.toMillis(), TimeUnit.MILLISECONDS);
+        } finally {
+            workers.shutdown();
+        }
+        if (!workers.awaitTermination(duration.toMillis() + Config.getLong("soak.drain.seconds", 60) * 1000,
+                TimeUnit.MILLISECONDS)) {
+            LOGGER.warn("Soak callers did not stop in time, cancelling outstanding flows");
+            workers.shutdownNow();
+        }
+        sampler.shutdownNow();
+        sampler.awaitTermination(window.toMillis(), TimeUnit.MILLISECONDS);
+        // Flows completed after the last full window
+        if (current.getTotalCount() > 0) {
+            sample(report, index[0], previous[0]);
+        }
+        return report;
+    }
+
+    private void runOnce() {
+        CrudFlow flow = flows.get(ThreadLocalRandom.current().nextInt(flows.size()));
+        long start = System.nanoTime();
+        boolean succeeded;
+        try {
+            succeeded = flow.run(spec);
+        } catch (RuntimeException e) {
+            LOGGER.warn("{} flow failed: {}", flow, e.toString());
+            succeeded = false;
+        }
+        long micros = (System.nanoTime() - start) / 1_000;
+        interval.readLock().lock();
+        try {
+            current.record(micros);
+            if (!succeeded) {
+                errors.increment();
+            }
+        } finally {
+            interval.readLock().unlock();
+        }
+    }
+
+    private GcTotals sample(SoakReport report, int index, GcTotals previous) {
+        LatencyHistogram latency;
+        long windowErrors;
+        interval.writeLock().lock();
+        try {
+            latency = current;
+            current = new LatencyHistogram();
+            windowErrors = errors.sumThenReset();
+        } finally {
+            interval.writeLock().unlock();
+        }
+        GcTotals gc = GcTotals.now();
+        SoakReport.Window sampled = new SoakReport.Window(
+                index,
+                latency,
+                windowErrors,
+                ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed(),
+                retainedHeap(),
+                gc.count - previous.count,
+                gc.millis - previous.millis,
+                ManagementFactory.getThreadMXBean().getThreadCount(),
+                RequestSpecs.connectionManager().getTotalStats().getLeased());
+        report.add(sampled);
+        LOGGER.info("Soak window {}: flows={}, errors={}, {}", index, sampled.getFlows(), windowErrors, latency.summary());
+        return gc;
+    }
+
+    // Heap still in use right after the most recent collection of each pool: what survives GC
+    private static long retainedHeap() {
+        long retained = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            MemoryUsage afterGc = pool.getCollectionUsage();
+            if (pool.getType() == MemoryType.HEAP && afterGc != null) {
+                retained += afterGc.getUsed();
+            }
+        }
+        return retained;
+    }
+
+    private static final class GcTotals {
+
+        final long count;
+        final long millis;
+
+        private GcTotals(long count, long millis) {
+            this.count = count;
+            this.millis = millis;
+        }
+
+        static GcTotals now() {
+            long count = 0;
+            long millis = 0;
+            for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+                count += Math.max(0, gc.getCollectionCount());
+                millis += Math.max(0, gc.getCollectionTime());
+            }
+            return new GcTotals(count, millis);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.demo.api.perf;
+
+import com.demo.api.models.UserPayload;
+import com.demo.api.utilities.UserApiHelper;
+import com.demo.api.utilities.UserDataFactory;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * The {@link UserApiHelper} calls that can be driven by the performance tooling.
+ *
+ * <p>Each constant issues one request with randomized but valid arguments, mirroring the flows of the
+ * functional tests: list pages 1–2, fetch users 1–12, create a uniquely named user, delete a user.</p>
+ */
+public enum UserOperation {
+
+    /** {@code POST /api/users} via {@link UserApiHelper#createUser}. */
+    CREATE {
+        @Override
+        public Response execute(RequestSpecification spec) {
+            return UserApiHelper.createUser(spec, Payloads.LOAD.get());
+        }
+    },
+
+    /** {@code GET /api/users?page=N} via {@link UserApiHelper#listUsers}. */
+    LIST {
+        @Override
+        public Response execute(RequestSpecification spec) {
+            return UserApiHelper.listUsers(spec, ThreadLocalRandom.current().nextInt(1, 3));
+        }
+    },
+
+    /** {@code GET /api/users/{id}} via {@link UserApiHelper#getUserById}. */
+    GET {
+        @Override
+        public Response execute(RequestSpecification spec) {
+            return UserApiHelper.getUserById(spec, ThreadLocalRandom.current().nextInt(1, 13));
+        }
+    },
+
+    /** {@code DELETE /api/users/{id}} via {@link UserApiHelper#deleteUserById}. */
+    DELETE {
+        @Override
+        public Response execute(RequestSpecification spec) {
+            return UserApiHelper.deleteUserById(spec, String.valueOf(ThreadLocalRandom.current().nextInt(1, 13)));
+        }
+    };
+
+    /**
+     * Sends one request for this operation.
+     *
+     * @param spec the request specification (e.g., withApiKey)
+     * @return the API response
+     */
+    public abstract Response execute(RequestSpecification spec);
+
+    /**
+     * Returns the operation with the given case-insensitive name.
+     *
+     * @param name operation name, e.g. "get"
+     * @return the matching operation
+     */
+    public static UserOperation parse(String name) {
+        return valueOf(name.trim().toUpperCase(Locale.ROOT));
+    }
+
+    // Pre-serialized create payloads, drawn from per-thread batches
+    private static final class Payloads {
+
+        static final Supplier<UserPayload> LOAD = UserDataFactory.supplier("Load", "Load Tester", 1024);
+    }
+}
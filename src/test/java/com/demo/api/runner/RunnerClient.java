@@ -0,0 +1,250 @@
+package com.demo.api.runner;
+
+import com.demo.api.utilities.Config;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Stream;
+
+/**
+ * Command-line client of the {@link TestRunnerDaemon}; starts the daemon first when none is running.
+ *
+ * <p>Arguments are the selectors of a run ({@code UserReadTests}, {@code UserReadTests#method}, {@code *}),
+ * or {@code --ping} / {@code --stop}. The daemon's output is printed as it arrives and the exit status is 0
+ * when the run passed, 1 when it failed and 2 when the daemon could not be reached.</p>
+ *
+ * <p>A daemon started by the client runs on the client's class path with {@code runner.jvm.args}, and its
+ * output goes to {@code <runner.dir>/daemon.log}. When {@code runner.cds.archive} is set, the first daemon
+ * is started with {@code -XX:ArchiveClassesAtExit} and writes an AppCDS archive of every class it loaded when
+ * it is stopped; later daemons map that archive with {@code -XX:SharedArchiveFile}, which cuts the cold start
+ * of the JVM, RestAssured and Groovy. AppCDS only accepts jars on the class path, so the directories of the
+ * class path, minus the reloadable packages, are packed into {@code <runner.dir>/classes.jar} whenever one of
+ * their files changed; the archive is then rebuilt as well. After dependency changes the JVM ignores the
+ * archive with a warning; delete it to have it rebuilt.</p>
+ *
+ * <p>Usage example, after {@code mvn test-compile -Prunner} has written the class path file:</p>
+ * <pre>
+ *     java -cp "target/test-classes:$(cat target/runner/classpath.txt)" com.demo.api.runner.RunnerClient UserReadTests
+ *     java -cp "target/test-classes:$(cat target/runner/classpath.txt)" com.demo.api.runner.RunnerClient --stop
+ * </pre>
+ */
+public final class RunnerClient {
+
+    private RunnerClient() {
+    }
+
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.err.println("Usage: RunnerClient <TestClass[#method]>... | '*' | --ping | --stop");
+            System.exit(2);
+        }
+        int status;
+        try {
+            status = execute(args);
+        } catch (IOException e) {
+            System.err.println("Test runner daemon unavailable: " + e.getMessage());
+            status = 2;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            status = 2;
+        }
+        System.exit(status);
+    }
+
+    private static int execute(String[] args) throws IOException, InterruptedException {
+        Integer running = runningPort();
+        if (args[0].equals("--ping") || args[0].equals("--stop")) {
+            if (running == null) {
+                System.out.println("Test runner daemon is not running");
+                return args[0].equals("--stop") ? 0 : 1;
+            }
+            send(running, args[0].equals("--ping") ? "PING" : "STOP", System.out::println);
+            return 0;
+        }
+        int port = running != null ? running : startDaemon();
+        String last = send(port, "RUN " + String.join(" ", args), System.out::println);
+        return last != null && last.startsWith("DONE passed") ? 0 : 1;
+    }
+
+    /**
+     * Sends one command to a daemon and passes every line of the answer to {@code lines}.
+     *
+     * @param port    the daemon's port
+     * @param command the command line, e.g. {@code RUN UserReadTests}
+     * @param lines   receives the answer line by line
+     * @return the last line of the answer, or {@code null} if there was none
+     * @throws IOException if the daemon cannot be reached
+     */
+    public static String send(int port, String command, Consumer<String> lines) throws IOException {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            PrintWriter out = new PrintWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8), true);
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            out.println(command);
+            String last = null;
+            for (String line = in.readLine(); line != null; line = in.readLine()) {
+                lines.accept(line);
+                last = line;
+            }
+            return last;
+        }
+    }
+
+    // The port of a daemon that answers PING, or null when there is none
+    private static Integer runningPort() {
+        Path portFile = TestRunnerDaemon.portFile();
+        if (!Files.isRegularFile(portFile)) {
+            return null;
+        }
+        try {
+            int port = Integer.parseInt(Files.readString(portFile).trim());
+            String answer = send(port, "PING", line -> { });
+            return answer != null && answer.startsWith("PONG") ? port : null;
+        } catch (IOException | NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static int startDaemon() throws IOException, InterruptedException {
+        Path dir = Paths.get(Config.get("runner.dir", "target/runner"));
+        Files.createDirectories(dir);
+        Files.deleteIfExists(TestRunnerDaemon.portFile());
+        Path log = dir.resolve("daemon.log");
+
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        String jvmArgs = Config.get("runner.jvm.args", "");
+        if (!jvmArgs.isBlank()) {
+            command.addAll(Arrays.asList(jvmArgs.trim().split("\\s+")));
+        }
+        String classPath = System.getProperty("java.class.path");
+        String archive = Config.get("runner.cds.archive", "");
+        if (!archive.isBlank()) {
+            Path archivePath = Paths.get(archive).toAbsolutePath();
+            Path jar = dir.resolve("classes.jar");
+            if (packClasses(classPath, jar)) {
+                // An archive refers to the exact jar it was dumped with
+                Files.deleteIfExists(archivePath);
+            }
+            classPath = jarClassPath(classPath, jar);
+            if (Files.isRegularFile(archivePath)) {
+                command.add("-XX:SharedArchiveFile=" + archivePath);
+            } else {
+                Files.createDirectories(archivePath.getParent());
+                command.add("-XX:ArchiveClassesAtExit=" + archivePath);
+                System.out.println("INFO the daemon writes the class-data archive " + archivePath + " when it stops");
+            }
+        }
+        Config.overrides().forEach((key, value) -> command.add("-D" + key + "=" + value));
+        command.add("-cp");
+        command.add(classPath);
+        command.add(TestRunnerDaemon.class.getName());
+
+        System.out.println("INFO starting the test runner daemon, output in " + log);
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        long deadline = System.nanoTime() + Config.getLong("runner.start.timeout.seconds", 60) * 1_000_000_000L;
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IOException("daemon exited with status " + process.exitValue() + ", see " + log);
+            }
+            Integer port = runningPort();
+            if (port != null) {
+                return port;
+            }
+            Thread.sleep(100);
+        }
+        process.destroyForcibly();
+        throw new IOException("daemon did not start in time, see " + log);
+    }
+
+    // The class path with its directories replaced by the jar, since AppCDS refuses non-empty directories
+    private static String jarClassPath(String classPath, Path jar) {
+        List<String> entries = new ArrayList<>();
+        entries.add(jar.toAbsolutePath().toString());
+        for (String entry : classPath.split(File.pathSeparator)) {
+            if (!entry.isEmpty() && !Files.isDirectory(Paths.get(entry))) {
+                entries.add(entry);
+            }
+        }
+        return String.join(File.pathSeparator, entries);
+    }
+
+    // Packs the directories of the class path, minus the reloadable packages, into the jar when they changed
+    private static boolean packClasses(String classPath, Path jar) throws IOException {
+        List<String> reloadPaths = new ArrayList<>();
+        for (String reloadPackage : Config.get("runner.reload.packages", "com.demo.api.tests").split("\\s*,\\s*")) {
+            reloadPaths.add(reloadPackage.trim().replace('.', '/') + "/");
+        }
+        Map<String, Path> files = new TreeMap<>();
+        for (String entry : classPath.split(File.pathSeparator)) {
+            Path root = Paths.get(entry);
+            if (entry.isEmpty() || !Files.isDirectory(root)) {
+                continue;
+            }
+            try (Stream<Path> walk = Files.walk(root)) {
+                walk.filter(Files::isRegularFile).forEach(file -> {
+                    String name = root.relativize(file).toString().replace(File.separatorChar, '/');
+                    if (reloadPaths.stream().noneMatch(name::startsWith)) {
+                        files.putIfAbsent(name, file);
+                    }
+                });
+            }
+        }
+        if (Files.isRegularFile(jar) && !changedSince(files.values(), Files.getLastModifiedTime(jar))) {
+            return false;
+        }
+        Path temp = jar.resolveSibling(jar.getFileName() + ".tmp");
+        try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(temp))) {
+            Set<String> directories = new HashSet<>();
+            for (Map.Entry<String, Path> file : files.entrySet()) {
+                String name = file.getKey();
+                for (int slash = name.indexOf('/'); slash > 0; slash = name.indexOf('/', slash + 1)) {
+                    if (directories.add(name.substring(0, slash + 1))) {
+                        out.putNextEntry(new JarEntry(name.substring(0, slash + 1)));
+                        out.closeEntry();
+                    }
+                }
+                out.putNextEntry(new JarEntry(name));
+                Files.copy(file.getValue(), out);
+                out.closeEntry();
+            }
+        }
+        Files.move(temp, jar, StandardCopyOption.REPLACE_EXISTING);
+        System.out.println("INFO packed " + files.size() + " class path files into " + jar);
+        return true;
+    }
+
+    private static boolean changedSince(Collection<Path> files, FileTime time) throws IOException {
+        for (Path file : files) {
+            if (Files.getLastModifiedTime(file).compareTo(time) > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,210 @@
+package com.demo.api.runner;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Hands out the class loader for the test classes of a {@link TestRunnerDaemon} run, replacing it only when
+ * one of them has been recompiled.
+ *
+ * <p>Classes in the reloadable packages (by default {@code com.demo.api.tests}) are loaded child-first from the
+ * compiled test classes directory by a loader of their own; everything else, including {@code BaseTest}, the
+ * utilities with their pooled HTTP client and the libraries, comes from the daemon's class path and stays
+ * warm. Before every run the size and modification time of each class file are compared with the previous
+ * run: a changed reloadable class gets a fresh loader, while a changed class elsewhere cannot be reloaded and is
+ * reported as needing a daemon restart. Such a class stays reported on every later run until the daemon is
+ * restarted, since the daemon keeps running its old version.</p>
+ */
+final class TestClassReloader {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TestClassReloader.class);
+
+    /** What changed since the previous run. */
+    static final class Changes {
+
+        private final List<String> reloaded;
+        private final List<String> restartRequired;
+
+        Changes(List<String> reloaded, List<String> restartRequired) {
+            this.reloaded = reloaded;
+            this.restartRequired = restartRequired;
+        }
+
+        /** @return changed or removed classes that were picked up by a new loader */
+        List<String> getReloaded() {
+            return reloaded;
+        }
+
+        /** @return classes outside the reloadable packages changed since the daemon started */
+        List<String> getRestartRequired() {
+            return restartRequired;
+        }
+    }
+
+    private final Path classesDir;
+    private final List<String> reloadPackages;
+    private final ClassLoader parent;
+    private Map<String, String> stamps = new HashMap<>();
+    // Changed classes the daemon cannot reload; only a restart clears them
+    private final Set<String> restartRequired = new TreeSet<>();
+    private URLClassLoader loader;
+
+    /**
+     * Creates a reloader.
+     *
+     * @param classesDir     the compiled test classes, e.g. {@code target/test-classes}
+     * @param reloadPackages the packages whose classes are reloaded, e.g. {@code com.demo.api.tests}
+     * @param parent         the daemon's class loader
+     */
+    TestClassReloader(Path classesDir, List<String> reloadPackages, ClassLoader parent) {
+        this.classesDir = classesDir;
+        this.reloadPackages = List.copyOf(reloadPackages);
+        this.parent = parent;
+    }
+
+    /**
+     * Rescans the class files and returns a loader that sees their current state.
+     *
+     * @return the changes since the previous call
+     */
+    synchronized Changes refresh() {
+        Map<String, String> current = scan();
+        List<String> reloaded = new ArrayList<>();
+        if (loader != null) {
+            for (Map.Entry<String, String> entry : current.entrySet()) {
+                if (!entry.getValue().equals(stamps.get(entry.getKey()))) {
+                    if (isReloadable(entry.getKey())) {
+                        reloaded.add(entry.getKey());
+                    } else {
+                        restartRequired.add(entry.getKey());
+                    }
+                }
+            }
+            for (String className : stamps.keySet()) {
+                if (!current.containsKey(className) && isReloadable(className)) {
+                    reloaded.add(className);
+                }
+            }
+        }
+        stamps = current;
+        if (loader == null || !reloaded.isEmpty()) {
+            close();
+            loader = new ChildFirstLoader(url(classesDir), parent, this::isReloadable);
+            LOGGER.info("Loading test classes from {} ({} changed)", classesDir, reloaded.size());
+        }
+        return new Changes(reloaded, new ArrayList<>(restartRequired));
+    }
+
+    /**
+     * Returns the current loader; {@link #refresh()} must have been called at least once.
+     *
+     * @return the loader of the reloadable test classes
+     */
+    synchronized ClassLoader loader() {
+        return Objects.requireNonNull(loader, "refresh() has not been called");
+    }
+
+    synchronized void close() {
+        if (loader != null) {
+            try {
+                loader.close();
+            } catch (IOException e) {
+                LOGGER.debug("Closing the test class loader failed", e);
+            }
+            loader = null;
+        }
+    }
+
+    boolean isReloadable(String className) {
+        for (String reloadPackage : reloadPackages) {
+            if (className.startsWith(reloadPackage + ".")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Class name -> "size:lastModified" of every class file under the classes directory
+    private Map<String, String> scan() {
+        Map<String, String> result = new HashMap<>();
+        if (!Files.isDirectory(classesDir)) {
+            return result;
+        }
+        try (Stream<Path> files = Files.walk(classesDir)) {
+            files.filter(file -> file.toString().endsWith(".class")).forEach(file -> {
+                String relative = classesDir.relativize(file).toString();
+                String className = relative.substring(0, relative.length() - ".class".length())
+                        .replace(file.getFileSystem().getSeparator(), ".");
+                try {
+                    result.put(className, Files.size(file) + ":" + Files.getLastModifiedTime(file).toMillis());
+                } catch (IOException e) {
+                    // Deleted while scanning; treated as removed
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to scan " + classesDir, e);
+        }
+        return result;
+    }
+
+    private static URL[] url(Path directory) {
+        try {
+            return new URL[] {directory.toUri().toURL()};
+        } catch (MalformedURLException e) {
+            throw new IllegalArgumentException("Invalid classes directory " + directory, e);
+        }
+    }
+
+    // Defines the reloadable classes itself instead of asking the daemon's loader, which has them too
+    private static final class ChildFirstLoader extends URLClassLoader {
+
+        static {
+            registerAsParallelCapable();
+        }
+
+        private final Predicate<String> reloadable;
+
+        ChildFirstLoader(URL[] urls, ClassLoader parent, Predicate<String> reloadable) {
+            super("test-classes", urls, parent);
+            this.reloadable = reloadable;
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (!reloadable.test(name)) {
+                return super.loadClass(name, resolve);
+            }
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> loaded = findLoadedClass(name);
+                if (loaded == null) {
+                    try {
+                        loaded = findClass(name);
+                    } catch (ClassNotFoundException e) {
+                        loaded = super.loadClass(name, false);
+                    }
+                }
+                if (resolve) {
+                    resolveClass(loaded);
+                }
+                return loaded;
+            }
+        }
+    }
+}
@@ -0,0 +1,331 @@
+package com.demo.api.runner;
+
+import com.demo.api.utilities.Config;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.platform.engine.DiscoverySelector;
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.engine.discovery.DiscoverySelectors;
+import org.junit.platform.launcher.Launcher;
+import org.junit.platform.launcher.LauncherDiscoveryRequest;
+import org.junit.platform.launcher.TagFilter;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder;
+import org.junit.platform.launcher.core.LauncherFactory;
+import org.junit.platform.launcher.listeners.SummaryGeneratingListener;
+import org.junit.platform.launcher.listeners.TestExecutionSummary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Long-lived test runner that keeps the JVM, the class path and the pooled HTTP connections warm between
+ * test runs.
+ *
+ * <p>Starting {@code mvn test} for a single test class spends most of its time on the JVM, Maven, class
+ * loading and JIT warm-up and on the first RestAssured and TLS handshakes. The daemon pays that once and then
+ * runs test classes and methods on request through the JUnit Platform launcher, in the same JVM:</p>
+ * <ul>
+ *     <li>infrastructure classes ({@code BaseTest}, the utilities, the stand-in, the libraries) come from the
+ *     daemon's class path and keep their state, notably the keep-alive connections of {@code RequestSpecs};</li>
+ *     <li>classes in the reloadable packages are loaded by a {@link TestClassReloader}, which replaces its
+ *     loader only when one of their class files changed, so {@code mvn test-compile} is enough to pick up an
+ *     edited test;</li>
+ *     <li>a changed infrastructure class is reported as requiring a restart, on every run until the restart.</li>
+ * </ul>
+ *
+ * <p>Clients talk to the daemon over a loopback socket, one UTF-8 command line per connection:</p>
+ * <ul>
+ *     <li><strong>RUN &lt;selector&gt;...</strong> – runs test classes ({@code UserReadTests}, fully qualified
+ *     or relative to the first reloadable package), methods ({@code UserReadTests#shouldReturnUser}) or, with
+ *     {@code *}, the whole reloadable package minus {@code runner.excluded.tags}. Results are streamed back as
+ *     {@code PASS}, {@code FAIL}, {@code SKIP}, {@code INFO} and {@code WARN} lines and end with
+ *     {@code DONE passed|failed tests=.. failed=.. skipped=.. ms=..};</li>
+ *     <li><strong>PING</strong> – answers {@code PONG <pid> <runs>};</li>
+ *     <li><strong>STOP</strong> – answers {@code BYE} and shuts the daemon down.</li>
+ * </ul>
+ * <p>Runs are executed one at a time; a client connecting during a run waits for it to finish. Use
+ * {@link RunnerClient} rather than talking to the socket directly.</p>
+ *
+ * <p>Usage example:</p>
+ * <pre>
+ *     TestRunnerDaemon daemon = TestRunnerDaemon.fromConfig().start();
+ *     TestExecutionSummary summary = daemon.run(List.of("UserReadTests"), new PrintWriter(System.out, true));
+ *     daemon.stop();
+ * </pre>
+ */
+public class TestRunnerDaemon {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TestRunnerDaemon.class);
+
+    /** Name of the file in {@code runner.dir} holding the port of the running daemon. */
+    public static final String PORT_FILE = "daemon.port";
+
+    private final int port;
+    private final TestClassReloader reloader;
+    private final List<String> reloadPackages;
+    private final String excludedTags;
+    private final CountDownLatch stopped = new CountDownLatch(1);
+    private final AtomicInteger runs = new AtomicInteger();
+    private volatile ServerSocket serverSocket;
+
+    /**
+     * Creates a daemon.
+     *
+     * @param port           the loopback port to listen on, or 0 for an ephemeral one
+     * @param classesDir     the compiled test classes, e.g. {@code target/test-classes}
+     * @param reloadPackages the packages whose classes are reloaded when they change
+     * @param excludedTags   comma-separated tags left out of {@code RUN *}, e.g. {@code load,bench}
+     */
+    public TestRunnerDaemon(int port, Path classesDir, List<String> reloadPackages, String excludedTags) {
+        if (reloadPackages.isEmpty()) {
+            throw new IllegalArgumentException("At least one reloadable package is required");
+        }
+        this.port = port;
+        this.reloadPackages = List.copyOf(reloadPackages);
+        this.reloader = new TestClassReloader(classesDir, reloadPackages, TestRunnerDaemon.class.getClassLoader());
+        this.excludedTags = excludedTags;
+    }
+
+    /**
+     * Creates a daemon configured by the {@code runner.*} keys of {@code config.properties}.
+     *
+     * @return the configured daemon, not yet started
+     */
+    public static TestRunnerDaemon fromConfig() {
+        return new TestRunnerDaemon(
+                Config.getInt("runner.port", 0),
+                Paths.get(Config.get("runner.classes.dir", "target/test-classes")),
+                Arrays.asList(Config.get("runner.reload.packages", "com.demo.api.tests").trim().split("\\s*,\\s*")),
+                Config.get("runner.excluded.tags", "load,bench,soak,compare"));
+    }
+
+    /**
+     * Binds the socket and starts accepting commands on a background thread.
+     *
+     * @return this daemon
+     * @throws IOException if the port cannot be bound
+     */
+    public TestRunnerDaemon start() throws IOException {
+        serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+        Thread acceptor = new Thread(this::accept, "test-runner-daemon");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        LOGGER.info("Test runner daemon listening on port {}", getPort());
+        return this;
+    }
+
+    /** @return the bound port */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /** Closes the socket and releases the test class loader. */
+    public void stop() {
+        try {
+            if (serverSocket != null) {
+                serverSocket.close();
+            }
+        } catch (IOException e) {
+            LOGGER.debug("Closing the daemon socket failed", e);
+        }
+        reloader.close();
+        stopped.countDown();
+    }
+
+    /**
+     * Blocks until {@link #stop()} is called or a client sends {@code STOP}.
+     *
+     * @throws InterruptedException if the calling thread is interrupted
+     */
+    public void awaitStop() throws InterruptedException {
+        stopped.await();
+    }
+
+    /**
+     * Runs test classes or methods with the current test classes and streams the results.
+     *
+     * @param selectors the classes, {@code Class#method} pairs or {@code *}
+     * @param out       receives one line per finished test and a final {@code DONE} line
+     * @return the summary of the run
+     */
+    public synchronized TestExecutionSummary run(List<String> selectors, PrintWriter out) {
+        int run = runs.incrementAndGet();
+        TestClassReloader.Changes changes = reloader.refresh();
+        if (!changes.getReloaded().isEmpty()) {
+            out.println("INFO reloaded test classes after changes to " + changes.getReloaded());
+        }
+        if (!changes.getRestartRequired().isEmpty()) {
+            out.println("WARN restart the daemon to pick up changes to " + changes.getRestartRequired());
+        }
+
+        SummaryGeneratingListener summary = new SummaryGeneratingListener();
+        Thread thread = Thread.currentThread();
+        ClassLoader previous = thread.getContextClassLoader();
+        thread.setContextClassLoader(reloader.loader());
+        try {
+            LauncherDiscoveryRequest request = request(selectors);
+            Launcher launcher = LauncherFactory.create();
+            launcher.execute(request, summary, new StreamingListener(out));
+        } catch (RuntimeException | ClassNotFoundException e) {
+            out.println("FAIL " + e);
+            LOGGER.warn("Run {} of {} failed", run, selectors, e);
+        } finally {
+            thread.setContextClassLoader(previous);
+        }
+
+        TestExecutionSummary result = summary.getSummary();
+        boolean passed = result.getTestsFoundCount() > 0 && result.getTotalFailureCount() == 0;
+        out.printf("DONE %s tests=%d failed=%d skipped=%d ms=%d%n", passed ? "passed" : "failed",
+                result.getTestsFoundCount(), result.getTotalFailureCount(), result.getTestsSkippedCount(),
+                Math.max(0, result.getTimeFinished() - result.getTimeStarted()));
+        out.flush();
+        LOGGER.info("Run {} of {}: {} tests, {} failures", run, selectors, result.getTestsFoundCount(),
+                result.getTotalFailureCount());
+        return result;
+    }
+
+    private LauncherDiscoveryRequest request(List<String> selectors) throws ClassNotFoundException {
+        if (selectors.isEmpty()) {
+            throw new IllegalArgumentException("Nothing to run; pass test classes, Class#method or *");
+        }
+        LauncherDiscoveryRequestBuilder builder = LauncherDiscoveryRequestBuilder.request();
+        List<DiscoverySelector> resolved = new ArrayList<>();
+        for (String selector : selectors) {
+            if (selector.equals("*")) {
+                reloadPackages.forEach(reloadPackage -> resolved.add(DiscoverySelectors.selectPackage(reloadPackage)));
+                if (!excludedTags.isBlank()) {
+                    builder.filters(TagFilter.excludeTags(excludedTags));
+                }
+                continue;
+            }
+            int hash = selector.indexOf('#');
+            String className = qualify(hash < 0 ? selector : selector.substring(0, hash));
+            Class<?> testClass = Class.forName(className, false, reloader.loader());
+            resolved.add(hash < 0
+                    ? DiscoverySelectors.selectClass(testClass)
+                    : DiscoverySelectors.selectMethod(testClass, selector.substring(hash + 1)));
+        }
+        return builder.selectors(resolved).build();
+    }
+
+    // UserReadTests -> com.demo.api.tests.UserReadTests
+    private String qualify(String className) {
+        return className.indexOf('.') < 0 ? reloadPackages.get(0) + "." + className : className;
+    }
+
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try (Socket socket = serverSocket.accept()) {
+                handle(socket);
+            } catch (SocketException e) {
+                if (!serverSocket.isClosed()) {
+                    LOGGER.warn("Test runner connection failed: {}", e.getMessage());
+                }
+            } catch (IOException | RuntimeException e) {
+                LOGGER.warn("Test runner connection failed", e);
+            }
+        }
+    }
+
+    private void handle(Socket socket) throws IOException {
+        BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+        PrintWriter out = new PrintWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8), true);
+        String line = in.readLine();
+        if (line == null || line.isBlank()) {
+            return;
+        }
+        List<String> words = Arrays.asList(line.trim().split("\\s+"));
+        switch (words.get(0).toUpperCase(Locale.ROOT)) {
+            case "RUN":
+                run(words.subList(1, words.size()), out);
+                break;
+            case "PING":
+                out.println("PONG " + ProcessHandle.current().pid() + " " + runs.get());
+                break;
+            case "STOP":
+                out.println("BYE");
+                stop();
+                break;
+            default:
+                out.println("ERROR unknown command: " + words.get(0));
+        }
+    }
+
+    /**
+     * Starts the daemon and writes its port to {@code <runner.dir>/daemon.port}; the process exits after
+     * {@code STOP}, which also writes the class-data archive when started with
+     * {@code -XX:ArchiveClassesAtExit}.
+     *
+     * @param args unused
+     * @throws Exception if the daemon cannot start
+     */
+    public static void main(String[] args) throws Exception {
+        TestRunnerDaemon daemon = fromConfig().start();
+        Path portFile = portFile();
+        Files.createDirectories(portFile.getParent());
+        Files.writeString(portFile, String.valueOf(daemon.getPort()));
+        try {
+            daemon.awaitStop();
+        } finally {
+            Files.deleteIfExists(portFile);
+        }
+        LOGGER.info("Test runner daemon stopped after {} runs", daemon.runs.get());
+        // Pool evictors and HTTP client threads must not keep the daemon alive
+        System.exit(0);
+    }
+
+    static Path portFile() {
+        return Paths.get(Config.get("runner.dir", "target/runner")).resolve(PORT_FILE);
+    }
+
+    // Writes one line per finished test, with the failure message when there is one
+    private static final class StreamingListener implements TestExecutionListener {
+
+        private final PrintWriter out;
+
+        StreamingListener(PrintWriter out) {
+            this.out = out;
+        }
+
+        @Override
+        public void executionSkipped(TestIdentifier identifier, String reason) {
+            out.println("SKIP " + name(identifier) + ": " + reason);
+        }
+
+        @Override
+        public void executionFinished(TestIdentifier identifier, TestExecutionResult result) {
+            if (result.getStatus() == TestExecutionResult.Status.SUCCESSFUL) {
+                if (identifier.isTest()) {
+                    out.println("PASS " + name(identifier));
+                }
+                return;
+            }
+            String cause = result.getThrowable().map(Throwable::toString).orElse(result.getStatus().name());
+            out.println("FAIL " + name(identifier) + ": " + cause.replace('\n', ' '));
+        }
+
+        private static String name(TestIdentifier identifier) {
+            return identifier.getLegacyReportingName() + " [" + identifier.getDisplayName() + "]";
+        }
+    }
+}
@@ -0,0 +1,621 @@
+package com.demo.api.stub;
+
+import com.demo.api.utilities.Config;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import javax.net.ssl.SSLSocketFactory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Local HTTP/1.1 proxy that sits in front of an upstream API and degrades its traffic by {@link FaultRule}s.
+ *
+ * <p>The proxy listens on a loopback port and forwards every request to the upstream base URI, which may be
+ * plain HTTP or HTTPS; the client always speaks plain HTTP to the proxy. Each client connection gets its own
+ * upstream connection, so keep-alive and connection pooling behave as they would without the proxy.
+ * When a kept-alive upstream connection turns out to have been closed, an idempotent request is resent once on a
+ * new connection; any other request is answered {@code 502 Bad Gateway}, since the upstream may have acted on it.
+ * Responses are read completely before they are sent on, which is what lets a rule delay, trickle, stall or
+ * truncate them; chunked upstream bodies are passed on with a {@code Content-Length}.</p>
+ *
+ * <p>For each request every matching rule rolls its own dice. A fired {@code reset} wins over everything else;
+ * latencies and stalls add up, and the lowest bandwidth and the smallest partial fraction apply. The number of
+ * injected faults is kept per kind ({@link #getInjected}).</p>
+ *
+ * <p>With {@code proxy.enabled=true}, {@link com.demo.api.base.LocalStubExtension} routes the whole suite through
+ * {@link #shared(String)}, configured by {@code proxy.port} and {@code proxy.faults}.</p>
+ *
+ * <p>Usage example:</p>
+ * <pre>
+ *     FaultInjectionProxy proxy = new FaultInjectionProxy(Config.getBaseUri()).start();
+ *     proxy.addRules("GET /api/users/{id} latency=300@10%; * * reset@1%");
+ *     RequestSpecification spec = RequestSpecs.forBaseUri(proxy.getBaseUri(), Config.getApiKey());
+ * </pre>
+ */
+public class FaultInjectionProxy {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FaultInjectionProxy.class);
+
+    private static final byte[] CRLF = {'\r', '\n'};
+
+    private static final Set<String> IDEMPOTENT = Set.of("GET", "HEAD", "PUT", "DELETE", "OPTIONS");
+
+    private static volatile FaultInjectionProxy shared;
+
+    private final URI upstream;
+    private final int port;
+    private final List<FaultRule> rules = new CopyOnWriteArrayList<>();
+    private final Map<FaultRule.Fault, LongAdder> injected = new EnumMap<>(FaultRule.Fault.class);
+    private final LongAdder requests = new LongAdder();
+    private final Set<Socket> sockets = ConcurrentHashMap.newKeySet();
+    private volatile ServerSocket server;
+    private ExecutorService executor;
+
+    /**
+     * Creates a proxy on an ephemeral loopback port. Call {@link #start()} to bind it.
+     *
+     * @param upstreamBaseUri the base URI requests are forwarded to, e.g. {@code https://reqres.in}
+     */
+    public FaultInjectionProxy(String upstreamBaseUri) {
+        this(0, upstreamBaseUri);
+    }
+
+    /**
+     * Creates a proxy on the given loopback port. Call {@link #start()} to bind it.
+     *
+     * @param port            TCP port, or {@code 0} for an ephemeral one
+     * @param upstreamBaseUri the base URI requests are forwarded to
+     */
+    public FaultInjectionProxy(int port, String upstreamBaseUri) {
+        this.port = port;
+        this.upstream = URI.create(upstreamBaseUri);
+        if (upstream.getHost() == null || !("http".equals(upstream.getScheme()) || "https".equals(upstream.getScheme()))) {
+            throw new IllegalArgumentException("Expected an http or https upstream base URI, got " + upstreamBaseUri);
+        }
+        for (FaultRule.Fault fault : FaultRule.Fault.values()) {
+            injected.put(fault, new LongAdder());
+        }
+    }
+
+    /**
+     * Returns the JVM-wide proxy in front of the given upstream, starting it on first use with the rules of
+     * {@code proxy.faults}.
+     *
+     * <p>The instance is stopped by a shutdown hook when the JVM exits.</p>
+     *
+     * @param upstreamBaseUri the base URI requests are forwarded to
+     * @return the running shared proxy
+     */
+    public static FaultInjectionProxy shared(String upstreamBaseUri) {
+        FaultInjectionProxy instance = shared;
+        if (instance == null) {
+            synchronized (FaultInjectionProxy.class) {
+                instance = shared;
+                if (instance == null) {
+                    instance = new FaultInjectionProxy(Config.getInt("proxy.port", 0), upstreamBaseUri);
+                    instance.addRules(Config.get("proxy.faults", ""));
+                    instance.start();
+                    Runtime.getRuntime().addShutdownHook(new Thread(instance::stop, "fault-proxy-shutdown"));
+                    shared = instance;
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Binds the proxy and starts accepting connections.
+     *
+     * @return this proxy, for chaining
+     */
+    public synchronized FaultInjectionProxy start() {
+        if (server != null) {
+            return this;
+        }
+        try {
+            server = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to start fault injection proxy on port " + port, e);
+        }
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "fault-proxy-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        ServerSocket listening = server;
+        executor.execute(() -> accept(listening));
+        LOGGER.info("Fault injection proxy started at {} in front of {} with rules {}", getBaseUri(), upstream, rules);
+        return this;
+    }
+
+    /**
+     * Stops the proxy, closing every open client and upstream connection.
+     */
+    public synchronized void stop() {
+        if (server == null) {
+            return;
+        }
+        try {
+            server.close();
+        } catch (IOException e) {
+            LOGGER.debug("Closing the proxy socket failed", e);
+        }
+        for (Socket socket : sockets) {
+            closeQuietly(socket);
+        }
+        executor.shutdownNow();
+        server = null;
+        executor = null;
+    }
+
+    /**
+     * Returns the base URI clients should use instead of the upstream, e.g. {@code http://127.0.0.1:54321}.
+     *
+     * @return the base URI of the running proxy
+     */
+    public String getBaseUri() {
+        ServerSocket listening = server;
+        if (listening == null) {
+            throw new IllegalStateException("Fault injection proxy is not running");
+        }
+        return "http://" + listening.getInetAddress().getHostAddress() + ":" + listening.getLocalPort();
+    }
+
+    public String getUpstream() {
+        return upstream.toString();
+    }
+
+    /**
+     * Adds a rule; takes effect for the next request.
+     *
+     * @param rule the rule
+     * @return this proxy, for chaining
+     */
+    public FaultInjectionProxy addRule(FaultRule rule) {
+        rules.add(rule);
+        return this;
+    }
+
+    /**
+     * Parses and adds rules separated by {@code ;}, see {@link FaultRule}.
+     *
+     * @param rules the rules text
+     * @return this proxy, for chaining
+     */
+    public FaultInjectionProxy addRules(String rules) {
+        this.rules.addAll(FaultRule.parseAll(rules));
+        return this;
+    }
+
+    /**
+     * Removes all rules, so that traffic passes unchanged.
+     */
+    public void clearRules() {
+        rules.clear();
+    }
+
+    public List<FaultRule> getRules() {
+        return Collections.unmodifiableList(rules);
+    }
+
+    /**
+     * Returns how many times a kind of fault has been injected since the proxy was created.
+     *
+     * @param fault the kind of fault
+     * @return the number of affected requests
+     */
+    public long getInjected(FaultRule.Fault fault) {
+        return injected.get(fault).sum();
+    }
+
+    /**
+     * Returns the number of requests received from clients, including those that were reset.
+     *
+     * @return the number of requests
+     */
+    public long getRequestCount() {
+        return requests.sum();
+    }
+
+    private void accept(ServerSocket listening) {
+        while (!listening.isClosed()) {
+            try {
+                Socket client = listening.accept();
+                client.setTcpNoDelay(true);
+                sockets.add(client);
+                executor.execute(() -> serve(client));
+            } catch (IOException e) {
+                if (!listening.isClosed()) {
+                    LOGGER.warn("Fault injection proxy failed to accept a connection", e);
+                }
+            } catch (RuntimeException e) {
+                // Rejected after stop()
+                return;
+            }
+        }
+    }
+
+    // Relays the requests of one client connection until either side closes it
+    private void serve(Socket client) {
+        Socket upstreamSocket = null;
+        try {
+            InputStream clientIn = new BufferedInputStream(client.getInputStream());
+            OutputStream clientOut = client.getOutputStream();
+            InputStream upstreamIn = null;
+            while (true) {
+                Message request = Message.read(clientIn, null);
+                if (request == null) {
+                    return;
+                }
+                requests.increment();
+                Faults faults = roll(request.method(), request.path());
+                if (faults.reset) {
+                    injected.get(FaultRule.Fault.RESET).increment();
+                    reset(client);
+                    return;
+                }
+
+                request.setHeader("Host", upstream.getPort() < 0 ? upstream.getHost() : upstream.getHost() + ":" + upstream.getPort());
+                Message response = null;
+                // A kept-alive upstream connection may have been closed while idle: reconnect once and resend.
+                // Only idempotent requests are resent, since the upstream may have acted on the lost one.
+                for (int attempt = 0; response == null && attempt < 2; attempt++) {
+                    boolean reused = upstreamSocket != null && !upstreamSocket.isClosed();
+                    if (!reused) {
+                        upstreamSocket = connectUpstream();
+                        upstreamIn = new BufferedInputStream(upstreamSocket.getInputStream());
+                    }
+                    try {
+                        upstreamSocket.getOutputStream().write(request.toBytes());
+                        upstreamSocket.getOutputStream().flush();
+                        response = Message.read(upstreamIn, request.method());
+                    } catch (SocketException e) {
+                        if (!reused) {
+                            throw e;
+                        }
+                    }
+                    if (response == null) {
+                        if (!reused) {
+                            throw new EOFException("Upstream closed the connection without a response");
+                        }
+                        sockets.remove(upstreamSocket);
+                        closeQuietly(upstreamSocket);
+                        if (!IDEMPOTENT.contains(request.method())) {
+                            LOGGER.debug("Upstream connection lost during {} {}, not resent", request.method(), request.path());
+                            clientOut.write(Message.badGateway("Upstream connection lost, request not resent").toBytes());
+                            clientOut.flush();
+                            return;
+                        }
+                    }
+                }
+                boolean close = response.closes() || request.closes();
+                if (close) {
+                    closeQuietly(upstreamSocket);
+                }
+
+                send(clientOut, response, faults);
+                if (faults.partial >= 0 || close) {
+                    return;
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.debug("Proxied connection ended: {}", e.toString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            sockets.remove(client);
+            closeQuietly(client);
+            if (upstreamSocket != null) {
+                sockets.remove(upstreamSocket);
+                closeQuietly(upstreamSocket);
+            }
+        }
+    }
+
+    private void send(OutputStream out, Message response, Faults faults) throws IOException, InterruptedException {
+        if (faults.latencyMillis > 0) {
+            injected.get(FaultRule.Fault.LATENCY).increment();
+            TimeUnit.MILLISECONDS.sleep(faults.latencyMillis);
+        }
+        byte[] head = response.headBytes();
+        byte[] body = response.body;
+        if (faults.partial >= 0) {
+            injected.get(FaultRule.Fault.PARTIAL).increment();
+            body = Arrays.copyOf(body, (int) (body.length * faults.partial));
+        }
+        if (faults.bandwidth > 0) {
+            injected.get(FaultRule.Fault.BANDWIDTH).increment();
+        }
+        write(out, head, faults.bandwidth);
+        if (faults.stallMillis > 0) {
+            injected.get(FaultRule.Fault.STALL).increment();
+            out.flush();
+            TimeUnit.MILLISECONDS.sleep(faults.stallMillis);
+        }
+        write(out, body, faults.bandwidth);
+        out.flush();
+    }
+
+    // Writes at most bytesPerSecond, in slices of about 50 ms; unlimited when 0
+    private static void write(OutputStream out, byte[] bytes, double bytesPerSecond) throws IOException, InterruptedException {
+        if (bytesPerSecond <= 0) {
+            out.write(bytes);
+            return;
+        }
+        int slice = (int) Math.max(1, bytesPerSecond / 20);
+        long start = System.nanoTime();
+        for (int offset = 0; offset < bytes.length; offset += slice) {
+            long due = start + (long) (offset * 1e9 / bytesPerSecond);
+            long wait;
+            while ((wait = due - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+            }
+            out.write(bytes, offset, Math.min(slice, bytes.length - offset));
+            out.flush();
+        }
+    }
+
+    private Faults roll(String method, String path) {
+        Faults faults = new Faults();
+        for (FaultRule rule : rules) {
+            if (!rule.matches(method, path) || !rule.fires()) {
+                continue;
+            }
+            switch (rule.getFault()) {
+                case RESET:
+                    faults.reset = true;
+                    break;
+                case LATENCY:
+                    faults.latencyMillis += (long) rule.getValue();
+                    break;
+                case STALL:
+                    faults.stallMillis += (long) rule.getValue();
+                    break;
+                case BANDWIDTH:
+                    faults.bandwidth = faults.bandwidth > 0 ? Math.min(faults.bandwidth, rule.getValue()) : rule.getValue();
+                    break;
+                case PARTIAL:
+                    faults.partial = faults.partial >= 0 ? Math.min(faults.partial, rule.getValue()) : rule.getValue();
+                    break;
+                default:
+                    throw new IllegalStateException("Unhandled fault " + rule.getFault());
+            }
+        }
+        return faults;
+    }
+
+    private Socket connectUpstream() throws IOException {
+        boolean tls = "https".equals(upstream.getScheme());
+        int upstreamPort = upstream.getPort() > 0 ? upstream.getPort() : tls ? 443 : 80;
+        Socket socket = tls
+                ? SSLSocketFactory.getDefault().createSocket()
+                : new Socket();
+        socket.connect(new InetSocketAddress(upstream.getHost(), upstreamPort),
+                Config.getInt("proxy.connect.timeout.ms", 5_000));
+        socket.setSoTimeout(Config.getInt("proxy.read.timeout.ms", 60_000));
+        socket.setTcpNoDelay(true);
+        sockets.add(socket);
+        return socket;
+    }
+
+    // SO_LINGER 0 makes close() send a TCP RST instead of a FIN
+    private static void reset(Socket socket) {
+        try {
+            socket.setSoLinger(true, 0);
+        } catch (SocketException e) {
+            LOGGER.debug("Could not set SO_LINGER before reset", e);
+        }
+        closeQuietly(socket);
+    }
+
+    private static void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException ignored) {
+            // Already closed or reset
+        }
+    }
+
+    // The faults that fired for one request
+    private static final class Faults {
+        boolean reset;
+        long latencyMillis;
+        long stallMillis;
+        double bandwidth;
+        double partial = -1;
+    }
+
+    // A request or response with its body fully read and any chunked coding removed
+    private static final class Message {
+
+        private final String startLine;
+        private final List<String[]> headers;
+        private final byte[] body;
+
+        private Message(String startLine, List<String[]> headers, byte[] body) {
+            this.startLine = startLine;
+            this.headers = headers;
+            this.body = body;
+        }
+
+        /**
+         * Reads one message.
+         *
+         * @param in            the stream
+         * @param requestMethod the method of the request this is the response to, or {@code null} for a request
+         * @return the message, or {@code null} at the end of the stream before a new message
+         */
+        static Message read(InputStream in, String requestMethod) throws IOException {
+            String startLine = readLine(in);
+            if (startLine == null) {
+                return null;
+            }
+            List<String[]> headers = new ArrayList<>();
+            String line;
+            while ((line = readLine(in)) != null && !line.isEmpty()) {
+                int colon = line.indexOf(':');
+                if (colon > 0) {
+                    headers.add(new String[] {line.substring(0, colon).trim(), line.substring(colon + 1).trim()});
+                }
+            }
+            Message message = new Message(startLine, headers, new byte[0]);
+            String transferEncoding = message.header("Transfer-Encoding");
+            String contentLength = message.header("Content-Length");
+            byte[] body;
+            if (transferEncoding != null && transferEncoding.toLowerCase(Locale.ROOT).contains("chunked")) {
+                body = readChunked(in);
+            } else if (contentLength != null) {
+                body = in.readNBytes(Integer.parseInt(contentLength));
+            } else if (requestMethod == null || !message.mayHaveBody(requestMethod)) {
+                body = new byte[0];
+            } else {
+                // No framing: the body ends when the upstream closes the connection
+                body = in.readAllBytes();
+                message.setHeader("Connection", "close");
+            }
+            message.headers.removeIf(header -> header[0].equalsIgnoreCase("Transfer-Encoding")
+                    || header[0].equalsIgnoreCase("Content-Length"));
+            Message complete = new Message(startLine, message.headers, body);
+            if (body.length > 0 || contentLength != null || transferEncoding != null) {
+                complete.headers.add(new String[] {"Content-Length", String.valueOf(body.length)});
+            }
+            return complete;
+        }
+
+        // A 502 that closes the client connection, with an error body like the stand-in's
+        static Message badGateway(String error) {
+            byte[] body = ("{\"error\":\"" + error + "\"}").getBytes(StandardCharsets.UTF_8);
+            List<String[]> headers = new ArrayList<>();
+            headers.add(new String[] {"Content-Type", "application/json; charset=utf-8"});
+            headers.add(new String[] {"Content-Length", String.valueOf(body.length)});
+            headers.add(new String[] {"Connection", "close"});
+            return new Message("HTTP/1.1 502 Bad Gateway", headers, body);
+        }
+
+        String method() {
+            return startLine.substring(0, Math.max(0, startLine.indexOf(' ')));
+        }
+
+        String path() {
+            String[] parts = startLine.split(" ");
+            String target = parts.length > 1 ? parts[1] : "/";
+            int query = target.indexOf('?');
+            return query < 0 ? target : target.substring(0, query);
+        }
+
+        boolean closes() {
+            String connection = header("Connection");
+            return connection != null && connection.equalsIgnoreCase("close");
+        }
+
+        String header(String name) {
+            for (String[] header : headers) {
+                if (header[0].equalsIgnoreCase(name)) {
+                    return header[1];
+                }
+            }
+            return null;
+        }
+
+        void setHeader(String name, String value) {
+            headers.removeIf(header -> header[0].equalsIgnoreCase(name));
+            headers.add(new String[] {name, value});
+        }
+
+        byte[] headBytes() {
+            StringBuilder head = new StringBuilder(startLine).append("\r\n");
+            for (String[] header : headers) {
+                head.append(header[0]).append(": ").append(header[1]).append("\r\n");
+            }
+            return head.append("\r\n").toString().getBytes(StandardCharsets.ISO_8859_1);
+        }
+
+        byte[] toBytes() {
+            byte[] head = headBytes();
+            byte[] bytes = Arrays.copyOf(head, head.length + body.length);
+            System.arraycopy(body, 0, bytes, head.length, body.length);
+            return bytes;
+        }
+
+        // Responses to HEAD and 1xx, 204 and 304 responses never have a body
+        private boolean mayHaveBody(String requestMethod) {
+            String[] parts = startLine.split(" ");
+            int status = parts.length > 1 ? Integer.parseInt(parts[1]) : 200;
+            return !requestMethod.equalsIgnoreCase("HEAD") && status >= 200 && status != 204 && status != 304;
+        }
+
+        private static byte[] readChunked(InputStream in) throws IOException {
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            while (true) {
+                String sizeLine = readLine(in);
+                if (sizeLine == null) {
+                    throw new EOFException("Chunked body ended early");
+                }
+                int semicolon = sizeLine.indexOf(';');
+                int size = Integer.parseInt((semicolon < 0 ? sizeLine : sizeLine.substring(0, semicolon)).trim(), 16);
+                if (size == 0) {
+                    // Skip trailers up to the empty line
+                    String trailer;
+                    while ((trailer = readLine(in)) != null && !trailer.isEmpty()) {
+                        continue;
+                    }
+                    return body.toByteArray();
+                }
+                body.write(in.readNBytes(size));
+                if (in.read() != CRLF[0] || in.read() != CRLF[1]) {
+                    throw new IOException("Malformed chunk terminator");
+                }
+            }
+        }
+
+        // One CRLF-terminated line in ISO-8859-1, or null at the end of the stream
+        private static String readLine(InputStream in) throws IOException {
+            ByteArrayOutputStream line = new ByteArrayOutputStream(64);
+            int b;
+            while ((b = in.read()) != -1) {
+                if (b == '\n') {
+                    byte[] bytes = line.toByteArray();
+                    int length = bytes.length > 0 && bytes[bytes.length - 1] == '\r' ? bytes.length - 1 : bytes.length;
+                    return new String(bytes, 0, length, StandardCharsets.ISO_8859_1);
+                }
+                line.write(b);
+            }
+            return line.size() == 0 ? null : line.toString(StandardCharsets.ISO_8859_1);
+        }
+    }
+}
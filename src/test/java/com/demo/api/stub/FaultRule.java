@@ -0,0 +1,159 @@
+package com.demo.api.stub;
+
+import com.demo.api.utilities.RequestMetrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * One fault the {@link FaultInjectionProxy} injects into the traffic of an endpoint.
+ *
+ * <p>A rule matches a method and an endpoint template (numeric path segments folded into {@code {id}}, as in
+ * the request metrics), or {@code *} for any, and fires for the given share of the matching requests. Rules
+ * are written as {@code <method> <path> <fault>[=<value>][@<percent>%]}, several separated by {@code ;}:</p>
+ * <pre>
+ *     GET /api/users/{id} latency=300@50%; GET /api/users bandwidth=4096; * * reset@1%
+ * </pre>
+ * <ul>
+ *     <li><strong>latency=ms</strong> – the response is held back for {@code ms} milliseconds;</li>
+ *     <li><strong>bandwidth=bytes/s</strong> – the response is trickled out at that rate;</li>
+ *     <li><strong>reset</strong> – the connection is reset (TCP RST) instead of forwarding the request;</li>
+ *     <li><strong>stall=ms</strong> – the status line and headers are sent, then the body waits {@code ms}
+ *     milliseconds, which trips read timeouts rather than connect or first-byte timeouts;</li>
+ *     <li><strong>partial=fraction</strong> – only that fraction of the body is sent before the connection is
+ *     closed, although the headers announce all of it.</li>
+ * </ul>
+ */
+public final class FaultRule {
+
+    /** The kinds of injected faults. */
+    public enum Fault {
+        LATENCY, BANDWIDTH, RESET, STALL, PARTIAL
+    }
+
+    private final String method;
+    private final String path;
+    private final Fault fault;
+    private final double value;
+    private final double probability;
+
+    /**
+     * Creates a rule.
+     *
+     * @param method      the HTTP method, or {@code *} for any
+     * @param path        the endpoint template, e.g. {@code /api/users/{id}}, or {@code *} for any
+     * @param fault       the fault to inject
+     * @param value       milliseconds, bytes per second or body fraction, depending on {@code fault}
+     * @param probability share (0..1) of the matching requests the fault is injected into
+     */
+    public FaultRule(String method, String path, Fault fault, double value, double probability) {
+        if (probability < 0.0 || probability > 1.0) {
+            throw new IllegalArgumentException("Probability must be between 0 and 1, got " + probability);
+        }
+        if (fault == Fault.BANDWIDTH && value <= 0) {
+            throw new IllegalArgumentException("Bandwidth must be positive, got " + value);
+        }
+        if (fault == Fault.PARTIAL && (value < 0.0 || value >= 1.0)) {
+            throw new IllegalArgumentException("Partial body fraction must be in [0, 1), got " + value);
+        }
+        if (value < 0) {
+            throw new IllegalArgumentException("Fault value must not be negative, got " + value);
+        }
+        this.method = method.toUpperCase(Locale.ROOT);
+        this.path = path;
+        this.fault = fault;
+        this.value = value;
+        this.probability = probability;
+    }
+
+    /**
+     * Parses one rule, e.g. {@code GET /api/users/{id} latency=300@50%}.
+     *
+     * @param rule the rule text
+     * @return the rule
+     * @throws IllegalArgumentException if the text is malformed
+     */
+    public static FaultRule parse(String rule) {
+        String[] parts = rule.trim().split("\\s+");
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("Expected '<method> <path> <fault>[=<value>][@<percent>%]', got: " + rule);
+        }
+        String spec = parts[2];
+        double probability = 1.0;
+        int at = spec.indexOf('@');
+        if (at >= 0) {
+            String percent = spec.substring(at + 1);
+            probability = Double.parseDouble(percent.endsWith("%") ? percent.substring(0, percent.length() - 1) : percent) / 100;
+            spec = spec.substring(0, at);
+        }
+        int eq = spec.indexOf('=');
+        String name = eq < 0 ? spec : spec.substring(0, eq);
+        Fault fault;
+        try {
+            fault = Fault.valueOf(name.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown fault '" + name + "' in: " + rule, e);
+        }
+        if (eq < 0 && fault != Fault.RESET) {
+            throw new IllegalArgumentException("Fault '" + name + "' needs a value in: " + rule);
+        }
+        double value = eq < 0 ? 0 : Double.parseDouble(spec.substring(eq + 1));
+        return new FaultRule(parts[0], parts[1], fault, value, probability);
+    }
+
+    /**
+     * Parses rules separated by {@code ;}; blank entries are skipped.
+     *
+     * @param rules the rules text, e.g. the value of {@code proxy.faults}
+     * @return the rules in order
+     */
+    public static List<FaultRule> parseAll(String rules) {
+        List<FaultRule> parsed = new ArrayList<>();
+        for (String rule : rules.split(";")) {
+            if (!rule.isBlank()) {
+                parsed.add(parse(rule));
+            }
+        }
+        return parsed;
+    }
+
+    /**
+     * Returns whether the rule applies to a request.
+     *
+     * @param requestMethod the request method
+     * @param requestPath   the request path, without query
+     * @return {@code true} if method and endpoint match
+     */
+    public boolean matches(String requestMethod, String requestPath) {
+        return (method.equals("*") || method.equalsIgnoreCase(requestMethod))
+                && (path.equals("*") || path.equals(RequestMetrics.normalize(requestPath)));
+    }
+
+    // Rolls the dice for one matching request
+    boolean fires() {
+        return probability >= 1.0 || ThreadLocalRandom.current().nextDouble() < probability;
+    }
+
+    public Fault getFault() {
+        return fault;
+    }
+
+    public double getValue() {
+        return value;
+    }
+
+    public double getProbability() {
+        return probability;
+    }
+
+    @Override
+    public String toString() {
+        String text = method + " " + path + " " + fault.name().toLowerCase(Locale.ROOT);
+        if (fault != Fault.RESET) {
+            text += "=" + (value == Math.rint(value) ? String.valueOf((long) value) : String.valueOf(value));
+        }
+        return probability < 1.0 ? String.format(Locale.ROOT, "%s@%s%%", text, probability * 100) : text;
+    }
+}
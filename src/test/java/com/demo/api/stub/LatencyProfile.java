@@ -0,0 +1,141 @@
+package com.demo.api.stub;
+
+import com.demo.api.utilities.Config;
+
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Describes how the {@link LocalUserApiServer} degrades its responses.
+ *
+ * <p>A profile combines a fixed base latency, a uniformly distributed jitter on top of it and the
+ * probability of answering with an injected error status instead of the real payload.</p>
+ *
+ * <p>Named presets:</p>
+ * <ul>
+ *     <li><strong>instant</strong> – no delay and no errors (default).</li>
+ *     <li><strong>lan</strong> – 1 ms base latency with up to 2 ms jitter.</li>
+ *     <li><strong>wan</strong> – 80 ms base latency with up to 40 ms jitter.</li>
+ *     <li><strong>degraded</strong> – 250 ms base latency, up to 250 ms jitter and 5% of 503 responses.</li>
+ * </ul>
+ */
+public final class LatencyProfile {
+
+    /** Profile that answers immediately and never fails. */
+    public static final LatencyProfile INSTANT = new LatencyProfile("instant", 0, 0, 0.0, 503);
+
+    private final String name;
+    private final long latencyMillis;
+    private final long jitterMillis;
+    private final double errorRate;
+    private final int errorStatus;
+
+    /**
+     * Creates a new profile.
+     *
+     * @param name          a short label used in logs
+     * @param latencyMillis fixed delay added to every response
+     * @param jitterMillis  upper bound of the random delay added on top of {@code latencyMillis}
+     * @param errorRate     probability (0..1) of replying with {@code errorStatus}
+     * @param errorStatus   HTTP status used for injected failures
+     */
+    public LatencyProfile(String name, long latencyMillis, long jitterMillis, double errorRate, int errorStatus) {
+        if (latencyMillis < 0 || jitterMillis < 0) {
+            throw new IllegalArgumentException("Latency and jitter must not be negative");
+        }
+        if (errorRate < 0.0 || errorRate > 1.0) {
+            throw new IllegalArgumentException("Error rate must be between 0 and 1, got " + errorRate);
+        }
+        this.name = name;
+        this.latencyMillis = latencyMillis;
+        this.jitterMillis = jitterMillis;
+        this.errorRate = errorRate;
+        this.errorStatus = errorStatus;
+    }
+
+    /**
+     * Returns one of the named presets.
+     *
+     * @param name preset name (instant, lan, wan, degraded)
+     * @return the matching profile
+     */
+    public static LatencyProfile named(String name) {
+        switch (name.toLowerCase(Locale.ROOT)) {
+            case "instant":
+                return INSTANT;
+            case "lan":
+                return new LatencyProfile("lan", 1, 2, 0.0, 503);
+            case "wan":
+                return new LatencyProfile("wan", 80, 40, 0.0, 503);
+            case "degraded":
+                return new LatencyProfile("degraded", 250, 250, 0.05, 503);
+            default:
+                throw new IllegalArgumentException("Unknown latency profile: " + name);
+        }
+    }
+
+    /**
+     * Builds the profile from {@code config.properties}.
+     *
+     * <p>{@code stub.profile} selects a preset; {@code stub.latency.ms}, {@code stub.jitter.ms},
+     * {@code stub.error.rate} and {@code stub.error.status} override individual values of it.</p>
+     *
+     * @return the configured profile
+     */
+    public static LatencyProfile fromConfig() {
+        LatencyProfile preset = named(Config.get("stub.profile", "instant"));
+        return new LatencyProfile(
+                preset.name,
+                Config.getLong("stub.latency.ms", preset.latencyMillis),
+                Config.getLong("stub.jitter.ms", preset.jitterMillis),
+                Config.getDouble("stub.error.rate", preset.errorRate),
+                Config.getInt("stub.error.status", preset.errorStatus));
+    }
+
+    /**
+     * Returns the delay to apply to the next response.
+     *
+     * @return delay in milliseconds
+     */
+    public long nextDelayMillis() {
+        if (jitterMillis == 0) {
+            return latencyMillis;
+        }
+        return latencyMillis + ThreadLocalRandom.current().nextLong(jitterMillis + 1);
+    }
+
+    /**
+     * Decides whether the next response should be an injected failure.
+     *
+     * @return {@code true} if the response should fail
+     */
+    public boolean nextIsError() {
+        return errorRate > 0.0 && ThreadLocalRandom.current().nextDouble() < errorRate;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getLatencyMillis() {
+        return latencyMillis;
+    }
+
+    public long getJitterMillis() {
+        return jitterMillis;
+    }
+
+    public double getErrorRate() {
+        return errorRate;
+    }
+
+    public int getErrorStatus() {
+        return errorStatus;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "%s(latency=%dms, jitter=%dms, errorRate=%.3f, errorStatus=%d)",
+                name, latencyMillis, jitterMillis, errorRate, errorStatus);
+    }
+}
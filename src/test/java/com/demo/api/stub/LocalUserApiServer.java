@@ -0,0 +1,502 @@
+package com.demo.api.stub;
+
+import com.demo.api.utilities.Config;
+import com.demo.api.utilities.TokenBucket;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Embedded, in-process stand-in for the reqres.in {@code /api/users} service.
+ *
+ * <p>Implements the endpoints used by {@link com.demo.api.utilities.UserApiHelper} with the same
+ * payload shapes as the public API:</p>
+ * <ul>
+ *     <li>{@code GET /api/users?page=N} – paginated list of the 12 reqres sample users (6 per page).</li>
+ *     <li>{@code GET /api/users/{id}} – single user, or {@code 404} with body {@code {}}.</li>
+ *     <li>{@code POST /api/users} – echoes the payload with a generated {@code id} and {@code createdAt}.</li>
+ *     <li>{@code DELETE /api/users/{id}} – {@code 204 No Content} with an empty body.</li>
+ * </ul>
+ *
+ * <p>GET responses carry {@code ETag} and {@code Last-Modified} validators and honor
+ * {@code If-None-Match}/{@code If-Modified-Since} with {@code 304 Not Modified}.</p>
+ *
+ * <p>Write endpoints require the {@code x-api-key} header, as the public API does. Every response is
+ * delayed and optionally failed according to the active {@link LatencyProfile}, which can be swapped at
+ * runtime to benchmark client code under different network conditions.</p>
+ *
+ * <p>An optional server-side rate limit ({@link #setRateLimit}, {@code stub.rate.limit}) answers requests
+ * above it with {@code 429 Too Many Requests} and a {@code Retry-After} header, as a throttling public API does.</p>
+ *
+ * <p>Optional response compression ({@link #setCompression}, {@code stub.compression.min.bytes}) gzip- or
+ * deflate-encodes bodies of at least that size when the request's {@code Accept-Encoding} allows it. Request
+ * bodies sent with {@code Content-Encoding: gzip} or {@code deflate} are always accepted.</p>
+ *
+ * <p>With {@code stub.enabled=true}, {@link com.demo.api.base.LocalStubExtension} starts {@link #shared()} before
+ * the first test and points {@link Config#getBaseUri()} at it.</p>
+ */
+public class LocalUserApiServer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LocalUserApiServer.class);
+
+    private static final String USERS_PATH = "/api/users";
+    private static final int PER_PAGE = 6;
+    private static final String[][] SAMPLE_USERS = {
+            {"George", "Bluth"}, {"Janet", "Weaver"}, {"Emma", "Wong"}, {"Eve", "Holt"},
+            {"Charles", "Morris"}, {"Tracey", "Ramos"}, {"Michael", "Lawson"}, {"Lindsay", "Ferguson"},
+            {"Tobias", "Funke"}, {"Byron", "Fields"}, {"George", "Edwards"}, {"Rachel", "Howell"}
+    };
+    private static final byte[] EMPTY_OBJECT = {'{', '}'};
+
+    static {
+        // Without TCP_NODELAY the JDK server's separate header and body writes hit the ~40 ms
+        // Nagle/delayed-ACK stall on every keep-alive request. Must be set before the server classes load.
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private static volatile LocalUserApiServer shared;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final List<ObjectNode> users;
+    private final AtomicLong nextId = new AtomicLong(1000);
+    private final String lastModified = DateTimeFormatter.RFC_1123_DATE_TIME.format(
+            ZonedDateTime.now(ZoneOffset.UTC).withNano(0));
+    private final int port;
+    private volatile LatencyProfile profile;
+    private volatile TokenBucket rateLimit;
+    private volatile int compressionMinBytes = -1;
+    private HttpServer server;
+    private ExecutorService executor;
+
+    /**
+     * Creates a server on an ephemeral loopback port with the given profile. Call {@link #start()} to bind it.
+     *
+     * @param profile the latency profile applied to every response
+     */
+    public LocalUserApiServer(LatencyProfile profile) {
+        this(0, profile);
+    }
+
+    /**
+     * Creates a server on the given loopback port. Call {@link #start()} to bind it.
+     *
+     * @param port    TCP port, or {@code 0} for an ephemeral one
+     * @param profile the latency profile applied to every response
+     */
+    public LocalUserApiServer(int port, LatencyProfile profile) {
+        this.port = port;
+        this.profile = profile;
+        this.users = createSampleUsers();
+    }
+
+    /**
+     * Returns the JVM-wide instance configured from {@code config.properties}, starting it on first use.
+     *
+     * <p>The instance is stopped by a shutdown hook when the JVM exits.</p>
+     *
+     * @return the running shared server
+     */
+    public static LocalUserApiServer shared() {
+        LocalUserApiServer instance = shared;
+        if (instance == null) {
+            synchronized (LocalUserApiServer.class) {
+                instance = shared;
+                if (instance == null) {
+                    instance = new LocalUserApiServer(Config.getInt("stub.port", 0), LatencyProfile.fromConfig());
+                    instance.setRateLimit(Config.getDouble("stub.rate.limit", 0), Config.getInt("stub.rate.burst", 10));
+                    instance.setCompression(Config.getInt("stub.compression.min.bytes", -1));
+                    instance.start();
+                    Runtime.getRuntime().addShutdownHook(new Thread(instance::stop, "user-api-stub-shutdown"));
+                    shared = instance;
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Binds the server and starts accepting requests.
+     *
+     * @return this server, for chaining
+     */
+    public synchronized LocalUserApiServer start() {
+        if (server != null) {
+            return this;
+        }
+        try {
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to start local users API on port " + port, e);
+        }
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "user-api-stub-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext(USERS_PATH, this::handle);
+        server.start();
+        LOGGER.info("Local users API started at {} with profile {}", getBaseUri(), profile);
+        return this;
+    }
+
+    /**
+     * Stops the server and releases its worker threads.
+     */
+    public synchronized void stop() {
+        if (server == null) {
+            return;
+        }
+        server.stop(0);
+        executor.shutdownNow();
+        server = null;
+        executor = null;
+    }
+
+    /**
+     * Returns the base URI clients should use, e.g. {@code http://127.0.0.1:54321}.
+     *
+     * @return the base URI of the running server
+     */
+    public String getBaseUri() {
+        if (server == null) {
+            throw new IllegalStateException("Local users API is not running");
+        }
+        InetSocketAddress address = server.getAddress();
+        return "http://" + address.getAddress().getHostAddress() + ":" + address.getPort();
+    }
+
+    public LatencyProfile getProfile() {
+        return profile;
+    }
+
+    /**
+     * Replaces the latency profile; takes effect for the next request.
+     *
+     * @param profile the new profile
+     */
+    public void setProfile(LatencyProfile profile) {
+        this.profile = profile;
+    }
+
+    /**
+     * Limits the accepted request rate; requests above it get 429 with {@code Retry-After}.
+     *
+     * @param requestsPerSecond the sustained rate, or 0 to accept every request
+     * @param burst             the number of requests accepted at once after an idle period
+     */
+    public void setRateLimit(double requestsPerSecond, int burst) {
+        this.rateLimit = requestsPerSecond > 0 ? new TokenBucket(requestsPerSecond, burst) : null;
+    }
+
+    /**
+     * Compresses response bodies of at least {@code minBytes} bytes for clients that accept gzip or deflate.
+     *
+     * @param minBytes the smallest body that is compressed, or a negative value to never compress
+     */
+    public void setCompression(int minBytes) {
+        this.compressionMinBytes = minBytes;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            TokenBucket limit = rateLimit;
+            if (limit != null && !limit.tryAcquire()) {
+                exchange.getRequestBody().close();
+                long retryAfterSeconds = Math.max(1, (limit.nanosUntilNextPermit() + 999_999_999) / 1_000_000_000);
+                exchange.getResponseHeaders().set("Retry-After", String.valueOf(retryAfterSeconds));
+                send(exchange, 429, error("Too many requests"));
+                return;
+            }
+            LatencyProfile current = profile;
+            long delay = current.nextDelayMillis();
+            if (delay > 0) {
+                Thread.sleep(delay);
+            }
+            if (current.nextIsError()) {
+                send(exchange, current.getErrorStatus(), error("Injected failure (" + current.getName() + ")"));
+                return;
+            }
+            route(exchange);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            LOGGER.error("Local users API failed to handle {} {}", exchange.getRequestMethod(), exchange.getRequestURI(), e);
+            // Too late for a 500 once the status line of another response is out
+            if (exchange.getResponseCode() == -1) {
+                send(exchange, 500, error("Internal stub error"));
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void route(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        String path = exchange.getRequestURI().getPath();
+        String id = path.length() > USERS_PATH.length() + 1 ? path.substring(USERS_PATH.length() + 1) : null;
+
+        if (id == null) {
+            if ("GET".equals(method)) {
+                listUsers(exchange);
+            } else if ("POST".equals(method)) {
+                createUser(exchange);
+            } else {
+                send(exchange, 405, error("Method not allowed"));
+            }
+        } else {
+            if ("GET".equals(method)) {
+                getUser(exchange, id);
+            } else if ("DELETE".equals(method)) {
+                deleteUser(exchange);
+            } else {
+                send(exchange, 405, error("Method not allowed"));
+            }
+        }
+    }
+
+    private void listUsers(HttpExchange exchange) throws IOException {
+        int page = Math.max(1, intQueryParam(exchange.getRequestURI(), "page", 1));
+        int perPage = Math.max(1, intQueryParam(exchange.getRequestURI(), "per_page", PER_PAGE));
+        int from = Math.min(users.size(), (page - 1) * perPage);
+        int to = Math.min(users.size(), from + perPage);
+
+        ObjectNode body = mapper.createObjectNode();
+        body.put("page", page);
+        body.put("per_page", perPage);
+        body.put("total", users.size());
+        body.put("total_pages", (users.size() + perPage - 1) / perPage);
+        ArrayNode data = body.putArray("data");
+        users.subList(from, to).forEach(data::add);
+        body.set("support", support());
+        sendCacheable(exchange, mapper.writeValueAsBytes(body));
+    }
+
+    private void getUser(HttpExchange exchange, String id) throws IOException {
+        ObjectNode user = findUser(id);
+        if (user == null) {
+            send(exchange, 404, EMPTY_OBJECT);
+            return;
+        }
+        ObjectNode body = mapper.createObjectNode();
+        body.set("data", user);
+        body.set("support", support());
+        sendCacheable(exchange, mapper.writeValueAsBytes(body));
+    }
+
+    private void createUser(HttpExchange exchange) throws IOException {
+        if (!hasApiKey(exchange)) {
+            send(exchange, 401, error("Missing API key"));
+            return;
+        }
+        JsonNode payload;
+        try (InputStream in = requestBody(exchange)) {
+            payload = mapper.readTree(in);
+        } catch (JsonProcessingException e) {
+            send(exchange, 400, error("Invalid JSON body"));
+            return;
+        }
+        if (payload == null || !payload.isObject()) {
+            send(exchange, 400, error("Expected a JSON object"));
+            return;
+        }
+        ObjectNode body = ((ObjectNode) payload).deepCopy();
+        body.put("id", String.valueOf(nextId.incrementAndGet()));
+        body.put("createdAt", Instant.now().toString());
+        send(exchange, 201, mapper.writeValueAsBytes(body));
+    }
+
+    private void deleteUser(HttpExchange exchange) throws IOException {
+        if (!hasApiKey(exchange)) {
+            send(exchange, 401, error("Missing API key"));
+            return;
+        }
+        exchange.getRequestBody().close();
+        exchange.sendResponseHeaders(204, -1);
+    }
+
+    private ObjectNode findUser(String id) {
+        try {
+            int index = Integer.parseInt(id) - 1;
+            return index >= 0 && index < users.size() ? users.get(index) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static boolean hasApiKey(HttpExchange exchange) {
+        String key = exchange.getRequestHeaders().getFirst("x-api-key");
+        return key != null && !key.isBlank();
+    }
+
+    private static int intQueryParam(URI uri, String name, int defaultValue) {
+        String query = uri.getRawQuery();
+        if (query == null) {
+            return defaultValue;
+        }
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0 && pair.substring(0, eq).equals(name)) {
+                try {
+                    return Integer.parseInt(pair.substring(eq + 1));
+                } catch (NumberFormatException e) {
+                    return defaultValue;
+                }
+            }
+        }
+        return defaultValue;
+    }
+
+    private void sendCacheable(HttpExchange exchange, byte[] body) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(body);
+        String etag = "\"" + Long.toHexString(crc.getValue()) + "\"";
+        exchange.getResponseHeaders().set("ETag", etag);
+        exchange.getResponseHeaders().set("Last-Modified", lastModified);
+
+        String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+        String ifModifiedSince = exchange.getRequestHeaders().getFirst("If-Modified-Since");
+        boolean notModified = ifNoneMatch != null
+                ? etag.equals(ifNoneMatch.trim())
+                : ifModifiedSince != null && !isAfter(lastModified, ifModifiedSince);
+        if (notModified) {
+            exchange.sendResponseHeaders(304, -1);
+            return;
+        }
+        send(exchange, 200, body);
+    }
+
+    private static boolean isAfter(String httpDate, String otherHttpDate) {
+        try {
+            return ZonedDateTime.parse(httpDate, DateTimeFormatter.RFC_1123_DATE_TIME)
+                    .isAfter(ZonedDateTime.parse(otherHttpDate, DateTimeFormatter.RFC_1123_DATE_TIME));
+        } catch (DateTimeParseException e) {
+            return true;
+        }
+    }
+
+    private void send(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        int minBytes = compressionMinBytes;
+        if (minBytes >= 0) {
+            exchange.getResponseHeaders().set("Vary", "Accept-Encoding");
+            String coding = body.length > 0 && body.length >= minBytes ? negotiate(exchange.getRequestHeaders().getFirst("Accept-Encoding")) : null;
+            if (coding != null) {
+                body = encode(body, coding);
+                exchange.getResponseHeaders().set("Content-Encoding", coding);
+            }
+        }
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    // gzip is preferred over deflate; q-values other than 0 are not ranked
+    private static String negotiate(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return null;
+        }
+        boolean deflate = false;
+        for (String part : acceptEncoding.toLowerCase(Locale.ROOT).split(",")) {
+            String[] codingAndParams = part.trim().split(";");
+            String coding = codingAndParams[0].trim();
+            if (codingAndParams.length > 1 && codingAndParams[1].replace(" ", "").matches("q=0(\\.0*)?")) {
+                continue;
+            }
+            if (coding.equals("gzip")) {
+                return "gzip";
+            }
+            deflate |= coding.equals("deflate");
+        }
+        return deflate ? "deflate" : null;
+    }
+
+    private static byte[] encode(byte[] body, String coding) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(body.length / 2 + 32);
+        try (OutputStream out = coding.equals("gzip") ? new GZIPOutputStream(buffer) : new DeflaterOutputStream(buffer)) {
+            out.write(body);
+        }
+        return buffer.toByteArray();
+    }
+
+    private static InputStream requestBody(HttpExchange exchange) throws IOException {
+        String coding = exchange.getRequestHeaders().getFirst("Content-Encoding");
+        InputStream in = exchange.getRequestBody();
+        if (coding == null) {
+            return in;
+        }
+        switch (coding.trim().toLowerCase(Locale.ROOT)) {
+            case "gzip":
+                return new GZIPInputStream(in);
+            case "deflate":
+                return new InflaterInputStream(in);
+            default:
+                return in;
+        }
+    }
+
+    private byte[] error(String message) throws JsonProcessingException {
+        return mapper.writeValueAsBytes(Collections.singletonMap("error", message));
+    }
+
+    private ObjectNode support() {
+        ObjectNode support = mapper.createObjectNode();
+        support.put("url", "https://contentcaddy.io?utm_source=reqres&utm_medium=json&utm_campaign=referral");
+        support.put("text", "Tired of writing endless social media content? Let Content Caddy generate it for you.");
+        return support;
+    }
+
+    private List<ObjectNode> createSampleUsers() {
+        List<ObjectNode> result = new ArrayList<>(SAMPLE_USERS.length);
+        for (int i = 0; i < SAMPLE_USERS.length; i++) {
+            String firstName = SAMPLE_USERS[i][0];
+            String lastName = SAMPLE_USERS[i][1];
+            ObjectNode user = mapper.createObjectNode();
+            user.put("id", i + 1);
+            user.put("email", firstName.toLowerCase(Locale.ROOT) + "." + lastName.toLowerCase(Locale.ROOT) + "@reqres.in");
+            user.put("first_name", firstName);
+            user.put("last_name", lastName);
+            user.put("avatar", "https://reqres.in/img/faces/" + (i + 1) + "-image.jpg");
+            result.add(user);
+        }
+        return Collections.unmodifiableList(result);
+    }
+}
@@ -0,0 +1,98 @@
+package com.demo.api.tests;
+
+import com.demo.api.base.ApiResources;
+import com.demo.api.base.BaseTest;
+import com.demo.api.utilities.AsyncUserApiHelper;
+import com.demo.api.utilities.UserDataFactory;
+
+import io.qameta.allure.*;
+import io.restassured.path.json.JsonPath;
+
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.assertj.core.api.SoftAssertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.ResourceAccessMode;
+import org.junit.jupiter.api.parallel.ResourceLock;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Contains tests for the non-blocking {@link AsyncUserApiHelper}.
+ * Requests are issued concurrently and awaited together.
+ */
+@ResourceLock(value = ApiResources.USERS, mode = ResourceAccessMode.READ_WRITE)
+public class UserAsyncTests extends BaseTest {
+
+    private final AsyncUserApiHelper api = AsyncUserApiHelper.withApiKey();
+
+    /**
+     * SEND:     GET https://reqres.in/api/users/{1..12} (all in flight at once)
+     * HEADERS:  x-api-key: reqres-free-v1
+     * RESPONSE:
+     *    Status Code: 200 OK for every user
+     *    Body: the requested user in "data"
+     */
+    @Epic("User API")
+    @Feature("Read User")
+    @Story("As a tester, I want to fetch many users concurrently without blocking a thread per request")
+    @Severity(SeverityLevel.NORMAL)
+    @DisplayName("Concurrent user fetch")
+    @Description("Fetches all 12 users concurrently through the async helper and checks every response.")
+    @Test
+    public void shouldFetchAllUsersConcurrently_whenUsingAsyncHelper() {
+        List<CompletableFuture<HttpResponse<String>>> futures = new ArrayList<>();
+        for (int id = 1; id <= 12; id++) {
+            futures.add(api.getUserById(id));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+
+        SoftAssertions softly = new SoftAssertions();
+        for (int i = 0; i < futures.size(); i++) {
+            HttpResponse<String> response = futures.get(i).join();
+            softly.assertThat(response.statusCode())
+                    .as("Status of user %d", i + 1)
+                    .isEqualTo(200);
+            softly.assertThat(JsonPath.from(response.body()).getInt("data.id"))
+                    .as("Id of user %d", i + 1)
+                    .isEqualTo(i + 1);
+        }
+        softly.assertAll();
+    }
+
+    /**
+     * SEND:     POST https://reqres.in/api/users
+     * HEADERS:  x-api-key: reqres-free-v1
+     * BODY:     { "name": "Async_...", "job": "QA Engineer" }
+     *
+     * RESPONSE:
+     *   Status: 201 Created
+     *   Body:   Contains name, job, id, createdAt
+     */
+    @Test
+    public void shouldCreateUser_whenUsingAsyncHelper() {
+        String uniqueName = UserDataFactory.uniqueName("Async");
+        Map<String, String> requestBody = new HashMap<>();
+        requestBody.put("name", uniqueName);
+        requestBody.put("job", "QA Engineer");
+
+        HttpResponse<String> response = api.createUser(requestBody).join();
+
+        assertEquals(201, response.statusCode(), "Expected 201 Created");
+        JsonPath json = JsonPath.from(response.body());
+        SoftAssertions softly = new SoftAssertions();
+        softly.assertThat(json.getString("name"))
+                .as("Check name field")
+                .isEqualTo(uniqueName);
+        softly.assertThat(json.getString("id"))
+                .as("Check id presence")
+                .isNotNull();
+        softly.assertAll();
+    }
+}
@@ -0,0 +1,76 @@
+package com.demo.api.tests;
+
+import com.demo.api.base.ApiResources;
+import com.demo.api.base.BaseTest;
+import com.demo.api.utilities.BatchResult;
+import com.demo.api.utilities.UserApiHelper;
+
+import io.qameta.allure.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.assertj.core.api.SoftAssertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.ResourceAccessMode;
+import org.junit.jupiter.api.parallel.ResourceLock;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Contains tests for the batch create and delete helpers.
+ */
+@ResourceLock(value = ApiResources.USERS, mode = ResourceAccessMode.READ_WRITE)
+public class UserBatchTests extends BaseTest {
+
+    /**
+     * SEND:     20 x POST /api/users, then DELETE /api/users/{id} for every created id, 5 at a time
+     * HEADERS:  x-api-key: reqres-free-v1
+     * EXPECT:
+     *    - every create returns 201 Created with an id
+     *    - every delete returns 204 No Content
+     *    - results are reported in input order
+     */
+    @Epic("User API")
+    @Feature("Batch Users")
+    @Story("As a tester, I want to seed and tear down many users without sending them one by one")
+    @Severity(SeverityLevel.NORMAL)
+    @DisplayName("Batch create and delete users")
+    @Description("Creates 20 users and deletes them again with at most 5 requests in flight.")
+    @Test
+    public void shouldCreateAndDeleteAllUsers_whenBatchIsValid() {
+        List<Map<String, String>> payloads = IntStream.range(0, 20)
+                .mapToObj(i -> Map.of("name", "batch-" + i, "job", "tester"))
+                .collect(Collectors.toList());
+
+        BatchResult<Map<String, String>> created = UserApiHelper.createUsers(withApiKey, payloads, 5);
+        List<String> ids = created.getItems().stream()
+                .map(item -> UserApiHelper.asCreatedUser(item.getResponse()).getId())
+                .collect(Collectors.toList());
+        BatchResult<String> deleted = UserApiHelper.deleteUsers(withApiKey, ids, 5);
+
+        SoftAssertions softly = new SoftAssertions();
+        softly.assertThat(created.isAllSucceeded()).as("All created: %s", created).isTrue();
+        softly.assertThat(created.getItems()).extracting(BatchResult.Item::getInput).as("Input order").isEqualTo(payloads);
+        softly.assertThat(ids).as("Created ids").doesNotContainNull().doesNotHaveDuplicates();
+        softly.assertThat(deleted.isAllSucceeded()).as("All deleted: %s", deleted).isTrue();
+        softly.assertThat(deleted.getItems()).extracting(BatchResult.Item::getInput).as("Delete order").isEqualTo(ids);
+        softly.assertAll();
+    }
+
+    /**
+     * SEND:     3 x DELETE /api/users/{id} without an API key
+     * EXPECT:   every item is reported as a failure carrying its 401 Unauthorized response
+     */
+    @Test
+    public void shouldReportEveryFailure_whenApiKeyIsMissing() {
+        BatchResult<String> deleted = UserApiHelper.deleteUsers(withoutApiKey, List.of("1", "2", "3"), 2);
+
+        assertEquals(3, deleted.getFailures().size(), "Expected every delete to fail: " + deleted);
+        deleted.getFailures().forEach(item ->
+                assertEquals(401, item.getResponse().getStatusCode(), "Unexpected status for id " + item.getInput()));
+    }
+}
@@ -0,0 +1,80 @@
+package com.demo.api.tests;
+
+import com.demo.api.base.ApiResources;
+import com.demo.api.base.BaseTest;
+import com.demo.api.utilities.ResponseCache;
+
+import io.qameta.allure.*;
+import io.restassured.RestAssured;
+import io.restassured.response.Response;
+
+import java.util.Map;
+
+import org.assertj.core.api.SoftAssertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.ResourceAccessMode;
+import org.junit.jupiter.api.parallel.ResourceLock;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Contains tests for the conditional-request {@link ResponseCache} used by the GET helpers.
+ * Each test uses its own cache instance so the result does not depend on {@code cache.enabled}.
+ */
+@ResourceLock(value = ApiResources.USERS, mode = ResourceAccessMode.READ)
+public class UserCacheTests extends BaseTest {
+
+    /**
+     * SEND:     GET /api/users?page=1 three times through a cache with a zero TTL
+     * HEADERS:  If-None-Match / If-Modified-Since on the 2nd and 3rd request
+     * EXPECT:
+     *    - 1st request is a miss
+     *    - 2nd and 3rd requests are revalidated with 304 Not Modified and count as hits
+     *    - every call returns the original 200 OK body
+     */
+    @Epic("User API")
+    @Feature("Read User")
+    @Story("As a tester, I want repeated GETs to be revalidated instead of re-downloaded")
+    @Severity(SeverityLevel.NORMAL)
+    @DisplayName("Conditional GET revalidation")
+    @Description("Revalidates a cached users page with If-None-Match and counts 304 Not Modified as a hit.")
+    @Test
+    public void shouldCountNotModifiedAsHit_whenRevalidatingStaleEntry() {
+        ResponseCache cache = new ResponseCache(true, 8, 0);
+
+        Response first = cache.get(withApiKey, "/api/users?page=1", headers -> fetchPage(headers, 1));
+        Response second = cache.get(withApiKey, "/api/users?page=1", headers -> fetchPage(headers, 1));
+        Response third = cache.get(withApiKey, "/api/users?page=1", headers -> fetchPage(headers, 1));
+
+        SoftAssertions softly = new SoftAssertions();
+        softly.assertThat(first.statusCode()).as("First status").isEqualTo(200);
+        softly.assertThat(second.statusCode()).as("Second status").isEqualTo(200);
+        softly.assertThat(third.jsonPath().getString("data[0].first_name")).as("Cached body").isEqualTo("George");
+        softly.assertThat(cache.getMisses()).as("Misses").isEqualTo(1);
+        softly.assertThat(cache.getHits()).as("Hits").isEqualTo(2);
+        softly.assertThat(cache.getRevalidations()).as("Revalidations").isEqualTo(2);
+        softly.assertAll();
+    }
+
+    /**
+     * SEND:     GET /api/users?page=1, ?page=2, then ?page=1 again through a single-entry cache
+     * EXPECT:   the second page evicts the first, so the third request is a miss again
+     */
+    @Test
+    public void shouldEvictLeastRecentlyUsedEntry_whenCacheIsFull() {
+        ResponseCache cache = new ResponseCache(true, 1, 60_000);
+
+        cache.get(withApiKey, "/api/users?page=1", headers -> fetchPage(headers, 1));
+        cache.get(withApiKey, "/api/users?page=2", headers -> fetchPage(headers, 2));
+        cache.get(withApiKey, "/api/users?page=1", headers -> fetchPage(headers, 1));
+
+        assertEquals(1, cache.size(), "Expected a single cached entry");
+        assertEquals(3, cache.getMisses(), "Expected every lookup to miss");
+        assertEquals(2, cache.getEvictions(), "Expected two evictions");
+    }
+
+    private Response fetchPage(Map<String, String> headers, int page) {
+        return RestAssured.given().spec(withApiKey).headers(headers).queryParam("page", page).get("/api/users");
+    }
+}
@@ -0,0 +1,162 @@
+package com.demo.api.tests;
+
+import com.demo.api.base.ApiResources;
+import com.demo.api.base.BaseTest;
+import com.demo.api.utilities.Cassette;
+import com.demo.api.utilities.Config;
+import com.demo.api.utilities.RequestSpecs;
+import com.demo.api.utilities.UserApiHelper;
+import com.demo.api.utilities.UserDataFactory;
+
+import io.qameta.allure.*;
+import io.restassured.RestAssured;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+
+import org.assertj.core.api.SoftAssertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.api.parallel.ResourceAccessMode;
+import org.junit.jupiter.api.parallel.ResourceLock;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Contains tests for recording responses to a {@link Cassette} and replaying them without a server.
+ * Each test uses its own cassette file, so the result does not depend on {@code cassette.mode}.
+ */
+@ResourceLock(value = ApiResources.USERS, mode = ResourceAccessMode.READ_WRITE)
+public class UserCassetteTests extends BaseTest {
+
+    // Nothing listens here: every replayed response must come from the cassette
+    private static final String UNREACHABLE = "http://127.0.0.1:9";
+
+    /**
+     * SEND:     GET /api/users/2, GET /api/users?page=2 and POST /api/users while recording,
+     *           then the same requests in replay mode against an unreachable base URI
+     * EXPECT:
+     *    - replayed status codes and bodies equal the recorded ones
+     *    - the cassette holds one exchange per distinct request
+     */
+    @Epic("User API")
+    @Feature("Record and Replay")
+    @Story("As a tester, I want to replay recorded responses without network access")
+    @Severity(SeverityLevel.NORMAL)
+    @DisplayName("Replay recorded responses")
+    @Description("Records three exchanges into a cassette file and replays them from the memory-mapped file without a server.")
+    @Test
+    public void shouldReplayRecordedResponses_whenServerIsUnreachable(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("users.cassette");
+        Map<String, String> payload = Map.of("name", "Recorded", "job", "QA Engineer");
+
+        Response recordedUser;
+        Response recordedPage;
+        Response recordedCreate;
+        try (Cassette recorder = new Cassette(file, Cassette.Mode.RECORD)) {
+            RequestSpecification spec = withCassette(Config.getBaseUri(), recorder);
+            recordedUser = UserApiHelper.getUserById(spec, 2);
+            recordedPage = UserApiHelper.listUsers(spec, 2);
+            recordedCreate = RestAssured.given().spec(spec).body(payload).post("/api/users");
+        }
+
+        try (Cassette player = new Cassette(file, Cassette.Mode.REPLAY)) {
+            RequestSpecification spec = withCassette(UNREACHABLE, player);
+            Response user = UserApiHelper.getUserById(spec, 2);
+            Response page = UserApiHelper.listUsers(spec, 2);
+            Response create = RestAssured.given().spec(spec).body(payload).post("/api/users");
+
+            SoftAssertions softly = new SoftAssertions();
+            softly.assertThat(player.size()).as("Recorded exchanges").isEqualTo(3);
+            softly.assertThat(user.statusCode()).as("User status").isEqualTo(200);
+            softly.assertThat(user.asString()).as("User body").isEqualTo(recordedUser.asString());
+            softly.assertThat(UserApiHelper.asUser(user).getFirstName()).as("Decoded first name").isEqualTo("Janet");
+            softly.assertThat(page.asString()).as("Page body").isEqualTo(recordedPage.asString());
+            softly.assertThat(create.statusCode()).as("Create status").isEqualTo(201);
+            softly.assertThat(create.asString()).as("Create body").isEqualTo(recordedCreate.asString());
+            softly.assertAll();
+        }
+    }
+
+    /**
+     * SEND:     GET /api/users?page=1 in replay mode, after only page 2 was recorded
+     * EXPECT:   IllegalStateException naming the request that has no recording
+     */
+    @Test
+    public void shouldFail_whenReplayingUnrecordedRequest(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("users.cassette");
+        try (Cassette recorder = new Cassette(file, Cassette.Mode.RECORD)) {
+            UserApiHelper.listUsers(withCassette(Config.getBaseUri(), recorder), 2);
+        }
+
+        try (Cassette player = new Cassette(file, Cassette.Mode.REPLAY)) {
+            RequestSpecification spec = withCassette(UNREACHABLE, player);
+            assertThatThrownBy(() -> UserApiHelper.listUsers(spec, 1))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("GET /api/users?page=1");
+        }
+    }
+
+    /**
+     * SEND:     GET /api/users/2 while recording, close the cassette, then GET /api/users?page=2 through it
+     * EXPECT:   both exchanges are replayed; recording after close appends instead of truncating the file
+     */
+    @Test
+    public void shouldKeepEarlierRecordings_whenRecordingAfterClose(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("users.cassette");
+        Cassette recorder = new Cassette(file, Cassette.Mode.RECORD);
+        RequestSpecification recording = withCassette(Config.getBaseUri(), recorder);
+        Response recordedUser = UserApiHelper.getUserById(recording, 2);
+        recorder.close();
+        Response recordedPage = UserApiHelper.listUsers(recording, 2);
+        recorder.close();
+
+        try (Cassette player = new Cassette(file, Cassette.Mode.REPLAY)) {
+            RequestSpecification spec = withCassette(UNREACHABLE, player);
+
+            SoftAssertions softly = new SoftAssertions();
+            softly.assertThat(player.size()).as("Recorded exchanges").isEqualTo(2);
+            softly.assertThat(UserApiHelper.getUserById(spec, 2).asString()).as("User body")
+                    .isEqualTo(recordedUser.asString());
+            softly.assertThat(UserApiHelper.listUsers(spec, 2).asString()).as("Page body")
+                    .isEqualTo(recordedPage.asString());
+            softly.assertAll();
+        }
+    }
+
+    /**
+     * SEND:     POST /api/users with a unique name while recording, then with another unique name in replay mode
+     * EXPECT:   the create is replayed, since the name is a volatile field left out of the key
+     */
+    @Test
+    public void shouldReplayCreate_whenOnlyTheUniqueNameDiffers(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("users.cassette");
+        Response recordedCreate;
+        try (Cassette recorder = new Cassette(file, Cassette.Mode.RECORD)) {
+            recordedCreate = UserApiHelper.createUser(withCassette(Config.getBaseUri(), recorder),
+                    UserDataFactory.user("Recorded", "QA Engineer"));
+        }
+
+        try (Cassette player = new Cassette(file, Cassette.Mode.REPLAY)) {
+            Response create = UserApiHelper.createUser(withCassette(UNREACHABLE, player),
+                    UserDataFactory.user("Recorded", "QA Engineer"));
+
+            SoftAssertions softly = new SoftAssertions();
+            softly.assertThat(create.statusCode()).as("Create status").isEqualTo(201);
+            softly.assertThat(create.asString()).as("Create body").isEqualTo(recordedCreate.asString());
+            softly.assertAll();
+        }
+    }
+
+    private static RequestSpecification withCassette(String baseUri, Cassette cassette) {
+        return new RequestSpecBuilder()
+                .addRequestSpecification(RequestSpecs.forBaseUri(baseUri, Config.getApiKey()))
+                .addFilter(cassette.filter())
+                .build();
+    }
+}
@@ -0,0 +1,173 @@
+package com.demo.api.tests;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.OutputStreamAppender;
+
+import com.demo.api.base.BaseTest;
+import com.demo.api.models.UserPayload;
+import com.demo.api.perf.MicroBenchmark;
+import com.demo.api.utilities.BodyLogger;
+import com.demo.api.utilities.Config;
+import com.demo.api.utilities.JsonSchema;
+import com.demo.api.utilities.RequestSpecs;
+import com.demo.api.utilities.UserApiHelper;
+import com.demo.api.utilities.UserDataFactory;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.qameta.allure.*;
+import io.restassured.RestAssured;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.path.json.mapper.factory.DefaultJackson2ObjectMapperFactory;
+import io.restassured.response.Response;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Isolated;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Microbenchmarks of the client-side hot paths, measured against the local stand-in.
+ *
+ * <p>Tagged {@code bench} and therefore excluded from the default build. Run with:</p>
+ * <pre>
+ *     mvn test -Pbench -Dbench.iterations=10 -Dbench.iteration.ms=2000
+ * </pre>
+ *
+ * <p>The table (throughput, bytes allocated per operation, GC count and time) is logged, attached to
+ * Allure and written to {@code target/benchmarks/client-hot-paths.txt}; the {@code bench} profile also
+ * writes a GC log next to it.</p>
+ */
+@Tag("bench")
+@Isolated
+public class UserClientBenchmarkTests extends BaseTest {
+
+    private static final Path REPORT = Paths.get("target", "benchmarks", "client-hot-paths.txt");
+
+    /**
+     * Benchmarks specification building, payload serialization, list decoding, logging and a full round trip.
+     *
+     * CONFIG:  bench.warmup.iterations, bench.iterations, bench.iteration.ms
+     * EXPECT:  every benchmark completes and reports a positive throughput
+     */
+    @Epic("User API")
+    @Feature("Performance")
+    @Story("As a tester, I want client changes to be judged on throughput and allocation numbers")
+    @Severity(SeverityLevel.MINOR)
+    @DisplayName("Client hot-path microbenchmarks")
+    @Description("Measures throughput, allocation and GC of spec building, payload serialization, list decoding and logging.")
+    @Test
+    public void shouldReportThroughputAndAllocation_forClientHotPaths() throws IOException {
+        MicroBenchmark bench = MicroBenchmark.fromConfig();
+        List<MicroBenchmark.Result> results = new ArrayList<>();
+
+        String baseUri = Config.getBaseUri();
+        String apiKey = Config.getApiKey();
+        Map<String, String> payload = Map.of("name", "John", "job", "QA Engineer");
+        ObjectMapper sharedMapper = new ObjectMapper();
+        DefaultJackson2ObjectMapperFactory restAssuredMappers = new DefaultJackson2ObjectMapperFactory();
+        Response page = UserApiHelper.listUsers(withApiKey, 1);
+        Logger helperLogger = LoggerFactory.getLogger(UserApiHelper.class);
+        Logger asyncLogger = isolatedAsyncLogger();
+
+        // BaseTest.setup before RequestSpecs: two specifications built per test
+        results.add(bench.run("spec.build.per-test", () -> List.of(
+                new RequestSpecBuilder().setBaseUri(baseUri).addHeader("x-api-key", apiKey)
+                        .setContentType("application/json").build(),
+                new RequestSpecBuilder().setBaseUri(baseUri).setContentType("application/json").build())));
+        results.add(bench.run("spec.shared", () -> List.of(RequestSpecs.withApiKey(), RequestSpecs.withoutApiKey())));
+
+        // RestAssured's default factory creates a new ObjectMapper for every serialized body
+        results.add(bench.run("payload.serialize.restassured", () ->
+                restAssuredMappers.create(Map.class, "UTF-8").writeValueAsBytes(payload)));
+        results.add(bench.run("payload.serialize.shared-mapper", () -> sharedMapper.writeValueAsBytes(payload)));
+        Supplier<UserPayload> factory = UserDataFactory.supplier("John", "QA Engineer", 1024);
+        results.add(bench.run("payload.serialize.factory", factory::get));
+
+        results.add(bench.run("list.decode.jsonpath", () -> page.jsonPath().getList("data")));
+        results.add(bench.run("list.decode.typed", () -> UserApiHelper.asUserPage(page).getData()));
+        JsonNode pageTree = sharedMapper.readTree(page.asByteArray());
+        JsonSchema pageSchema = JsonSchema.forName("user-page");
+        results.add(bench.run("list.schema.validate", () -> pageSchema.isValid(pageTree)));
+
+        // DEBUG is disabled on the default configuration: eager toString versus BodyLogger
+        results.add(bench.run("log.debug.eager-body", () -> {
+            helperLogger.debug("Response received: {}", page.asString());
+            return page;
+        }));
+        results.add(bench.run("log.debug.body-logger", () -> {
+            BodyLogger.debug(helperLogger, page);
+            return page;
+        }));
+        results.add(bench.run("log.info.async-appender", () -> {
+            asyncLogger.info("Listing users with page {}", 1);
+            return asyncLogger;
+        }));
+
+        // Without the helper's INFO line, which the async-appender benchmark covers
+        results.add(bench.run("list.round-trip.stub", () -> UserApiHelper.discardBody(RestAssured.given().spec(withApiKey)
+                .queryParam("page", 1).get("/api/users")).getStatusCode()));
+
+        String table = MicroBenchmark.format(results);
+        logger.info("Benchmark results:\n{}", table);
+        Allure.addAttachment("Benchmark Results", "text/plain", table, ".txt");
+        Files.createDirectories(REPORT.getParent());
+        Files.write(REPORT, table.getBytes(StandardCharsets.UTF_8));
+
+        assertThat(results)
+                .as("Benchmark results")
+                .allSatisfy(result -> assertThat(result.getOpsPerSecond()).as(result.getName()).isPositive());
+    }
+
+    /**
+     * Builds a logger with the project's async appender setup writing to a null stream, so the cost of an
+     * INFO line can be measured without flooding the console and log files.
+     */
+    private static Logger isolatedAsyncLogger() {
+        LoggerContext context = new LoggerContext();
+
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d{HH:mm:ss.SSS} %-5level [%thread] [%X{testId}] %logger{36} - %msg%n");
+        encoder.start();
+
+        OutputStreamAppender<ILoggingEvent> sink = new OutputStreamAppender<>();
+        sink.setContext(context);
+        sink.setEncoder(encoder);
+        sink.setOutputStream(OutputStream.nullOutputStream());
+        sink.start();
+
+        AsyncAppender async = new AsyncAppender();
+        async.setContext(context);
+        async.setQueueSize(8192);
+        async.setDiscardingThreshold(0);
+        async.setNeverBlock(true);
+        async.addAppender(sink);
+        async.start();
+
+        ch.qos.logback.classic.Logger logger = context.getLogger(UserApiHelper.class);
+        logger.setLevel(Level.INFO);
+        logger.addAppender(async);
+        return logger;
+    }
+}
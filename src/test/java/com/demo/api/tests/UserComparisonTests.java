@@ -0,0 +1,169 @@
+package com.demo.api.tests;
+
+import com.demo.api.base.BaseTest;
+import com.demo.api.perf.ComparisonReport;
+import com.demo.api.perf.LatencyComparison;
+import com.demo.api.perf.UserOperation;
+import com.demo.api.stub.LatencyProfile;
+import com.demo.api.stub.LocalUserApiServer;
+import com.demo.api.utilities.Config;
+import com.demo.api.utilities.RequestSpecs;
+
+import io.qameta.allure.*;
+import io.restassured.specification.RequestSpecification;
+
+import org.assertj.core.api.SoftAssertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Isolated;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Baseline-versus-candidate latency comparison of the /api/users endpoints.
+ *
+ * <p>The regression gate is tagged {@code compare} and therefore excluded from the default build. Run with:</p>
+ * <pre>
+ *     mvn test -Pcompare -Dcompare.baseline.uri=http://localhost:8081 -Dcompare.candidate.uri=http://localhost:8082
+ * </pre>
+ * <p>Without URIs, two local stand-ins are started with the {@code compare.stub.baseline.profile} and
+ * {@code compare.stub.candidate.profile} latency profiles.</p>
+ *
+ * <p>Runs {@link Isolated} so that no functional test adds noise to one side of a pair.</p>
+ */
+@Isolated
+public class UserComparisonTests extends BaseTest {
+
+    /**
+     * Sends the same workload to the baseline and the candidate, interleaved, and fails if any endpoint is slower.
+     *
+     * CONFIG:  compare.baseline.uri, compare.candidate.uri, compare.operations, compare.rounds, compare.alpha,
+     *          compare.min.effect
+     * EXPECT:  no endpoint where the candidate is significantly slower with at least a small effect size
+     */
+    @Epic("User API")
+    @Feature("Performance")
+    @Story("As a tester, I want a trustworthy answer to whether a new API build is slower")
+    @Severity(SeverityLevel.NORMAL)
+    @DisplayName("Baseline vs candidate latency regression gate")
+    @Description("Interleaves the same requests to a baseline and a candidate API and compares the latencies per endpoint with a Mann-Whitney U test and Cliff's delta.")
+    @Tag("compare")
+    @Test
+    public void shouldNotBeSlower_whenComparingCandidateWithBaseline() throws InterruptedException, IOException {
+        List<LocalUserApiServer> stubs = new ArrayList<>();
+        try {
+            RequestSpecification baseline = spec(Config.get("compare.baseline.uri", ""),
+                    Config.get("compare.stub.baseline.profile", "lan"), stubs);
+            RequestSpecification candidate = spec(Config.get("compare.candidate.uri", ""),
+                    Config.get("compare.stub.candidate.profile", "lan"), stubs);
+
+            ComparisonReport report = LatencyComparison.fromConfig(baseline, candidate).run();
+
+            String formatted = report.format();
+            logger.info("Comparison report:\n{}", formatted);
+            Allure.addAttachment("Comparison Report", "text/plain", formatted, ".txt");
+            Path csv = Paths.get(Config.get("compare.output.dir", "target/compare")).resolve("endpoints.csv");
+            Files.createDirectories(csv.getParent());
+            Files.write(csv, report.toCsv().getBytes(StandardCharsets.UTF_8));
+
+            assertThat(report.getRegressions())
+                    .as("Endpoints where the candidate is slower:\n%s", formatted)
+                    .isEmpty();
+        } finally {
+            stubs.forEach(LocalUserApiServer::stop);
+        }
+    }
+
+    /**
+     * SEND:     30 rounds of GET /api/users and GET /api/users/{id} to two stand-ins, the candidate 24 ms slower,
+     *           then 30 rounds to two identical stand-ins
+     * EXPECT:
+     *    - both endpoints are reported as regressions in the first comparison
+     *    - no endpoint is reported as changed in the second
+     */
+    @Test
+    public void shouldDetectSlowerCandidate_whenLatencyIncreases() throws InterruptedException {
+        LocalUserApiServer fast = new LocalUserApiServer(new LatencyProfile("fast", 1, 1, 0.0, 503)).start();
+        LocalUserApiServer slow = new LocalUserApiServer(new LatencyProfile("slow", 25, 1, 0.0, 503)).start();
+        LocalUserApiServer same = new LocalUserApiServer(new LatencyProfile("fast", 1, 1, 0.0, 503)).start();
+        try {
+            List<UserOperation> operations = List.of(UserOperation.LIST, UserOperation.GET);
+            ComparisonReport slower = new LatencyComparison(spec(fast), spec(slow), operations, 30, 5, 1, 0.01, 0.147).run();
+            ComparisonReport unchanged = new LatencyComparison(spec(fast), spec(same), operations, 30, 5, 1, 0.01, 0.147).run();
+            logger.info("Slower candidate:\n{}Unchanged candidate:\n{}", slower.format(), unchanged.format());
+
+            SoftAssertions softly = new SoftAssertions();
+            for (ComparisonReport.EndpointComparison endpoint : slower.getEndpoints()) {
+                softly.assertThat(endpoint.getVerdict()).as("Verdict of %s, 24 ms slower", endpoint.getOperation())
+                        .isEqualTo(ComparisonReport.Verdict.REGRESSION);
+                softly.assertThat(endpoint.getResult().getCliffsDelta()).as("Cliff's delta of %s", endpoint.getOperation())
+                        .isGreaterThan(0.474);
+            }
+            softly.assertThat(slower.passed()).as("Slower candidate passes").isFalse();
+            softly.assertThat(unchanged.getRegressions()).as("Regressions of an identical candidate").isEmpty();
+            softly.assertAll();
+        } finally {
+            fast.stop();
+            slow.stop();
+            same.stop();
+        }
+    }
+
+    /**
+     * CONFIG:   synthetic samples with identical latencies on both sides; alpha 0.01 over four endpoints
+     * EXPECT:
+     *    - GET with 20 of 120 candidate requests failing against none of the baseline's is a regression
+     *    - LIST with only failed candidate requests is a regression
+     *    - CREATE with one baseline and two candidate errors is unchanged
+     *    - DELETE without errors is unchanged
+     */
+    @Test
+    public void shouldReportRegression_whenCandidateFailsMoreOften() {
+        long[] latencies = new long[100];
+        for (int i = 0; i < latencies.length; i++) {
+            latencies[i] = 1_000 + i;
+        }
+        ComparisonReport report = new ComparisonReport(0.01, 0.147);
+        report.add(UserOperation.GET, latencies, latencies, 0, 20, 4);
+        report.add(UserOperation.LIST, latencies, new long[0], 0, 10, 4);
+        report.add(UserOperation.CREATE, latencies, latencies, 1, 2, 4);
+        report.add(UserOperation.DELETE, latencies, latencies, 0, 0, 4);
+        logger.info("Synthetic comparison:\n{}", report.format());
+
+        SoftAssertions softly = new SoftAssertions();
+        softly.assertThat(report.getEndpoints()).extracting(ComparisonReport.EndpointComparison::getVerdict)
+                .as("Verdicts of GET, LIST, CREATE, DELETE")
+                .containsExactly(ComparisonReport.Verdict.REGRESSION, ComparisonReport.Verdict.REGRESSION,
+                        ComparisonReport.Verdict.NO_CHANGE, ComparisonReport.Verdict.NO_CHANGE);
+        softly.assertThat(report.getEndpoints().get(0).getCandidateErrorRate()).as("GET candidate error rate")
+                .isCloseTo(20 / 120.0, within(1e-9));
+        softly.assertThat(report.getEndpoints().get(0).getErrorRatePValue()).as("GET error rate p-value").isLessThan(0.0025);
+        softly.assertThat(report.getEndpoints().get(3).getErrorRatePValue()).as("DELETE error rate p-value").isEqualTo(1.0);
+        softly.assertThat(report.passed()).as("Failing candidate passes").isFalse();
+        softly.assertAll();
+    }
+
+    private static RequestSpecification spec(LocalUserApiServer server) {
+        return RequestSpecs.forBaseUri(server.getBaseUri(), Config.getApiKey());
+    }
+
+    // A configured URI, or a local stand-in with the given profile when none is set
+    private static RequestSpecification spec(String baseUri, String profile, List<LocalUserApiServer> stubs) {
+        if (!baseUri.isBlank()) {
+            return RequestSpecs.forBaseUri(baseUri, Config.getApiKey());
+        }
+        LocalUserApiServer server = new LocalUserApiServer(LatencyProfile.named(profile)).start();
+        stubs.add(server);
+        return spec(server);
+    }
+}
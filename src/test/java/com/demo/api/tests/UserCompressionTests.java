@@ -0,0 +1,125 @@
+package com.demo.api.tests;
+
+import com.demo.api.base.BaseTest;
+import com.demo.api.models.CreatedUser;
+import com.demo.api.models.UserPage;
+import com.demo.api.stub.LatencyProfile;
+import com.demo.api.stub.LocalUserApiServer;
+import com.demo.api.utilities.Config;
+import com.demo.api.utilities.RequestCompression;
+import com.demo.api.utilities.RequestMetrics;
+import com.demo.api.utilities.RequestSpecs;
+import com.demo.api.utilities.UserApiHelper;
+
+import io.qameta.allure.*;
+import io.restassured.RestAssured;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+
+import org.assertj.core.api.SoftAssertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Contains tests for compressed responses and request bodies and their wire-byte accounting.
+ * Each test starts its own stand-in with compression enabled and metrics on for its own specification.
+ * Other tests may record into the same {@link RequestMetrics} concurrently, so only increases are compared.
+ */
+public class UserCompressionTests extends BaseTest {
+
+    /**
+     * SEND:     GET /api/users?page=1&amp;per_page=12 three times to a stand-in compressing every body
+     * EXPECT:
+     *    - the pages decode into users
+     *    - fewer bytes crossed the wire for "GET /api/users" than were decoded
+     */
+    @Epic("User API")
+    @Feature("Performance")
+    @Story("As a tester, I want to see how many bytes compression saves per endpoint")
+    @Severity(SeverityLevel.NORMAL)
+    @DisplayName("Compressed responses and wire bytes")
+    @Description("Fetches gzip-encoded user pages and checks that they decode and that wire bytes are recorded below decoded bytes.")
+    @Test
+    public void shouldCountFewerWireBytes_whenResponsesAreCompressed() {
+        LocalUserApiServer server = new LocalUserApiServer(LatencyProfile.INSTANT).start();
+        server.setCompression(0);
+        try {
+            RequestSpecification spec = RequestSpecs.forBaseUri(server.getBaseUri(), Config.getApiKey(), true);
+            RequestMetrics.EndpointStats before = RequestMetrics.global().getEndpoints().get("GET /api/users");
+            long wireBefore = before == null ? 0 : before.getResponseWireBytes();
+            long decodedBefore = before == null ? 0 : before.getResponseBytes();
+
+            SoftAssertions softly = new SoftAssertions();
+            for (int i = 0; i < 3; i++) {
+                Response response = RestAssured.given().spec(spec)
+                        .queryParam("page", 1).queryParam("per_page", 12).get("/api/users");
+                softly.assertThat(response.statusCode()).as("Status").isEqualTo(200);
+                UserPage page = UserApiHelper.asUserPage(response);
+                softly.assertThat(page.getData()).as("Decoded users").isNotEmpty();
+            }
+
+            softly.assertAll();
+
+            RequestMetrics.EndpointStats after = RequestMetrics.global().getEndpoints().get("GET /api/users");
+            assertThat(after).as("Endpoint stats").isNotNull();
+            long wire = after.getResponseWireBytes() - wireBefore;
+            long decoded = after.getResponseBytes() - decodedBefore;
+
+            softly = new SoftAssertions();
+            softly.assertThat(wire).as("Wire bytes").isPositive();
+            softly.assertThat(wire).as("Wire bytes vs %d decoded bytes", decoded).isLessThan(decoded);
+            softly.assertAll();
+        } finally {
+            server.stop();
+        }
+    }
+
+    /**
+     * SEND:     POST /api/users with a 4 KB job title, gzip-compressed, to a stand-in
+     * EXPECT:
+     *    - 201 Created with the name and job echoed back
+     *    - fewer request bytes crossed the wire for "POST /api/users" than were serialized
+     */
+    @Test
+    public void shouldCreateUser_whenRequestBodyIsCompressed() {
+        LocalUserApiServer server = new LocalUserApiServer(LatencyProfile.INSTANT).start();
+        try {
+            RequestSpecification spec = new RequestSpecBuilder()
+                    .addRequestSpecification(RequestSpecs.forBaseUri(server.getBaseUri(), Config.getApiKey(), true))
+                    .addFilter(RequestCompression.filter(0))
+                    .build();
+            Map<String, String> payload = new HashMap<>();
+            payload.put("name", "Compressed");
+            payload.put("job", "engineer ".repeat(455));
+            RequestMetrics.EndpointStats before = RequestMetrics.global().getEndpoints().get("POST /api/users");
+            long wireBefore = before == null ? 0 : before.getRequestWireBytes();
+            long bytesBefore = before == null ? 0 : before.getRequestBytes();
+
+            Response response = UserApiHelper.createUser(spec, payload);
+
+            SoftAssertions softly = new SoftAssertions();
+            softly.assertThat(response.statusCode()).as("Status").isEqualTo(201);
+            if (response.statusCode() == 201) {
+                CreatedUser created = UserApiHelper.asCreatedUser(response);
+                softly.assertThat(created.getName()).as("Echoed name").isEqualTo("Compressed");
+                softly.assertThat(created.getJob()).as("Echoed job").isEqualTo(payload.get("job"));
+                UserApiHelper.deleteUserById(spec, created.getId());
+            }
+            softly.assertAll();
+
+            RequestMetrics.EndpointStats after = RequestMetrics.global().getEndpoints().get("POST /api/users");
+            assertThat(after).as("Endpoint stats").isNotNull();
+            long wire = after.getRequestWireBytes() - wireBefore;
+            long serialized = after.getRequestBytes() - bytesBefore;
+            assertThat(wire).as("Request wire bytes vs %d serialized bytes", serialized).isLessThan(serialized);
+        } finally {
+            server.stop();
+        }
+    }
+}
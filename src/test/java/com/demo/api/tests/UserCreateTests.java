@@ -1,19 +1,23 @@
 package com.demo.api.tests;
 
+import com.demo.api.base.ApiResources;
 import com.demo.api.base.BaseTest;
+import com.demo.api.models.CreatedUser;
+import com.demo.api.models.UserPayload;
 import com.demo.api.utilities.UserApiHelper;
+import com.demo.api.utilities.UserDataFactory;
 import io.qameta.allure.*;
-import io.restassured.path.json.JsonPath;
 import io.restassured.response.Response;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.assertj.core.api.SoftAssertions;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import org.junit.jupiter.api.parallel.ResourceAccessMode;
+import org.junit.jupiter.api.parallel.ResourceLock;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -21,9 +25,9 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
  * Contains tests related to retrieving user data via GET requests.
  * Covers listing users, fetching by ID, and negative cases (non-existing users).
  */
+@ResourceLock(value = ApiResources.USERS, mode = ResourceAccessMode.READ_WRITE)
 public class UserCreateTests extends BaseTest {
 
-    private static final Logger logger = LoggerFactory.getLogger(UserCreateTests.class);
     /**
      * Test aiming to create a unique new user by sending a POST request to the /api/users endpoint.
      *
@@ -45,7 +49,7 @@ public class UserCreateTests extends BaseTest {
     public void shouldCreateNewUser_whenPostingValidData()
     {
         // Generate unique user name
-        String uniqueName = "John_" + System.currentTimeMillis();
+        String uniqueName = UserDataFactory.uniqueName("John");
 
         // Prepare request body
         Map<String, String> requestBody = new HashMap<>();
@@ -58,24 +62,59 @@ public class UserCreateTests extends BaseTest {
         // Assert status code
         assertEquals(201, response.statusCode(), "Expected 201 Created");
 
-        // Parse and assert response body
-        JsonPath json = response.jsonPath();
+        // Decode and assert response body
+        CreatedUser created = UserApiHelper.asCreatedUser(response);
         SoftAssertions softly = new SoftAssertions();
-        softly.assertThat(json.getString("name"))
+        softly.assertThat(created.getName())
                 .as("Check name field")
                 .isEqualTo(uniqueName);
-        softly.assertThat(json.getString("job"))
+        softly.assertThat(created.getJob())
                 .as("Check job field")
                 .isEqualTo("QA Engineer");
-        softly.assertThat(json.getString("id"))
+        softly.assertThat(created.getId())
                 .as("Check id presence")
                 .isNotNull();
-        softly.assertThat(json.getString("createdAt"))
+        softly.assertThat(created.getCreatedAt())
                 .as("Check creation timestamp")
                 .isNotNull();
         softly.assertAll();
 
         // Log created user ID
-        LOGGER.info("New created user ID: " + json.getString("id"));
+        logger.info("New created user ID: " + created.getId());
+    }
+
+    /**
+     * Test aiming to create users from pre-serialized payloads with names unique across threads and runs.
+     *
+     * SEND:     POST https://reqres.in/api/users (twice, bytes from UserDataFactory)
+     * HEADERS:  x-api-key: reqres-free-v1
+     * BODY:     { "name": "Batch_<run id>_<n>", "job": "QA Engineer" }
+     *
+     * RESPONSE:
+     *   Status: 201 Created
+     *   Body:   Echoes the generated name; the two names differ
+     */
+    @Test
+    public void shouldCreateUser_whenPostingPreSerializedPayload() {
+        List<UserPayload> payloads = UserDataFactory.users("Batch", "QA Engineer", 2);
+
+        Response first = UserApiHelper.createUser(withApiKey, payloads.get(0));
+        Response second = UserApiHelper.createUser(withApiKey, payloads.get(1));
+
+        assertEquals(201, first.statusCode(), "Expected 201 Created");
+        assertEquals(201, second.statusCode(), "Expected 201 Created");
+        SoftAssertions softly = new SoftAssertions();
+        softly.assertThat(UserApiHelper.asCreatedUser(first).getName())
+                .as("Check first name echoed")
+                .isEqualTo(payloads.get(0).getName())
+                .startsWith("Batch_" + UserDataFactory.runId() + "_");
+        softly.assertThat(UserApiHelper.asCreatedUser(second).getName())
+                .as("Check second name echoed")
+                .isEqualTo(payloads.get(1).getName())
+                .isNotEqualTo(payloads.get(0).getName());
+        softly.assertThat(UserApiHelper.asCreatedUser(first).getJob())
+                .as("Check job field")
+                .isEqualTo("QA Engineer");
+        softly.assertAll();
     }
 }
@@ -1,7 +1,9 @@
 package com.demo.api.tests;
 
+import com.demo.api.base.ApiResources;
 import com.demo.api.base.BaseTest;
 import com.demo.api.utilities.UserApiHelper;
+import com.demo.api.utilities.UserDataFactory;
 
 import io.qameta.allure.*;
 import io.restassured.response.Response;
@@ -11,8 +13,8 @@ import java.util.Map;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import org.junit.jupiter.api.parallel.ResourceAccessMode;
+import org.junit.jupiter.api.parallel.ResourceLock;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -21,9 +23,9 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
  * Contains tests related to deleting users via DELETE requests.
  * Assumes the user has been previously created during test run.
  */
+@ResourceLock(value = ApiResources.USERS, mode = ResourceAccessMode.READ_WRITE)
 public class UserDeleteTests extends BaseTest {
 
-    private static final Logger logger = LoggerFactory.getLogger(UserDeleteTests.class);
     /**
      * Test aiming to delete a newly created user using DELETE request to /api/users/{id}.
      * FLOW:
@@ -41,7 +43,7 @@ public class UserDeleteTests extends BaseTest {
     @Test
     public void shouldDeleteUserSuccessfully_whenUserExists() {
         // Generate unique user name
-        String uniqueName = "ToBeDeleted_" + System.currentTimeMillis();
+        String uniqueName = UserDataFactory.uniqueName("ToBeDeleted");
 
         // Prepare request body
         Map<String, String> requestBody = new HashMap<>();
@@ -53,8 +55,8 @@ public class UserDeleteTests extends BaseTest {
         assertEquals(201, createResponse.statusCode(), "Expected 201 Created");
 
         // Extract user ID
-        String userId = createResponse.jsonPath().getString("id");
-        LOGGER.info("Created user ID for deletion: " + userId);
+        String userId = UserApiHelper.asCreatedUser(createResponse).getId();
+        logger.info("Created user ID for deletion: " + userId);
 
         // Delete user via helper
         Response deleteResponse = UserApiHelper.deleteUserById(withApiKey, userId);
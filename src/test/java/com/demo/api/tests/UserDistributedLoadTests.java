@@ -0,0 +1,130 @@
+package com.demo.api.tests;
+
+import com.demo.api.base.BaseTest;
+import com.demo.api.perf.DistributedLoadReport;
+import com.demo.api.perf.LatencyHistogram;
+import com.demo.api.perf.LoadCoordinator;
+import com.demo.api.perf.LoadReport;
+import com.demo.api.stub.LatencyProfile;
+import com.demo.api.stub.LocalUserApiServer;
+import com.demo.api.utilities.Config;
+
+import io.qameta.allure.*;
+
+import org.assertj.core.api.SoftAssertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Isolated;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Open-loop load split across several worker JVMs by the {@link LoadCoordinator}.
+ *
+ * <p>The full-size run is tagged {@code load} and therefore excluded from the default build. Run with:</p>
+ * <pre>
+ *     mvn test -Pload -Dtest=UserDistributedLoadTests -Dload.workers=4 -Dload.rate=2000
+ * </pre>
+ *
+ * <p>Runs {@link Isolated} so that no functional test competes with the generated load.</p>
+ */
+@Isolated
+public class UserDistributedLoadTests extends BaseTest {
+
+    /**
+     * Drives the weighted CRUD mix from load.workers processes at load.rate in total and reports the merged
+     * and per-worker latency percentiles.
+     *
+     * CONFIG:  load.workers, load.rate, load.duration.seconds, load.warmup.seconds, load.mix, load.worker.jvm.args,
+     *          load.worker.skew.threshold
+     * EXPECT:  every worker reports, the error ratio stays below load.max.error.rate and no worker is skewed
+     */
+    @Epic("User API")
+    @Feature("Performance")
+    @Story("As a tester, I want to generate more load than one JVM can")
+    @Severity(SeverityLevel.NORMAL)
+    @DisplayName("Multi-process open-loop CRUD load")
+    @Description("Splits the target rate across worker JVMs started in sync, merges their latency histograms and reports the aggregate and each worker.")
+    @Tag("load")
+    @Test
+    public void shouldSustainTargetRate_acrossWorkerProcesses() throws IOException, InterruptedException {
+        DistributedLoadReport report = LoadCoordinator.fromConfig(Config.getBaseUri()).run();
+
+        String formatted = report.format();
+        logger.info("Distributed load report:\n{}", formatted);
+        Allure.addAttachment("Distributed Load Report", "text/plain", formatted, ".txt");
+
+        LoadReport.OperationStats total = report.getMerged().total();
+        SoftAssertions softly = new SoftAssertions();
+        softly.assertThat(report.getWorkers()).as("Worker reports").hasSize(Config.getInt("load.workers", 2));
+        softly.assertThat(total.getCount()).as("Measured requests").isPositive();
+        softly.assertThat((double) total.getErrors() / Math.max(1, total.getCount()))
+                .as("Error ratio")
+                .isLessThanOrEqualTo(Config.getDouble("load.max.error.rate", 0.01));
+        softly.assertThat(report.getSkewedWorkers()).as("Skewed workers:\n%s", formatted).isEmpty();
+        softly.assertAll();
+    }
+
+    /**
+     * SEND:     GET /api/users and GET /api/users/{id} at 20 req/s for 2 s from 2 worker JVMs to a stand-in
+     * EXPECT:
+     *    - both workers report requests and no errors
+     *    - the merged count and max are the sums and maximum of the workers'
+     *    - the merged histograms survive serialization with identical percentiles
+     */
+    @Test
+    public void shouldMergeWorkerHistograms_whenLoadIsSplitAcrossProcesses() throws IOException, InterruptedException {
+        LocalUserApiServer server = new LocalUserApiServer(LatencyProfile.INSTANT).start();
+        try {
+            DistributedLoadReport report = new LoadCoordinator(server.getBaseUri(), 2, 20, Duration.ofSeconds(2),
+                    Duration.ofSeconds(1), "list:1,get:1", List.of("-Xmx128m", "-XX:TieredStopAtLevel=1"), 1.5).run();
+            logger.info("Distributed load report:\n{}", report.format());
+
+            LoadReport merged = report.getMerged();
+            SoftAssertions softly = new SoftAssertions();
+            softly.assertThat(report.getWorkers()).as("Worker reports").hasSize(2);
+            long workerCount = 0;
+            long workerMax = 0;
+            for (DistributedLoadReport.WorkerReport worker : report.getWorkers()) {
+                LoadReport.OperationStats stats = worker.getReport().total();
+                softly.assertThat(stats.getCount()).as("Requests of worker %d", worker.getIndex()).isPositive();
+                softly.assertThat(stats.getErrors()).as("Errors of worker %d", worker.getIndex()).isZero();
+                workerCount += stats.getCount();
+                workerMax = Math.max(workerMax, stats.getResponseTime().getMax());
+            }
+            softly.assertThat(merged.total().getCount()).as("Merged count").isEqualTo(workerCount);
+            softly.assertThat(merged.total().getResponseTime().getMax()).as("Merged max").isEqualTo(workerMax);
+            softly.assertThat(merged.getTargetRate()).as("Merged target rate").isEqualTo(20.0);
+
+            LatencyHistogram original = merged.total().getResponseTime();
+            LatencyHistogram copy = roundTrip(merged).total().getResponseTime();
+            for (double percentile : new double[] {50, 90, 99, 99.9, 100}) {
+                softly.assertThat(copy.getValueAtPercentile(percentile)).as("p%s after serialization", percentile)
+                        .isEqualTo(original.getValueAtPercentile(percentile));
+            }
+            softly.assertThat(copy.getMean()).as("Mean after serialization").isEqualTo(original.getMean());
+            softly.assertAll();
+        } finally {
+            server.stop();
+        }
+    }
+
+    private static LoadReport roundTrip(LoadReport report) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            report.writeTo(out);
+        }
+        LoadReport copy = LoadReport.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        assertThat(copy.total().getCount()).as("Count after serialization").isEqualTo(report.total().getCount());
+        return copy;
+    }
+}
@@ -0,0 +1,226 @@
+package com.demo.api.tests;
+
+import com.demo.api.base.BaseTest;
+import com.demo.api.stub.FaultInjectionProxy;
+import com.demo.api.stub.FaultRule;
+import com.demo.api.stub.LatencyProfile;
+import com.demo.api.stub.LocalUserApiServer;
+import com.demo.api.utilities.Config;
+import com.demo.api.utilities.RequestSpecs;
+import com.demo.api.utilities.UserApiHelper;
+
+import io.qameta.allure.*;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+
+import org.assertj.core.api.SoftAssertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Contains tests for the client behind a {@link FaultInjectionProxy} that degrades a local stand-in.
+ * Each test starts its own stand-in and proxy, so the shared users resource is not involved.
+ */
+public class UserFaultInjectionTests extends BaseTest {
+
+    /**
+     * SEND:     GET /api/users/2 with 300 ms injected latency, DELETE /api/users/2 with a connection reset,
+     *           GET /api/users?page=1 with half of the body cut off
+     * EXPECT:
+     *    - the delayed GET succeeds and takes at least 300 ms
+     *    - the reset DELETE and the truncated GET fail with an exception, each within 5 s including retries
+     *    - the proxy counts the injected resets and partial bodies
+     */
+    @Epic("User API")
+    @Feature("Resilience")
+    @Story("As a tester, I want to see how the client copes with a degraded network")
+    @Severity(SeverityLevel.NORMAL)
+    @DisplayName("Injected latency, resets and partial bodies")
+    @Description("Sends requests through a fault injection proxy and checks that delays are tolerated and broken connections fail fast.")
+    @Test
+    public void shouldFailFast_whenConnectionsAreResetOrTruncated() {
+        LocalUserApiServer server = new LocalUserApiServer(LatencyProfile.INSTANT).start();
+        FaultInjectionProxy proxy = new FaultInjectionProxy(server.getBaseUri())
+                .addRules("GET /api/users/{id} latency=300; DELETE /api/users/{id} reset; GET /api/users partial=0.5")
+                .start();
+        try {
+            RequestSpecification spec = RequestSpecs.forBaseUri(proxy.getBaseUri(), Config.getApiKey());
+            SoftAssertions softly = new SoftAssertions();
+
+            long start = System.nanoTime();
+            Response delayed = UserApiHelper.getUserById(spec, 2);
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+            softly.assertThat(delayed.statusCode()).as("Status of the delayed GET").isEqualTo(200);
+            softly.assertThat(elapsed).as("Duration of the delayed GET").isGreaterThanOrEqualTo(Duration.ofMillis(300));
+
+            softly.assertThat(timeToFailure(() -> UserApiHelper.deleteUserById(spec, "2")))
+                    .as("Time until the reset DELETE failed").isLessThan(Duration.ofSeconds(5));
+            softly.assertThat(timeToFailure(() -> UserApiHelper.listUsers(spec, 1)))
+                    .as("Time until the truncated GET failed").isLessThan(Duration.ofSeconds(5));
+
+            softly.assertThat(proxy.getInjected(FaultRule.Fault.LATENCY)).as("Injected latencies").isPositive();
+            softly.assertThat(proxy.getInjected(FaultRule.Fault.RESET)).as("Injected resets").isPositive();
+            softly.assertThat(proxy.getInjected(FaultRule.Fault.PARTIAL)).as("Injected partial bodies").isPositive();
+            softly.assertAll();
+        } finally {
+            proxy.stop();
+            server.stop();
+        }
+    }
+
+    /**
+     * SEND:     GET /api/users?page=1 capped at 2048 bytes/s, GET /api/users/2 with a 400 ms stall after the headers
+     * EXPECT:
+     *    - both succeed with 200 OK
+     *    - the capped GET takes at least as long as its body needs at that rate
+     *    - the stalled GET takes at least 400 ms
+     */
+    @Test
+    public void shouldSucceedSlowly_whenBandwidthIsCappedOrBodyStalls() {
+        LocalUserApiServer server = new LocalUserApiServer(LatencyProfile.INSTANT).start();
+        FaultInjectionProxy proxy = new FaultInjectionProxy(server.getBaseUri())
+                .addRules("GET /api/users bandwidth=2048; GET /api/users/{id} stall=400")
+                .start();
+        try {
+            RequestSpecification spec = RequestSpecs.forBaseUri(proxy.getBaseUri(), Config.getApiKey());
+            SoftAssertions softly = new SoftAssertions();
+
+            long start = System.nanoTime();
+            Response capped = UserApiHelper.listUsers(spec, 1);
+            long cappedMillis = (System.nanoTime() - start) / 1_000_000;
+            softly.assertThat(capped.statusCode()).as("Status of the capped GET").isEqualTo(200);
+            long expectedMillis = capped.asByteArray().length * 1000L / 2048;
+            softly.assertThat(cappedMillis).as("Milliseconds for a %d byte body at 2048 bytes/s", capped.asByteArray().length)
+                    .isGreaterThanOrEqualTo(expectedMillis - 100);
+
+            start = System.nanoTime();
+            Response stalled = UserApiHelper.getUserById(spec, 2);
+            softly.assertThat(stalled.statusCode()).as("Status of the stalled GET").isEqualTo(200);
+            softly.assertThat((System.nanoTime() - start) / 1_000_000).as("Milliseconds of the stalled GET")
+                    .isGreaterThanOrEqualTo(400);
+
+            softly.assertThat(proxy.getInjected(FaultRule.Fault.BANDWIDTH)).as("Capped responses").isPositive();
+            softly.assertThat(proxy.getInjected(FaultRule.Fault.STALL)).as("Stalled responses").isPositive();
+            softly.assertAll();
+        } finally {
+            proxy.stop();
+            server.stop();
+        }
+    }
+
+    /**
+     * CONFIG:   an upstream that closes every connection right after its first response, without saying so
+     * SEND:     GET /api/users/2 twice and then POST /api/users, all on one kept-alive client connection
+     * EXPECT:
+     *    - the second GET is resent on a new upstream connection and succeeds
+     *    - the POST is not resent and is answered 502 Bad Gateway
+     *    - the upstream receives only the two GETs
+     */
+    @Test
+    public void shouldResendOnlyIdempotentRequests_whenUpstreamConnectionIsStale() throws IOException {
+        AtomicInteger upstreamRequests = new AtomicInteger();
+        ServerSocket upstream = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        Thread acceptor = new Thread(() -> answerOnceAndClose(upstream, upstreamRequests), "stale-upstream");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        FaultInjectionProxy proxy = new FaultInjectionProxy("http://" + upstream.getInetAddress().getHostAddress() + ":" + upstream.getLocalPort()).start();
+        try (Socket client = new Socket(InetAddress.getLoopbackAddress(), URI.create(proxy.getBaseUri()).getPort())) {
+            client.setSoTimeout(5_000);
+            OutputStream out = client.getOutputStream();
+            InputStream in = new BufferedInputStream(client.getInputStream());
+            String get = "GET /api/users/2 HTTP/1.1\r\nHost: localhost\r\n\r\n";
+            String post = "POST /api/users HTTP/1.1\r\nHost: localhost\r\nContent-Type: application/json\r\n"
+                    + "Content-Length: 2\r\n\r\n{}";
+
+            out.write(get.getBytes(StandardCharsets.ISO_8859_1));
+            int first = readStatus(in);
+            out.write(get.getBytes(StandardCharsets.ISO_8859_1));
+            int resent = readStatus(in);
+            out.write(post.getBytes(StandardCharsets.ISO_8859_1));
+            int notResent = readStatus(in);
+
+            SoftAssertions softly = new SoftAssertions();
+            softly.assertThat(first).as("Status of the first GET").isEqualTo(200);
+            softly.assertThat(resent).as("Status of the GET on a stale upstream connection").isEqualTo(200);
+            softly.assertThat(notResent).as("Status of the POST on a stale upstream connection").isEqualTo(502);
+            softly.assertThat(upstreamRequests.get()).as("Requests received by the upstream").isEqualTo(2);
+            softly.assertAll();
+        } finally {
+            proxy.stop();
+            upstream.close();
+        }
+    }
+
+    // Answers the first request of each connection with 200 and closes the connection, as an idle timeout would
+    private static void answerOnceAndClose(ServerSocket upstream, AtomicInteger requests) {
+        while (!upstream.isClosed()) {
+            try (Socket connection = upstream.accept()) {
+                InputStream in = new BufferedInputStream(connection.getInputStream());
+                int contentLength = 0;
+                for (String line = readLine(in); line != null && !line.isEmpty(); line = readLine(in)) {
+                    if (line.toLowerCase(Locale.ROOT).startsWith("content-length:")) {
+                        contentLength = Integer.parseInt(line.substring(line.indexOf(':') + 1).trim());
+                    }
+                }
+                in.readNBytes(contentLength);
+                requests.incrementAndGet();
+                connection.getOutputStream().write("HTTP/1.1 200 OK\r\nContent-Type: application/json\r\nContent-Length: 2\r\n\r\n{}"
+                        .getBytes(StandardCharsets.ISO_8859_1));
+            } catch (IOException e) {
+                // Closed by the test
+            }
+        }
+    }
+
+    // Reads one response with a Content-Length body and returns its status code
+    private static int readStatus(InputStream in) throws IOException {
+        String statusLine = readLine(in);
+        int contentLength = 0;
+        for (String line = readLine(in); line != null && !line.isEmpty(); line = readLine(in)) {
+            if (line.toLowerCase(Locale.ROOT).startsWith("content-length:")) {
+                contentLength = Integer.parseInt(line.substring(line.indexOf(':') + 1).trim());
+            }
+        }
+        in.readNBytes(contentLength);
+        return statusLine == null ? -1 : Integer.parseInt(statusLine.split(" ")[1]);
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        StringBuilder line = new StringBuilder();
+        for (int b = in.read(); b != -1; b = in.read()) {
+            if (b == '\n') {
+                return line.toString();
+            }
+            if (b != '\r') {
+                line.append((char) b);
+            }
+        }
+        return line.length() == 0 ? null : line.toString();
+    }
+
+    // Runs a call that is expected to throw and returns how long it took to give up
+    private Duration timeToFailure(Runnable call) {
+        long start = System.nanoTime();
+        try {
+            call.run();
+        } catch (Exception e) {
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+            logger.info("Failed after {} ms: {}", elapsed.toMillis(), e.toString());
+            return elapsed;
+        }
+        throw new AssertionError("Expected the call to fail");
+    }
+}
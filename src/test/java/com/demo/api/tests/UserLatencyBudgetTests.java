@@ -0,0 +1,50 @@
+package com.demo.api.tests;
+
+import com.demo.api.base.ApiResources;
+import com.demo.api.base.BaseTest;
+import com.demo.api.utilities.UserApiHelper;
+
+import io.qameta.allure.*;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.ResourceAccessMode;
+import org.junit.jupiter.api.parallel.ResourceLock;
+
+import java.time.Duration;
+
+import static com.demo.api.perf.LatencyAssert.assertLatency;
+
+/**
+ * Contains the latency budgets of the /api/users endpoints.
+ *
+ * <p>Holds the users resource exclusively so that other tests do not compete with the measured calls. The lock
+ * is taken by this class alone: a READ_WRITE lock on a method of a class holding a READ lock is moved up to
+ * the class by JUnit and would serialize all of its tests.</p>
+ */
+@ResourceLock(value = ApiResources.USERS, mode = ResourceAccessMode.READ_WRITE)
+public class UserLatencyBudgetTests extends BaseTest {
+
+    /**
+     * Test to verify that fetching a user by ID stays within its latency budget under concurrent callers.
+     *
+     * SEND:    50 x GET https://reqres.in/api/users/2 from 8 concurrent callers
+     * HEADERS: x-api-key: reqres-free-v1 (set globally in BaseTest)
+     * EXPECT:
+     *   - Status 200 OK for every call
+     *   - p95 latency below 200 ms (scaled by budget.scale)
+     */
+    @Epic("User API")
+    @Feature("Performance")
+    @Story("As a tester, I want reading a user to stay fast under concurrent callers")
+    @Severity(SeverityLevel.NORMAL)
+    @DisplayName("Get user latency budget")
+    @Description("Fetches a user 50 times from 8 concurrent callers and checks that p95 stays below 200 ms.")
+    @Test
+    public void shouldMeetLatencyBudget_whenFetchingUserByIdConcurrently() {
+        assertLatency("getUserById", () -> UserApiHelper.getUserById(withApiKey, 2).then().statusCode(200))
+                .overRepetitions(50)
+                .withConcurrentCallers(8)
+                .hasPercentileBelow(95, Duration.ofMillis(200));
+    }
+}
@@ -0,0 +1,63 @@
+package com.demo.api.tests;
+
+import com.demo.api.base.BaseTest;
+import com.demo.api.perf.LoadGenerator;
+import com.demo.api.perf.LoadReport;
+import com.demo.api.utilities.Config;
+import com.demo.api.utilities.ResponseSchemas;
+
+import io.qameta.allure.*;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Isolated;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Open-loop load scenarios over the /api/users endpoints.
+ *
+ * <p>Tagged {@code load} and therefore excluded from the default build. Run with:</p>
+ * <pre>
+ *     mvn test -Pload -Dload.rate=500 -Dload.duration.seconds=60
+ * </pre>
+ *
+ * <p>Runs {@link Isolated} so that no functional test competes with the generated load.</p>
+ */
+@Tag("load")
+@Isolated
+public class UserLoadTests extends BaseTest {
+
+    /**
+     * Drives the weighted CRUD mix at the configured arrival rate and reports latency percentiles per operation.
+     *
+     * CONFIG:  load.rate, load.duration.seconds, load.warmup.seconds, load.mix, load.max.concurrency
+     * EXPECT:  every scheduled request completes and the error ratio stays below load.max.error.rate
+     */
+    @Epic("User API")
+    @Feature("Performance")
+    @Story("As a tester, I want to know how the API behaves at a fixed request rate")
+    @Severity(SeverityLevel.NORMAL)
+    @DisplayName("Open-loop CRUD load")
+    @Description("Runs the weighted CRUD mix at a fixed arrival rate and reports p50/p90/p99/p99.9/max latency per operation.")
+    @Test
+    public void shouldSustainTargetRate_withWeightedCrudMix() throws InterruptedException {
+        LoadReport report = LoadGenerator.fromConfig(withApiKey).run();
+
+        String formatted = report.format();
+        logger.info("Load report:\n{}", formatted);
+        Allure.addAttachment("Load Report", "text/plain", formatted, ".txt");
+
+        LoadReport.OperationStats total = report.total();
+        assertThat(total.getCount())
+                .as("Measured requests")
+                .isPositive();
+        assertThat((double) total.getErrors() / total.getCount())
+                .as("Error ratio")
+                .isLessThanOrEqualTo(Config.getDouble("load.max.error.rate", 0.01));
+        assertThat(ResponseSchemas.getViolationCount())
+                .as("Responses violating their JSON Schema")
+                .isZero();
+    }
+}
@@ -0,0 +1,77 @@
+package com.demo.api.tests;
+
+import com.demo.api.base.ApiResources;
+import com.demo.api.base.BaseTest;
+import com.demo.api.stub.LatencyProfile;
+import com.demo.api.stub.LocalUserApiServer;
+import com.demo.api.utilities.RequestMetrics;
+import com.demo.api.utilities.RequestSpecs;
+import com.demo.api.utilities.UserApiHelper;
+
+import io.qameta.allure.*;
+import io.restassured.specification.RequestSpecification;
+
+import org.assertj.core.api.SoftAssertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.ResourceAccessMode;
+import org.junit.jupiter.api.parallel.ResourceLock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Contains tests for the per-request instrumentation of the request specifications.
+ * Each test starts its own stand-in and turns the metrics on for its own specification, whatever
+ * {@code metrics.enabled} says. Other tests may record into the same {@link RequestMetrics} concurrently,
+ * so only increases are asserted.
+ */
+@ResourceLock(value = ApiResources.USERS, mode = ResourceAccessMode.READ)
+public class UserMetricsTests extends BaseTest {
+
+    /**
+     * SEND:     GET /api/users/2 three times
+     * EXPECT:
+     *    - the calls are counted under "GET /api/users/{id}" with status class 2xx
+     *    - total and time-to-first-byte latencies and response bytes are recorded
+     *    - the Prometheus export contains the endpoint
+     */
+    @Epic("User API")
+    @Feature("Performance")
+    @Story("As a tester, I want per-endpoint timings and counters for every run")
+    @Severity(SeverityLevel.NORMAL)
+    @DisplayName("Per-request metrics")
+    @Description("Records latency, time to first byte, bytes and status class per endpoint for requests sent through the shared specs.")
+    @Test
+    public void shouldRecordTimingsPerEndpoint_whenFetchingUsers() {
+        RequestMetrics metrics = RequestMetrics.global();
+        long before = countOf(metrics, "GET /api/users/{id}");
+
+        LocalUserApiServer server = new LocalUserApiServer(LatencyProfile.INSTANT).start();
+        try {
+            RequestSpecification spec = RequestSpecs.forBaseUri(server.getBaseUri(), null, true);
+            for (int i = 0; i < 3; i++) {
+                UserApiHelper.getUserById(spec, 2);
+            }
+        } finally {
+            server.stop();
+        }
+
+        RequestMetrics.EndpointStats stats = metrics.getEndpoints().get("GET /api/users/{id}");
+        assertThat(stats).as("Endpoint stats").isNotNull();
+
+        SoftAssertions softly = new SoftAssertions();
+        softly.assertThat(stats.getTotal().getTotalCount() - before).as("New requests").isGreaterThanOrEqualTo(3);
+        softly.assertThat(stats.getStatusClasses()).as("Status classes").containsKey("2xx");
+        softly.assertThat(stats.getTtfb().getTotalCount()).as("TTFB samples").isPositive();
+        softly.assertThat(stats.getResponseBytes()).as("Response bytes").isPositive();
+        softly.assertThat(metrics.toPrometheus())
+                .as("Prometheus export")
+                .contains("api_client_requests_total{method=\"GET\",endpoint=\"/api/users/{id}\",status=\"2xx\"}");
+        softly.assertAll();
+    }
+
+    private static long countOf(RequestMetrics metrics, String key) {
+        RequestMetrics.EndpointStats stats = metrics.getEndpoints().get(key);
+        return stats == null ? 0 : stats.getTotal().getTotalCount();
+    }
+}
@@ -1,33 +1,47 @@
 package com.demo.api.tests;
 
+import com.demo.api.base.ApiResources;
 import com.demo.api.base.BaseTest;
+import com.demo.api.models.User;
+import com.demo.api.stub.LatencyProfile;
+import com.demo.api.stub.LocalUserApiServer;
+import com.demo.api.utilities.Config;
+import com.demo.api.utilities.RequestSpecs;
 import com.demo.api.utilities.UserApiHelper;
+import com.demo.api.utilities.UserPaginator;
 
 import io.qameta.allure.*;
-import io.restassured.path.json.JsonPath;
 import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+
+import org.apache.http.HttpHost;
+import org.apache.http.conn.routing.HttpRoute;
 
 import org.assertj.core.api.SoftAssertions;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import org.junit.jupiter.api.parallel.ResourceAccessMode;
+import org.junit.jupiter.api.parallel.ResourceLock;
 
+import java.net.URI;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
-import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import static com.demo.api.perf.LatencyAssert.assertLatency;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 /**
  * Contains tests for retrieving user data via GET requests.
  * Covers pagination, user details, and sorting logic.
  */
+@ResourceLock(value = ApiResources.USERS, mode = ResourceAccessMode.READ)
 public class UserReadTests extends BaseTest {
 
-    private static final Logger logger = LoggerFactory.getLogger(UserReadTests.class);
-
     /**
      * SEND:     GET https://reqres.in/api/users?page=2
      * HEADERS:  x-api-key: reqres-free-v1
@@ -75,25 +89,25 @@ public class UserReadTests extends BaseTest {
         // Verify that response status code is 200 OK
         assertEquals(200, response.getStatusCode(), "Expected 200 OK");
 
-        // Extract user list from response JSON
-        List<Map<String, Object>> users = response.jsonPath().getList("data");
+        // Decode the typed user list from the response body
+        List<User> users = UserApiHelper.asUserPage(response).getData();
         assertEquals(6, users.size(), "Expected 6 Users");
 
         // Extract and validate first user details
-        Map<String, Object> firstUser = users.get(0);
+        User firstUser = users.get(0);
 
         // Soft assertions for user fields
         SoftAssertions softly = new SoftAssertions();
-        softly.assertThat(firstUser.get("first_name"))
+        softly.assertThat(firstUser.getFirstName())
                 .as("First Name")
                 .isEqualTo("George");
-        softly.assertThat(firstUser.get("last_name"))
+        softly.assertThat(firstUser.getLastName())
                 .as("Last Name")
                 .isEqualTo("Bluth");
-        softly.assertThat(firstUser.get("email"))
+        softly.assertThat(firstUser.getEmail())
                 .as("Email")
                 .isEqualTo("george.bluth@reqres.in");
-        softly.assertThat(firstUser.get("avatar"))
+        softly.assertThat(firstUser.getAvatar())
                 .as("Avatar URL")
                 .isEqualTo("https://reqres.in/img/faces/1-image.jpg");
         softly.assertAll();
@@ -119,25 +133,25 @@ public class UserReadTests extends BaseTest {
         // Validate the response status code
         assertEquals(200, response.getStatusCode(), "Expected 200 OK");
 
-        // Extract the list of users from the JSON response
-        List<Map<String, Object>> users = response.jsonPath().getList("data");
+        // Decode the typed list of users from the response body
+        List<User> users = UserApiHelper.asUserPage(response).getData();
         assertEquals(6, users.size(), "Expected 6 Users");
 
         // Access the first user in the list
-        Map<String, Object> firstUser = users.get(0);
+        User firstUser = users.get(0);
 
         // Use soft assertions for clarity
         SoftAssertions softly = new SoftAssertions();
-        softly.assertThat(firstUser.get("first_name"))
+        softly.assertThat(firstUser.getFirstName())
                 .as("First Name")
                 .isEqualTo("Michael");
-        softly.assertThat(firstUser.get("last_name"))
+        softly.assertThat(firstUser.getLastName())
                 .as("Last Name")
                 .isEqualTo("Lawson");
-        softly.assertThat(firstUser.get("email"))
+        softly.assertThat(firstUser.getEmail())
                 .as("Email")
                 .isEqualTo("michael.lawson@reqres.in");
-        softly.assertThat(firstUser.get("avatar"))
+        softly.assertThat(firstUser.getAvatar())
                 .as("Avatar URL")
                 .isEqualTo("https://reqres.in/img/faces/7-image.jpg");
         softly.assertAll();
@@ -163,17 +177,17 @@ public class UserReadTests extends BaseTest {
         // Ensure we receive a 200 OK response
         assertEquals(200, response.getStatusCode(), "Expected 200 OK");
 
-        // Parse and extract the list of users from the JSON body
-        List<Map<String, Object>> users = response.jsonPath().getList("data");
+        // Decode the list of users from the JSON body
+        List<User> users = UserApiHelper.asUserPage(response).getData();
 
         // Extract the first user's data
-        Map<String, Object> firstUser = users.get(0);
-        int id = (int) firstUser.get("id");
-        String email = (String) firstUser.get("email");
+        User firstUser = users.get(0);
+        int id = firstUser.getId();
+        String email = firstUser.getEmail();
 
         // Print extracted details to console
-        LOGGER.info("Extracted ID: " + id);
-        LOGGER.info("Extracted email: " + email);
+        logger.info("Extracted ID: " + id);
+        logger.info("Extracted email: " + email);
 
         // Validate extracted values
         assertEquals(7, id);
@@ -189,43 +203,61 @@ public class UserReadTests extends BaseTest {
      *    Body: JSON list of users
      *
      * Purpose:
-     *    - Extract all users from both available pages.
+     *    - Extract all users from every available page (total_pages of the first response).
      *    - Sort them alphabetically by their first name.
      *    - Print the sorted list (first name, last name, email).
      *    - Assert the total number of users is 12.
      */
     @Test
     public void shouldSortUsersAlphabeticallyByFirstName() {
-        List<Map<String, Object>> allUsers = new ArrayList<>();
-
-        // Loop through page 1 and 2 to extract users
-        for (int page = 1; page <= 2; page++) {
-            Response response = UserApiHelper.listUsers(withApiKey, page);
-
-            // Assert that the request returns HTTP 200
-            assertEquals(200, response.getStatusCode(), "Expected 200 OK");
-
-            // Extract list of users from JSON response
-            List<Map<String, Object>> users = response.jsonPath().getList("data");
-            allUsers.addAll(users);
+        // Walk every available page lazily; the paginator asserts 200 OK for each page
+        List<User> allUsers;
+        try (Stream<User> users = UserPaginator.stream(withApiKey)) {
+            allUsers = users.collect(Collectors.toCollection(ArrayList::new));
         }
 
         // Sort the collected users alphabetically by first_name
-        allUsers.sort(Comparator.comparing(user -> user.get("first_name").toString()));
+        allUsers.sort(Comparator.comparing(User::getFirstName));
 
         // Print the sorted list (for logging/visual check)
-        LOGGER.info("Sorted Users by First Name: ");
+        logger.info("Sorted Users by First Name: ");
         System.out.println("Sorted Users by First Name:");
-        for (Map<String, Object> user : allUsers) {
-            String name = user.get("first_name") + " " + user.get("last_name");
-            String email = user.get("email").toString();
-            LOGGER.info(" - " + name + " | " + email);
+        for (User user : allUsers) {
+            String name = user.getFirstName() + " " + user.getLastName();
+            String email = user.getEmail();
+            logger.info(" - " + name + " | " + email);
         }
 
         // Validate total number of users retrieved and sorted
         assertEquals(12, allUsers.size(), "Expected 12 users total");
     }
 
+    /**
+     * SEND:     GET https://reqres.in/api/users?page=1 (page 2 prefetched, then discarded)
+     * HEADERS:  x-api-key: reqres-free-v1
+     *
+     * Purpose:
+     *    - Stream users lazily and stop at the first match.
+     *    - Assert that the paginator reports the total page count from the first response.
+     */
+    @Test
+    public void shouldStopPaginating_whenFirstMatchIsFound() {
+        UserPaginator paginator = new UserPaginator(withApiKey, true);
+        User emma = null;
+        try (paginator) {
+            while (paginator.hasNext()) {
+                User user = paginator.next();
+                if ("Emma".equals(user.getFirstName())) {
+                    emma = user;
+                    break;
+                }
+            }
+        }
+
+        assertEquals("emma.wong@reqres.in", emma == null ? null : emma.getEmail(), "Expected Emma Wong on page 1");
+        assertEquals(2, paginator.getTotalPages(), "Expected total_pages from the first response");
+    }
+
     /**
      * Test to verify that a specific user can be retrieved by ID and that their details are correct.
      *
@@ -250,30 +282,48 @@ public class UserReadTests extends BaseTest {
 
         assertEquals(200, listResponse.statusCode(), "Expected 200 OK");
 
-        int userId = listResponse.jsonPath().getInt("data[0].id");
+        int userId = UserApiHelper.asUserPage(listResponse).getData().get(0).getId();
 
         // Fetch specific user by ID using helper
         Response userResponse = UserApiHelper.getUserById(withApiKey, userId);
         assertEquals(200, userResponse.statusCode(), "Expected 200 OK");
 
         // Validate user details with soft assertions
-        JsonPath jsonPath = userResponse.jsonPath();
+        User user = UserApiHelper.asUser(userResponse);
         SoftAssertions softly = new SoftAssertions();
-        softly.assertThat(jsonPath.getInt("data.id"))
+        softly.assertThat(user.getId())
                 .as("User ID")
                 .isEqualTo(userId);
-        softly.assertThat(jsonPath.getString("data.first_name"))
+        softly.assertThat(user.getFirstName())
                 .as("First Name")
                 .isNotNull();
-        softly.assertThat(jsonPath.getString("data.last_name"))
+        softly.assertThat(user.getLastName())
                 .as("Last Name")
                 .isNotNull();
-        softly.assertThat(jsonPath.getString("data.email"))
+        softly.assertThat(user.getEmail())
                 .as("Email")
                 .contains("@reqres.in");
         softly.assertAll();
     }
 
+    /**
+     * Test to verify that an exceeded latency budget fails with a percentile breakdown.
+     *
+     * SEND:    10 x GET https://reqres.in/api/users/2 with an unreachable budget of 1 microsecond
+     * EXPECT:  AssertionError naming the call, the measured p50 and the full percentile breakdown
+     */
+    @Test
+    public void shouldReportPercentileBreakdown_whenLatencyBudgetIsExceeded() {
+        assertThatThrownBy(() -> assertLatency("getUserById", () -> UserApiHelper.getUserById(withApiKey, 2))
+                .overRepetitions(10)
+                .withWarmup(0)
+                .hasPercentileBelow(50, Duration.ofNanos(1_000)))
+                .isInstanceOf(AssertionError.class)
+                .hasMessageContaining("Latency budget exceeded for getUserById: p50 was")
+                .hasMessageContaining("p90=")
+                .hasMessageContaining("p99=");
+    }
+
     /**
      * Test to verify that requesting a non-existing user returns 404 Not Found.
      *
@@ -296,4 +346,33 @@ public class UserReadTests extends BaseTest {
         System.out.println("Response body content: " + responseBody);
         assertEquals("{}", responseBody.trim(), "Expected empty JSON body");
     }
+
+    /**
+     * Test to verify that the helper methods return their pooled connection even when only the status is read.
+     *
+     * SEND:    20 x GET /api/users/2 and 5 x GET /api/users?page=1 to a stand-in, reading only the status
+     * EXPECT:  every call is 200 OK and no connection to the stand-in stays leased
+     */
+    @Test
+    public void shouldReleaseConnections_whenOnlyTheStatusIsRead() {
+        LocalUserApiServer server = new LocalUserApiServer(LatencyProfile.INSTANT).start();
+        try {
+            RequestSpecification spec = RequestSpecs.forBaseUri(server.getBaseUri(), Config.getApiKey());
+            URI uri = URI.create(server.getBaseUri());
+            HttpRoute route = new HttpRoute(new HttpHost(uri.getHost(), uri.getPort(), uri.getScheme()));
+
+            SoftAssertions softly = new SoftAssertions();
+            for (int i = 0; i < 20; i++) {
+                softly.assertThat(UserApiHelper.getUserById(spec, 2).statusCode()).as("Get status").isEqualTo(200);
+            }
+            for (int i = 0; i < 5; i++) {
+                softly.assertThat(UserApiHelper.listUsers(spec, 1).statusCode()).as("List status").isEqualTo(200);
+            }
+            softly.assertThat(RequestSpecs.connectionManager().getStats(route).getLeased())
+                    .as("Leased connections to the stand-in").isZero();
+            softly.assertAll();
+        } finally {
+            server.stop();
+        }
+    }
 }
@@ -0,0 +1,117 @@
+package com.demo.api.tests;
+
+import com.demo.api.base.BaseTest;
+import com.demo.api.runner.RunnerClient;
+import com.demo.api.runner.TestRunnerDaemon;
+
+import io.qameta.allure.*;
+
+import org.assertj.core.api.SoftAssertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Contains tests for the warm {@link TestRunnerDaemon}, started in-process on an ephemeral port and driven
+ * through its socket like {@link RunnerClient} does.
+ *
+ * <p>The daemon runs the nested {@link Probe} rather than a real test class: the end-of-run extensions of a
+ * {@link BaseTest} subclass, such as the cleanup of created users, would interfere with this run.</p>
+ */
+public class UserRunnerDaemonTests extends BaseTest {
+
+    private static final String LOADER_PROPERTY = "runner.probe.loader";
+
+    /**
+     * CONFIG:   a daemon over a copy of the Probe class file and of one infrastructure class file
+     * SEND:     PING, RUN Probe twice, RUN Probe after touching its class file, RUN Probe after touching the
+     *           infrastructure class file, RUN Probe once more, STOP
+     * EXPECT:
+     *    - every run passes with one test and streams a PASS line
+     *    - the second run reuses the test class loader, the third gets a new one
+     *    - the fourth run warns that the daemon needs a restart, and the fifth repeats the warning
+     */
+    @Epic("User API")
+    @Feature("Test runner")
+    @Story("As a tester, I want to rerun a test class without paying the JVM and client startup again")
+    @Severity(SeverityLevel.MINOR)
+    @DisplayName("Warm runner reloads only changed test classes")
+    @Description("Runs a probe test repeatedly through the runner daemon's socket and checks when its class loader is replaced.")
+    @Test
+    public void shouldReloadOnlyChangedTestClasses_whenRunRepeatedly(@TempDir Path classesDir)
+            throws IOException, URISyntaxException {
+        Path probe = copyClassFile(Probe.class, classesDir);
+        Path infrastructure = copyClassFile(RunnerClient.class, classesDir);
+        TestRunnerDaemon daemon = new TestRunnerDaemon(0, classesDir, List.of("com.demo.api.tests"), "").start();
+        try {
+            SoftAssertions softly = new SoftAssertions();
+            softly.assertThat(RunnerClient.send(daemon.getPort(), "PING", line -> { })).as("PING").startsWith("PONG");
+
+            List<String> first = send(daemon, "RUN UserRunnerDaemonTests$Probe");
+            String firstLoader = System.getProperty(LOADER_PROPERTY);
+            List<String> second = send(daemon, "RUN UserRunnerDaemonTests$Probe#shouldRecordItsClassLoader");
+            String secondLoader = System.getProperty(LOADER_PROPERTY);
+            touch(probe);
+            List<String> third = send(daemon, "RUN com.demo.api.tests.UserRunnerDaemonTests$Probe");
+            String thirdLoader = System.getProperty(LOADER_PROPERTY);
+            touch(infrastructure);
+            List<String> fourth = send(daemon, "RUN UserRunnerDaemonTests$Probe");
+            List<String> fifth = send(daemon, "RUN UserRunnerDaemonTests$Probe");
+
+            for (List<String> run : List.of(first, second, third, fourth, fifth)) {
+                softly.assertThat(run).as("Output of %s", run).anyMatch(line -> line.startsWith("PASS "));
+                softly.assertThat(run.get(run.size() - 1)).as("Result of %s", run).startsWith("DONE passed tests=1 failed=0");
+            }
+            softly.assertThat(firstLoader).as("Probe class loader").isNotNull()
+                    .isNotEqualTo(String.valueOf(System.identityHashCode(getClass().getClassLoader())));
+            softly.assertThat(secondLoader).as("Class loader of the unchanged probe").isEqualTo(firstLoader);
+            softly.assertThat(third).as("Output after the probe changed").anyMatch(line -> line.startsWith("INFO reloaded"));
+            softly.assertThat(thirdLoader).as("Class loader of the changed probe").isNotEqualTo(firstLoader);
+            softly.assertThat(fourth).as("Output after an infrastructure class changed")
+                    .anyMatch(line -> line.startsWith("WARN restart") && line.contains(RunnerClient.class.getName()));
+            softly.assertThat(fifth).as("Output of the next run without a restart")
+                    .anyMatch(line -> line.startsWith("WARN restart") && line.contains(RunnerClient.class.getName()));
+            softly.assertThat(RunnerClient.send(daemon.getPort(), "STOP", line -> { })).as("STOP").isEqualTo("BYE");
+            softly.assertAll();
+        } finally {
+            daemon.stop();
+            System.clearProperty(LOADER_PROPERTY);
+        }
+    }
+
+    private static List<String> send(TestRunnerDaemon daemon, String command) throws IOException {
+        List<String> lines = new ArrayList<>();
+        RunnerClient.send(daemon.getPort(), command, lines::add);
+        return lines;
+    }
+
+    // Copies a compiled class into the same package directory below classesDir
+    private static Path copyClassFile(Class<?> type, Path classesDir) throws IOException, URISyntaxException {
+        String name = type.getName().replace('.', '/') + ".class";
+        Path target = classesDir.resolve(name);
+        Files.createDirectories(target.getParent());
+        return Files.copy(Paths.get(type.getClassLoader().getResource(name).toURI()), target);
+    }
+
+    private static void touch(Path file) throws IOException {
+        Files.setLastModifiedTime(file, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() + 2_000));
+    }
+
+    /** Run by the daemon; records which class loader defined it. Nested, so the build does not run it. */
+    public static class Probe {
+
+        @Test
+        public void shouldRecordItsClassLoader() {
+            System.setProperty(LOADER_PROPERTY, String.valueOf(System.identityHashCode(getClass().getClassLoader())));
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.demo.api.tests;
+
+import com.demo.api.base.ApiResources;
+import com.demo.api.base.BaseTest;
+import com.demo.api.utilities.JsonSchema;
+import com.demo.api.utilities.ResponseSchemas;
+import com.demo.api.utilities.UserApiHelper;
+import com.demo.api.utilities.UserDataFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.qameta.allure.*;
+import io.restassured.response.Response;
+
+import org.assertj.core.api.SoftAssertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.ResourceAccessMode;
+import org.junit.jupiter.api.parallel.ResourceLock;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Contains tests for the JSON Schema contracts of the /api/users responses ({@link ResponseSchemas}).
+ */
+@ResourceLock(value = ApiResources.USERS, mode = ResourceAccessMode.READ_WRITE)
+public class UserSchemaTests extends BaseTest {
+
+    /**
+     * SEND:     GET /api/users?page=1, GET /api/users/2, GET /api/users/999, POST /api/users
+     * HEADERS:  x-api-key: reqres-free-v1
+     * EXPECT:
+     *    - each response matches its schema (user-page, user, not-found, created-user)
+     */
+    @Epic("User API")
+    @Feature("Contract")
+    @Story("As a tester, I want every user API response checked against a JSON Schema contract")
+    @Severity(SeverityLevel.CRITICAL)
+    @DisplayName("Responses match their JSON Schemas")
+    @Description("Validates the list, single-user, 404 and create responses against their precompiled JSON Schemas.")
+    @Test
+    public void shouldMatchSchemas_whenCallingUserEndpoints() {
+        Response page = UserApiHelper.listUsers(withApiKey, 1);
+        Response user = UserApiHelper.getUserById(withApiKey, 2);
+        Response missing = UserApiHelper.getUserById(withApiKey, 999);
+        Response created = UserApiHelper.createUser(withApiKey, UserDataFactory.user("Schema", "QA Engineer"));
+
+        assertEquals(201, created.statusCode(), "Expected 201 Created");
+        SoftAssertions softly = new SoftAssertions();
+        softly.assertThat(ResponseSchemas.validate(page, "user-page")).as("List users contract").isEmpty();
+        softly.assertThat(ResponseSchemas.validate(user, "user")).as("Single user contract").isEmpty();
+        softly.assertThat(ResponseSchemas.validate(missing, "not-found")).as("404 contract").isEmpty();
+        softly.assertThat(ResponseSchemas.validate(created, "created-user")).as("Create user contract").isEmpty();
+        softly.assertAll();
+    }
+
+    /**
+     * VALIDATE: a single-user body with a string id, a missing email and a relative avatar URL
+     * EXPECT:
+     *    - the fast check rejects it
+     *    - every violation is reported with its JSON Pointer
+     */
+    @Test
+    public void shouldReportEveryViolationWithPointer_whenBodyBreaksContract() throws Exception {
+        JsonSchema schema = JsonSchema.forName("user");
+        String body = "{\"data\":{\"id\":\"2\",\"first_name\":\"Janet\",\"last_name\":\"Weaver\",\"avatar\":\"img/2.jpg\"}}";
+
+        List<String> violations = schema.validate(new ObjectMapper().readTree(body));
+
+        assertThat(schema.isValid(new ObjectMapper().readTree(body)))
+                .as("Fast check")
+                .isFalse();
+        assertThat(violations)
+                .as("Violations")
+                .containsExactlyInAnyOrder(
+                        "/data: missing required property 'email'",
+                        "/data/id: expected integer, got string",
+                        "/data/avatar: \"img/2.jpg\" does not match ^https?://");
+        assertThat(JsonSchema.forName("user"))
+                .as("Compiled once per JVM")
+                .isSameAs(schema);
+    }
+}
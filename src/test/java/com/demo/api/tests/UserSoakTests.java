@@ -0,0 +1,124 @@
+package com.demo.api.tests;
+
+import com.demo.api.base.BaseTest;
+import com.demo.api.perf.LatencyHistogram;
+import com.demo.api.perf.SoakReport;
+import com.demo.api.perf.SoakRunner;
+import com.demo.api.utilities.Config;
+import com.demo.api.utilities.ResponseSchemas;
+
+import io.qameta.allure.*;
+
+import org.assertj.core.api.SoftAssertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Isolated;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Endurance run of the CRUD flows over the /api/users endpoints.
+ *
+ * <p>The endurance run is tagged {@code soak} and therefore excluded from the default build. Run with:</p>
+ * <pre>
+ *     mvn test -Psoak -Dsoak.duration.seconds=7200 -Dsoak.window.seconds=60
+ * </pre>
+ *
+ * <p>Runs {@link Isolated} so that no functional test distorts the windows.</p>
+ */
+@Isolated
+public class UserSoakTests extends BaseTest {
+
+    /**
+     * Repeats the create, read and delete flows and checks that neither latency nor retained heap drift upwards.
+     *
+     * CONFIG:  soak.duration.seconds, soak.window.seconds, soak.callers, soak.flows, soak.warmup.windows
+     * EXPECT:  error ratio below soak.max.error.rate
+     *          p99 growth below soak.max.latency.growth, retained heap growth below soak.max.heap.growth
+     *          no more leased pool connections than callers
+     */
+    @Epic("User API")
+    @Feature("Performance")
+    @Story("As a tester, I want to know whether the API and client degrade over a long run")
+    @Severity(SeverityLevel.NORMAL)
+    @DisplayName("Soak CRUD flows and detect drift")
+    @Description("Repeats the CRUD flows for hours, samples per-window latency, errors, heap, GC, threads and pooled connections, and fails on upward trends.")
+    @Tag("soak")
+    @Test
+    public void shouldNotDrift_whenRepeatingCrudFlowsForLongDuration() throws InterruptedException, IOException {
+        SoakReport report = SoakRunner.fromConfig(withApiKey).run();
+
+        String formatted = report.format();
+        logger.info("Soak report:\n{}", formatted);
+        Allure.addAttachment("Soak Report", "text/plain", formatted, ".txt");
+        Path csv = Paths.get(Config.get("soak.output.dir", "target/soak")).resolve("windows.csv");
+        Files.createDirectories(csv.getParent());
+        Files.write(csv, report.toCsv().getBytes(StandardCharsets.UTF_8));
+
+        assertThat(report.getFlows())
+                .as("Completed flows")
+                .isPositive();
+
+        SoftAssertions softly = new SoftAssertions();
+        softly.assertThat(report.getErrorRate())
+                .as("Error ratio")
+                .isLessThanOrEqualTo(Config.getDouble("soak.max.error.rate", 0.01));
+        softly.assertThat(report.getLatencyTrend())
+                .as("p99 latency growth over the run")
+                .isLessThanOrEqualTo(Config.getDouble("soak.max.latency.growth", 0.5));
+        softly.assertThat(report.getHeapTrend())
+                .as("Retained heap growth over the run")
+                .isLessThanOrEqualTo(Config.getDouble("soak.max.heap.growth", 0.25));
+        // Each caller holds at most one connection at a time; anything above that was never released
+        softly.assertThat(report.getMaxLeasedConnections())
+                .as("Leased pool connections at any window end")
+                .isLessThanOrEqualTo(Config.getInt("soak.callers", 4));
+        softly.assertThat(ResponseSchemas.getViolationCount())
+                .as("Responses violating their JSON Schema")
+                .isZero();
+        softly.assertAll();
+    }
+
+    /**
+     * CONFIG:   one warm-up window, then synthetic windows with a p99 of 1, 2, 3, 4 and 5 ms and a flat
+     *           retained heap; separately a report with only two measured windows
+     * EXPECT:
+     *    - the p99 trend is the rise of the fitted line (4 ms) over the mean (3 ms)
+     *    - the flat retained heap has no trend; the warm-up window is ignored by both
+     *    - fewer than three measured windows give no trend
+     */
+    @Test
+    public void shouldReportGrowthOverMeasuredWindows_whenComputingTrend() {
+        SoakReport report = new SoakReport(1);
+        report.add(window(0, 50_000, 4_000_000));
+        for (int i = 1; i <= 5; i++) {
+            report.add(window(i, i * 1_000, 1_000_000));
+        }
+        SoakReport brief = new SoakReport(1);
+        for (int i = 0; i < 3; i++) {
+            brief.add(window(i, (i + 1) * 1_000, 1_000_000));
+        }
+
+        SoftAssertions softly = new SoftAssertions();
+        softly.assertThat(report.getLatencyTrend()).as("p99 growth").isCloseTo(4.0 / 3, within(0.01));
+        softly.assertThat(report.getHeapTrend()).as("Retained heap growth").isCloseTo(0.0, within(1e-9));
+        softly.assertThat(report.getFlows()).as("Flows of all windows").isEqualTo(600);
+        softly.assertThat(brief.getLatencyTrend()).as("p99 growth over two measured windows").isZero();
+        softly.assertAll();
+    }
+
+    // 100 flows, all taking the given latency
+    private static SoakReport.Window window(int index, long micros, long heapRetainedBytes) {
+        LatencyHistogram latency = new LatencyHistogram();
+        latency.recordCount(micros, 100);
+        return new SoakReport.Window(index, latency, 0, heapRetainedBytes, heapRetainedBytes, 0, 0, 10, 0);
+    }
+}
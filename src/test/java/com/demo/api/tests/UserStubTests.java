@@ -0,0 +1,184 @@
+package com.demo.api.tests;
+
+import com.demo.api.base.BaseTest;
+import com.demo.api.stub.LatencyProfile;
+import com.demo.api.stub.LocalUserApiServer;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.qameta.allure.*;
+
+import org.assertj.core.api.SoftAssertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Contains tests for the embedded {@link LocalUserApiServer} itself: its routes, conditional GETs and
+ * response compression. Each test starts its own stand-in and talks to it with the JDK HTTP client, so that
+ * status lines and headers are seen exactly as sent, without REST-assured's decoding.
+ */
+public class UserStubTests extends BaseTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    /**
+     * SEND:     GET /api/users?page=2, GET /api/users/2, GET /api/users/999, POST /api/users with and without
+     *           an API key, DELETE /api/users/2, PUT /api/users/2
+     * EXPECT:
+     *    - page 2 holds 6 users and reports 12 in total
+     *    - user 2 is found, user 999 is a 404 with an empty object
+     *    - POST without a key is a 401, with a key a 201 echoing the body with an id
+     *    - DELETE is a 204, PUT a 405
+     */
+    @Epic("User API")
+    @Feature("Local stand-in")
+    @Story("As a tester, I want the local stand-in to answer like the real users API")
+    @Severity(SeverityLevel.NORMAL)
+    @DisplayName("Stand-in routes")
+    @Description("Sends each supported and one unsupported request to the stand-in and checks statuses and bodies.")
+    @Test
+    public void shouldAnswerLikeTheUsersApi_whenCallingEachRoute() throws IOException, InterruptedException {
+        LocalUserApiServer server = new LocalUserApiServer(LatencyProfile.INSTANT).start();
+        try {
+            String body = "{\"name\":\"Stub\",\"job\":\"QA Engineer\"}";
+            HttpResponse<String> page = send(request(server, "/api/users?page=2").GET());
+            HttpResponse<String> user = send(request(server, "/api/users/2").GET());
+            HttpResponse<String> missing = send(request(server, "/api/users/999").GET());
+            HttpResponse<String> unauthorized = send(request(server, "/api/users")
+                    .POST(HttpRequest.BodyPublishers.ofString(body)));
+            HttpResponse<String> created = send(request(server, "/api/users").header("x-api-key", "key")
+                    .POST(HttpRequest.BodyPublishers.ofString(body)));
+            HttpResponse<String> deleted = send(request(server, "/api/users/2").header("x-api-key", "key").DELETE());
+            HttpResponse<String> put = send(request(server, "/api/users/2").header("x-api-key", "key")
+                    .PUT(HttpRequest.BodyPublishers.ofString(body)));
+
+            JsonNode pageJson = MAPPER.readTree(page.body());
+            JsonNode createdJson = MAPPER.readTree(created.body());
+
+            SoftAssertions softly = new SoftAssertions();
+            softly.assertThat(page.statusCode()).as("List status").isEqualTo(200);
+            softly.assertThat(pageJson.path("page").asInt()).as("Page").isEqualTo(2);
+            softly.assertThat(pageJson.path("total").asInt()).as("Total").isEqualTo(12);
+            softly.assertThat(pageJson.path("data").size()).as("Users on page 2").isEqualTo(6);
+            softly.assertThat(user.statusCode()).as("Get status").isEqualTo(200);
+            softly.assertThat(MAPPER.readTree(user.body()).path("data").path("id").asInt()).as("User id").isEqualTo(2);
+            softly.assertThat(missing.statusCode()).as("Missing user status").isEqualTo(404);
+            softly.assertThat(missing.body()).as("Missing user body").isEqualTo("{}");
+            softly.assertThat(unauthorized.statusCode()).as("Create without key").isEqualTo(401);
+            softly.assertThat(created.statusCode()).as("Create status").isEqualTo(201);
+            softly.assertThat(createdJson.path("name").asText()).as("Echoed name").isEqualTo("Stub");
+            softly.assertThat(createdJson.path("id").asText()).as("Created id").isNotEmpty();
+            softly.assertThat(createdJson.path("createdAt").asText()).as("Created at").isNotEmpty();
+            softly.assertThat(deleted.statusCode()).as("Delete status").isEqualTo(204);
+            softly.assertThat(put.statusCode()).as("Unsupported method").isEqualTo(405);
+            softly.assertAll();
+        } finally {
+            server.stop();
+        }
+    }
+
+    /**
+     * SEND:     GET /api/users/2, then again with If-None-Match of its ETag, with a different ETag, and with
+     *           If-Modified-Since of its Last-Modified
+     * EXPECT:
+     *    - the first response carries a quoted ETag and a Last-Modified date
+     *    - the matching ETag and the unchanged date are answered 304 without a body
+     *    - a different ETag gets the full 200 response
+     */
+    @Test
+    public void shouldAnswerNotModified_whenValidatorsMatch() throws IOException, InterruptedException {
+        LocalUserApiServer server = new LocalUserApiServer(LatencyProfile.INSTANT).start();
+        try {
+            HttpResponse<String> first = send(request(server, "/api/users/2").GET());
+            String etag = first.headers().firstValue("ETag").orElse(null);
+            String lastModified = first.headers().firstValue("Last-Modified").orElse(null);
+
+            SoftAssertions softly = new SoftAssertions();
+            softly.assertThat(etag).as("ETag").isNotNull().startsWith("\"").endsWith("\"");
+            softly.assertThat(lastModified).as("Last-Modified").isNotNull();
+            softly.assertAll();
+
+            HttpResponse<String> sameEtag = send(request(server, "/api/users/2").header("If-None-Match", etag).GET());
+            HttpResponse<String> otherEtag = send(request(server, "/api/users/2").header("If-None-Match", "\"0\"").GET());
+            HttpResponse<String> sameDate = send(request(server, "/api/users/2")
+                    .header("If-Modified-Since", lastModified).GET());
+
+            softly = new SoftAssertions();
+            softly.assertThat(sameEtag.statusCode()).as("Matching ETag").isEqualTo(304);
+            softly.assertThat(sameEtag.body()).as("304 body").isEmpty();
+            softly.assertThat(otherEtag.statusCode()).as("Different ETag").isEqualTo(200);
+            softly.assertThat(otherEtag.body()).as("200 body").isEqualTo(first.body());
+            softly.assertThat(sameDate.statusCode()).as("Unchanged since Last-Modified").isEqualTo(304);
+            softly.assertAll();
+        } finally {
+            server.stop();
+        }
+    }
+
+    /**
+     * CONFIG:   a stand-in compressing bodies of at least 1 byte
+     * SEND:     GET /api/users?page=1 with Accept-Encoding gzip, with deflate only, and without Accept-Encoding
+     * EXPECT:
+     *    - the gzip response is gzip-encoded and decodes into the identity response
+     *    - the deflate-only request gets deflate
+     *    - the request without Accept-Encoding gets an identity body; every response varies on Accept-Encoding
+     */
+    @Test
+    public void shouldCompressBodies_whenClientAcceptsAnEncoding() throws IOException, InterruptedException {
+        LocalUserApiServer server = new LocalUserApiServer(LatencyProfile.INSTANT).start();
+        server.setCompression(1);
+        try {
+            HttpResponse<byte[]> gzip = sendBytes(request(server, "/api/users?page=1")
+                    .header("Accept-Encoding", "gzip, deflate").GET());
+            HttpResponse<byte[]> deflate = sendBytes(request(server, "/api/users?page=1")
+                    .header("Accept-Encoding", "deflate").GET());
+            HttpResponse<byte[]> identity = sendBytes(request(server, "/api/users?page=1").GET());
+
+            SoftAssertions softly = new SoftAssertions();
+            softly.assertThat(gzip.headers().firstValue("Content-Encoding")).as("gzip encoding").hasValue("gzip");
+            softly.assertThat(gunzip(gzip.body())).as("Decoded gzip body")
+                    .isEqualTo(new String(identity.body(), StandardCharsets.UTF_8));
+            softly.assertThat(deflate.headers().firstValue("Content-Encoding")).as("deflate encoding").hasValue("deflate");
+            softly.assertThat(identity.headers().firstValue("Content-Encoding")).as("Identity encoding").isEmpty();
+            softly.assertThat(MAPPER.readTree(identity.body()).path("data").size()).as("Identity users").isEqualTo(6);
+            for (HttpResponse<byte[]> response : List.of(gzip, deflate, identity)) {
+                softly.assertThat(response.headers().firstValue("Vary")).as("Vary").hasValue("Accept-Encoding");
+            }
+            softly.assertAll();
+        } finally {
+            server.stop();
+        }
+    }
+
+    private static HttpRequest.Builder request(LocalUserApiServer server, String pathAndQuery) {
+        return HttpRequest.newBuilder(URI.create(server.getBaseUri() + pathAndQuery));
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<byte[]> sendBytes(HttpRequest.Builder request) throws IOException, InterruptedException {
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private static String gunzip(byte[] body) throws IOException {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.demo.api.tests;
+
+import com.demo.api.base.BaseTest;
+import com.demo.api.base.HistoryOrderer;
+import com.demo.api.base.HistoryShardFilter;
+import com.demo.api.base.TestHistory;
+
+import io.qameta.allure.*;
+
+import org.assertj.core.api.SoftAssertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Contains tests for the run history behind test ordering and sharding ({@link TestHistory},
+ * {@link HistoryOrderer}, {@link HistoryShardFilter}). Every test works on its own history in a temporary
+ * directory, independent of {@code history.enabled} and of the history of the current run.
+ */
+public class UserTestHistoryTests extends BaseTest {
+
+    /**
+     * CONFIG:   an empty history file
+     * SEND:     merge run 1 (class A 100 ms, method A#m failed) and run 2 (class A 200 ms), then read the file
+     * EXPECT:
+     *    - the file holds run 2; A ran twice with a mean of 0.3 * 200 + 0.7 * 100 = 130 ms
+     *    - A#m last failed in run 1 and counts as failed recently
+     *    - an unreadable file gives an empty history
+     */
+    @Epic("User API")
+    @Feature("Test history")
+    @Story("As a tester, I want the next run to start with the tests that failed or finish fastest")
+    @Severity(SeverityLevel.MINOR)
+    @DisplayName("Test history merge and round trip")
+    @Description("Merges two runs into a history file, reads it back and checks the run number, means and failures.")
+    @Test
+    public void shouldRoundTripHistory_whenRunsAreMerged(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("history/test-history.tsv");
+        TestHistory.mergeInto(file, List.of(
+                new TestHistory.Observation("com.example.A", 100, false),
+                new TestHistory.Observation("com.example.A#m", 10, true)));
+        TestHistory.mergeInto(file, List.of(new TestHistory.Observation("com.example.A", 200, false)));
+
+        TestHistory history = TestHistory.load(file);
+        Path broken = Files.writeString(dir.resolve("broken.tsv"), "#run\tnot-a-number\n", StandardCharsets.UTF_8);
+
+        SoftAssertions softly = new SoftAssertions();
+        softly.assertThat(history.getRun()).as("Last run").isEqualTo(2);
+        softly.assertThat(history.getClassKeys()).as("Class keys").containsExactly("com.example.A");
+        softly.assertThat(history.get("com.example.A").getRuns()).as("Runs of A").isEqualTo(2);
+        softly.assertThat(history.get("com.example.A").getMeanMillis()).as("Mean of A").isCloseTo(130.0, within(0.05));
+        softly.assertThat(history.get("com.example.A#m").getLastRun()).as("Last run of A#m").isEqualTo(1);
+        softly.assertThat(history.get("com.example.A#m").getLastFailedRun()).as("Last failure of A#m").isEqualTo(1);
+        softly.assertThat(history.failedRecently("com.example.A#m")).as("A#m failed recently").isTrue();
+        softly.assertThat(history.failedRecently("com.example.A")).as("A failed recently").isFalse();
+        softly.assertThat(Files.readAllLines(file, StandardCharsets.UTF_8)).as("History file")
+                .startsWith("#run\t2")
+                .contains("com.example.A\truns=2\tmean_ms=130.0\tlast_run=2\tlast_failed_run=-1");
+        softly.assertThat(TestHistory.load(broken).getClassKeys()).as("Classes of an unreadable history").isEmpty();
+        softly.assertAll();
+    }
+
+    /**
+     * CONFIG:   classes A 400 ms, B 300 ms, C 200 ms, D 100 ms and E without history
+     * EXPECT:
+     *    - E weighs as much as the median known class (300 ms)
+     *    - two shards, longest first to the lightest: [A, C, D] (700 ms) and [B, E] (600 ms)
+     *    - without a history, classes are dealt out by name
+     */
+    @Test
+    public void shouldBalanceShardsByDuration_whenHistoryIsKnown() {
+        TestHistory history = new TestHistory(0.3, 3);
+        history.merge(List.of(
+                new TestHistory.Observation("A", 400, false),
+                new TestHistory.Observation("B", 300, false),
+                new TestHistory.Observation("C", 200, false),
+                new TestHistory.Observation("D", 100, false)));
+        List<String> classes = List.of("E", "D", "C", "B", "A");
+
+        SoftAssertions softly = new SoftAssertions();
+        softly.assertThat(HistoryShardFilter.balance(classes, 2, history)).as("Shards by duration")
+                .containsExactly(List.of("A", "C", "D"), List.of("B", "E"));
+        softly.assertThat(HistoryShardFilter.balance(classes, 2, null)).as("Shards without history")
+                .containsExactly(List.of("A", "C", "E"), List.of("B", "D"));
+        softly.assertThat(HistoryShardFilter.balance(classes, 1, history)).as("Single shard")
+                .containsExactly(List.of("A", "B", "E", "C", "D"));
+        softly.assertAll();
+    }
+
+    /**
+     * CONFIG:   run 1: slow 500 ms, fast 50 ms, flaky 10 ms; run 2: slow, fast, flaky failed
+     * EXPECT:
+     *    - order: the recent failure, then the new test, then the known tests fastest first
+     *    - without a history, the order is by name
+     */
+    @Test
+    public void shouldOrderFailedThenNewThenFastest_whenHistoryIsKnown() {
+        TestHistory history = new TestHistory(0.3, 3);
+        history.merge(List.of(
+                new TestHistory.Observation("T#slow", 500, false),
+                new TestHistory.Observation("T#fast", 50, false),
+                new TestHistory.Observation("T#flaky", 10, false)));
+        history.merge(List.of(
+                new TestHistory.Observation("T#slow", 500, false),
+                new TestHistory.Observation("T#fast", 50, false),
+                new TestHistory.Observation("T#flaky", 10, true)));
+
+        List<String> ordered = new ArrayList<>(List.of("T#slow", "T#new", "T#fast", "T#flaky"));
+        ordered.sort(HistoryOrderer.comparator(history, Function.identity()));
+        List<String> byName = new ArrayList<>(List.of("T#slow", "T#new", "T#fast", "T#flaky"));
+        byName.sort(HistoryOrderer.comparator(null, Function.identity()));
+
+        SoftAssertions softly = new SoftAssertions();
+        softly.assertThat(ordered).as("Order by history").containsExactly("T#flaky", "T#new", "T#fast", "T#slow");
+        softly.assertThat(byName).as("Order without history").containsExactly("T#fast", "T#flaky", "T#new", "T#slow");
+        softly.assertAll();
+    }
+}
@@ -0,0 +1,148 @@
+package com.demo.api.tests;
+
+import com.demo.api.base.BaseTest;
+import com.demo.api.stub.LatencyProfile;
+import com.demo.api.stub.LocalUserApiServer;
+import com.demo.api.utilities.AdaptiveThrottle;
+import com.demo.api.utilities.Config;
+import com.demo.api.utilities.RequestSpecs;
+import com.demo.api.utilities.UserApiHelper;
+
+import io.qameta.allure.*;
+import io.restassured.RestAssured;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+
+import org.assertj.core.api.SoftAssertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Contains tests for the client-side {@link AdaptiveThrottle} against a rate-limited local stand-in.
+ * Each test starts its own stand-in and throttle, so the shared users resource is not involved.
+ */
+public class UserThrottleTests extends BaseTest {
+
+    /**
+     * SEND:     8 x GET /api/users/2 from 4 concurrent callers to a stand-in limited to 5 req/s (burst 2)
+     * EXPECT:
+     *    - every call ends in 200 OK after retries
+     *    - 429 responses were seen and retried, honoring Retry-After
+     *    - the concurrency limit was lowered from its initial value
+     */
+    @Epic("User API")
+    @Feature("Resilience")
+    @Story("As a tester, I want the client to back off and retry instead of failing on 429")
+    @Severity(SeverityLevel.NORMAL)
+    @DisplayName("Adaptive throttling on 429")
+    @Description("Drives a rate-limited stand-in with concurrent GETs and checks that 429s are retried and the concurrency limit backs off.")
+    @Test
+    public void shouldRetryAndBackOff_whenServerAnswersTooManyRequests() {
+        LocalUserApiServer server = new LocalUserApiServer(LatencyProfile.INSTANT).start();
+        server.setRateLimit(5, 2);
+        AdaptiveThrottle throttle = new AdaptiveThrottle(true, 0, 1, 8, 16, 6,
+                Duration.ofMillis(50), Duration.ofSeconds(2));
+        ExecutorService callers = Executors.newFixedThreadPool(4);
+        try {
+            RequestSpecification spec = RequestSpecs.forBaseUri(server.getBaseUri(), Config.getApiKey());
+            List<CompletableFuture<Response>> calls = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                calls.add(CompletableFuture.supplyAsync(() -> throttle.execute("GET",
+                        () -> RestAssured.given().spec(spec).get("/api/users/2")), callers));
+            }
+
+            SoftAssertions softly = new SoftAssertions();
+            for (CompletableFuture<Response> call : calls) {
+                softly.assertThat(UserApiHelper.discardBody(call.join()).statusCode()).as("Status after retries").isEqualTo(200);
+            }
+            softly.assertThat(throttle.getThrottledResponses()).as("429 responses seen").isPositive();
+            softly.assertThat(throttle.getRetries()).as("Retries").isPositive();
+            softly.assertThat(throttle.getLimit()).as("Concurrency limit").isLessThan(8);
+            softly.assertAll();
+        } finally {
+            callers.shutdownNow();
+            server.stop();
+        }
+    }
+
+    /**
+     * SEND:     2 x POST /api/users back to back to a stand-in limited to 1 req/s (burst 1)
+     * EXPECT:
+     *    - the second create is answered with 429 and returned as is, never retried
+     */
+    @Test
+    public void shouldNotRetryCreate_whenServerAnswersTooManyRequests() {
+        LocalUserApiServer server = new LocalUserApiServer(LatencyProfile.INSTANT).start();
+        server.setRateLimit(1, 1);
+        AdaptiveThrottle throttle = new AdaptiveThrottle(true, 0, 1, 8, 16, 6,
+                Duration.ofMillis(50), Duration.ofSeconds(2));
+        try {
+            RequestSpecification spec = RequestSpecs.forBaseUri(server.getBaseUri(), Config.getApiKey());
+            String body = "{\"name\":\"Throttled\",\"job\":\"QA Engineer\"}";
+
+            Response first = UserApiHelper.discardBody(
+                    throttle.execute("POST", () -> RestAssured.given().spec(spec).body(body).post("/api/users")));
+            Response second = UserApiHelper.discardBody(
+                    throttle.execute("POST", () -> RestAssured.given().spec(spec).body(body).post("/api/users")));
+
+            assertEquals(201, first.statusCode(), "Expected 201 Created");
+            assertEquals(429, second.statusCode(), "Expected 429 Too Many Requests");
+            assertEquals("1", second.getHeader("Retry-After"), "Expected Retry-After in seconds");
+            assertEquals(0, throttle.getRetries(), "Expected no retries of a non-idempotent call");
+        } finally {
+            server.stop();
+        }
+    }
+
+    /**
+     * SEND:     4 x async GET /api/users/2 through a throttle limited to 5 req/s (burst 1) and one call at a time
+     * EXPECT:
+     *    - every executeAsync call returns at once, while the calls are spread over at least 600 ms
+     *    - every call ends in 200 OK
+     */
+    @Test
+    public void shouldNotBlockCaller_whenAsyncCallsWaitForPermits() {
+        LocalUserApiServer server = new LocalUserApiServer(LatencyProfile.INSTANT).start();
+        AdaptiveThrottle throttle = new AdaptiveThrottle(true, 5, 1, 1, 1, 1,
+                Duration.ofMillis(50), Duration.ofSeconds(2));
+        HttpClient client = HttpClient.newHttpClient();
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(server.getBaseUri() + "/api/users/2"))
+                    .header("x-api-key", Config.getApiKey())
+                    .build();
+
+            long start = System.nanoTime();
+            List<CompletableFuture<HttpResponse<String>>> calls = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                calls.add(throttle.executeAsync("GET",
+                        () -> client.sendAsync(request, HttpResponse.BodyHandlers.ofString())));
+            }
+            Duration submitted = Duration.ofNanos(System.nanoTime() - start);
+            CompletableFuture.allOf(calls.toArray(new CompletableFuture<?>[0])).join();
+            Duration completed = Duration.ofNanos(System.nanoTime() - start);
+
+            SoftAssertions softly = new SoftAssertions();
+            softly.assertThat(submitted).as("Time to submit").isLessThan(Duration.ofMillis(200));
+            softly.assertThat(completed).as("Time to complete").isGreaterThanOrEqualTo(Duration.ofMillis(550));
+            for (CompletableFuture<HttpResponse<String>> call : calls) {
+                softly.assertThat(call.join().statusCode()).as("Status").isEqualTo(200);
+            }
+            softly.assertAll();
+        } finally {
+            server.stop();
+        }
+    }
+}
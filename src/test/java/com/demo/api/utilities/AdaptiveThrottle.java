@@ -0,0 +1,411 @@
+package com.demo.api.utilities;
+
+import io.restassured.response.Response;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Client-side rate limiting, adaptive concurrency and retries for the {@link UserApiHelper} and
+ * {@link AsyncUserApiHelper} calls.
+ *
+ * <p>Every call goes through three gates before it is sent:</p>
+ * <ul>
+ *     <li>a pause requested by the server: after a {@code Retry-After} header on a 429 or 503 response,
+ *     no call is sent until that time has passed;</li>
+ *     <li>an optional {@link TokenBucket} capping the request rate ({@code throttle.rate}, 0 = unlimited);</li>
+ *     <li>an AIMD concurrency limit: each successful call raises the limit by {@code 1/limit} (about one per
+ *     round trip of the whole window), each 429 or 503 halves it, at most once per window, between 1 and
+ *     {@code throttle.max.concurrency}.</li>
+ * </ul>
+ *
+ * <p>Idempotent calls (GET, HEAD, PUT, DELETE, OPTIONS) that end in 429, 502, 503, 504 or an I/O error are
+ * retried up to {@code retry.max.attempts} times in total. Each retry waits for a full-jitter exponential
+ * backoff ({@code retry.base.ms} doubled per attempt, capped at {@code retry.max.backoff.ms}), or longer if
+ * the server asked for it. POST is never retried, since a repeated create would create a second user.</p>
+ *
+ * <p>Usage example:</p>
+ * <pre>
+ *     Response response = AdaptiveThrottle.shared().execute("GET",
+ *             () -&gt; RestAssured.given().spec(spec).get("/api/users/2"));
+ * </pre>
+ */
+public final class AdaptiveThrottle {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AdaptiveThrottle.class);
+
+    private static final Set<String> IDEMPOTENT = Set.of("GET", "HEAD", "PUT", "DELETE", "OPTIONS");
+    private static final Set<Integer> RETRYABLE = Set.of(429, 502, 503, 504);
+
+    private final boolean enabled;
+    private final TokenBucket bucket;
+    private final int maxConcurrency;
+    private final int maxAttempts;
+    private final long baseBackoffNanos;
+    private final long maxBackoffNanos;
+
+    // AIMD window, guarded by this
+    private double limit;
+    private int inFlight;
+    private long lastDecrease;
+    // Async callers waiting for a concurrency slot, in arrival order
+    private final Deque<CompletableFuture<Void>> waiting = new ArrayDeque<>();
+
+    private final AtomicLong pausedUntil = new AtomicLong(System.nanoTime());
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder throttled = new LongAdder();
+
+    /**
+     * Creates a throttle.
+     *
+     * @param enabled            whether calls are throttled and retried at all
+     * @param rate               maximum requests per second, or 0 for no cap
+     * @param burst              requests allowed at once after an idle period when {@code rate} is set
+     * @param initialConcurrency starting concurrency limit
+     * @param maxConcurrency     upper bound of the concurrency limit
+     * @param maxAttempts        attempts per idempotent call, including the first
+     * @param baseBackoff        backoff before the first retry, doubled per attempt
+     * @param maxBackoff         upper bound of the backoff
+     */
+    public AdaptiveThrottle(boolean enabled, double rate, int burst, int initialConcurrency, int maxConcurrency,
+                            int maxAttempts, Duration baseBackoff, Duration maxBackoff) {
+        if (initialConcurrency < 1 || maxConcurrency < initialConcurrency) {
+            throw new IllegalArgumentException("Expected 1 <= initial concurrency <= max concurrency, got "
+                    + initialConcurrency + " and " + maxConcurrency);
+        }
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("Max attempts must be at least 1, got " + maxAttempts);
+        }
+        this.enabled = enabled;
+        this.bucket = rate > 0 ? new TokenBucket(rate, burst) : null;
+        this.limit = initialConcurrency;
+        this.maxConcurrency = maxConcurrency;
+        this.maxAttempts = maxAttempts;
+        this.baseBackoffNanos = baseBackoff.toNanos();
+        this.maxBackoffNanos = maxBackoff.toNanos();
+        this.lastDecrease = System.nanoTime();
+    }
+
+    /**
+     * Creates a throttle configured by the {@code throttle.*} and {@code retry.*} keys of {@code config.properties}.
+     *
+     * @return the configured throttle
+     */
+    public static AdaptiveThrottle fromConfig() {
+        return new AdaptiveThrottle(
+                Config.getBoolean("throttle.enabled", false),
+                Config.getDouble("throttle.rate", 0),
+                Config.getInt("throttle.burst", 10),
+                Config.getInt("throttle.initial.concurrency", 8),
+                Config.getInt("throttle.max.concurrency", 64),
+                Config.getInt("retry.max.attempts", 3),
+                Duration.ofMillis(Config.getLong("retry.base.ms", 100)),
+                Duration.ofMillis(Config.getLong("retry.max.backoff.ms", 5000)));
+    }
+
+    /**
+     * Returns the throttle used by {@link UserApiHelper} and {@link AsyncUserApiHelper}.
+     *
+     * @return the JVM-wide throttle
+     */
+    public static AdaptiveThrottle shared() {
+        return Holder.SHARED;
+    }
+
+    /**
+     * Sends a call through the gates and retries it if it is idempotent and failed transiently.
+     *
+     * @param method the HTTP method, which decides whether the call may be retried
+     * @param call   sends the request once; invoked again for every attempt
+     * @return the response of the last attempt
+     */
+    public Response execute(String method, Supplier<Response> call) {
+        if (!enabled) {
+            return call.get();
+        }
+        boolean idempotent = IDEMPOTENT.contains(method.toUpperCase(Locale.ROOT));
+        for (int attempt = 1; ; attempt++) {
+            awaitPause();
+            acquirePermit();
+            long sentAt = System.nanoTime();
+            Response response;
+            try {
+                response = call.get();
+            } catch (Exception e) {
+                release(sentAt, false);
+                if (!idempotent || attempt >= maxAttempts || !isTransportFailure(e)) {
+                    throw e;
+                }
+                retries.increment();
+                LOGGER.warn("{} attempt {} failed ({}), retrying", method, attempt, e.toString());
+                sleep(backoff(attempt));
+                continue;
+            }
+
+            int status = response.getStatusCode();
+            long retryAfter = completed(sentAt, status, response.getHeader("Retry-After"));
+            if (!idempotent || !RETRYABLE.contains(status) || attempt >= maxAttempts) {
+                return response;
+            }
+            retries.increment();
+            LOGGER.warn("{} attempt {} returned {}, retrying", method, attempt, status);
+            // The discarded body must still be read to return the pooled connection
+            UserApiHelper.discardBody(response);
+            sleep(Math.max(backoff(attempt), retryAfter));
+        }
+    }
+
+    /**
+     * Non-blocking variant of {@link #execute} for {@link java.net.http.HttpClient} calls.
+     *
+     * <p>No thread waits for the gates: a server pause, a rate limit permit and a retry backoff are scheduled
+     * on a delayed executor, and a caller over the concurrency limit is queued and sent by the call that
+     * frees its slot.</p>
+     *
+     * @param method the HTTP method, which decides whether the call may be retried
+     * @param call   sends the request once; invoked again for every attempt
+     * @param <T>    the body type of the response
+     * @return a future completing with the response of the last attempt
+     */
+    public <T> CompletableFuture<HttpResponse<T>> executeAsync(String method,
+                                                              Supplier<CompletableFuture<HttpResponse<T>>> call) {
+        if (!enabled) {
+            return call.get();
+        }
+        return attemptAsync(method, IDEMPOTENT.contains(method.toUpperCase(Locale.ROOT)), 1, call);
+    }
+
+    /**
+     * Returns the current concurrency limit.
+     *
+     * @return the limit, between 1 and {@code throttle.max.concurrency}
+     */
+    public synchronized double getLimit() {
+        return limit;
+    }
+
+    public long getRetries() {
+        return retries.sum();
+    }
+
+    /**
+     * Returns the number of 429 and 503 responses seen.
+     *
+     * @return the number of overload responses
+     */
+    public long getThrottledResponses() {
+        return throttled.sum();
+    }
+
+    private <T> CompletableFuture<HttpResponse<T>> attemptAsync(String method, boolean idempotent, int attempt,
+                                                               Supplier<CompletableFuture<HttpResponse<T>>> call) {
+        return permitAsync().thenCompose(ignored -> sendAsync(method, idempotent, attempt, call));
+    }
+
+    private <T> CompletableFuture<HttpResponse<T>> sendAsync(String method, boolean idempotent, int attempt,
+                                                            Supplier<CompletableFuture<HttpResponse<T>>> call) {
+        long sentAt = System.nanoTime();
+        CompletableFuture<HttpResponse<T>> sent;
+        try {
+            sent = call.get();
+        } catch (RuntimeException e) {
+            release(sentAt, false);
+            return CompletableFuture.failedFuture(e);
+        }
+        return sent.handle((response, error) -> {
+            if (error != null) {
+                release(sentAt, false);
+                Throwable cause = error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause() : error;
+                if (!idempotent || attempt >= maxAttempts || !isTransportFailure(cause)) {
+                    return CompletableFuture.<HttpResponse<T>>failedFuture(cause);
+                }
+                retries.increment();
+                LOGGER.warn("{} attempt {} failed ({}), retrying", method, attempt, cause.toString());
+                return retryAsync(method, idempotent, attempt, call, backoff(attempt));
+            }
+            int status = response.statusCode();
+            long retryAfter = completed(sentAt, status, response.headers().firstValue("Retry-After").orElse(null));
+            if (!idempotent || !RETRYABLE.contains(status) || attempt >= maxAttempts) {
+                return CompletableFuture.completedFuture(response);
+            }
+            retries.increment();
+            LOGGER.warn("{} attempt {} returned {}, retrying", method, attempt, status);
+            return retryAsync(method, idempotent, attempt, call, Math.max(backoff(attempt), retryAfter));
+        }).thenCompose(Function.identity());
+    }
+
+    private <T> CompletableFuture<HttpResponse<T>> retryAsync(String method, boolean idempotent, int attempt,
+                                                             Supplier<CompletableFuture<HttpResponse<T>>> call,
+                                                             long delayNanos) {
+        return after(delayNanos).thenCompose(ignored -> attemptAsync(method, idempotent, attempt + 1, call));
+    }
+
+    // Completes once the pause, the rate limit and a concurrency slot allow the next call
+    private CompletableFuture<Void> permitAsync() {
+        return after(pausedUntil.get() - System.nanoTime())
+                .thenCompose(ignored -> after(bucket != null ? bucket.reserve() : 0))
+                .thenCompose(ignored -> acquireSlotAsync());
+    }
+
+    private synchronized CompletableFuture<Void> acquireSlotAsync() {
+        if (waiting.isEmpty() && inFlight < (int) limit) {
+            inFlight++;
+            return CompletableFuture.completedFuture(null);
+        }
+        CompletableFuture<Void> slot = new CompletableFuture<>();
+        waiting.add(slot);
+        return slot;
+    }
+
+    private static CompletableFuture<Void> after(long nanos) {
+        if (nanos <= 0) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return CompletableFuture.runAsync(() -> { }, CompletableFuture.delayedExecutor(nanos, TimeUnit.NANOSECONDS));
+    }
+
+    // Releases the permit of a completed call; returns the pause the server asked for, or 0
+    private long completed(long sentAt, int status, String retryAfterHeader) {
+        boolean overloaded = status == 429 || status == 503;
+        release(sentAt, overloaded);
+        if (!overloaded) {
+            return 0;
+        }
+        throttled.increment();
+        long retryAfter = retryAfterNanos(retryAfterHeader);
+        if (retryAfter > 0) {
+            pausedUntil.accumulateAndGet(System.nanoTime() + retryAfter, Math::max);
+        }
+        return retryAfter;
+    }
+
+    private void acquirePermit() {
+        if (bucket != null) {
+            try {
+                bucket.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for a rate limit permit", e);
+            }
+        }
+        acquireSlot();
+    }
+
+    private synchronized void acquireSlot() {
+        while (inFlight >= (int) limit) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for a concurrency permit", e);
+            }
+        }
+        inFlight++;
+    }
+
+    private void release(long sentAt, boolean overloaded) {
+        List<CompletableFuture<Void>> granted = new ArrayList<>();
+        synchronized (this) {
+            inFlight--;
+            if (overloaded) {
+                // Only calls sent after the last decrease reflect the current window
+                if (sentAt - lastDecrease > 0) {
+                    limit = Math.max(1, limit / 2);
+                    lastDecrease = System.nanoTime();
+                    LOGGER.info("Server overloaded, concurrency limit lowered to {}", (int) limit);
+                }
+            } else {
+                limit = Math.min(maxConcurrency, limit + 1 / limit);
+            }
+            // Queued async callers take freed slots first; blocked callers get what is left
+            while (!waiting.isEmpty() && inFlight < (int) limit) {
+                inFlight++;
+                granted.add(waiting.poll());
+            }
+            notifyAll();
+        }
+        // Completed outside the lock, since each completion sends its request on this thread
+        granted.forEach(slot -> slot.complete(null));
+    }
+
+    private void awaitPause() {
+        long remaining = pausedUntil.get() - System.nanoTime();
+        if (remaining > 0) {
+            sleep(remaining);
+        }
+    }
+
+    private long backoff(int attempt) {
+        long ceiling = Math.min(maxBackoffNanos, baseBackoffNanos << Math.min(attempt - 1, 30));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    private static void sleep(long nanos) {
+        long deadline = System.nanoTime() + nanos;
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+            if (Thread.interrupted()) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while backing off");
+            }
+        }
+    }
+
+    // REST-assured rethrows connection errors unwrapped, or wrapped once by a filter
+    private static boolean isTransportFailure(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof IOException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Retry-After is either delay-seconds or an HTTP-date
+    static long retryAfterNanos(String value) {
+        if (value == null || value.isBlank()) {
+            return 0;
+        }
+        try {
+            return Duration.ofSeconds(Math.max(0, Long.parseLong(value.trim()))).toNanos();
+        } catch (NumberFormatException e) {
+            try {
+                ZonedDateTime at = ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+                return Math.max(0, Duration.between(ZonedDateTime.now(at.getZone()), at).toNanos());
+            } catch (DateTimeParseException ignored) {
+                LOGGER.warn("Ignoring malformed Retry-After header: {}", value);
+                return 0;
+            }
+        }
+    }
+
+    // Lazy holder: built on first access from config.properties
+    private static final class Holder {
+
+        static final AdaptiveThrottle SHARED = fromConfig();
+    }
+}
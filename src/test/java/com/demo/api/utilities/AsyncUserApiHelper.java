@@ -0,0 +1,209 @@
+package com.demo.api.utilities;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.restassured.specification.RequestSpecification;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking counterpart of {@link UserApiHelper} built on {@link java.net.http.HttpClient}.
+ *
+ * <p>All instances share one {@link HttpClient} that prefers HTTP/2, so many requests can be in flight
+ * over a few multiplexed connections without holding a thread per request. Each method returns a
+ * {@link CompletableFuture} that completes with the response once the body has been received.</p>
+ *
+ * <p>Logging mirrors {@link UserApiHelper}: every call is logged at INFO, failed creations at WARN
+ * and response bodies at DEBUG through {@link BodyLogger}.</p>
+ *
+ * <p>Like {@link UserApiHelper}, every request passes through the shared {@link AdaptiveThrottle}, creates and
+ * deletes invalidate the affected {@link ResponseCache} entries, and created users are recorded in the
+ * {@link CreatedUserRegistry} until they are deleted. Both are keyed by the {@link RequestSpecification}
+ * equivalent to the helper, so a user created here can be deleted and cleaned up through either helper.</p>
+ *
+ * <p>Timeouts are set with {@code async.connect.timeout.ms} and {@code async.request.timeout.ms}.</p>
+ *
+ * <p>Usage example:</p>
+ * <pre>
+ *     AsyncUserApiHelper api = AsyncUserApiHelper.withApiKey();
+ *     api.getUserById(2).thenAccept(response -&gt; ...);
+ * </pre>
+ */
+public class AsyncUserApiHelper {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AsyncUserApiHelper.class);
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final AdaptiveThrottle THROTTLE = AdaptiveThrottle.shared();
+
+    private static final HttpClient HTTP_CLIENT = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .connectTimeout(Duration.ofMillis(Config.getLong("async.connect.timeout.ms", 5_000)))
+            .build();
+
+    private final String baseUri;
+    private final String apiKey;
+    private final RequestSpecification spec;
+    private final Duration requestTimeout = Duration.ofMillis(Config.getLong("async.request.timeout.ms", 30_000));
+
+    /**
+     * Creates a helper for the given API location.
+     *
+     * @param baseUri the base URI, e.g. "https://reqres.in"
+     * @param apiKey  value of the {@code x-api-key} header, or {@code null} to send none
+     */
+    public AsyncUserApiHelper(String baseUri, String apiKey) {
+        this(baseUri, apiKey, RequestSpecs.forBaseUri(baseUri, apiKey));
+    }
+
+    private AsyncUserApiHelper(String baseUri, String apiKey, RequestSpecification spec) {
+        this.baseUri = baseUri.endsWith("/") ? baseUri.substring(0, baseUri.length() - 1) : baseUri;
+        this.apiKey = apiKey;
+        this.spec = spec;
+    }
+
+    /**
+     * Returns a helper for authenticated requests, equivalent to the {@code withApiKey} specification.
+     *
+     * @return the helper
+     */
+    public static AsyncUserApiHelper withApiKey() {
+        return new AsyncUserApiHelper(Config.getBaseUri(), Config.getApiKey(), RequestSpecs.withApiKey());
+    }
+
+    /**
+     * Returns a helper for unauthenticated requests, equivalent to the {@code withoutApiKey} specification.
+     *
+     * @return the helper
+     */
+    public static AsyncUserApiHelper withoutApiKey() {
+        return new AsyncUserApiHelper(Config.getBaseUri(), null, RequestSpecs.withoutApiKey());
+    }
+
+    /**
+     * Sends a POST request to create a new user.
+     *
+     * @param payload a map containing "name" and "job"
+     * @return a future completing with the API response
+     */
+    public CompletableFuture<HttpResponse<String>> createUser(Map<String, String> payload) {
+
+        LOGGER.info("Creating user with payload: {}", payload);
+
+        byte[] body;
+        try {
+            body = MAPPER.writeValueAsBytes(payload);
+        } catch (JsonProcessingException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        HttpRequest request = request("/api/users")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+
+        return send("POST", request).whenComplete((response, error) -> {
+            if (response == null) {
+                return;
+            }
+            if (response.statusCode() >= 400) {
+                LOGGER.warn("Create user failed. Status: {}, Body: {}", response.statusCode(), BodyLogger.truncated(response.body()));
+            } else {
+                BodyLogger.debug(LOGGER, response.body());
+                UserApiHelper.responseCache().invalidate(spec, "/api/users?");
+                if (response.statusCode() == 201 && CreatedUserRegistry.isEnabled()) {
+                    CreatedUserRegistry.register(spec, createdId(response.body()));
+                }
+            }
+        });
+    }
+
+    /**
+     * Sends a DELETE request to remove a user by ID.
+     *
+     * @param userId the user ID to delete
+     * @return a future completing with the API response
+     */
+    public CompletableFuture<HttpResponse<String>> deleteUserById(String userId) {
+
+        LOGGER.info("Deleting user with id: {}", userId);
+
+        return sendLogged("DELETE", request("/api/users/" + userId).DELETE().build()).whenComplete((response, error) -> {
+            if (response == null) {
+                return;
+            }
+            UserApiHelper.responseCache().invalidate(spec, "/api/users/" + userId + "|");
+            UserApiHelper.responseCache().invalidate(spec, "/api/users?");
+            if (response.statusCode() < 400) {
+                CreatedUserRegistry.unregister(spec, userId);
+            }
+        });
+    }
+
+    /**
+     * Sends a GET request to retrieve a user by ID.
+     *
+     * @param id the user ID
+     * @return a future completing with the API response
+     */
+    public CompletableFuture<HttpResponse<String>> getUserById(int id) {
+        LOGGER.info("Getting user with id: {}", id);
+
+        return sendLogged("GET", request("/api/users/" + id).GET().build());
+    }
+
+    /**
+     * Sends a GET request to retrieve a paginated list of users.
+     *
+     * @param page the page number
+     * @return a future completing with the API response
+     */
+    public CompletableFuture<HttpResponse<String>> listUsers(int page) {
+
+        LOGGER.info("Listing users with page {}", page);
+
+        return sendLogged("GET", request("/api/users?page=" + page).GET().build());
+    }
+
+    private HttpRequest.Builder request(String path) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUri + path))
+                .timeout(requestTimeout)
+                .header("Content-Type", "application/json");
+        if (apiKey != null) {
+            builder.header("x-api-key", apiKey);
+        }
+        return builder;
+    }
+
+    private static CompletableFuture<HttpResponse<String>> send(String method, HttpRequest request) {
+        return THROTTLE.executeAsync(method, () -> HTTP_CLIENT.sendAsync(request, HttpResponse.BodyHandlers.ofString()));
+    }
+
+    private static CompletableFuture<HttpResponse<String>> sendLogged(String method, HttpRequest request) {
+        return send(method, request).whenComplete((response, error) -> {
+            if (response != null) {
+                BodyLogger.debug(LOGGER, response.body());
+            }
+        });
+    }
+
+    // The id of a created user, or null when the body has none
+    private static String createdId(String body) {
+        try {
+            return MAPPER.readTree(body).path("id").textValue();
+        } catch (JsonProcessingException e) {
+            LOGGER.warn("Could not read the id of a created user: {}", e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.demo.api.utilities;
+
+import io.restassured.response.Response;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.function.IntPredicate;
+import java.util.stream.Collectors;
+
+/**
+ * Per-item outcome of a batch call such as {@link UserApiHelper#createUsers}.
+ *
+ * <p>Items are reported in input order. An item fails when its request threw an exception or its
+ * response status did not satisfy the batch's success predicate.</p>
+ *
+ * @param <T> the type of the batch input (payload or id)
+ */
+public final class BatchResult<T> {
+
+    /**
+     * Outcome of one item.
+     *
+     * @param <T> the type of the input
+     */
+    public static final class Item<T> {
+
+        private final T input;
+        private final Response response;
+        private final Throwable error;
+        private final boolean succeeded;
+
+        Item(T input, Response response, Throwable error, IntPredicate expectedStatus) {
+            this.input = input;
+            this.response = response;
+            this.error = error;
+            this.succeeded = error == null && response != null && expectedStatus.test(response.getStatusCode());
+        }
+
+        public T getInput() {
+            return input;
+        }
+
+        /** @return the response, or {@code null} if the request threw */
+        public Response getResponse() {
+            return response;
+        }
+
+        /** @return the exception thrown by the request, or {@code null} */
+        public Throwable getError() {
+            return error;
+        }
+
+        public boolean isSucceeded() {
+            return succeeded;
+        }
+
+        @Override
+        public String toString() {
+            if (error != null) {
+                return input + " -> " + error;
+            }
+            return input + " -> " + (response == null ? "no response" : response.getStatusCode());
+        }
+    }
+
+    private final List<Item<T>> items;
+
+    BatchResult(List<Item<T>> items) {
+        this.items = Collections.unmodifiableList(items);
+    }
+
+    public List<Item<T>> getItems() {
+        return items;
+    }
+
+    public List<Item<T>> getFailures() {
+        return items.stream().filter(item -> !item.isSucceeded()).collect(Collectors.toList());
+    }
+
+    public int getSuccessCount() {
+        return items.size() - getFailures().size();
+    }
+
+    public boolean isAllSucceeded() {
+        return items.stream().allMatch(Item::isSucceeded);
+    }
+
+    @Override
+    public String toString() {
+        return "BatchResult{items=" + items.size() + ", succeeded=" + getSuccessCount()
+                + ", failures=" + getFailures() + "}";
+    }
+}
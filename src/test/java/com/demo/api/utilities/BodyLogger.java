@@ -0,0 +1,93 @@
+package com.demo.api.utilities;
+
+import io.restassured.response.Response;
+
+import org.slf4j.Logger;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Logs response bodies without paying for them when the log level is disabled.
+ *
+ * <p>{@link #debug} returns immediately unless DEBUG is enabled for the given logger, so the body is
+ * never materialized as a String on the default INFO level. When it is logged, at most
+ * {@code log.body.max.chars} characters are written and only a {@code log.body.sample.rate} fraction of
+ * bodies (1.0 = all) is logged at DEBUG. Warnings are never sampled, only truncated.</p>
+ */
+public final class BodyLogger {
+
+    private static final int MAX_CHARS = Config.getInt("log.body.max.chars", 2_048);
+    private static final double SAMPLE_RATE = Config.getDouble("log.body.sample.rate", 1.0);
+
+    private BodyLogger() {
+    }
+
+    /**
+     * Logs {@code "Response received: <body>"} at DEBUG, if enabled and sampled.
+     *
+     * @param logger   the caller's logger
+     * @param response the response whose body to log
+     */
+    public static void debug(Logger logger, Response response) {
+        if (logger.isDebugEnabled() && sampled()) {
+            logger.debug("Response received: {}", truncate(response.asByteArray()));
+        }
+    }
+
+    /**
+     * Logs {@code "Response received: <body>"} at DEBUG, if enabled and sampled.
+     *
+     * @param logger the caller's logger
+     * @param body   the already decoded body
+     */
+    public static void debug(Logger logger, String body) {
+        if (logger.isDebugEnabled() && sampled()) {
+            logger.debug("Response received: {}", truncate(body));
+        }
+    }
+
+    /**
+     * Returns the body decoded as UTF-8 and cut to the configured maximum length.
+     *
+     * @param response the response
+     * @return the possibly truncated body
+     */
+    public static String truncated(Response response) {
+        return truncate(response.asByteArray());
+    }
+
+    /**
+     * Returns the body cut to the configured maximum length.
+     *
+     * @param body the body
+     * @return the possibly truncated body
+     */
+    public static String truncated(String body) {
+        return truncate(body);
+    }
+
+    private static boolean sampled() {
+        return SAMPLE_RATE >= 1.0 || ThreadLocalRandom.current().nextDouble() < SAMPLE_RATE;
+    }
+
+    private static String truncate(byte[] body) {
+        if (body == null) {
+            return "";
+        }
+        // Decode only the prefix that can be shown; UTF-8 never needs more than 4 bytes per char
+        int length = (int) Math.min(body.length, (long) MAX_CHARS * 4);
+        return truncate(new String(body, 0, length, StandardCharsets.UTF_8), body.length + " bytes");
+    }
+
+    private static String truncate(String body) {
+        return body == null ? "" : truncate(body, body.length() + " chars");
+    }
+
+    private static String truncate(String body, String originalSize) {
+        if (body.length() <= MAX_CHARS) {
+            return body;
+        }
+        return body.substring(0, MAX_CHARS) + "... [truncated, " + originalSize + " total]";
+    }
+}
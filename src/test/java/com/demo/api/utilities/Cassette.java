@@ -0,0 +1,432 @@
+package com.demo.api.utilities;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.filter.Filter;
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records responses into a compact binary cassette file and replays them from a memory-mapped copy of it.
+ *
+ * <p>Every exchange is keyed by the method, path, sorted query parameters and request body, and indexed by a
+ * 64-bit FNV-1a hash of that key. The values of the top-level JSON body fields listed in
+ * {@code cassette.volatile.fields} (by default {@code name}, which {@link UserDataFactory} makes unique per run)
+ * are replaced with {@code *} before keying, so a POST recorded in one run is replayed in the next. The file starts with the magic {@code UCAS} and a version, followed by one
+ * record per key:</p>
+ * <pre>
+ *     long   key hash
+ *     short  key length, key bytes (e.g. "GET /api/users?page=2")
+ *     int    request body length, request body bytes
+ *     short  status code
+ *     short  header count, then per header: short name length, name, short value length, value
+ *     int    body length, body bytes
+ * </pre>
+ *
+ * <p>In {@link Mode#RECORD} the first response per key is appended (304 responses are skipped); the file is
+ * truncated on the first recorded response, and recording after {@link #close()} appends to it again. In
+ * {@link Mode#REPLAY} the file is mapped read-only once, an index from hash to record offsets is built by
+ * skipping over the bodies, and each request is answered straight from the mapping without touching the
+ * network. The stored key and request body are compared on lookup, so a hash collision never replays another
+ * request's response; a request without a recording fails with an {@link IllegalStateException}.</p>
+ *
+ * <p>Selected with {@code cassette.mode} ({@code off}, {@code record}, {@code replay}) and
+ * {@code cassette.file} in {@code config.properties}; the shared specifications in {@link RequestSpecs}
+ * apply {@link #shared()} when the mode is not {@code off}.</p>
+ */
+public final class Cassette implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(Cassette.class);
+
+    private static final int MAGIC = 0x55434153; // "UCAS"
+    private static final short VERSION = 3;
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    // Hop-by-hop or re-computed headers that must not be replayed
+    private static final Set<String> SKIPPED_HEADERS = Set.of("connection", "content-length", "content-encoding",
+            "transfer-encoding", "keep-alive", "date");
+
+    // Request body fields whose values differ between runs and are left out of the key
+    private static final Set<String> VOLATILE_FIELDS = Set.copyOf(Arrays.asList(
+            Config.get("cassette.volatile.fields", "name").trim().split("\\s*,\\s*")));
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /** What the cassette does with the requests passing through its filter. */
+    public enum Mode {
+        OFF, RECORD, REPLAY;
+
+        static Mode parse(String value) {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    private final Path file;
+    private final Mode mode;
+
+    // RECORD
+    private final Set<String> recorded = ConcurrentHashMap.newKeySet();
+    private FileChannel channel;
+    private boolean truncated;
+
+    // REPLAY
+    private MappedByteBuffer mapping;
+    private Map<Long, List<Integer>> index;
+
+    /**
+     * Opens a cassette.
+     *
+     * @param file the cassette file; truncated on the first recorded response in {@link Mode#RECORD}, appended to afterwards
+     * @param mode what to do with requests
+     */
+    public Cassette(Path file, Mode mode) {
+        this.file = file;
+        this.mode = mode;
+    }
+
+    /**
+     * Returns the cassette configured by {@code cassette.mode} and {@code cassette.file}.
+     *
+     * @return the JVM-wide cassette
+     */
+    public static Cassette shared() {
+        return Holder.SHARED;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * Returns a REST-assured filter that records or replays each request, depending on the mode.
+     *
+     * @return the filter
+     */
+    public Filter filter() {
+        return (request, response, context) -> {
+            if (mode == Mode.OFF) {
+                return context.next(request, response);
+            }
+            String key = keyOf(request);
+            byte[] body = bodyOf(request);
+            if (mode == Mode.REPLAY) {
+                return replay(key, body);
+            }
+            Response received = context.next(request, response);
+            record(key, body, received);
+            return received;
+        };
+    }
+
+    /**
+     * Returns the number of exchanges in the cassette (replay) or recorded so far (record).
+     *
+     * @return the number of exchanges
+     */
+    public synchronized int size() {
+        return mode == Mode.REPLAY ? index().values().stream().mapToInt(List::size).sum() : recorded.size();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel != null) {
+            channel.force(true);
+            channel.close();
+            channel = null;
+        }
+        mapping = null;
+        index = null;
+    }
+
+    private synchronized void record(String key, byte[] requestBody, Response response) {
+        // ISO-8859-1 maps every byte to one char, so the set compares request bodies exactly
+        if (response.getStatusCode() == 304 || !recorded.add(key + '\n' + new String(requestBody, StandardCharsets.ISO_8859_1))) {
+            return;
+        }
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        byte[] body = response.asByteArray();
+        List<byte[]> headerBytes = new ArrayList<>();
+        for (Header header : response.getHeaders()) {
+            if (!SKIPPED_HEADERS.contains(header.getName().toLowerCase(Locale.ROOT))) {
+                headerBytes.add(header.getName().getBytes(StandardCharsets.UTF_8));
+                headerBytes.add(header.getValue().getBytes(StandardCharsets.UTF_8));
+            }
+        }
+
+        int size = Long.BYTES + Short.BYTES + keyBytes.length + Integer.BYTES + requestBody.length
+                + Short.BYTES + Short.BYTES + Integer.BYTES + body.length;
+        for (byte[] bytes : headerBytes) {
+            size += Short.BYTES + bytes.length;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putLong(hash(key, requestBody));
+        putShortString(buffer, keyBytes);
+        buffer.putInt(requestBody.length);
+        buffer.put(requestBody);
+        buffer.putShort((short) response.getStatusCode());
+        buffer.putShort((short) (headerBytes.size() / 2));
+        for (byte[] bytes : headerBytes) {
+            putShortString(buffer, bytes);
+        }
+        buffer.putInt(body.length);
+        buffer.put(body);
+        buffer.flip();
+
+        try {
+            FileChannel out = channel();
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to record " + key + " to " + file, e);
+        }
+    }
+
+    private Response replay(String key, byte[] requestBody) {
+        ByteBuffer record = find(key, requestBody);
+        if (record == null) {
+            throw new IllegalStateException("No recorded response for " + key + " in cassette " + file);
+        }
+        int status = record.getShort();
+        int headerCount = record.getShort();
+        List<Header> headers = new ArrayList<>(headerCount);
+        String contentType = null;
+        for (int i = 0; i < headerCount; i++) {
+            String name = getShortString(record);
+            String value = getShortString(record);
+            headers.add(new Header(name, value));
+            if ("content-type".equalsIgnoreCase(name)) {
+                contentType = value;
+            }
+        }
+        byte[] body = new byte[record.getInt()];
+        record.get(body);
+
+        ResponseBuilder builder = new ResponseBuilder()
+                .setStatusCode(status)
+                .setStatusLine("HTTP/1.1 " + status)
+                .setHeaders(new Headers(headers))
+                .setBody(body);
+        if (contentType != null) {
+            builder.setContentType(contentType);
+        }
+        return builder.build();
+    }
+
+    // The record of this request, positioned at its status code, or null if it has none
+    private ByteBuffer find(String key, byte[] requestBody) {
+        List<Integer> offsets;
+        ByteBuffer view;
+        synchronized (this) {
+            offsets = index().get(hash(key, requestBody));
+            // Taken under the lock close() clears the mapping with
+            view = mapping.duplicate();
+        }
+        if (offsets == null) {
+            return null;
+        }
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        for (int offset : offsets) {
+            // Independent position per call over the shared read-only mapping
+            ByteBuffer record = view.duplicate();
+            record.position(offset);
+            if (matches(record, Short.toUnsignedInt(record.getShort()), keyBytes)
+                    && matches(record, record.getInt(), requestBody)) {
+                return record;
+            }
+        }
+        return null;
+    }
+
+    // Compares the next length bytes with expected and moves past them
+    private static boolean matches(ByteBuffer buffer, int length, byte[] expected) {
+        int start = buffer.position();
+        buffer.position(start + length);
+        return length == expected.length && buffer.duplicate().position(start).limit(start + length)
+                .equals(ByteBuffer.wrap(expected));
+    }
+
+    private synchronized Map<Long, List<Integer>> index() {
+        if (index != null) {
+            return index;
+        }
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            mapping = in.map(FileChannel.MapMode.READ_ONLY, 0, in.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open cassette " + file, e);
+        }
+        if (mapping.remaining() < Integer.BYTES + Short.BYTES || mapping.getInt(0) != MAGIC) {
+            throw new IllegalStateException("Not a cassette file: " + file);
+        }
+        if (mapping.getShort(Integer.BYTES) != VERSION) {
+            throw new IllegalStateException("Unsupported cassette version " + mapping.getShort(Integer.BYTES) + ": " + file);
+        }
+
+        Map<Long, List<Integer>> offsets = new HashMap<>();
+        ByteBuffer scan = mapping.duplicate();
+        scan.position(Integer.BYTES + Short.BYTES);
+        int count = 0;
+        while (scan.remaining() >= Long.BYTES) {
+            long hash = scan.getLong();
+            offsets.computeIfAbsent(hash, key -> new ArrayList<>(1)).add(scan.position());
+            count++;
+            skipShortString(scan);
+            int requestBodyLength = scan.getInt();
+            scan.position(scan.position() + requestBodyLength);
+            scan.getShort();
+            int headerCount = scan.getShort();
+            for (int i = 0; i < headerCount * 2; i++) {
+                skipShortString(scan);
+            }
+            int bodyLength = scan.getInt();
+            scan.position(scan.position() + bodyLength);
+        }
+        LOGGER.info("Replaying {} recorded responses from {}", count, file);
+        index = offsets;
+        return index;
+    }
+
+    private FileChannel channel() throws IOException {
+        if (channel == null) {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            if (truncated) {
+                // Reopened after close(): keep what was recorded before
+                channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+                return channel;
+            }
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            truncated = true;
+            ByteBuffer header = ByteBuffer.allocate(Integer.BYTES + Short.BYTES).putInt(MAGIC).putShort(VERSION);
+            header.flip();
+            channel.write(header);
+            LOGGER.info("Recording responses to {}", file);
+        }
+        return channel;
+    }
+
+    static String keyOf(FilterableRequestSpecification request) {
+        StringBuilder key = new StringBuilder(request.getMethod()).append(' ').append(request.getDerivedPath());
+        Map<String, ?> query = new TreeMap<>(request.getQueryParams());
+        char separator = '?';
+        for (Map.Entry<String, ?> param : query.entrySet()) {
+            key.append(separator).append(param.getKey()).append('=').append(param.getValue());
+            separator = '&';
+        }
+        return key.toString();
+    }
+
+    private static byte[] bodyOf(FilterableRequestSpecification request) {
+        Object body = request.getBody();
+        if (body == null) {
+            return new byte[0];
+        }
+        if (body instanceof byte[]) {
+            return normalized((byte[]) body);
+        }
+        return normalized(body.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    // The body with the values of the volatile fields replaced, if it is a JSON object; otherwise the body itself
+    static byte[] normalized(byte[] body) {
+        if (body.length == 0 || body[0] != '{') {
+            return body;
+        }
+        try {
+            JsonNode json = MAPPER.readTree(body);
+            if (!(json instanceof ObjectNode)) {
+                return body;
+            }
+            ObjectNode object = (ObjectNode) json;
+            boolean replaced = false;
+            for (String field : VOLATILE_FIELDS) {
+                if (object.has(field)) {
+                    object.put(field, "*");
+                    replaced = true;
+                }
+            }
+            return replaced ? MAPPER.writeValueAsBytes(object) : body;
+        } catch (IOException e) {
+            // Not JSON after all: key on the raw bytes
+            return body;
+        }
+    }
+
+    static long hash(String key, byte[] body) {
+        long hash = FNV_OFFSET;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash = (hash ^ (b & 0xff)) * FNV_PRIME;
+        }
+        hash = (hash ^ '\n') * FNV_PRIME;
+        for (byte b : body) {
+            hash = (hash ^ (b & 0xff)) * FNV_PRIME;
+        }
+        return hash;
+    }
+
+    private static void putShortString(ByteBuffer buffer, byte[] bytes) {
+        buffer.putShort((short) bytes.length);
+        buffer.put(bytes);
+    }
+
+    private static String getShortString(ByteBuffer buffer) {
+        byte[] bytes = new byte[Short.toUnsignedInt(buffer.getShort())];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void skipShortString(ByteBuffer buffer) {
+        int length = Short.toUnsignedInt(buffer.getShort());
+        buffer.position(buffer.position() + length);
+    }
+
+    // Lazy holder: only opened when cassette.mode is not off
+    private static final class Holder {
+
+        static final Cassette SHARED = new Cassette(
+                Paths.get(Config.get("cassette.file", "src/test/resources/cassettes/users.cassette")),
+                Mode.parse(Config.get("cassette.mode", "off")));
+
+        static {
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    SHARED.close();
+                } catch (IOException e) {
+                    LOGGER.warn("Failed to close cassette: {}", e.getMessage());
+                }
+            }, "cassette-close"));
+        }
+    }
+}
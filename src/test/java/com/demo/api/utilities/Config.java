@@ -2,7 +2,11 @@ package com.demo.api.utilities;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
 
 /**
  * Utility class for loading configuration values from a properties file.
@@ -10,6 +14,9 @@ import java.util.Properties;
  * <p>This class reads the {@code config.properties} file located in {@code src/test/resources}
  * and provides access to commonly used configuration keys like base URI and API key.</p>
  *
+ * <p>Any key can be overridden with a JVM system property of the same name,
+ * e.g. {@code mvn test -Dbase.uri=https://your-env-url.com}.</p>
+ *
  * <p>Usage example:</p>
  * <pre>
  *     String baseUri = Config.getBaseUri();
@@ -38,10 +45,14 @@ public class Config {
     /**
      * Returns the base URI used in REST API tests.
      *
+     * <p>With {@code stub.enabled} or {@code proxy.enabled}, {@link com.demo.api.base.LocalStubExtension}
+     * publishes the address of the embedded stand-in or of the fault injection proxy as the {@code base.uri}
+     * system property before the first test runs.</p>
+     *
      * @return the base URI string from config.properties (e.g. "https://reqres.in")
      */
     public static String getBaseUri() {
-        return PROPERTIES.getProperty("base.uri");
+        return get("base.uri");
     }
 
     /**
@@ -50,6 +61,119 @@ public class Config {
      * @return the API key string from config.properties (e.g. "reqres-free-v1")
      */
     public static String getApiKey() {
-        return PROPERTIES.getProperty("api.key");
+        return get("api.key");
+    }
+
+    /**
+     * Returns whether requests should be served by the embedded local stand-in of the users API.
+     *
+     * @return the {@code stub.enabled} flag (defaults to {@code false})
+     */
+    public static boolean isStubEnabled() {
+        return getBoolean("stub.enabled", false);
+    }
+
+    /**
+     * Returns the keys defined in {@code config.properties}, e.g. to pass overrides on to a child JVM.
+     *
+     * @return the defined keys
+     */
+    public static Set<String> names() {
+        return PROPERTIES.stringPropertyNames();
+    }
+
+    /**
+     * Returns the system properties that override a key family of {@code config.properties}, e.g.
+     * {@code -Dhttp.pool.max.total=400} for the {@code http.} family, to pass them on to a child JVM.
+     *
+     * @return the overriding properties, sorted by name
+     */
+    public static Map<String, String> overrides() {
+        Set<String> families = new TreeSet<>();
+        for (String name : names()) {
+            int dot = name.indexOf('.');
+            families.add(dot < 0 ? name : name.substring(0, dot + 1));
+        }
+        Map<String, String> overrides = new LinkedHashMap<>();
+        for (String key : new TreeSet<>(System.getProperties().stringPropertyNames())) {
+            for (String family : families) {
+                if (key.equals(family) || family.endsWith(".") && key.startsWith(family)) {
+                    overrides.put(key, System.getProperty(key));
+                    break;
+                }
+            }
+        }
+        return overrides;
+    }
+
+    /**
+     * Returns a raw configuration value, giving precedence to a system property of the same name.
+     *
+     * @param key the property key
+     * @return the value, or {@code null} if the key is not defined
+     */
+    public static String get(String key) {
+        String value = System.getProperty(key);
+        return value != null ? value.trim() : PROPERTIES.getProperty(key);
+    }
+
+    /**
+     * Returns a configuration value or the given default when the key is not defined.
+     *
+     * @param key          the property key
+     * @param defaultValue value returned when the key is missing or blank
+     * @return the configured value or {@code defaultValue}
+     */
+    public static String get(String key, String defaultValue) {
+        String value = get(key);
+        return value == null || value.isBlank() ? defaultValue : value.trim();
+    }
+
+    /**
+     * Returns an integer configuration value.
+     *
+     * @param key          the property key
+     * @param defaultValue value returned when the key is missing or blank
+     * @return the parsed value
+     */
+    public static int getInt(String key, int defaultValue) {
+        String value = get(key, null);
+        return value == null ? defaultValue : Integer.parseInt(value);
+    }
+
+    /**
+     * Returns a long configuration value.
+     *
+     * @param key          the property key
+     * @param defaultValue value returned when the key is missing or blank
+     * @return the parsed value
+     */
+    public static long getLong(String key, long defaultValue) {
+        String value = get(key, null);
+        return value == null ? defaultValue : Long.parseLong(value);
+    }
+
+    /**
+     * Returns a decimal configuration value.
+     *
+     * @param key          the property key
+     * @param defaultValue value returned when the key is missing or blank
+     * @return the parsed value
+     */
+    public static double getDouble(String key, double defaultValue) {
+        String value = get(key, null);
+        return value == null ? defaultValue : Double.parseDouble(value);
+    }
+
+    /**
+     * Returns a boolean configuration value.
+     *
+     * @param key          the property key
+     * @param defaultValue value returned when the key is missing or blank
+     * @return the parsed value
+     */
+    public static boolean getBoolean(String key, boolean defaultValue) {
+        String value = get(key, null);
+        return value == null ? defaultValue : Boolean.parseBoolean(value);
     }
 }
@@ -0,0 +1,105 @@
+package com.demo.api.utilities;
+
+import io.restassured.specification.RequestSpecification;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Run-scoped record of every user created through {@link UserApiHelper#createUser}.
+ *
+ * <p>Ids are recorded together with the specification they were created with, and removed again when
+ * they are deleted through {@link UserApiHelper#deleteUserById}. {@link #cleanup()} deletes whatever is
+ * left in parallel; it is invoked once at the end of the test run by
+ * {@link com.demo.api.base.CleanupExtension}.</p>
+ *
+ * <p>Controlled by {@code cleanup.enabled} and {@code cleanup.concurrency}.</p>
+ */
+public final class CreatedUserRegistry {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CreatedUserRegistry.class);
+
+    private static final boolean ENABLED = Config.getBoolean("cleanup.enabled", false);
+
+    // spec identity -> ids created with it
+    private static final Map<RequestSpecification, Set<String>> CREATED = new ConcurrentHashMap<>();
+
+    private CreatedUserRegistry() {
+    }
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Records a created user.
+     *
+     * @param spec the specification the user was created with
+     * @param id   the id returned by the API
+     */
+    static void register(RequestSpecification spec, String id) {
+        if (ENABLED && id != null) {
+            CREATED.computeIfAbsent(spec, key -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+    }
+
+    /**
+     * Forgets a user that has been deleted.
+     *
+     * @param spec the specification the delete was sent with
+     * @param id   the deleted id
+     */
+    static void unregister(RequestSpecification spec, String id) {
+        Set<String> ids = CREATED.get(spec);
+        if (ids != null) {
+            ids.remove(id);
+        }
+    }
+
+    /**
+     * Returns how many created users have not been deleted yet.
+     *
+     * @return the number of pending ids
+     */
+    public static int pendingCount() {
+        return CREATED.values().stream().mapToInt(Set::size).sum();
+    }
+
+    /**
+     * Deletes every recorded user that has not been deleted yet, in parallel, and clears the registry.
+     *
+     * @return the number of users that could not be deleted
+     */
+    public static int cleanup() {
+        Map<RequestSpecification, List<String>> pending = new IdentityHashMap<>();
+        CREATED.forEach((spec, ids) -> {
+            List<String> snapshot = new ArrayList<>(ids);
+            ids.removeAll(snapshot);
+            if (!snapshot.isEmpty()) {
+                pending.put(spec, snapshot);
+            }
+        });
+        if (pending.isEmpty()) {
+            return 0;
+        }
+
+        int concurrency = Config.getInt("cleanup.concurrency", 16);
+        int failed = 0;
+        for (Map.Entry<RequestSpecification, List<String>> entry : pending.entrySet()) {
+            LOGGER.info("Cleaning up {} created users (concurrency {})", entry.getValue().size(), concurrency);
+            BatchResult<String> result = UserApiHelper.deleteUsers(entry.getKey(), entry.getValue(), concurrency);
+            if (!result.isAllSucceeded()) {
+                LOGGER.warn("Failed to clean up {} users: {}", result.getFailures().size(), result.getFailures());
+                failed += result.getFailures().size();
+            }
+        }
+        return failed;
+    }
+}
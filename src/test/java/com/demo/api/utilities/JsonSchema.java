@@ -0,0 +1,353 @@
+package com.demo.api.utilities;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * A JSON Schema compiled once into a tree of checks that runs directly on a Jackson {@link JsonNode}.
+ *
+ * <p>Supports the subset of draft 2020-12 used by the contracts in {@code src/test/resources/schemas}:</p>
+ * <ul>
+ *     <li>{@code type} (a name or an array of names)</li>
+ *     <li>{@code properties}, {@code required}, {@code additionalProperties} (boolean or schema)</li>
+ *     <li>{@code items}, {@code minItems}, {@code maxItems}</li>
+ *     <li>{@code minimum}, {@code maximum}, {@code minLength}, {@code maxLength}, {@code pattern}, {@code enum}</li>
+ * </ul>
+ * <p>Any other keyword is rejected when the schema is compiled, so a contract never silently checks less
+ * than it says. Annotations ({@code $schema}, {@code $id}, {@code title}, {@code description}) are ignored.</p>
+ *
+ * <p>{@link #isValid} stops at the first violation and builds no paths or messages, which keeps it cheap
+ * enough for every response of a load run; {@link #validate} repeats the walk only for an invalid document
+ * to collect every violation with its JSON Pointer.</p>
+ *
+ * <p>Usage example:</p>
+ * <pre>
+ *     JsonSchema schema = JsonSchema.forName("user");
+ *     List&lt;String&gt; violations = schema.validate(tree);
+ * </pre>
+ */
+public final class JsonSchema {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final Map<String, JsonSchema> CACHE = new ConcurrentHashMap<>();
+
+    private static final Set<String> ANNOTATIONS = Set.of("$schema", "$id", "title", "description");
+
+    private static final Set<String> SUPPORTED = Set.of("type", "properties", "required", "additionalProperties",
+            "items", "minItems", "maxItems", "minimum", "maximum", "minLength", "maxLength", "pattern", "enum");
+
+    private enum Type {
+        OBJECT, ARRAY, STRING, INTEGER, NUMBER, BOOLEAN, NULL;
+
+        boolean matches(JsonNode node) {
+            switch (this) {
+                case OBJECT:
+                    return node.isObject();
+                case ARRAY:
+                    return node.isArray();
+                case STRING:
+                    return node.isTextual();
+                case INTEGER:
+                    return node.isIntegralNumber();
+                case NUMBER:
+                    return node.isNumber();
+                case BOOLEAN:
+                    return node.isBoolean();
+                default:
+                    return node.isNull();
+            }
+        }
+    }
+
+    private final String name;
+    private final Set<Type> types;
+    private final Map<String, JsonSchema> properties;
+    private final String[] required;
+    private final boolean additionalAllowed;
+    private final JsonSchema additionalSchema;
+    private final JsonSchema items;
+    private final int minItems;
+    private final int maxItems;
+    private final Double minimum;
+    private final Double maximum;
+    private final int minLength;
+    private final int maxLength;
+    private final Pattern pattern;
+    private final Set<JsonNode> allowed;
+
+    private JsonSchema(String name, JsonNode schema) {
+        this.name = name;
+        for (Iterator<String> keywords = schema.fieldNames(); keywords.hasNext(); ) {
+            String keyword = keywords.next();
+            if (!ANNOTATIONS.contains(keyword) && !SUPPORTED.contains(keyword)) {
+                throw new IllegalArgumentException("Unsupported JSON Schema keyword '" + keyword + "' in " + name);
+            }
+        }
+
+        this.types = compileTypes(schema.get("type"));
+
+        Map<String, JsonSchema> compiled = new LinkedHashMap<>();
+        schema.path("properties").fields().forEachRemaining(
+                property -> compiled.put(property.getKey(), new JsonSchema(name, property.getValue())));
+        this.properties = compiled;
+
+        List<String> names = new ArrayList<>();
+        schema.path("required").forEach(field -> names.add(field.asText()));
+        this.required = names.toArray(new String[0]);
+
+        JsonNode additional = schema.get("additionalProperties");
+        this.additionalAllowed = additional == null || !additional.isBoolean() || additional.booleanValue();
+        this.additionalSchema = additional != null && additional.isObject() ? new JsonSchema(name, additional) : null;
+
+        this.items = schema.has("items") ? new JsonSchema(name, schema.get("items")) : null;
+        this.minItems = schema.path("minItems").asInt(0);
+        this.maxItems = schema.path("maxItems").asInt(Integer.MAX_VALUE);
+        this.minimum = schema.has("minimum") ? schema.get("minimum").asDouble() : null;
+        this.maximum = schema.has("maximum") ? schema.get("maximum").asDouble() : null;
+        this.minLength = schema.path("minLength").asInt(0);
+        this.maxLength = schema.path("maxLength").asInt(Integer.MAX_VALUE);
+        this.pattern = schema.has("pattern") ? Pattern.compile(schema.get("pattern").asText()) : null;
+
+        if (schema.has("enum")) {
+            Set<JsonNode> values = new HashSet<>();
+            schema.get("enum").forEach(values::add);
+            this.allowed = values;
+        } else {
+            this.allowed = null;
+        }
+    }
+
+    /**
+     * Compiles a schema.
+     *
+     * @param name   a name used in error messages, e.g. the file name
+     * @param schema the schema document
+     * @return the compiled schema
+     * @throws IllegalArgumentException if the schema uses an unsupported keyword or type
+     */
+    public static JsonSchema compile(String name, JsonNode schema) {
+        return new JsonSchema(name, schema);
+    }
+
+    /**
+     * Returns the schema {@code schemas/<name>.json} from the test classpath, compiled on first use and
+     * cached for the lifetime of the JVM.
+     *
+     * @param name the schema name, e.g. "user-page"
+     * @return the compiled schema
+     */
+    public static JsonSchema forName(String name) {
+        return CACHE.computeIfAbsent(name, JsonSchema::load);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Checks a document, stopping at the first violation.
+     *
+     * @param document the parsed document
+     * @return whether the document matches the schema
+     */
+    public boolean isValid(JsonNode document) {
+        return check(document, null, null);
+    }
+
+    /**
+     * Checks a document and describes every violation.
+     *
+     * @param document the parsed document
+     * @return the violations, each prefixed with its JSON Pointer (e.g. "/data/0/id: expected integer, got string");
+     *         empty if the document is valid
+     */
+    public List<String> validate(JsonNode document) {
+        if (isValid(document)) {
+            return Collections.emptyList();
+        }
+        List<String> violations = new ArrayList<>();
+        check(document, "", violations);
+        return violations;
+    }
+
+    // Fast mode when violations is null: no paths are built and the walk stops at the first violation
+    private boolean check(JsonNode node, String path, List<String> violations) {
+        if (types != null && !matchesType(node)) {
+            return violation(violations, path, "expected " + describe(types) + ", got " + typeOf(node));
+        }
+        boolean valid = true;
+        if (allowed != null && !allowed.contains(node)) {
+            valid = violation(violations, path, "value " + node + " is not one of " + allowed);
+            if (violations == null) {
+                return false;
+            }
+        }
+        if (node.isObject()) {
+            valid &= checkObject(node, path, violations);
+        } else if (node.isArray()) {
+            valid &= checkArray(node, path, violations);
+        } else if (node.isTextual()) {
+            valid &= checkString(node.textValue(), path, violations);
+        } else if (node.isNumber()) {
+            valid &= checkNumber(node.doubleValue(), path, violations);
+        }
+        return valid;
+    }
+
+    private boolean checkObject(JsonNode node, String path, List<String> violations) {
+        boolean valid = true;
+        for (String field : required) {
+            if (!node.has(field)) {
+                valid = violation(violations, path, "missing required property '" + field + "'");
+                if (violations == null) {
+                    return false;
+                }
+            }
+        }
+        for (Iterator<Map.Entry<String, JsonNode>> fields = node.fields(); fields.hasNext(); ) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            JsonSchema schema = properties.get(field.getKey());
+            if (schema == null) {
+                if (!additionalAllowed) {
+                    valid = violation(violations, path, "unexpected property '" + field.getKey() + "'");
+                    if (violations == null) {
+                        return false;
+                    }
+                    continue;
+                }
+                schema = additionalSchema;
+            }
+            if (schema != null && !schema.check(field.getValue(), child(path, field.getKey()), violations)) {
+                valid = false;
+                if (violations == null) {
+                    return false;
+                }
+            }
+        }
+        return valid;
+    }
+
+    private boolean checkArray(JsonNode node, String path, List<String> violations) {
+        boolean valid = true;
+        if (node.size() < minItems || node.size() > maxItems) {
+            valid = violation(violations, path, "expected between " + minItems + " and " + maxItems
+                    + " items, got " + node.size());
+            if (violations == null) {
+                return false;
+            }
+        }
+        if (items != null) {
+            for (int i = 0; i < node.size(); i++) {
+                if (!items.check(node.get(i), child(path, String.valueOf(i)), violations)) {
+                    valid = false;
+                    if (violations == null) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return valid;
+    }
+
+    private boolean checkString(String value, String path, List<String> violations) {
+        boolean valid = true;
+        if (value.length() < minLength || value.length() > maxLength) {
+            valid = violation(violations, path, "expected length between " + minLength + " and " + maxLength
+                    + ", got " + value.length());
+            if (violations == null) {
+                return false;
+            }
+        }
+        if (pattern != null && !pattern.matcher(value).find()) {
+            valid = violation(violations, path, "\"" + value + "\" does not match " + pattern.pattern());
+        }
+        return valid;
+    }
+
+    private boolean checkNumber(double value, String path, List<String> violations) {
+        if (minimum != null && value < minimum) {
+            return violation(violations, path, value + " is below the minimum " + minimum);
+        }
+        if (maximum != null && value > maximum) {
+            return violation(violations, path, value + " is above the maximum " + maximum);
+        }
+        return true;
+    }
+
+    private boolean matchesType(JsonNode node) {
+        for (Type type : types) {
+            if (type.matches(node)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean violation(List<String> violations, String path, String message) {
+        if (violations != null) {
+            violations.add((path.isEmpty() ? "/" : path) + ": " + message);
+        }
+        return false;
+    }
+
+    private static String child(String path, String segment) {
+        return path == null ? null : path + "/" + segment.replace("~", "~0").replace("/", "~1");
+    }
+
+    private static Set<Type> compileTypes(JsonNode type) {
+        if (type == null) {
+            return null;
+        }
+        Set<Type> types = EnumSet.noneOf(Type.class);
+        if (type.isArray()) {
+            type.forEach(t -> types.add(Type.valueOf(t.asText().toUpperCase(Locale.ROOT))));
+        } else {
+            types.add(Type.valueOf(type.asText().toUpperCase(Locale.ROOT)));
+        }
+        return types;
+    }
+
+    private static String describe(Set<Type> types) {
+        StringBuilder sb = new StringBuilder();
+        for (Type type : types) {
+            sb.append(sb.length() == 0 ? "" : " or ").append(type.name().toLowerCase(Locale.ROOT));
+        }
+        return sb.toString();
+    }
+
+    private static String typeOf(JsonNode node) {
+        if (node.isIntegralNumber()) {
+            return "integer";
+        }
+        return node.getNodeType().name().toLowerCase(Locale.ROOT);
+    }
+
+    private static JsonSchema load(String name) {
+        String resource = "schemas/" + name + ".json";
+        try (InputStream in = JsonSchema.class.getClassLoader().getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalArgumentException("Schema not found on the classpath: " + resource);
+            }
+            return compile(name, MAPPER.readTree(in));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read schema " + resource, e);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.demo.api.utilities;
+
+import io.restassured.filter.Filter;
+import io.restassured.specification.FilterableRequestSpecification;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compresses request bodies with gzip before they are sent, e.g. the payloads of
+ * {@link UserApiHelper#createUser}.
+ *
+ * <p>Only bodies of at least {@code http.request.compression.min.bytes} are compressed: below roughly a
+ * kilobyte the gzip header and the CPU time cost more than the bytes saved. A compressed body is sent with
+ * {@code Content-Encoding: gzip}, which the server has to accept; {@link RequestMetrics} records both its
+ * original and its compressed size.</p>
+ *
+ * <p>Selected with {@code http.request.compression} ({@code off} or {@code gzip}); the shared specifications
+ * in {@link RequestSpecs} apply {@link #filter()} when it is not {@code off}. It runs after the
+ * {@link Cassette}, so recordings are keyed by the uncompressed body.</p>
+ *
+ * <p>Usage example:</p>
+ * <pre>
+ *     RequestSpecification spec = new RequestSpecBuilder()
+ *             .addRequestSpecification(RequestSpecs.withApiKey())
+ *             .addFilter(RequestCompression.filter(0))
+ *             .build();
+ * </pre>
+ */
+public final class RequestCompression {
+
+    private RequestCompression() {
+    }
+
+    /**
+     * Returns whether the shared specifications compress request bodies.
+     *
+     * @return {@code true} if {@code http.request.compression} is {@code gzip}
+     */
+    public static boolean isEnabled() {
+        return Holder.ENABLED;
+    }
+
+    /**
+     * Returns a filter compressing bodies of at least {@code http.request.compression.min.bytes}.
+     *
+     * @return the filter
+     */
+    public static Filter filter() {
+        return Holder.FILTER;
+    }
+
+    /**
+     * Returns a filter compressing bodies of at least the given size.
+     *
+     * @param minBytes the smallest body size that is compressed
+     * @return the filter
+     */
+    public static Filter filter(int minBytes) {
+        return (request, response, context) -> {
+            byte[] body = bodyBytes(request);
+            if (body != null && body.length >= minBytes && !request.getHeaders().hasHeaderWithName("Content-Encoding")) {
+                request.body(gzip(body));
+                request.header("Content-Encoding", "gzip");
+                RequestMetrics.global().requestBody(body.length);
+            }
+            return context.next(request, response);
+        };
+    }
+
+    /**
+     * Compresses bytes with gzip.
+     *
+     * @param bytes the uncompressed bytes
+     * @return the gzip stream
+     */
+    public static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, bytes.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    // REST-assured has already serialized object bodies to a String by the time filters run
+    private static byte[] bodyBytes(FilterableRequestSpecification request) {
+        Object body = request.getBody();
+        if (body instanceof byte[]) {
+            return (byte[]) body;
+        }
+        if (body instanceof String) {
+            return ((String) body).getBytes(StandardCharsets.UTF_8);
+        }
+        return null;
+    }
+
+    private static final class Holder {
+
+        static final boolean ENABLED;
+        static final Filter FILTER;
+
+        static {
+            String mode = Config.get("http.request.compression", "off").trim().toLowerCase(Locale.ROOT);
+            if (!mode.equals("off") && !mode.equals("gzip")) {
+                throw new IllegalArgumentException("Unsupported http.request.compression '" + mode
+                        + "', expected off or gzip");
+            }
+            ENABLED = mode.equals("gzip");
+            FILTER = filter(Config.getInt("http.request.compression.min.bytes", 1024));
+        }
+    }
+}
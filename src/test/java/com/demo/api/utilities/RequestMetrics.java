@@ -0,0 +1,470 @@
+package com.demo.api.utilities;
+
+import com.demo.api.perf.LatencyHistogram;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.restassured.filter.Filter;
+import io.restassured.response.Response;
+
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpRequestInterceptor;
+import org.apache.http.HttpResponseInterceptor;
+import org.apache.http.entity.HttpEntityWrapper;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+import java.util.regex.Pattern;
+
+/**
+ * Per-endpoint request timings and counters, collected for every request sent through {@link RequestSpecs}.
+ *
+ * <p>For each method and endpoint (numeric path segments are folded into {@code {id}}) the following
+ * are recorded:</p>
+ * <ul>
+ *     <li><strong>connect</strong> – time to open a new connection; recorded only when the pool had none to reuse.</li>
+ *     <li><strong>ttfb</strong> – time from sending the request to receiving the response headers.</li>
+ *     <li><strong>total</strong> – time from the start of the request to the fully read response body.</li>
+ *     <li><strong>bytes</strong> – request and response body bytes, both as the application sees them and as they
+ *     crossed the wire after content coding (e.g. gzip), so that the saving of compression can be weighed
+ *     against its cost.</li>
+ *     <li><strong>status class</strong> – number of 2xx, 3xx, 4xx and 5xx responses and of failed requests.</li>
+ * </ul>
+ *
+ * <p>The points in time are taken by the {@link #filter()} around each request, by the Apache HTTP client
+ * interceptors ({@link #requestInterceptor()}, {@link #responseInterceptor()}) and by the connection socket
+ * factory ({@link #connected(long)}). All of them run on the calling thread, which carries the timing of the
+ * request in flight.</p>
+ *
+ * <p>{@link #toJson()} and {@link #toPrometheus()} export the aggregate; both are written at the end of the
+ * run by {@link com.demo.api.base.RequestMetricsExtension}. Controlled by {@code metrics.enabled}.</p>
+ */
+public final class RequestMetrics {
+
+    private static final boolean ENABLED = Config.getBoolean("metrics.enabled", false);
+
+    private static final RequestMetrics GLOBAL = new RequestMetrics();
+
+    private static final Pattern NUMERIC_SEGMENT = Pattern.compile("/\\d+(?=/|$)");
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final ConcurrentMap<String, EndpointStats> endpoints = new ConcurrentHashMap<>();
+    private final ThreadLocal<Timing> current = new ThreadLocal<>();
+
+    /** Aggregated results of one method and endpoint. */
+    public static final class EndpointStats {
+
+        private final String method;
+        private final String endpoint;
+        private final LatencyHistogram connect = new LatencyHistogram();
+        private final LatencyHistogram ttfb = new LatencyHistogram();
+        private final LatencyHistogram total = new LatencyHistogram();
+        private final LongAdder requestBytes = new LongAdder();
+        private final LongAdder requestWireBytes = new LongAdder();
+        private final LongAdder responseBytes = new LongAdder();
+        private final LongAdder responseWireBytes = new LongAdder();
+        private final ConcurrentMap<String, LongAdder> statusClasses = new ConcurrentHashMap<>();
+
+        EndpointStats(String method, String endpoint) {
+            this.method = method;
+            this.endpoint = endpoint;
+        }
+
+        public String getMethod() {
+            return method;
+        }
+
+        public String getEndpoint() {
+            return endpoint;
+        }
+
+        /** @return connect times in microseconds, one value per newly opened connection */
+        public LatencyHistogram getConnect() {
+            return connect;
+        }
+
+        /** @return times to first byte in microseconds */
+        public LatencyHistogram getTtfb() {
+            return ttfb;
+        }
+
+        /** @return total request times in microseconds */
+        public LatencyHistogram getTotal() {
+            return total;
+        }
+
+        /** @return request body bytes before content coding */
+        public long getRequestBytes() {
+            return requestBytes.sum();
+        }
+
+        /** @return request body bytes as sent, after content coding */
+        public long getRequestWireBytes() {
+            return requestWireBytes.sum();
+        }
+
+        /** @return response body bytes after decoding */
+        public long getResponseBytes() {
+            return responseBytes.sum();
+        }
+
+        /** @return response body bytes as received, before decoding; 0 for replayed responses */
+        public long getResponseWireBytes() {
+            return responseWireBytes.sum();
+        }
+
+        /** @return counts per status class ({@code 2xx} ... {@code 5xx}, {@code error}), sorted */
+        public Map<String, Long> getStatusClasses() {
+            Map<String, Long> counts = new TreeMap<>();
+            statusClasses.forEach((statusClass, count) -> counts.put(statusClass, count.sum()));
+            return counts;
+        }
+    }
+
+    // Points in time of the request in flight on the current thread
+    private static final class Timing {
+        final long start = System.nanoTime();
+        long connectNanos = -1;
+        long sent;
+        long firstByte;
+        long requestBytes = -1;
+        long requestWireBytes;
+        long responseWireBytes;
+    }
+
+    RequestMetrics() {
+    }
+
+    /**
+     * Returns the instance fed by the shared request specifications.
+     *
+     * @return the JVM-wide metrics
+     */
+    public static RequestMetrics global() {
+        return GLOBAL;
+    }
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Returns a REST-assured filter that times each request and records it when the body has been read.
+     *
+     * @return the filter
+     */
+    public Filter filter() {
+        return (request, response, context) -> {
+            Timing timing = new Timing();
+            current.set(timing);
+            String key = request.getMethod() + " " + normalize(request.getDerivedPath());
+            String statusClass = "error";
+            long bodyBytes = 0;
+            try {
+                Response received = context.next(request, response);
+                bodyBytes = received.asByteArray().length;
+                statusClass = statusClass(received.getStatusCode());
+                return received;
+            } finally {
+                current.remove();
+                record(key, request.getMethod(), timing, statusClass, bodyBytes);
+            }
+        };
+    }
+
+    /**
+     * Returns an Apache HTTP client interceptor marking the moment the request is sent.
+     *
+     * @return the request interceptor
+     */
+    public HttpRequestInterceptor requestInterceptor() {
+        return (request, context) -> {
+            Timing timing = current.get();
+            if (timing == null) {
+                return;
+            }
+            timing.sent = System.nanoTime();
+            if (request instanceof HttpEntityEnclosingRequest) {
+                HttpEntity entity = ((HttpEntityEnclosingRequest) request).getEntity();
+                if (entity != null && entity.getContentLength() > 0) {
+                    timing.requestWireBytes = entity.getContentLength();
+                }
+            }
+        };
+    }
+
+    /**
+     * Returns an Apache HTTP client interceptor marking the moment the response headers arrive and counting
+     * the body bytes as they are read off the connection.
+     *
+     * <p>It must be added to the client before REST-assured's decoding interceptor, so that it wraps the raw
+     * entity and the decoder reads through it.</p>
+     *
+     * @return the response interceptor
+     */
+    public HttpResponseInterceptor responseInterceptor() {
+        return (response, context) -> {
+            Timing timing = current.get();
+            if (timing == null) {
+                return;
+            }
+            if (timing.firstByte == 0) {
+                timing.firstByte = System.nanoTime();
+            }
+            HttpEntity entity = response.getEntity();
+            if (entity != null) {
+                response.setEntity(new WireCountingEntity(entity, timing));
+            }
+        };
+    }
+
+    /**
+     * Records the size of the request body in flight on this thread before it was content coded.
+     *
+     * @param bytes the body size before compression
+     */
+    void requestBody(long bytes) {
+        Timing timing = current.get();
+        if (timing != null) {
+            timing.requestBytes = bytes;
+        }
+    }
+
+    /**
+     * Records that the request in flight on this thread had to open a new connection.
+     *
+     * @param nanos the time spent connecting
+     */
+    void connected(long nanos) {
+        Timing timing = current.get();
+        if (timing != null) {
+            timing.connectNanos = nanos;
+        }
+    }
+
+    /**
+     * Returns the statistics per {@code "METHOD /endpoint"}, sorted by key.
+     *
+     * @return a snapshot of the endpoint map
+     */
+    public Map<String, EndpointStats> getEndpoints() {
+        return new TreeMap<>(endpoints);
+    }
+
+    /** Drops all recorded values. */
+    public void reset() {
+        endpoints.clear();
+    }
+
+    /**
+     * Formats a table with request counts, status classes, bytes and ttfb/total percentiles per endpoint.
+     *
+     * @return the summary
+     */
+    public String summary() {
+        StringBuilder out = new StringBuilder(String.format(Locale.ROOT, "%-28s %7s %-28s %10s %10s %10s %10s %9s %9s %9s %9s %9s%n",
+                "endpoint", "count", "status", "req bytes", "req wire", "resp bytes", "resp wire", "conn",
+                "ttfb p50", "ttfb p99", "p50 ms", "p99 ms"));
+        getEndpoints().forEach((key, stats) -> out.append(String.format(Locale.ROOT,
+                "%-28s %7d %-28s %10d %10d %10d %10d %9d %9.2f %9.2f %9.2f %9.2f%n",
+                key, stats.total.getTotalCount(), stats.getStatusClasses(), stats.getRequestBytes(),
+                stats.getRequestWireBytes(), stats.getResponseBytes(), stats.getResponseWireBytes(),
+                stats.connect.getTotalCount(),
+                millis(stats.ttfb, 50), millis(stats.ttfb, 99), millis(stats.total, 50), millis(stats.total, 99))));
+        return out.toString();
+    }
+
+    /**
+     * Exports the statistics as a JSON document with one entry per endpoint; times are in milliseconds.
+     *
+     * @return the JSON document
+     */
+    public String toJson() {
+        ObjectNode root = MAPPER.createObjectNode();
+        ArrayNode list = root.putArray("endpoints");
+        getEndpoints().values().forEach(stats -> {
+            ObjectNode node = list.addObject();
+            node.put("method", stats.method);
+            node.put("endpoint", stats.endpoint);
+            node.put("count", stats.total.getTotalCount());
+            ObjectNode statuses = node.putObject("status");
+            stats.getStatusClasses().forEach(statuses::put);
+            node.put("requestBytes", stats.getRequestBytes());
+            node.put("requestWireBytes", stats.getRequestWireBytes());
+            node.put("responseBytes", stats.getResponseBytes());
+            node.put("responseWireBytes", stats.getResponseWireBytes());
+            node.put("connectionsOpened", stats.connect.getTotalCount());
+            node.set("connectMs", timings(stats.connect));
+            node.set("ttfbMs", timings(stats.ttfb));
+            node.set("totalMs", timings(stats.total));
+        });
+        try {
+            return MAPPER.writerWithDefaultPrettyPrinter().writeValueAsString(root);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize request metrics", e);
+        }
+    }
+
+    /**
+     * Exports the statistics in the Prometheus text exposition format; times are in seconds.
+     *
+     * @return the exposition text
+     */
+    public String toPrometheus() {
+        Map<String, EndpointStats> snapshot = getEndpoints();
+        StringBuilder out = new StringBuilder();
+
+        out.append("# HELP api_client_requests_total Requests sent, by status class.\n");
+        out.append("# TYPE api_client_requests_total counter\n");
+        snapshot.values().forEach(stats -> stats.getStatusClasses().forEach((statusClass, count) ->
+                out.append("api_client_requests_total{").append(labels(stats))
+                        .append(",status=\"").append(statusClass).append("\"} ").append(count).append('\n')));
+
+        counter(out, snapshot, "api_client_request_bytes_total", "Request body bytes before content coding.",
+                EndpointStats::getRequestBytes);
+        counter(out, snapshot, "api_client_request_wire_bytes_total", "Request body bytes sent, after content coding.",
+                EndpointStats::getRequestWireBytes);
+        counter(out, snapshot, "api_client_response_bytes_total", "Response body bytes after decoding.",
+                EndpointStats::getResponseBytes);
+        counter(out, snapshot, "api_client_response_wire_bytes_total", "Response body bytes received, before decoding.",
+                EndpointStats::getResponseWireBytes);
+        counter(out, snapshot, "api_client_connections_opened_total", "New connections opened.",
+                stats -> stats.connect.getTotalCount());
+
+        summary(out, snapshot, "api_client_connect_seconds", "Time to open a new connection.", stats -> stats.connect);
+        summary(out, snapshot, "api_client_ttfb_seconds", "Time from sending the request to the response headers.",
+                stats -> stats.ttfb);
+        summary(out, snapshot, "api_client_request_seconds", "Time from the start of the request to the read body.",
+                stats -> stats.total);
+        return out.toString();
+    }
+
+    private void record(String key, String method, Timing timing, String statusClass, long responseBytes) {
+        long end = System.nanoTime();
+        EndpointStats stats = endpoints.computeIfAbsent(key, k -> new EndpointStats(method, k.substring(method.length() + 1)));
+        if (timing.connectNanos >= 0) {
+            stats.connect.record(timing.connectNanos / 1_000);
+        }
+        if (timing.sent > 0 && timing.firstByte > 0) {
+            stats.ttfb.record((timing.firstByte - timing.sent) / 1_000);
+        }
+        stats.total.record((end - timing.start) / 1_000);
+        stats.requestBytes.add(timing.requestBytes < 0 ? timing.requestWireBytes : timing.requestBytes);
+        stats.requestWireBytes.add(timing.requestWireBytes);
+        stats.responseBytes.add(responseBytes);
+        stats.responseWireBytes.add(timing.responseWireBytes);
+        stats.statusClasses.computeIfAbsent(statusClass, k -> new LongAdder()).increment();
+    }
+
+    /**
+     * Folds numeric path segments into {@code {id}}, e.g. {@code /api/users/2} into {@code /api/users/{id}}.
+     *
+     * @param path the request path, without query
+     * @return the endpoint template
+     */
+    public static String normalize(String path) {
+        return NUMERIC_SEGMENT.matcher(path).replaceAll("/{id}");
+    }
+
+    private static String statusClass(int status) {
+        return (status / 100) + "xx";
+    }
+
+    private static double millis(LatencyHistogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    private static ObjectNode timings(LatencyHistogram histogram) {
+        ObjectNode node = MAPPER.createObjectNode();
+        node.put("count", histogram.getTotalCount());
+        node.put("mean", histogram.getMean() / 1000.0);
+        node.put("p50", millis(histogram, 50));
+        node.put("p90", millis(histogram, 90));
+        node.put("p99", millis(histogram, 99));
+        node.put("max", histogram.getMax() / 1000.0);
+        return node;
+    }
+
+    private static String labels(EndpointStats stats) {
+        return "method=\"" + stats.method + "\",endpoint=\"" + stats.endpoint + "\"";
+    }
+
+    private static void counter(StringBuilder out, Map<String, EndpointStats> snapshot, String name, String help,
+                                ToLongFunction<EndpointStats> value) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(" counter\n");
+        snapshot.values().forEach(stats -> out.append(name).append('{').append(labels(stats)).append("} ")
+                .append(value.applyAsLong(stats)).append('\n'));
+    }
+
+    private static void summary(StringBuilder out, Map<String, EndpointStats> snapshot, String name, String help,
+                                Function<EndpointStats, LatencyHistogram> histogram) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(" summary\n");
+        snapshot.values().forEach(stats -> {
+            LatencyHistogram values = histogram.apply(stats);
+            for (double quantile : new double[]{0.5, 0.9, 0.99}) {
+                out.append(name).append('{').append(labels(stats)).append(",quantile=\"").append(quantile).append("\"} ")
+                        .append(String.format(Locale.ROOT, "%.6f", values.getValueAtPercentile(quantile * 100) / 1e6))
+                        .append('\n');
+            }
+            out.append(name).append("_sum{").append(labels(stats)).append("} ")
+                    .append(String.format(Locale.ROOT, "%.6f", values.getMean() * values.getTotalCount() / 1e6)).append('\n');
+            out.append(name).append("_count{").append(labels(stats)).append("} ").append(values.getTotalCount()).append('\n');
+        });
+    }
+
+    // Counts the raw body bytes as the decoder (or REST-assured) reads them off the connection
+    private static final class WireCountingEntity extends HttpEntityWrapper {
+
+        private final Timing timing;
+
+        WireCountingEntity(HttpEntity entity, Timing timing) {
+            super(entity);
+            this.timing = timing;
+        }
+
+        @Override
+        public InputStream getContent() throws IOException {
+            return new FilterInputStream(super.getContent()) {
+                @Override
+                public int read() throws IOException {
+                    int b = super.read();
+                    if (b >= 0) {
+                        timing.responseWireBytes++;
+                    }
+                    return b;
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) throws IOException {
+                    int n = super.read(buffer, offset, length);
+                    if (n > 0) {
+                        timing.responseWireBytes += n;
+                    }
+                    return n;
+                }
+
+                @Override
+                public long skip(long n) throws IOException {
+                    long skipped = super.skip(n);
+                    timing.responseWireBytes += skipped;
+                    return skipped;
+                }
+            };
+        }
+    }
+}
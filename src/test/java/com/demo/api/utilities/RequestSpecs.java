@@ -0,0 +1,301 @@
+package com.demo.api.utilities;
+
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.config.DecoderConfig;
+import io.restassured.config.HttpClientConfig;
+import io.restassured.config.RestAssuredConfig;
+import io.restassured.specification.RequestSpecification;
+
+import org.apache.http.client.params.ClientPNames;
+import org.apache.http.conn.ConnectTimeoutException;
+import org.apache.http.conn.scheme.Scheme;
+import org.apache.http.conn.scheme.SchemeLayeredSocketFactory;
+import org.apache.http.conn.scheme.SchemeRegistry;
+import org.apache.http.conn.scheme.SchemeSocketFactory;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.http.impl.conn.SchemeRegistryFactory;
+import org.apache.http.params.HttpConnectionParams;
+import org.apache.http.params.HttpParams;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JVM-wide request specifications backed by one pooled, keep-alive HTTP connection manager.
+ *
+ * <p>The specifications are built once from {@link Config} on first use and shared by every test and
+ * thread. Each request only copies them via {@code given().spec(...)}, so callers must never modify
+ * them directly.</p>
+ *
+ * <p>All requests go through a single Apache {@link DefaultHttpClient} whose connections are pooled and
+ * kept alive between requests, so the TCP and TLS handshakes are paid once per connection instead of once
+ * per request. The pool is tuned with the following {@code config.properties} keys:</p>
+ * <ul>
+ *     <li>{@code http.pool.max.total} – maximum number of pooled connections.</li>
+ *     <li>{@code http.pool.max.per.route} – maximum number of connections to one host.</li>
+ *     <li>{@code http.keepalive.ms} – keep-alive used when the server does not send one.</li>
+ *     <li>{@code http.pool.idle.evict.ms} – idle time after which pooled connections are closed.</li>
+ *     <li>{@code http.connect.timeout.ms} / {@code http.socket.timeout.ms} – connect and read timeouts.</li>
+ *     <li>{@code http.pool.request.timeout.ms} – how long a request waits for a free pooled connection before
+ *     it fails.</li>
+ * </ul>
+ *
+ * <p>A pooled connection is only returned to the pool once the response body has been read. The
+ * specifications do not buffer bodies themselves: the {@link UserApiHelper} methods read every body before
+ * returning, and direct REST-assured callers that only look at the status code drain the body with
+ * {@link UserApiHelper#discardBody}. A response left unread keeps its connection leased; once the pool is
+ * exhausted, requests fail after {@code http.pool.request.timeout.ms} instead of hanging.</p>
+ *
+ * <p>With {@code metrics.enabled=true}, every request is also timed and counted by {@link RequestMetrics};
+ * {@link #forBaseUri(String, String, boolean)} turns the metrics on for a single specification.
+ * With {@code schema.validation=warn} or {@code fail}, responses are checked against their {@link ResponseSchemas} contract.
+ * With {@code cassette.mode=record} or {@code replay}, responses are recorded to or served from a {@link Cassette}.</p>
+ *
+ * <p>{@code http.accept.encoding} lists the content codings offered in {@code Accept-Encoding} (default
+ * {@code gzip,deflate}; {@code identity} offers none). Compressed responses are decoded as a stream while the
+ * body is read, never inflated from a second in-memory copy. With {@code http.request.compression=gzip}, large
+ * request bodies are compressed by {@link RequestCompression}.</p>
+ */
+@SuppressWarnings("deprecation") // REST-assured 5 requires an AbstractHttpClient and the matching connection manager
+public final class RequestSpecs {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RequestSpecs.class);
+
+    private RequestSpecs() {
+    }
+
+    /**
+     * Returns the shared specification for endpoints that require authentication via API key.
+     *
+     * @return the shared specification
+     */
+    public static RequestSpecification withApiKey() {
+        return Holder.WITH_API_KEY;
+    }
+
+    /**
+     * Returns the shared specification for endpoints that do not require authentication.
+     *
+     * @return the shared specification
+     */
+    public static RequestSpecification withoutApiKey() {
+        return Holder.WITHOUT_API_KEY;
+    }
+
+    /**
+     * Returns the connection manager behind both specifications, e.g. to inspect pool statistics.
+     *
+     * @return the shared connection manager
+     */
+    public static PoolingClientConnectionManager connectionManager() {
+        return Holder.CONNECTION_MANAGER;
+    }
+
+    /**
+     * Returns the REST-assured configuration using the shared pooled client.
+     *
+     * @return the shared configuration
+     */
+    public static RestAssuredConfig restAssuredConfig() {
+        return Holder.CONFIG;
+    }
+
+    /**
+     * Builds a new specification for another base URI that reuses the shared connection pool.
+     *
+     * @param baseUri the base URI
+     * @param apiKey  the {@code x-api-key} header value, or {@code null} to send none
+     * @return a new specification
+     */
+    public static RequestSpecification forBaseUri(String baseUri, String apiKey) {
+        return forBaseUri(baseUri, apiKey, RequestMetrics.isEnabled());
+    }
+
+    /**
+     * Builds a new specification for another base URI that reuses the shared connection pool, with or
+     * without recording its requests in {@link RequestMetrics#global()}.
+     *
+     * @param baseUri the base URI
+     * @param apiKey  the {@code x-api-key} header value, or {@code null} to send none
+     * @param metrics whether requests are timed and counted, regardless of {@code metrics.enabled}
+     * @return a new specification
+     */
+    public static RequestSpecification forBaseUri(String baseUri, String apiKey, boolean metrics) {
+        RequestSpecBuilder builder = new RequestSpecBuilder()
+                .setBaseUri(baseUri)
+                .setConfig(Holder.CONFIG)
+                .setContentType("application/json");
+        if (metrics) {
+            builder.addFilter(RequestMetrics.global().filter());
+        }
+        if (ResponseSchemas.mode() != ResponseSchemas.Mode.OFF) {
+            builder.addFilter(ResponseSchemas.filter());
+        }
+        if (Cassette.shared().getMode() != Cassette.Mode.OFF) {
+            builder.addFilter(Cassette.shared().filter());
+        }
+        if (RequestCompression.isEnabled()) {
+            builder.addFilter(RequestCompression.filter());
+        }
+        if (apiKey != null) {
+            builder.addHeader("x-api-key", apiKey);
+        }
+        return builder.build();
+    }
+
+    // Lazy holder: built on first access, exactly once, without explicit locking.
+    private static final class Holder {
+
+        static final PoolingClientConnectionManager CONNECTION_MANAGER = createConnectionManager();
+        static final RestAssuredConfig CONFIG = createConfig();
+        static final RequestSpecification WITH_API_KEY;
+        static final RequestSpecification WITHOUT_API_KEY;
+
+        static {
+            String baseUrl = Config.getBaseUri();
+            String apiKey = Config.getApiKey();
+            WITH_API_KEY = forBaseUri(baseUrl, apiKey);
+            WITHOUT_API_KEY = forBaseUri(baseUrl, null);
+            LOGGER.info("Base URI: {}", baseUrl);
+            LOGGER.info("Api Key: {}", apiKey);
+        }
+
+        private static PoolingClientConnectionManager createConnectionManager() {
+            // The timing hooks only record while the metrics filter of a specification times a request
+            SchemeRegistry schemes = SchemeRegistryFactory.createDefault();
+            for (String name : schemes.getSchemeNames()) {
+                Scheme scheme = schemes.getScheme(name);
+                schemes.register(new Scheme(name, scheme.getDefaultPort(), timed(scheme.getSchemeSocketFactory())));
+            }
+            PoolingClientConnectionManager manager = new PoolingClientConnectionManager(schemes);
+            manager.setMaxTotal(Config.getInt("http.pool.max.total", 200));
+            manager.setDefaultMaxPerRoute(Config.getInt("http.pool.max.per.route", 100));
+
+            long idleEvictMillis = Config.getLong("http.pool.idle.evict.ms", 30_000);
+            ScheduledExecutorService evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "http-pool-evictor");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long period = Math.max(1_000, idleEvictMillis / 2);
+            evictor.scheduleAtFixedRate(() -> {
+                manager.closeExpiredConnections();
+                manager.closeIdleConnections(idleEvictMillis, TimeUnit.MILLISECONDS);
+            }, period, period, TimeUnit.MILLISECONDS);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                evictor.shutdownNow();
+                manager.shutdown();
+            }, "http-pool-shutdown"));
+
+            LOGGER.debug("HTTP connection pool: maxTotal={}, maxPerRoute={}, idleEvict={}ms",
+                    manager.getMaxTotal(), manager.getDefaultMaxPerRoute(), idleEvictMillis);
+            return manager;
+        }
+
+        private static RestAssuredConfig createConfig() {
+            long keepAliveMillis = Config.getLong("http.keepalive.ms", 30_000);
+            DefaultHttpClient client = new DefaultHttpClient(CONNECTION_MANAGER);
+            HttpConnectionParams.setConnectionTimeout(client.getParams(), Config.getInt("http.connect.timeout.ms", 5_000));
+            HttpConnectionParams.setSoTimeout(client.getParams(), Config.getInt("http.socket.timeout.ms", 30_000));
+            HttpConnectionParams.setTcpNoDelay(client.getParams(), true);
+            client.getParams().setLongParameter(ClientPNames.CONN_MANAGER_TIMEOUT,
+                    Config.getLong("http.pool.request.timeout.ms", 10_000));
+            client.addRequestInterceptor(RequestMetrics.global().requestInterceptor());
+            client.addResponseInterceptor(RequestMetrics.global().responseInterceptor());
+            client.setKeepAliveStrategy((response, context) -> {
+                long serverKeepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+                return serverKeepAlive > 0 ? serverKeepAlive : keepAliveMillis;
+            });
+
+            return RestAssuredConfig.config()
+                    .httpClient(HttpClientConfig.httpClientConfig()
+                            .httpClientFactory(() -> client)
+                            .reuseHttpClientInstance())
+                    .decoderConfig(acceptEncoding(Config.get("http.accept.encoding", "gzip,deflate")));
+        }
+
+        // The codings REST-assured offers in Accept-Encoding and decodes; it has no decoder for anything else
+        private static DecoderConfig acceptEncoding(String codings) {
+            List<DecoderConfig.ContentDecoder> decoders = new ArrayList<>();
+            for (String coding : codings.split(",")) {
+                String name = coding.trim().toUpperCase(Locale.ROOT);
+                if (name.isEmpty() || name.equals("IDENTITY")) {
+                    continue;
+                }
+                try {
+                    decoders.add(DecoderConfig.ContentDecoder.valueOf(name));
+                } catch (IllegalArgumentException e) {
+                    LOGGER.warn("Unsupported content coding '{}' in http.accept.encoding, not offered", coding.trim());
+                }
+            }
+            if (decoders.isEmpty()) {
+                return DecoderConfig.decoderConfig().noContentDecoders();
+            }
+            return DecoderConfig.decoderConfig().contentDecoders(decoders.get(0),
+                    decoders.subList(1, decoders.size()).toArray(new DecoderConfig.ContentDecoder[0]));
+        }
+    }
+
+    private static SchemeSocketFactory timed(SchemeSocketFactory delegate) {
+        return delegate instanceof SchemeLayeredSocketFactory
+                ? new TimedLayeredSocketFactory((SchemeLayeredSocketFactory) delegate)
+                : new TimedSocketFactory(delegate);
+    }
+
+    // Reports the time spent opening each new connection to RequestMetrics
+    private static class TimedSocketFactory implements SchemeSocketFactory {
+
+        private final SchemeSocketFactory delegate;
+
+        TimedSocketFactory(SchemeSocketFactory delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Socket createSocket(HttpParams params) throws IOException {
+            return delegate.createSocket(params);
+        }
+
+        @Override
+        public Socket connectSocket(Socket socket, InetSocketAddress remoteAddress, InetSocketAddress localAddress,
+                                    HttpParams params) throws IOException, ConnectTimeoutException {
+            long start = System.nanoTime();
+            Socket connected = delegate.connectSocket(socket, remoteAddress, localAddress, params);
+            RequestMetrics.global().connected(System.nanoTime() - start);
+            return connected;
+        }
+
+        @Override
+        public boolean isSecure(Socket socket) {
+            return delegate.isSecure(socket);
+        }
+    }
+
+    // Layered (TLS) variant; the scheme's route planning depends on the factory being layered
+    private static final class TimedLayeredSocketFactory extends TimedSocketFactory implements SchemeLayeredSocketFactory {
+
+        private final SchemeLayeredSocketFactory delegate;
+
+        TimedLayeredSocketFactory(SchemeLayeredSocketFactory delegate) {
+            super(delegate);
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Socket createLayeredSocket(Socket socket, String target, int port, HttpParams params) throws IOException {
+            return delegate.createLayeredSocket(socket, target, port, params);
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package com.demo.api.utilities;
+
+import io.restassured.response.Response;
+import io.restassured.specification.QueryableRequestSpecification;
+import io.restassured.specification.RequestSpecification;
+import io.restassured.specification.SpecificationQuerier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Bounded LRU/TTL cache for idempotent GET responses of {@link UserApiHelper}.
+ *
+ * <p>Only {@code 200 OK} responses are stored. A lookup behaves as follows:</p>
+ * <ul>
+ *     <li>entry younger than the TTL – returned without a request (hit);</li>
+ *     <li>older entry with an {@code ETag} or {@code Last-Modified} validator – revalidated with
+ *     {@code If-None-Match}/{@code If-Modified-Since}; a {@code 304 Not Modified} refreshes the entry
+ *     and counts as a hit, any other status replaces it and counts as a miss;</li>
+ *     <li>no entry, or an expired entry without validators – fetched normally (miss).</li>
+ * </ul>
+ *
+ * <p>Entries are keyed by base URI, path with query and API key, so specifications with and without
+ * an API key never share entries. Writes invalidate the affected entries through
+ * {@link #invalidate(RequestSpecification, String)}.</p>
+ *
+ * <p>Enabled with {@code cache.enabled=true}; sized with {@code cache.max.entries} and {@code cache.ttl.ms}.</p>
+ */
+public class ResponseCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ResponseCache.class);
+
+    private static final class CachedResponse {
+        final Response response;
+        final String etag;
+        final String lastModified;
+        volatile long storedAt;
+
+        CachedResponse(Response response, long storedAt) {
+            this.response = response;
+            this.etag = response.getHeader("ETag");
+            this.lastModified = response.getHeader("Last-Modified");
+            this.storedAt = storedAt;
+        }
+
+        boolean hasValidator() {
+            return etag != null || lastModified != null;
+        }
+    }
+
+    private final boolean enabled;
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final Map<String, CachedResponse> entries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder revalidations = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Creates a cache.
+     *
+     * @param enabled    whether lookups are cached at all
+     * @param maxEntries maximum number of responses kept; the least recently used is evicted beyond that
+     * @param ttlMillis  how long an entry is served without revalidation
+     */
+    public ResponseCache(boolean enabled, int maxEntries, long ttlMillis) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive, got " + maxEntries);
+        }
+        this.enabled = enabled;
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttlMillis * 1_000_000L;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+                if (size() > ResponseCache.this.maxEntries) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Creates the cache configured by the {@code cache.*} keys of {@code config.properties}.
+     *
+     * @return the configured cache
+     */
+    public static ResponseCache fromConfig() {
+        return new ResponseCache(
+                Config.getBoolean("cache.enabled", false),
+                Config.getInt("cache.max.entries", 256),
+                Config.getLong("cache.ttl.ms", 5_000));
+    }
+
+    /**
+     * Returns the cached response for a GET or fetches it.
+     *
+     * @param spec          the request specification the request is sent with
+     * @param pathAndQuery  path including the query string, e.g. {@code /api/users?page=2}
+     * @param fetcher       sends the request with the given extra (conditional) headers
+     * @return the cached or freshly received response
+     */
+    public Response get(RequestSpecification spec, String pathAndQuery, Function<Map<String, String>, Response> fetcher) {
+        if (!enabled) {
+            return fetcher.apply(Collections.emptyMap());
+        }
+        String key = keyOf(spec, pathAndQuery);
+        CachedResponse entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+        }
+        long now = System.nanoTime();
+
+        if (entry != null && now - entry.storedAt < ttlNanos) {
+            hits.increment();
+            LOGGER.debug("Cache hit for {}", pathAndQuery);
+            return entry.response;
+        }
+
+        if (entry != null && entry.hasValidator()) {
+            Map<String, String> conditional = new HashMap<>();
+            if (entry.etag != null) {
+                conditional.put("If-None-Match", entry.etag);
+            }
+            if (entry.lastModified != null) {
+                conditional.put("If-Modified-Since", entry.lastModified);
+            }
+            revalidations.increment();
+            Response response = fetcher.apply(conditional);
+            if (response.getStatusCode() == 304) {
+                hits.increment();
+                entry.storedAt = System.nanoTime();
+                LOGGER.debug("Cache revalidated {} (304 Not Modified)", pathAndQuery);
+                return entry.response;
+            }
+            misses.increment();
+            store(key, response);
+            return response;
+        }
+
+        misses.increment();
+        Response response = fetcher.apply(Collections.emptyMap());
+        store(key, response);
+        return response;
+    }
+
+    /**
+     * Drops every entry of the given specification whose path starts with {@code pathPrefix}.
+     *
+     * @param spec       the specification the write was sent with (its base URI scopes the invalidation)
+     * @param pathPrefix path prefix, e.g. {@code /api/users?} for all list pages
+     */
+    public void invalidate(RequestSpecification spec, String pathPrefix) {
+        if (!enabled) {
+            return;
+        }
+        String baseUri = SpecificationQuerier.query(spec).getBaseUri();
+        synchronized (entries) {
+            Iterator<String> keys = entries.keySet().iterator();
+            while (keys.hasNext()) {
+                String key = keys.next();
+                if (key.startsWith(baseUri + pathPrefix)) {
+                    keys.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes all entries. Counters are kept.
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getRevalidations() {
+        return revalidations.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "ResponseCache{hits=" + getHits() + ", misses=" + getMisses() + ", revalidations=" + getRevalidations()
+                + ", evictions=" + getEvictions() + ", size=" + size() + "}";
+    }
+
+    private void store(String key, Response response) {
+        if (response.getStatusCode() != 200) {
+            return;
+        }
+        // Buffer the body now so the shared response can be read any number of times, from any thread
+        response.asByteArray();
+        synchronized (entries) {
+            entries.put(key, new CachedResponse(response, System.nanoTime()));
+        }
+    }
+
+    private static String keyOf(RequestSpecification spec, String pathAndQuery) {
+        QueryableRequestSpecification query = SpecificationQuerier.query(spec);
+        String apiKey = query.getHeaders().getValue("x-api-key");
+        return query.getBaseUri() + pathAndQuery + "|" + (apiKey == null ? "" : apiKey);
+    }
+}
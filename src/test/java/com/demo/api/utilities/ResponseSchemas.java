@@ -0,0 +1,152 @@
+package com.demo.api.utilities;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.restassured.filter.Filter;
+import io.restassured.response.Response;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * JSON Schema contracts of the /api/users responses and a filter that checks every response against them.
+ *
+ * <p>Responses are matched by method, normalized path and status:</p>
+ * <ul>
+ *     <li>{@code GET /api/users} 200 – {@code schemas/user-page.json}</li>
+ *     <li>{@code GET /api/users/{id}} 200 – {@code schemas/user.json}</li>
+ *     <li>{@code GET /api/users/{id}} 404 – {@code schemas/not-found.json}</li>
+ *     <li>{@code POST /api/users} 201 – {@code schemas/created-user.json}</li>
+ * </ul>
+ * <p>Other responses are not checked. Schemas are compiled once per JVM by {@link JsonSchema#forName}; each
+ * checked body is parsed once into a tree straight from its buffered bytes.</p>
+ *
+ * <p>{@code schema.validation} in {@code config.properties} selects what the shared specifications in
+ * {@link RequestSpecs} do: {@code off}, {@code warn} (log and count violations) or {@code fail} (also throw an
+ * {@link IllegalStateException}, which the load and soak drivers count as a failed request).</p>
+ */
+public final class ResponseSchemas {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ResponseSchemas.class);
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final Map<String, String> ROUTES = Map.of(
+            "GET /api/users 200", "user-page",
+            "GET /api/users/{id} 200", "user",
+            "GET /api/users/{id} 404", "not-found",
+            "POST /api/users 201", "created-user");
+
+    private static final LongAdder VALIDATED = new LongAdder();
+    private static final LongAdder VIOLATIONS = new LongAdder();
+
+    /** What the filter does with the responses it checks. */
+    public enum Mode {
+        OFF, WARN, FAIL;
+
+        static Mode parse(String value) {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    private ResponseSchemas() {
+    }
+
+    /**
+     * Returns the configured validation mode.
+     *
+     * @return the value of {@code schema.validation} (default {@code off})
+     */
+    public static Mode mode() {
+        return Holder.MODE;
+    }
+
+    /**
+     * Returns a REST-assured filter that checks each matching response against its schema.
+     *
+     * @return the filter
+     */
+    public static Filter filter() {
+        return (request, response, context) -> {
+            Response received = context.next(request, response);
+            String key = request.getMethod() + " " + RequestMetrics.normalize(request.getDerivedPath());
+            String schema = ROUTES.get(key + " " + received.getStatusCode());
+            if (schema != null) {
+                check(key, schema, received);
+            }
+            return received;
+        };
+    }
+
+    /**
+     * Checks a response body against a schema.
+     *
+     * @param response the response
+     * @param schema   the schema name, e.g. "user"
+     * @return the violations; empty if the body matches
+     */
+    public static List<String> validate(Response response, String schema) {
+        JsonNode tree;
+        try {
+            tree = MAPPER.readTree(response.asByteArray());
+        } catch (IOException e) {
+            return Collections.singletonList("/: not valid JSON (" + e.getMessage() + ")");
+        }
+        return JsonSchema.forName(schema).validate(tree);
+    }
+
+    /**
+     * Returns the number of responses checked by the filter since the JVM started.
+     *
+     * @return the number of checked responses
+     */
+    public static long getValidatedCount() {
+        return VALIDATED.sum();
+    }
+
+    /**
+     * Returns the number of checked responses that violated their schema.
+     *
+     * @return the number of violating responses
+     */
+    public static long getViolationCount() {
+        return VIOLATIONS.sum();
+    }
+
+    private static void check(String key, String schema, Response response) {
+        VALIDATED.increment();
+        boolean valid;
+        try {
+            valid = JsonSchema.forName(schema).isValid(MAPPER.readTree(response.asByteArray()));
+        } catch (JsonProcessingException e) {
+            valid = false;
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to read the body of " + key, e);
+        }
+        if (valid) {
+            return;
+        }
+        VIOLATIONS.increment();
+        List<String> violations = validate(response, schema);
+        String message = "Response " + response.getStatusCode() + " of " + key + " violates schema " + schema
+                + ": " + violations;
+        if (Holder.MODE == Mode.FAIL) {
+            throw new IllegalStateException(message);
+        }
+        LOGGER.warn(message);
+    }
+
+    // Lazy holder: read once, on first use
+    private static final class Holder {
+
+        static final Mode MODE = Mode.parse(Config.get("schema.validation", "off"));
+    }
+}
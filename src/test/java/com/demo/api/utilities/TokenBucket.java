@@ -0,0 +1,99 @@
+package com.demo.api.utilities;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Lock-free token bucket: a sustained rate of permits per second with bursts of up to {@code burst} permits.
+ *
+ * <p>Implemented as a generic cell rate algorithm: a single {@link AtomicLong} holds the theoretical
+ * arrival time of the next permit, and each permit moves it forward by one interval with a CAS. A caller
+ * waits for however far that time runs ahead of the clock beyond the burst allowance. No thread ever
+ * refills the bucket, and callers never contend on a lock.</p>
+ *
+ * <p>Used by {@link AdaptiveThrottle} on the client and by the local stand-in to emulate a rate-limited API.</p>
+ */
+public final class TokenBucket {
+
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final AtomicLong theoreticalArrival = new AtomicLong(System.nanoTime());
+
+    /**
+     * Creates a bucket.
+     *
+     * @param permitsPerSecond the sustained rate
+     * @param burst            the number of permits that may be taken at once after an idle period
+     */
+    public TokenBucket(double permitsPerSecond, int burst) {
+        if (permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("Rate must be positive, got " + permitsPerSecond);
+        }
+        if (burst < 1) {
+            throw new IllegalArgumentException("Burst must be at least 1, got " + burst);
+        }
+        this.intervalNanos = (long) (1e9 / permitsPerSecond);
+        this.toleranceNanos = intervalNanos * (burst - 1);
+    }
+
+    /**
+     * Takes a permit, waiting until it is available.
+     *
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    public void acquire() throws InterruptedException {
+        long deadline = System.nanoTime() + reserve();
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+    }
+
+    /**
+     * Takes a permit only if it is available now.
+     *
+     * @return whether a permit was taken
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            long now = System.nanoTime();
+            long tat = theoreticalArrival.get();
+            long start = Math.max(tat, now);
+            if (start - now > toleranceNanos) {
+                return false;
+            }
+            if (theoreticalArrival.compareAndSet(tat, start + intervalNanos)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Returns how long a caller would have to wait for the next permit.
+     *
+     * @return the wait in nanoseconds, 0 if a permit is available now
+     */
+    public long nanosUntilNextPermit() {
+        long now = System.nanoTime();
+        return Math.max(0, Math.max(theoreticalArrival.get(), now) - toleranceNanos - now);
+    }
+
+    /**
+     * Claims the next permit without waiting, for callers that schedule their own wait.
+     *
+     * @return the nanoseconds until the permit may be used, 0 if it may be used now
+     */
+    public long reserve() {
+        while (true) {
+            long now = System.nanoTime();
+            long tat = theoreticalArrival.get();
+            long start = Math.max(tat, now);
+            if (theoreticalArrival.compareAndSet(tat, start + intervalNanos)) {
+                return Math.max(0, start - toleranceNanos - now);
+            }
+        }
+    }
+}
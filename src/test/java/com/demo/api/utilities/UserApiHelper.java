@@ -1,13 +1,34 @@
 package com.demo.api.utilities;
 
+import com.demo.api.models.CreatedUser;
+import com.demo.api.models.User;
+import com.demo.api.models.UserPage;
+import com.demo.api.models.UserPayload;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import io.restassured.RestAssured;
 import io.restassured.response.Response;
 import io.restassured.specification.RequestSpecification;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
 
 import static io.restassured.RestAssured.given;
 
@@ -17,11 +38,52 @@ import static io.restassured.RestAssured.given;
  *
  * <p> The appropriate {@link RequestSpecification} (e.g., withApiKey, withoutApiKey)
  * must be provided as a parameter to each method.</p>
+ *
+ * <p>{@link #listUsers} and {@link #getUserById} go through an opt-in {@link ResponseCache}
+ * ({@code cache.enabled=true}); {@link #createUser} and {@link #deleteUserById} invalidate the entries they affect.</p>
+ *
+ * <p>Response bodies can be decoded into typed models with {@link #asUserPage}, {@link #asUser} and
+ * {@link #asCreatedUser}. They use pre-built Jackson {@link ObjectReader}s that stream over the raw body
+ * bytes, avoiding both an intermediate String and the Groovy-based JsonPath.</p>
+ *
+ * <p>Every method reads the response body into memory before returning, which returns the pooled connection
+ * even when the caller only looks at the status code. Calls made without the helper, directly through
+ * REST-assured, pass responses whose body they do not read through {@link #discardBody}.</p>
+ *
+ * <p>{@link #createUsers} and {@link #deleteUsers} send many requests with a bounded number in flight and
+ * report a {@link BatchResult} per item. Every successfully created user is recorded in the
+ * {@link CreatedUserRegistry} until it is deleted, so leftovers can be removed at the end of the run.</p>
+ *
+ * <p>Unique, pre-serialized create payloads come from {@link UserDataFactory}. With
+ * {@code http.request.compression=gzip}, large create payloads are sent gzip-compressed by
+ * {@link RequestCompression}.</p>
+ *
+ * <p>Every request passes through the shared {@link AdaptiveThrottle}: a client-side rate limit, an adaptive
+ * concurrency limit that backs off on 429/503 and honors {@code Retry-After}, and jittered retries of the
+ * idempotent GET and DELETE calls.</p>
  */
 public class UserApiHelper {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(UserApiHelper.class);
 
+    private static final ResponseCache CACHE = ResponseCache.fromConfig();
+
+    private static final AdaptiveThrottle THROTTLE = AdaptiveThrottle.shared();
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final ObjectReader USER_PAGE_READER = MAPPER.readerFor(UserPage.class);
+    private static final ObjectReader USER_READER = MAPPER.readerFor(User.class).at("/data");
+    private static final ObjectReader CREATED_USER_READER = MAPPER.readerFor(CreatedUser.class);
+
+    /**
+     * Returns the response cache used by the GET methods, e.g. to read its hit and miss counters.
+     *
+     * @return the shared response cache
+     */
+    public static ResponseCache responseCache() {
+        return CACHE;
+    }
+
     /**
      * Sends a POST request to create a new user.
      *
@@ -33,16 +95,43 @@ public class UserApiHelper {
 
         LOGGER.info("Creating user with payload: {}", payload);
 
-        Response response = RestAssured
+        return created(spec, THROTTLE.execute("POST", () -> RestAssured
                 .given()
                 .spec(spec)
                 .body(payload)
-                .post("/api/users");
+                .post("/api/users")));
+    }
 
+    /**
+     * Sends a POST request to create a new user from a pre-serialized body.
+     *
+     * <p>The bytes of {@link UserPayload#getJson()} are sent as they are, skipping the object mapper.</p>
+     *
+     * @param spec    the request specification (e.g., withApiKey)
+     * @param payload a payload from {@link UserDataFactory}
+     * @return the API response
+     */
+    public static Response createUser(RequestSpecification spec, UserPayload payload) {
+
+        LOGGER.info("Creating user with payload: {}", payload);
+
+        return created(spec, THROTTLE.execute("POST", () -> RestAssured
+                .given()
+                .spec(spec)
+                .body(payload.getJson())
+                .post("/api/users")));
+    }
+
+    private static Response created(RequestSpecification spec, Response response) {
+        buffered(response);
         if (response.getStatusCode() >= 400) {
-            LOGGER.warn("Create user failed. Status: {}, Body: {}", response.getStatusCode(), response.asString());
+            LOGGER.warn("Create user failed. Status: {}, Body: {}", response.getStatusCode(), BodyLogger.truncated(response));
         } else {
-            LOGGER.debug("Response received: {}", response.asString());
+            BodyLogger.debug(LOGGER, response);
+            CACHE.invalidate(spec, "/api/users?");
+            if (response.getStatusCode() == 201 && CreatedUserRegistry.isEnabled()) {
+                CreatedUserRegistry.register(spec, asCreatedUser(response).getId());
+            }
         }
 
         return response;
@@ -59,16 +148,54 @@ public class UserApiHelper {
 
         LOGGER.info("Deleting user with id: {}", userId);
 
-        Response response = RestAssured
+        Response response = THROTTLE.execute("DELETE", () -> RestAssured
                 .given()
                 .spec(spec)
-                .delete("/api/users/" + userId);
+                .delete("/api/users/" + userId));
+
+        buffered(response);
+        BodyLogger.debug(LOGGER, response);
 
-        LOGGER.debug("Response received: {}", response.asString());
+        CACHE.invalidate(spec, "/api/users/" + userId + "|");
+        CACHE.invalidate(spec, "/api/users?");
+
+        if (response.getStatusCode() < 400) {
+            CreatedUserRegistry.unregister(spec, userId);
+        }
 
         return response;
     }
 
+    /**
+     * Creates several users, sending at most {@code concurrency} requests at a time.
+     *
+     * @param spec        the request specification (e.g., withApiKey)
+     * @param payloads    one map containing "name" and "job" per user
+     * @param concurrency the maximum number of requests in flight
+     * @return the outcome per payload, in input order; an item succeeds on 201 Created
+     */
+    public static BatchResult<Map<String, String>> createUsers(RequestSpecification spec,
+                                                               List<Map<String, String>> payloads, int concurrency) {
+        LOGGER.info("Creating {} users (concurrency {})", payloads.size(), concurrency);
+
+        return runBatch(payloads, concurrency, status -> status == 201, payload -> createUser(spec, payload));
+    }
+
+    /**
+     * Deletes several users by ID, sending at most {@code concurrency} requests at a time.
+     *
+     * @param spec        the request specification
+     * @param userIds     the user IDs to delete
+     * @param concurrency the maximum number of requests in flight
+     * @return the outcome per ID, in input order; an item succeeds on any 2xx status
+     */
+    public static BatchResult<String> deleteUsers(RequestSpecification spec, Collection<String> userIds, int concurrency) {
+        LOGGER.info("Deleting {} users (concurrency {})", userIds.size(), concurrency);
+
+        return runBatch(new ArrayList<>(userIds), concurrency, status -> status >= 200 && status < 300,
+                userId -> deleteUserById(spec, userId));
+    }
+
     /**
      * Sends a GET request to retrieve a user by ID.
      *
@@ -79,12 +206,15 @@ public class UserApiHelper {
     public static Response getUserById(RequestSpecification spec, int id) {
         LOGGER.info("Getting user with id: {}", id);
 
-        Response response = RestAssured
-                .given()
-                .spec(spec)
-                .get("/api/users/" + id);
+        Response response = CACHE.get(spec, "/api/users/" + id, conditionalHeaders ->
+                THROTTLE.execute("GET", () -> RestAssured
+                        .given()
+                        .spec(spec)
+                        .headers(conditionalHeaders)
+                        .get("/api/users/" + id)));
 
-        LOGGER.debug("Response received: {}", response.asString());
+        buffered(response);
+        BodyLogger.debug(LOGGER, response);
 
         return response;
     }
@@ -100,14 +230,129 @@ public class UserApiHelper {
 
         LOGGER.info("Listing users with page {}", page);
 
-        Response response = RestAssured
-                .given()
-                .spec(spec)
-                .queryParam("page", page)
-                .get("/api/users");
+        Response response = CACHE.get(spec, "/api/users?page=" + page, conditionalHeaders ->
+                THROTTLE.execute("GET", () -> RestAssured
+                        .given()
+                        .spec(spec)
+                        .headers(conditionalHeaders)
+                        .queryParam("page", page)
+                        .get("/api/users")));
+
+        buffered(response);
+        BodyLogger.debug(LOGGER, response);
+
+        return response;
+    }
+
+    /**
+     * Decodes the body of a {@link #listUsers} response.
+     *
+     * @param response a 200 OK list response
+     * @return the typed page
+     */
+    public static UserPage asUserPage(Response response) {
+        return decode(USER_PAGE_READER, response);
+    }
+
+    /**
+     * Decodes the {@code data} field of a {@link #getUserById} response.
+     *
+     * @param response a 200 OK single-user response
+     * @return the typed user
+     */
+    public static User asUser(Response response) {
+        return decode(USER_READER, response);
+    }
 
-        LOGGER.debug("Response received: {}", response.asString());
+    /**
+     * Decodes the body of a {@link #createUser} response.
+     *
+     * @param response a 201 Created response
+     * @return the typed created user
+     */
+    public static CreatedUser asCreatedUser(Response response) {
+        return decode(CREATED_USER_READER, response);
+    }
 
+    /**
+     * Reads the rest of a response body and throws it away, for callers that only need the status code.
+     *
+     * <p>A pooled connection is only returned to the pool once its body has been read to the end. The helper
+     * methods already do so; this is for responses of direct REST-assured calls. The body is streamed into
+     * nothing instead of being kept in memory, so it cannot be read again afterwards.</p>
+     *
+     * @param response a response whose body is no longer needed
+     * @return the same response, e.g. to read its status code
+     */
+    public static Response discardBody(Response response) {
+        try (InputStream body = response.asInputStream()) {
+            body.transferTo(OutputStream.nullOutputStream());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to discard response body (status " + response.getStatusCode() + ")", e);
+        }
         return response;
     }
+
+    private static <T> BatchResult<T> runBatch(List<T> inputs, int concurrency, IntPredicate expectedStatus,
+                                               Function<T, Response> call) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("concurrency must be at least 1, was " + concurrency);
+        }
+        List<BatchResult.Item<T>> items = new ArrayList<>(inputs.size());
+        if (inputs.isEmpty()) {
+            return new BatchResult<>(items);
+        }
+
+        Map<String, String> mdc = MDC.getCopyOfContextMap();
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(concurrency, inputs.size()), runnable -> {
+            Thread thread = new Thread(runnable, "user-batch-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<Response>> futures = new ArrayList<>(inputs.size());
+            for (T input : inputs) {
+                futures.add(executor.submit(() -> {
+                    if (mdc != null) {
+                        MDC.setContextMap(mdc);
+                    }
+                    try {
+                        return call.apply(input);
+                    } finally {
+                        MDC.clear();
+                    }
+                }));
+            }
+            for (int i = 0; i < inputs.size(); i++) {
+                Response response = null;
+                Throwable error = null;
+                try {
+                    response = futures.get(i).get();
+                } catch (ExecutionException e) {
+                    error = e.getCause();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    error = e;
+                }
+                items.add(new BatchResult.Item<>(inputs.get(i), response, error, expectedStatus));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return new BatchResult<>(items);
+    }
+
+    // Reads the body into memory, which releases the connection back to the pool
+    private static void buffered(Response response) {
+        response.asByteArray();
+    }
+
+    private static <T> T decode(ObjectReader reader, Response response) {
+        try {
+            return reader.readValue(response.asByteArray());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to decode response body (status " + response.getStatusCode() + ")", e);
+        }
+    }
 }
@@ -0,0 +1,152 @@
+package com.demo.api.utilities;
+
+import com.demo.api.models.UserPayload;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Lock-free factory of unique user names and pre-serialized {@code POST /api/users} bodies.
+ *
+ * <p>Names have the form {@code <prefix>_<run id>_<sequence>}. The run id is derived from the JVM start
+ * time and process id (or set with {@code data.run.id}), so concurrent runs and forked JVMs do not collide;
+ * the sequence is one {@link AtomicLong} shared by all threads, so parallel tests within a run do not
+ * collide either. Unlike {@code System.currentTimeMillis()}, two calls in the same millisecond still get
+ * distinct names.</p>
+ *
+ * <p>{@link #user} and {@link #users} write the JSON body directly from a per-prefix template: only the
+ * sequence digits differ between payloads, so no map or object mapper is involved. {@link #users} reserves
+ * its whole range of sequence numbers with a single atomic add, and {@link #supplier} hands out payloads
+ * from per-thread batches so load generators touch the shared counter once per batch.</p>
+ *
+ * <p>Usage example:</p>
+ * <pre>
+ *     List&lt;UserPayload&gt; payloads = UserDataFactory.users("Load", "Load Tester", 10_000);
+ *     Response response = UserApiHelper.createUser(withApiKey, payloads.get(0));
+ * </pre>
+ */
+public final class UserDataFactory {
+
+    private static final String RUN_ID = Config.get("data.run.id",
+            Long.toString(System.currentTimeMillis(), 36) + Long.toString(ProcessHandle.current().pid(), 36));
+
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    private UserDataFactory() {
+    }
+
+    /**
+     * Returns the id shared by all names generated in this JVM.
+     *
+     * @return the run id
+     */
+    public static String runId() {
+        return RUN_ID;
+    }
+
+    /**
+     * Returns a name that is unique across threads, JVMs and runs.
+     *
+     * @param prefix e.g. "John"
+     * @return e.g. "John_mf3k2j1a7ps_17"
+     */
+    public static String uniqueName(String prefix) {
+        return prefix + "_" + RUN_ID + "_" + SEQUENCE.getAndIncrement();
+    }
+
+    /**
+     * Creates one payload with a unique name.
+     *
+     * @param prefix the name prefix, e.g. "John"
+     * @param job    the job
+     * @return the pre-serialized payload
+     */
+    public static UserPayload user(String prefix, String job) {
+        return users(prefix, job, 1).get(0);
+    }
+
+    /**
+     * Creates payloads with consecutive unique names.
+     *
+     * @param prefix the name prefix, e.g. "Load"
+     * @param job    the job shared by all payloads
+     * @param count  the number of payloads
+     * @return the pre-serialized payloads
+     */
+    public static List<UserPayload> users(String prefix, String job, int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Count must not be negative, got " + count);
+        }
+        String namePrefix = prefix + "_" + RUN_ID + "_";
+        byte[] head = ("{\"name\":\"" + escape(namePrefix)).getBytes(StandardCharsets.UTF_8);
+        byte[] tail = ("\",\"job\":\"" + escape(job) + "\"}").getBytes(StandardCharsets.UTF_8);
+
+        long first = SEQUENCE.getAndAdd(count);
+        List<UserPayload> payloads = new ArrayList<>(count);
+        byte[] digits = new byte[20];
+        for (long sequence = first; sequence < first + count; sequence++) {
+            int length = writeDigits(sequence, digits);
+            byte[] json = new byte[head.length + length + tail.length];
+            System.arraycopy(head, 0, json, 0, head.length);
+            System.arraycopy(digits, digits.length - length, json, head.length, length);
+            System.arraycopy(tail, 0, json, head.length + length, tail.length);
+            payloads.add(new UserPayload(namePrefix + sequence, job, json));
+        }
+        return payloads;
+    }
+
+    /**
+     * Returns an endless, thread-safe source of unique payloads for load scenarios.
+     *
+     * <p>Each thread draws from its own pre-serialized batch and generates the next batch when it runs out.</p>
+     *
+     * @param prefix    the name prefix, e.g. "Load"
+     * @param job       the job shared by all payloads
+     * @param batchSize the number of payloads serialized at a time per thread
+     * @return the payload supplier
+     */
+    public static Supplier<UserPayload> supplier(String prefix, String job, int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive, got " + batchSize);
+        }
+        ThreadLocal<Iterator<UserPayload>> batch = ThreadLocal.withInitial(Collections::emptyIterator);
+        return () -> {
+            Iterator<UserPayload> payloads = batch.get();
+            if (!payloads.hasNext()) {
+                payloads = users(prefix, job, batchSize).iterator();
+                batch.set(payloads);
+            }
+            return payloads.next();
+        };
+    }
+
+    // Writes the decimal digits right-aligned into the buffer and returns their count
+    private static int writeDigits(long value, byte[] buffer) {
+        int position = buffer.length;
+        do {
+            buffer[--position] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value > 0);
+        return buffer.length - position;
+    }
+
+    static String escape(String value) {
+        StringBuilder sb = new StringBuilder(value.length() + 8);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c < 0x20) {
+                sb.append(String.format("\\u%04x", (int) c));
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
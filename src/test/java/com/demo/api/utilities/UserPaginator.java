@@ -0,0 +1,167 @@
+package com.demo.api.utilities;
+
+import com.demo.api.models.User;
+import com.demo.api.models.UserPage;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Lazy iterator over every user of the paginated {@code /api/users} endpoint.
+ *
+ * <p>The first page is fetched on the first call to {@link #hasNext()}; its {@code total_pages} field
+ * bounds the walk. While page N is being consumed, page N+1 is already being fetched in the background,
+ * so parsing and network time overlap. At most one page is fetched ahead: stopping early (e.g. with
+ * {@code findFirst()} or {@code limit()}) never downloads the rest of the dataset.</p>
+ *
+ * <p>Every page must answer {@code 200 OK}; otherwise an {@link IllegalStateException} is thrown.</p>
+ *
+ * <p>Usage example:</p>
+ * <pre>
+ *     try (Stream&lt;User&gt; users = UserPaginator.stream(withApiKey)) {
+ *         users.filter(u -&gt; "Emma".equals(u.getFirstName())).findFirst();
+ *     }
+ * </pre>
+ */
+public class UserPaginator implements Iterator<User>, AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(UserPaginator.class);
+
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+    private static final ExecutorService PREFETCH_EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "user-page-prefetch-" + THREAD_COUNT.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final RequestSpecification spec;
+    private final boolean prefetch;
+    private int totalPages = -1;
+    private int currentPage;
+    private Iterator<User> current = Collections.emptyIterator();
+    private CompletableFuture<Response> nextPage;
+    private boolean closed;
+
+    /**
+     * Creates a paginator.
+     *
+     * @param spec     the request specification (e.g., withApiKey)
+     * @param prefetch whether to fetch page N+1 in the background while page N is consumed
+     */
+    public UserPaginator(RequestSpecification spec, boolean prefetch) {
+        this.spec = spec;
+        this.prefetch = prefetch;
+    }
+
+    /**
+     * Returns a lazy, sequential stream of all users with next-page prefetch.
+     * Close the stream (or exhaust it) to discard a pending prefetch.
+     *
+     * @param spec the request specification (e.g., withApiKey)
+     * @return the stream of typed users from the {@code data} arrays
+     */
+    public static Stream<User> stream(RequestSpecification spec) {
+        UserPaginator paginator = new UserPaginator(spec, true);
+        return StreamSupport.stream(
+                        Spliterators.spliteratorUnknownSize(paginator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(paginator::close);
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (!current.hasNext()) {
+            if (closed || (totalPages >= 0 && currentPage >= totalPages)) {
+                return false;
+            }
+            advance();
+        }
+        return true;
+    }
+
+    @Override
+    public User next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return current.next();
+    }
+
+    /**
+     * Stops the walk and discards any page that is still being prefetched.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        if (nextPage != null) {
+            nextPage.cancel(false);
+            nextPage = null;
+        }
+    }
+
+    public int getTotalPages() {
+        return totalPages;
+    }
+
+    private void advance() {
+        int page = currentPage + 1;
+        Response response = nextPage != null ? await(nextPage) : UserApiHelper.listUsers(spec, page);
+        nextPage = null;
+
+        if (response.getStatusCode() != 200) {
+            throw new IllegalStateException("Expected 200 OK for users page " + page + " but got " + response.getStatusCode());
+        }
+        UserPage users = UserApiHelper.asUserPage(response);
+        if (totalPages < 0) {
+            totalPages = users.getTotalPages();
+            LOGGER.debug("Paginating over {} pages", totalPages);
+        }
+        currentPage = page;
+        if (prefetch && page < totalPages) {
+            nextPage = fetchAsync(page + 1);
+        }
+        current = users.getData().iterator();
+    }
+
+    private CompletableFuture<Response> fetchAsync(int page) {
+        Map<String, String> context = MDC.getCopyOfContextMap();
+        return CompletableFuture.supplyAsync(() -> {
+            if (context != null) {
+                MDC.setContextMap(context);
+            }
+            try {
+                return UserApiHelper.listUsers(spec, page);
+            } finally {
+                MDC.clear();
+            }
+        }, PREFETCH_EXECUTOR);
+    }
+
+    private static Response await(CompletableFuture<Response> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+}